@@ -3,13 +3,16 @@ package org.kasbench.globeco_trade_service;
 import org.kasbench.globeco_trade_service.dto.*;
 import org.kasbench.globeco_trade_service.entity.*;
 import org.kasbench.globeco_trade_service.service.ExecutionService;
+import org.kasbench.globeco_trade_service.config.ReplicaRead;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,6 +26,7 @@ public class ExecutionController {
     }
 
     @GetMapping
+    @ReplicaRead
     public ResponseEntity<List<ExecutionResponseDTO>> getAllExecutions(
             @RequestParam(required = false) Integer limit,
             @RequestParam(required = false) Integer offset) {
@@ -58,12 +62,21 @@ public class ExecutionController {
     }
 
     @GetMapping("/{id}")
+    @ReplicaRead
     public ResponseEntity<ExecutionResponseDTO> getExecutionById(@PathVariable Integer id) {
         Optional<Execution> execution = executionService.getExecutionById(id);
         return execution.map(e -> ResponseEntity.ok(toResponseDTO(e)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/by-service-id/{executionServiceId}")
+    @ReplicaRead
+    public ResponseEntity<ExecutionResponseDTO> getExecutionByServiceId(@PathVariable Integer executionServiceId) {
+        Optional<Execution> execution = executionService.getExecutionByServiceId(executionServiceId);
+        return execution.map(e -> ResponseEntity.ok(toResponseDTO(e)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<ExecutionResponseDTO> createExecution(@RequestBody ExecutionPostDTO dto) {
         Execution execution = fromPostDTO(dto);
@@ -85,10 +98,42 @@ public class ExecutionController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/fills")
+    public ResponseEntity<BulkExecutionFillResponseDTO> fillExecutions(
+            @Valid @RequestBody BulkExecutionFillRequestDTO request) {
+        List<ExecutionFillResultDTO> results = executionService.fillExecutions(request.getFills());
+        int successful = (int) results.stream()
+                .filter(result -> result.getStatus() == ExecutionFillResultDTO.ResultStatus.SUCCESS)
+                .count();
+        int failed = results.size() - successful;
+
+        BulkExecutionFillResponseDTO.BulkStatus status;
+        if (failed == 0) {
+            status = BulkExecutionFillResponseDTO.BulkStatus.SUCCESS;
+        } else if (successful == 0) {
+            status = BulkExecutionFillResponseDTO.BulkStatus.FAILURE;
+        } else {
+            status = BulkExecutionFillResponseDTO.BulkStatus.PARTIAL;
+        }
+        String message = String.format("Applied %d of %d fills", successful, results.size());
+        return ResponseEntity.ok(new BulkExecutionFillResponseDTO(
+                status, message, results.size(), successful, failed, results));
+    }
+
     @PutMapping("/{id}/fill")
     public ResponseEntity<?> fillExecution(@PathVariable Integer id, @RequestBody ExecutionPutFillDTO fillDTO) {
+        return fillResponse(() -> executionService.fillExecution(id, fillDTO));
+    }
+
+    @PutMapping("/by-service-id/{executionServiceId}/fill")
+    public ResponseEntity<?> fillExecutionByServiceId(@PathVariable Integer executionServiceId,
+            @RequestBody ExecutionPutFillDTO fillDTO) {
+        return fillResponse(() -> executionService.fillExecutionByServiceId(executionServiceId, fillDTO));
+    }
+
+    private ResponseEntity<?> fillResponse(Supplier<Execution> fill) {
         try {
-            Execution updated = executionService.fillExecution(id, fillDTO);
+            Execution updated = fill.get();
             return ResponseEntity.ok(toResponseDTO(updated));
         } catch (IllegalArgumentException e) {
             if (e.getMessage().contains("not found")) {
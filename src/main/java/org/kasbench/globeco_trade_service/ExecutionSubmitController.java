@@ -36,6 +36,14 @@ public class ExecutionSubmitController {
                 } else {
                     return ResponseEntity.status(404).body(java.util.Map.of("error", "Execution not found after submit"));
                 }
+            } else if ("queued".equals(result.getStatus())) {
+                // Accepted: the retry drainer submits the execution once the execution service is available
+                var opt = executionService.getExecutionById(id);
+                if (opt.isPresent()) {
+                    return ResponseEntity.accepted().body(executionController.toResponseDTO(opt.get()));
+                } else {
+                    return ResponseEntity.accepted().body(java.util.Map.of("status", "queued"));
+                }
             } else if (result.getError() != null) {
                 String error = result.getError();
                 if (error.contains("not found")) {
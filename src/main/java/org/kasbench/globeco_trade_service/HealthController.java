@@ -1,5 +1,8 @@
 package org.kasbench.globeco_trade_service;
 
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,16 +12,26 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/v1/health")
 public class HealthController {
+    private final ApplicationAvailability applicationAvailability;
+
+    public HealthController(ApplicationAvailability applicationAvailability) {
+        this.applicationAvailability = applicationAvailability;
+    }
+
     @GetMapping("/liveness")
     public ResponseEntity<Map<String, String>> liveness() {
         return ResponseEntity.ok(Map.of("status", "UP"));
     }
     @GetMapping("/readiness")
     public ResponseEntity<Map<String, String>> readiness() {
+        // Not ready until startup tasks such as cache warm-up have completed
+        if (applicationAvailability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "OUT_OF_SERVICE"));
+        }
         return ResponseEntity.ok(Map.of("status", "UP"));
     }
     @GetMapping("/startup")
     public ResponseEntity<Map<String, String>> startup() {
         return ResponseEntity.ok(Map.of("status", "UP"));
     }
-} 
\ No newline at end of file
+}
@@ -13,6 +13,8 @@ import org.kasbench.globeco_trade_service.dto.TradeOrderSubmitDTO;
 import org.kasbench.globeco_trade_service.entity.Execution;
 import org.kasbench.globeco_trade_service.dto.ExecutionResponseDTO;
 import org.kasbench.globeco_trade_service.service.ExecutionService;
+import org.kasbench.globeco_trade_service.service.ExecutionRetryQueue;
+import org.kasbench.globeco_trade_service.config.ReplicaRead;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -36,15 +38,19 @@ import java.util.stream.IntStream;
 public class TradeOrderController {
     private final TradeOrderService tradeOrderService;
     private final ExecutionService executionService;
+    private final ExecutionRetryQueue executionRetryQueue;
     private static final Logger logger = LoggerFactory.getLogger(TradeOrderController.class);
 
     @Autowired
-    public TradeOrderController(TradeOrderService tradeOrderService, ExecutionService executionService) {
+    public TradeOrderController(TradeOrderService tradeOrderService, ExecutionService executionService,
+            ExecutionRetryQueue executionRetryQueue) {
         this.tradeOrderService = tradeOrderService;
         this.executionService = executionService;
+        this.executionRetryQueue = executionRetryQueue;
     }
 
     @GetMapping
+    @ReplicaRead
     public ResponseEntity<List<TradeOrderResponseDTO>> getAllTradeOrders(
             @RequestParam(required = false) Integer limit,
             @RequestParam(required = false) Integer offset,
@@ -81,6 +87,7 @@ public class TradeOrderController {
     }
 
     @GetMapping("/{id}")
+    @ReplicaRead
     public ResponseEntity<TradeOrderResponseDTO> getTradeOrderById(@PathVariable Integer id) {
         Optional<TradeOrder> tradeOrder = tradeOrderService.getTradeOrderById(id);
         return tradeOrder.map(t -> ResponseEntity.ok(toResponseDTO(t)))
@@ -242,7 +249,11 @@ public class TradeOrderController {
             logger.debug("Returning ExecutionResponseDTO: {}", response);
 
             long responseCreationStartTime = System.currentTimeMillis();
-            ResponseEntity<ExecutionResponseDTO> responseEntity = new ResponseEntity<>(response, HttpStatus.CREATED);
+            // An execution queued for the retry drainer is kept and will be sent once the execution
+            // service is available, so the request is accepted rather than created
+            HttpStatus status = !noExecuteSubmit && execution.getExecutionServiceId() == null
+                    && executionRetryQueue.isQueued(execution.getId()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+            ResponseEntity<ExecutionResponseDTO> responseEntity = new ResponseEntity<>(response, status);
             long responseCreationEndTime = System.currentTimeMillis();
             logger.debug("(Trade Order Controller) Response entity creation completed for id={} in {} milliseconds",
                     id, (responseCreationEndTime - responseCreationStartTime));
@@ -309,6 +320,9 @@ public class TradeOrderController {
         dto.setSecurityId(tradeOrder.getSecurityId());
         dto.setQuantity(tradeOrder.getQuantity());
         dto.setQuantitySent(tradeOrder.getQuantitySent());
+        dto.setQuantityFilled(tradeOrder.getQuantityFilled());
+        dto.setPartFilledCount(tradeOrder.getPartFilledCount());
+        dto.setFullyFilledCount(tradeOrder.getFullyFilledCount());
         dto.setLimitPrice(tradeOrder.getLimitPrice());
         dto.setTradeTimestamp(tradeOrder.getTradeTimestamp());
         if (tradeOrder.getBlotter() != null) {
@@ -0,0 +1,614 @@
+package org.kasbench.globeco_trade_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * {@link Cache} implementation that keeps entries outside the Java heap, for caches sized at
+ * hundreds of thousands of entries without adding to GC work.
+ *
+ * <p>Each entry is serialized with an {@link OffHeapCodec} into a fixed-size slot of an
+ * {@link OffHeapSlab}. An on-heap open-addressing index (primitive arrays only) maps key hashes
+ * to slots, and a full cache evicts with the CLOCK algorithm. Entries expire a fixed time after
+ * they were written. Entries whose serialized form does not fit in a slot are not cached.
+ *
+ * <p>Reads run concurrently under a read lock; writes are serialized. {@link #get(String, Function)}
+ * does not block other callers loading the same key.
+ */
+public class OffHeapCache<V> implements Cache<String, V>, AutoCloseable {
+
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+
+    private final OffHeapSlab slab;
+    private final OffHeapCodec<V> codec;
+    private final long expireAfterWriteNanos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Index: slot + 1 per position (EMPTY / TOMBSTONE otherwise) and the key hash stored there
+    private final int[] indexSlots;
+    private final int[] indexHashes;
+    private final int indexMask;
+    private int tombstones;
+
+    // Per-slot state
+    private final int[] slotPositions;
+    private final long[] slotWrittenAt;
+    private final byte[] slotReferenced;
+    private final int[] freeSlots;
+    private int freeCount;
+    private int clockHand;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private final MapView mapView = new MapView();
+
+    public OffHeapCache(int maximumSize, int slotBytes, Duration expireAfterWrite, OffHeapCodec<V> codec) {
+        this.slab = new OffHeapSlab(maximumSize, slotBytes);
+        this.codec = codec;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+
+        int indexCapacity = Integer.highestOneBit(Math.max(2, maximumSize) * 2 - 1) << 1;
+        this.indexSlots = new int[indexCapacity];
+        this.indexHashes = new int[indexCapacity];
+        this.indexMask = indexCapacity - 1;
+
+        this.slotPositions = new int[maximumSize];
+        this.slotWrittenAt = new long[maximumSize];
+        this.slotReferenced = new byte[maximumSize];
+        this.freeSlots = new int[maximumSize];
+        for (int i = 0; i < maximumSize; i++) {
+            freeSlots[i] = maximumSize - 1 - i;
+            slotPositions[i] = -1;
+        }
+        this.freeCount = maximumSize;
+    }
+
+    @Override
+    public V getIfPresent(String key) {
+        Objects.requireNonNull(key);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(keyBytes);
+        boolean expired = false;
+
+        lock.readLock().lock();
+        try {
+            int position = find(keyBytes, hash);
+            if (position >= 0) {
+                int slot = indexSlots[position] - 1;
+                if (isExpired(slot)) {
+                    expired = true;
+                } else {
+                    slotReferenced[slot] = 1;
+                    hits.increment();
+                    return decodeValue(slab.read(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        misses.increment();
+        if (expired) {
+            removeIfExpired(keyBytes, hash);
+        }
+        return null;
+    }
+
+    @Override
+    public V get(String key, Function<? super String, ? extends V> mappingFunction) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, V> getAllPresent(Iterable<? extends String> keys) {
+        Map<String, V> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, V> getAll(Iterable<? extends String> keys,
+                                 Function<? super Set<? extends String>, ? extends Map<? extends String, ? extends V>> mappingFunction) {
+        Map<String, V> result = getAllPresent(keys);
+        Set<String> missing = new HashSet<>();
+        for (String key : keys) {
+            if (!result.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<? extends String, ? extends V> loaded = mappingFunction.apply(missing);
+            putAll(loaded);
+            for (String key : missing) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String key, V value) {
+        store(key, value, false);
+    }
+
+    /**
+     * Store the value unless a live entry exists for the key
+     * @return the existing value, or null if the value was stored
+     */
+    public V putIfAbsent(String key, V value) {
+        return store(key, value, true);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        Objects.requireNonNull(key);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            int position = find(keyBytes, hash);
+            if (position >= 0) {
+                release(indexSlots[position] - 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll(Iterable<? extends String> keys) {
+        keys.forEach(this::invalidate);
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(indexSlots, EMPTY);
+            tombstones = 0;
+            freeCount = 0;
+            for (int slot = slotPositions.length - 1; slot >= 0; slot--) {
+                slotPositions[slot] = -1;
+                slotReferenced[slot] = 0;
+                freeSlots[freeCount++] = slot;
+            }
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long estimatedSize() {
+        return size;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return CacheStats.of(hits.sum(), misses.sum(), 0, 0, 0, evictions.sum(), evictions.sum());
+    }
+
+    /**
+     * Number of values not cached because their serialized form exceeds the slot size
+     */
+    public long rejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Native memory reserved for entries
+     */
+    public long offHeapBytes() {
+        return slab.byteSize();
+    }
+
+    @Override
+    public ConcurrentMap<String, V> asMap() {
+        return mapView;
+    }
+
+    @Override
+    public void cleanUp() {
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < slotPositions.length; slot++) {
+                if (slotPositions[slot] >= 0 && isExpired(slot)) {
+                    release(slot);
+                }
+            }
+            rebuildIndexIfNeeded(true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Policy<String, V> policy() {
+        return new Policy<>() {
+            @Override
+            public boolean isRecordingStats() {
+                return true;
+            }
+
+            @Override
+            public V getIfPresentQuietly(String key) {
+                return peek(key);
+            }
+
+            @Override
+            public Map<String, CompletableFuture<V>> refreshes() {
+                return Map.of();
+            }
+
+            @Override
+            public Optional<Eviction<String, V>> eviction() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<FixedExpiration<String, V>> expireAfterAccess() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<FixedExpiration<String, V>> expireAfterWrite() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<VarExpiration<String, V>> expireVariably() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<FixedRefresh<String, V>> refreshAfterWrite() {
+                return Optional.empty();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            slab.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private V store(String key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = codec.encode(value);
+        int hash = hash(keyBytes);
+
+        byte[] record = ByteBuffer.allocate(Integer.BYTES + keyBytes.length + valueBytes.length)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .put(valueBytes)
+                .array();
+
+        lock.writeLock().lock();
+        try {
+            int position = find(keyBytes, hash);
+            if (position >= 0) {
+                int slot = indexSlots[position] - 1;
+                if (onlyIfAbsent && !isExpired(slot)) {
+                    return decodeValue(slab.read(slot));
+                }
+                if (record.length > slab.maxRecordBytes()) {
+                    // Do not leave a stale value behind for a key whose new value cannot be stored
+                    release(slot);
+                    rejections.increment();
+                    return null;
+                }
+                writeSlot(slot, record);
+                return null;
+            }
+            if (record.length > slab.maxRecordBytes()) {
+                rejections.increment();
+                return null;
+            }
+
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : evictOne();
+            writeSlot(slot, record);
+            position = insertPosition(hash);
+            if (indexSlots[position] == TOMBSTONE) {
+                tombstones--;
+            }
+            indexSlots[position] = slot + 1;
+            indexHashes[position] = hash;
+            slotPositions[slot] = position;
+            size++;
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeIfExpired(byte[] keyBytes, int hash) {
+        lock.writeLock().lock();
+        try {
+            // Re-checked under the write lock: the entry may have been rewritten meanwhile
+            int position = find(keyBytes, hash);
+            if (position >= 0 && isExpired(indexSlots[position] - 1)) {
+                release(indexSlots[position] - 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private V peek(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int position = find(keyBytes, hash(keyBytes));
+            if (position < 0) {
+                return null;
+            }
+            int slot = indexSlots[position] - 1;
+            return isExpired(slot) ? null : decodeValue(slab.read(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void writeSlot(int slot, byte[] record) {
+        slab.write(slot, record);
+        slotWrittenAt[slot] = System.nanoTime();
+        slotReferenced[slot] = 1;
+    }
+
+    /**
+     * CLOCK: sweep the slots, giving referenced entries a second chance, and evict the
+     * first unreferenced (or expired) entry. Called with the write lock held and no free slot.
+     */
+    private int evictOne() {
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % slotPositions.length;
+            if (slotReferenced[slot] != 0 && !isExpired(slot)) {
+                slotReferenced[slot] = 0;
+                continue;
+            }
+            release(slot);
+            evictions.increment();
+            // release() returned the slot to the free list; take it back
+            freeCount--;
+            return slot;
+        }
+    }
+
+    private void release(int slot) {
+        int position = slotPositions[slot];
+        indexSlots[position] = TOMBSTONE;
+        tombstones++;
+        slotPositions[slot] = -1;
+        slotReferenced[slot] = 0;
+        freeSlots[freeCount++] = slot;
+        size--;
+        rebuildIndexIfNeeded(false);
+    }
+
+    private void rebuildIndexIfNeeded(boolean force) {
+        if (!force && tombstones < indexSlots.length / 4) {
+            return;
+        }
+        int[] hashes = Arrays.copyOf(indexHashes, indexHashes.length);
+        int[] slots = Arrays.copyOf(indexSlots, indexSlots.length);
+        Arrays.fill(indexSlots, EMPTY);
+        tombstones = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] > 0) {
+                int position = insertPosition(hashes[i]);
+                indexSlots[position] = slots[i];
+                indexHashes[position] = hashes[i];
+                slotPositions[slots[i] - 1] = position;
+            }
+        }
+    }
+
+    private int find(byte[] keyBytes, int hash) {
+        int position = hash & indexMask;
+        for (int probes = 0; probes < indexSlots.length; probes++) {
+            int entry = indexSlots[position];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry > 0 && indexHashes[position] == hash && keyMatches(entry - 1, keyBytes)) {
+                return position;
+            }
+            position = (position + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    private int insertPosition(int hash) {
+        int position = hash & indexMask;
+        while (indexSlots[position] > 0) {
+            position = (position + 1) & indexMask;
+        }
+        return position;
+    }
+
+    private boolean keyMatches(int slot, byte[] keyBytes) {
+        byte[] record = slab.read(slot);
+        int keyLength = ByteBuffer.wrap(record).getInt();
+        return keyLength == keyBytes.length
+                && Arrays.equals(record, Integer.BYTES, Integer.BYTES + keyLength, keyBytes, 0, keyBytes.length);
+    }
+
+    private boolean isExpired(int slot) {
+        return System.nanoTime() - slotWrittenAt[slot] > expireAfterWriteNanos;
+    }
+
+    private V decodeValue(byte[] record) {
+        int keyLength = ByteBuffer.wrap(record).getInt();
+        int valueOffset = Integer.BYTES + keyLength;
+        return codec.decode(record, valueOffset, record.length - valueOffset);
+    }
+
+    private String decodeKey(byte[] record) {
+        int keyLength = ByteBuffer.wrap(record).getInt();
+        return new String(record, Integer.BYTES, keyLength, StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int hash = Arrays.hashCode(keyBytes);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Map view over the cache. Iteration works on a snapshot of the live entries.
+     */
+    private final class MapView extends AbstractMap<String, V> implements ConcurrentMap<String, V> {
+
+        @Override
+        public V get(Object key) {
+            return key instanceof String ? getIfPresent((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && peek((String) key) != null;
+        }
+
+        @Override
+        public V put(String key, V value) {
+            V previous = peek(key);
+            OffHeapCache.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public V putIfAbsent(String key, V value) {
+            return OffHeapCache.this.putIfAbsent(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            V previous = peek((String) key);
+            invalidate((String) key);
+            return previous;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            lock.writeLock().lock();
+            try {
+                if (key instanceof String && value != null && value.equals(peek((String) key))) {
+                    invalidate((String) key);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean replace(String key, V oldValue, V newValue) {
+            lock.writeLock().lock();
+            try {
+                if (oldValue.equals(peek(key))) {
+                    OffHeapCache.this.put(key, newValue);
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public V replace(String key, V value) {
+            lock.writeLock().lock();
+            try {
+                V previous = peek(key);
+                if (previous != null) {
+                    OffHeapCache.this.put(key, value);
+                }
+                return previous;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            return (int) estimatedSize();
+        }
+
+        @Override
+        public void clear() {
+            invalidateAll();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            Map<String, V> snapshot = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                for (int slot = 0; slot < slotPositions.length; slot++) {
+                    if (slotPositions[slot] >= 0 && !isExpired(slot)) {
+                        byte[] record = slab.read(slot);
+                        snapshot.put(decodeKey(record), decodeValue(record));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return snapshot.entrySet();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.kasbench.globeco_trade_service.cache;
+
+/**
+ * Compact binary form of cache values stored by {@link OffHeapCache}
+ */
+public interface OffHeapCodec<V> {
+
+    byte[] encode(V value);
+
+    V decode(byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,59 @@
+package org.kasbench.globeco_trade_service.cache;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Fixed-size slots in a single native memory segment. Each slot holds a length-prefixed
+ * record; the segment is freed when the slab is closed.
+ */
+final class OffHeapSlab implements AutoCloseable {
+
+    private static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int slotBytes;
+    private final int slotCount;
+
+    OffHeapSlab(int slotCount, int slotBytes) {
+        if (slotBytes <= LENGTH_PREFIX_BYTES) {
+            throw new IllegalArgumentException("Slot size must exceed " + LENGTH_PREFIX_BYTES + " bytes");
+        }
+        this.arena = Arena.ofShared();
+        this.segment = arena.allocate((long) slotCount * slotBytes, Long.BYTES);
+        this.slotBytes = slotBytes;
+        this.slotCount = slotCount;
+    }
+
+    int slotCount() {
+        return slotCount;
+    }
+
+    int maxRecordBytes() {
+        return slotBytes - LENGTH_PREFIX_BYTES;
+    }
+
+    long byteSize() {
+        return segment.byteSize();
+    }
+
+    void write(int slot, byte[] record) {
+        long offset = (long) slot * slotBytes;
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, offset, record.length);
+        MemorySegment.copy(record, 0, segment, ValueLayout.JAVA_BYTE, offset + LENGTH_PREFIX_BYTES, record.length);
+    }
+
+    byte[] read(int slot) {
+        long offset = (long) slot * slotBytes;
+        byte[] record = new byte[segment.get(ValueLayout.JAVA_INT_UNALIGNED, offset)];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset + LENGTH_PREFIX_BYTES, record, 0, record.length);
+        return record;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,87 @@
+package org.kasbench.globeco_trade_service.cache;
+
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Codecs for the security and portfolio DTOs: two short length-prefixed UTF-8 strings
+ * (a length of -1 encodes null).
+ */
+public final class ReferenceDtoCodecs {
+
+    public static final OffHeapCodec<SecurityDTO> SECURITY =
+            new PairCodec<>(SecurityDTO::getSecurityId, SecurityDTO::getTicker, SecurityDTO::new);
+
+    public static final OffHeapCodec<PortfolioDTO> PORTFOLIO =
+            new PairCodec<>(PortfolioDTO::getPortfolioId, PortfolioDTO::getName, PortfolioDTO::new);
+
+    private ReferenceDtoCodecs() {
+    }
+
+    private static final class PairCodec<V> implements OffHeapCodec<V> {
+        private final Function<V, String> first;
+        private final Function<V, String> second;
+        private final BiFunction<String, String, V> factory;
+
+        PairCodec(Function<V, String> first, Function<V, String> second, BiFunction<String, String, V> factory) {
+            this.first = first;
+            this.second = second;
+            this.factory = factory;
+        }
+
+        @Override
+        public byte[] encode(V value) {
+            byte[] a = utf8(first.apply(value));
+            byte[] b = utf8(second.apply(value));
+            ByteBuffer buffer = ByteBuffer.allocate(2 * Short.BYTES + length(a) + length(b));
+            put(buffer, a);
+            put(buffer, b);
+            return buffer.array();
+        }
+
+        @Override
+        public V decode(byte[] bytes, int offset, int length) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            return factory.apply(get(buffer), get(buffer));
+        }
+
+        private static byte[] utf8(String value) {
+            if (value == null) {
+                return null;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Value too long for off-heap cache: " + bytes.length + " bytes");
+            }
+            return bytes;
+        }
+
+        private static int length(byte[] bytes) {
+            return bytes == null ? 0 : bytes.length;
+        }
+
+        private static void put(ByteBuffer buffer, byte[] bytes) {
+            if (bytes == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        private static String get(ByteBuffer buffer) {
+            short length = buffer.getShort();
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+    }
+}
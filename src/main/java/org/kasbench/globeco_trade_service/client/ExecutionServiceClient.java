@@ -1,5 +1,7 @@
 package org.kasbench.globeco_trade_service.client;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.kasbench.globeco_trade_service.dto.ExecutionServiceBatchRequestDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionServiceBatchResponseDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionServiceResultDTO;
@@ -21,6 +23,8 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,26 +34,41 @@ import java.util.stream.Collectors;
  * API.
  * Handles batch submissions using the POST /api/v1/executions/batch endpoint
  * with comprehensive error handling and retry logic.
+ * Every attempt goes through the execution service circuit breaker; while it is open,
+ * submissions fail fast with {@link CallNotPermittedException} instead of retrying.
  */
 @Component
 public class ExecutionServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ExecutionServiceClient.class);
 
+    private static final RetryTemplate SINGLE_ATTEMPT = RetryTemplate.builder().maxAttempts(1).build();
+
     private final RestTemplate restTemplate;
     private final RetryTemplate retryTemplate;
     private final String executionServiceBaseUrl;
     private final BulkExecutionErrorHandler errorHandler;
+    private final CircuitBreaker circuitBreaker;
 
     public ExecutionServiceClient(
             @Qualifier("executionServiceRestTemplate") RestTemplate restTemplate,
             @Qualifier("executionServiceRetryTemplate") RetryTemplate retryTemplate,
             @Value("${execution.service.base-url:http://globeco-execution-service:8084}") String executionServiceBaseUrl,
-            BulkExecutionErrorHandler errorHandler) {
+            BulkExecutionErrorHandler errorHandler,
+            @Qualifier("executionServiceCircuitBreaker") CircuitBreaker circuitBreaker) {
         this.restTemplate = restTemplate;
         this.retryTemplate = retryTemplate;
         this.executionServiceBaseUrl = executionServiceBaseUrl;
         this.errorHandler = errorHandler;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Whether the execution service circuit breaker is anything but closed. Callers should
+     * queue work instead of retrying in-line while this is true.
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.getState() != CircuitBreaker.State.CLOSED;
     }
 
     /**
@@ -61,6 +80,20 @@ public class ExecutionServiceClient {
      * @throws ExecutionServiceException if the submission fails after all retries
      */
     public BatchExecutionResponseDTO submitBatch(ExecutionServiceBatchRequestDTO request) {
+        return submitBatch(request, retryTemplate);
+    }
+
+    /**
+     * Submits a batch of executions with a single attempt, for callers that retry failed
+     * executions themselves, so a logical submission is retried by one layer only.
+     *
+     * @throws ExecutionServiceException if the attempt fails
+     */
+    public BatchExecutionResponseDTO submitBatchOnce(ExecutionServiceBatchRequestDTO request) {
+        return submitBatch(request, SINGLE_ATTEMPT);
+    }
+
+    private BatchExecutionResponseDTO submitBatch(ExecutionServiceBatchRequestDTO request, RetryTemplate attempts) {
         if (request == null || request.getExecutions() == null || request.getExecutions().isEmpty()) {
             throw new IllegalArgumentException("Batch request cannot be null or empty");
         }
@@ -75,7 +108,7 @@ public class ExecutionServiceClient {
         Map<String, Object> executionContext = errorHandler.createExecutionContext(executionIds, batchSize, 1);
 
         try {
-            BatchExecutionResponseDTO response = retryTemplate.execute(context -> {
+            BatchExecutionResponseDTO response = attempts.execute(context -> {
                 int attemptNumber = context.getRetryCount() + 1;
                 logger.debug("Attempting batch execution submission (attempt {}) for executions: {}",
                         attemptNumber, executionIds.size() <= 5 ? executionIds : executionIds.size() + " executions");
@@ -83,7 +116,9 @@ public class ExecutionServiceClient {
                 // Update attempt number in context
                 Map<String, Object> attemptContext = errorHandler.createExecutionContext(executionIds, batchSize,
                         attemptNumber);
-                return executeSubmitBatch(request, batchSize, executionIds, attemptContext);
+                // Not retried when the breaker rejects the call, so an open circuit fails fast
+                return circuitBreaker.executeSupplier(
+                        () -> executeSubmitBatch(request, batchSize, executionIds, attemptContext));
             });
 
             long duration = System.currentTimeMillis() - startTime;
@@ -93,6 +128,9 @@ public class ExecutionServiceClient {
             logBatchResults(response, batchSize, executionIds);
             return response;
 
+        } catch (CallNotPermittedException ex) {
+            logger.debug("Execution service circuit is open, rejected batch of {} executions", batchSize);
+            throw ex;
         } catch (Exception ex) {
             long duration = System.currentTimeMillis() - startTime;
 
@@ -122,6 +160,32 @@ public class ExecutionServiceClient {
         }
     }
 
+    /**
+     * Current state of the given executions as the execution service sees them, keyed by execution
+     * service ID. The execution service has no multi-ID lookup, so each execution is read with
+     * GET /api/v1/execution/{id}; executions it does not know are left out of the result.
+     * Calls go through the circuit breaker but are not retried: callers reconcile again on their next run.
+     */
+    public Map<Integer, ExecutionServiceResponseDTO> getExecutions(Collection<Integer> executionServiceIds) {
+        String url = executionServiceBaseUrl + "/api/v1/execution/{id}";
+        Map<Integer, ExecutionServiceResponseDTO> executions = new LinkedHashMap<>();
+        for (Integer executionServiceId : executionServiceIds) {
+            ExecutionServiceResponseDTO execution = circuitBreaker.executeSupplier(() -> {
+                try {
+                    return restTemplate.getForObject(url, ExecutionServiceResponseDTO.class, executionServiceId);
+                } catch (HttpClientErrorException.NotFound ex) {
+                    // An unknown execution is an answer, not a failure of the execution service
+                    return null;
+                }
+            });
+            if (execution != null) {
+                executions.put(executionServiceId, execution);
+            }
+        }
+        logger.debug("Read {} of {} executions from the execution service", executions.size(), executionServiceIds.size());
+        return executions;
+    }
+
     /**
      * Executes the actual batch submission API call.
      */
@@ -3,6 +3,8 @@ package org.kasbench.globeco_trade_service.client;
 import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +25,7 @@ public class PortfolioServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(PortfolioServiceClient.class);
     
     private final RestTemplate restTemplate;
+    private final RequestHedger hedger;
     
     @Value("${external.portfolio-service.base-url:http://globeco-portfolio-service:8000}")
     private String portfolioServiceBaseUrl;
@@ -31,7 +34,13 @@ public class PortfolioServiceClient {
     private int timeoutMs;
     
     public PortfolioServiceClient(RestTemplate restTemplate) {
+        this(restTemplate, RequestHedger.disabled());
+    }
+    
+    @Autowired
+    public PortfolioServiceClient(RestTemplate restTemplate, @Qualifier("portfolioServiceHedger") RequestHedger hedger) {
         this.restTemplate = restTemplate;
+        this.hedger = hedger;
     }
     
     /**
@@ -45,6 +54,10 @@ public class PortfolioServiceClient {
     //     backoff = @Backoff(delay = 1000, multiplier = 2)
     // )
     public Optional<PortfolioDTO> findPortfolioByName(String name) {
+        return hedger.execute(() -> fetchPortfolioByName(name));
+    }
+    
+    private Optional<PortfolioDTO> fetchPortfolioByName(String name) {
         if (name == null || name.trim().isEmpty()) {
             logger.warn("findPortfolioByName called with null or empty name");
             return Optional.empty();
@@ -108,6 +121,10 @@ public class PortfolioServiceClient {
     //     backoff = @Backoff(delay = 1000, multiplier = 2)
     // )
     public Optional<PortfolioDTO> findPortfolioById(String portfolioId) {
+        return hedger.execute(() -> fetchPortfolioById(portfolioId));
+    }
+    
+    private Optional<PortfolioDTO> fetchPortfolioById(String portfolioId) {
         if (portfolioId == null || portfolioId.trim().isEmpty()) {
             logger.warn("findPortfolioById called with null or empty portfolioId");
             return Optional.empty();
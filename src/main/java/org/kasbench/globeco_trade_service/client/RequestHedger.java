@@ -0,0 +1,283 @@
+package org.kasbench.globeco_trade_service.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent lookups against one downstream service. The primary request runs on the
+ * calling thread; if it has not answered by the downstream's recently observed p95 latency, a
+ * second identical request is fired on the hedge executor and whichever answers first wins.
+ * A winning hedge interrupts the primary's blocking call and a winning primary cancels the hedge,
+ * so the losing HTTP request is aborted; interrupting the caller aborts both.
+ * <p>
+ * Hedges are paid for from a budget that every primary request tops up by {@code budgetRatio}
+ * of a hedge, which caps the extra load at that ratio. No hedges are fired until enough latency
+ * samples have been observed, or while the downstream's circuit breaker is not closed.
+ */
+public class RequestHedger {
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final long TOKEN_SCALE = 1000;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final String downstream;
+    private final boolean enabled;
+    private final CircuitBreaker circuitBreaker;
+    private final Executor executor;
+    private final long creditPerRequest;
+    private final long maxTokens;
+    private final long minDelayNanos;
+    private final int minSamples;
+
+    // Ring buffer of recent primary latencies, from which the hedge delay is recomputed
+    private final long[] samples;
+    private final AtomicLong sampleCount = new AtomicLong();
+    private volatile long hedgeDelayNanos = -1;
+
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    public RequestHedger(String downstream, boolean enabled, CircuitBreaker circuitBreaker, Executor executor,
+                         MeterRegistry meterRegistry, double budgetRatio, int maxBurst,
+                         Duration minDelay, int sampleWindow, int minSamples) {
+        this.downstream = downstream;
+        this.enabled = enabled;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.creditPerRequest = Math.round(budgetRatio * TOKEN_SCALE);
+        this.maxTokens = maxBurst * TOKEN_SCALE;
+        this.minDelayNanos = minDelay.toNanos();
+        this.samples = new long[sampleWindow];
+        this.minSamples = Math.min(minSamples, sampleWindow);
+
+        this.hedgesFired = Counter.builder("external.hedge.fired")
+                .description("Hedged requests fired because the primary exceeded the downstream p95")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("external.hedge.won")
+                .description("Hedged requests that answered before the primary")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        this.hedgesDenied = Counter.builder("external.hedge.denied")
+                .description("Hedges skipped because the hedge budget was exhausted or the circuit breaker was not closed")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        Gauge.builder("external.hedge.delay", this, hedger -> Math.max(0, hedger.hedgeDelayNanos) / 1_000_000.0)
+                .description("Current hedge delay (observed p95) in milliseconds")
+                .tag("downstream", downstream)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A hedger that always calls through directly, for clients constructed outside Spring
+     */
+    public static RequestHedger disabled() {
+        return new RequestHedger("disabled", false, null, Runnable::run, new SimpleMeterRegistry(),
+                0, 0, Duration.ZERO, 1, 1);
+    }
+
+    /**
+     * Run a lookup, hedging it if it is slower than the observed p95. Runtime exceptions of the
+     * lookup are rethrown unchanged when every attempt failed.
+     */
+    public <T> T execute(Supplier<T> lookup) {
+        if (!enabled) {
+            return lookup.get();
+        }
+        credit();
+
+        long start = System.nanoTime();
+        long delay = hedgeDelayNanos;
+        if (delay < 0) {
+            T value = lookup.get();
+            recordLatency(System.nanoTime() - start);
+            return value;
+        }
+
+        HedgedCall<T> call = new HedgedCall<>(lookup, Thread.currentThread());
+        CompletableFuture<Void> hedgeTimer = new CompletableFuture<>();
+        hedgeTimer.completeOnTimeout(null, delay, TimeUnit.NANOSECONDS).thenRun(call::fireHedge);
+        T value = null;
+        RuntimeException failure = null;
+        try {
+            value = lookup.get();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            hedgeTimer.cancel(false);
+        }
+
+        boolean hedgeWon = call.primaryFinished();
+        if (failure == null || hedgeWon) {
+            // Slow primaries that lost to a hedge still count, or the p95 would drift down
+            recordLatency(System.nanoTime() - start);
+        }
+        if (hedgeWon) {
+            // Whatever the interrupted primary returned or threw is discarded
+            hedgesWon.increment();
+            return call.hedgeResult.join();
+        }
+        if (failure == null) {
+            call.cancelHedge();
+            return value;
+        }
+        return call.awaitHedge(failure);
+    }
+
+    private void credit() {
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + creditPerRequest));
+    }
+
+    private boolean permitHedge() {
+        if (circuitBreaker != null && circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            hedgesDenied.increment();
+            return false;
+        }
+        long remaining = tokens.getAndUpdate(current -> current >= TOKEN_SCALE ? current - TOKEN_SCALE : current);
+        if (remaining < TOKEN_SCALE) {
+            hedgesDenied.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Unsynchronized writes may occasionally lose a sample, which is harmless for a percentile estimate
+    private void recordLatency(long nanos) {
+        long count = sampleCount.getAndIncrement();
+        samples[(int) (count % samples.length)] = nanos;
+        if (count + 1 >= minSamples && (count + 1) % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(samples, (int) Math.min(count + 1, samples.length));
+            Arrays.sort(window);
+            long p95 = window[(int) Math.ceil(window.length * 0.95) - 1];
+            hedgeDelayNanos = Math.max(minDelayNanos, p95);
+        }
+    }
+
+    long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * One hedged lookup: the primary on the caller's thread and at most one hedge on the executor
+     */
+    private final class HedgedCall<T> {
+        private final Supplier<T> lookup;
+        private final CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+
+        // Guarded by this
+        private Thread caller;
+        private FutureTask<Void> hedge;
+        private boolean primaryDone;
+        private boolean hedgeWon;
+        private boolean callerInterrupted;
+
+        private HedgedCall(Supplier<T> lookup, Thread caller) {
+            this.lookup = lookup;
+            this.caller = caller;
+        }
+
+        /**
+         * Run by the hedge timer once the primary has been outstanding for the hedge delay
+         */
+        private void fireHedge() {
+            FutureTask<Void> task = new FutureTask<>(this::runHedge, null);
+            synchronized (this) {
+                if (primaryDone || !permitHedge()) {
+                    return;
+                }
+                hedge = task;
+            }
+            try {
+                executor.execute(task);
+                hedgesFired.increment();
+                logger.debug("Hedged {} lookup after {} ms", downstream, TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+            } catch (RejectedExecutionException e) {
+                // Executor saturated; the primary answers alone
+                hedgeResult.completeExceptionally(e);
+            }
+        }
+
+        private void runHedge() {
+            T value;
+            try {
+                value = lookup.get();
+            } catch (RuntimeException e) {
+                hedgeResult.completeExceptionally(e);
+                return;
+            }
+            hedgeResult.complete(value);
+            synchronized (this) {
+                if (!primaryDone) {
+                    hedgeWon = true;
+                    callerInterrupted = true;
+                    caller.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Mark the primary finished and clear the interrupt a winning hedge sent to stop it
+         * @return whether the hedge answered first
+         */
+        private synchronized boolean primaryFinished() {
+            primaryDone = true;
+            caller = null;
+            if (callerInterrupted) {
+                Thread.interrupted();
+            }
+            return hedgeWon;
+        }
+
+        private void cancelHedge() {
+            FutureTask<Void> outstanding;
+            synchronized (this) {
+                outstanding = hedge;
+            }
+            if (outstanding != null) {
+                outstanding.cancel(true);
+            }
+        }
+
+        /**
+         * The primary failed; answer with the hedge if one was fired and succeeds
+         */
+        private T awaitHedge(RuntimeException primaryFailure) {
+            synchronized (this) {
+                if (hedge == null) {
+                    throw primaryFailure;
+                }
+            }
+            try {
+                T value = hedgeResult.get();
+                hedgesWon.increment();
+                return value;
+            } catch (InterruptedException e) {
+                cancelHedge();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for " + downstream + " lookup", e);
+            } catch (ExecutionException e) {
+                throw primaryFailure;
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package org.kasbench.globeco_trade_service.client;
 import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +24,7 @@ public class SecurityServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(SecurityServiceClient.class);
     
     private final RestTemplate restTemplate;
+    private final RequestHedger hedger;
     
     @Value("${external.security-service.base-url:http://globeco-security-service:8000}")
     private String securityServiceBaseUrl;
@@ -30,7 +33,13 @@ public class SecurityServiceClient {
     private int timeoutMs;
     
     public SecurityServiceClient(RestTemplate restTemplate) {
+        this(restTemplate, RequestHedger.disabled());
+    }
+    
+    @Autowired
+    public SecurityServiceClient(RestTemplate restTemplate, @Qualifier("securityServiceHedger") RequestHedger hedger) {
         this.restTemplate = restTemplate;
+        this.hedger = hedger;
     }
     
     /**
@@ -44,6 +53,10 @@ public class SecurityServiceClient {
     //     backoff = @Backoff(delay = 1000, multiplier = 2)
     // )
     public Optional<SecurityDTO> findSecurityByTicker(String ticker) {
+        return hedger.execute(() -> fetchSecurityByTicker(ticker));
+    }
+    
+    private Optional<SecurityDTO> fetchSecurityByTicker(String ticker) {
         if (ticker == null || ticker.trim().isEmpty()) {
             logger.warn("findSecurityByTicker called with null or empty ticker");
             return Optional.empty();
@@ -104,6 +117,10 @@ public class SecurityServiceClient {
     //     backoff = @Backoff(delay = 1000, multiplier = 2)
     // )
     public Optional<SecurityDTO> findSecurityById(String securityId) {
+        return hedger.execute(() -> fetchSecurityById(securityId));
+    }
+    
+    private Optional<SecurityDTO> fetchSecurityById(String securityId) {
         if (securityId == null || securityId.trim().isEmpty()) {
             logger.warn("findSecurityById called with null or empty securityId");
             return Optional.empty();
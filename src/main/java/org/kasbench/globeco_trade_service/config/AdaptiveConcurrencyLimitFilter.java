@@ -0,0 +1,136 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Servlet filter that sheds load before it reaches the worker threads and the connection pool.
+ * API requests are split into endpoint classes, each with its own {@link AdaptiveConcurrencyLimiter};
+ * requests over the current limit are answered immediately with 503 and a {@code Retry-After}
+ * header instead of queueing behind the database. Health, actuator and documentation endpoints
+ * are never limited, and neither are requests admitted to a priority bulkhead lane.
+ * <p>
+ * Records:
+ * - http.concurrency.limit (Gauge) - current limit per endpoint class
+ * - http.concurrency.in_flight (Gauge) - admitted requests in progress per endpoint class
+ * - http.concurrency.rejected (Counter) - requests shed per endpoint class
+ */
+public class AdaptiveConcurrencyLimitFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimitFilter.class);
+
+    static final String V2_QUERY = "v2-query";
+    static final String QUERY = "query";
+    static final String COMMAND = "command";
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new LinkedHashMap<>();
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final int poolWaitThreshold;
+    private final int retryAfterSeconds;
+
+    public AdaptiveConcurrencyLimitFilter(Supplier<AdaptiveConcurrencyLimiter> limiterFactory,
+                                          ConnectionPoolMonitor connectionPoolMonitor,
+                                          MeterRegistry meterRegistry,
+                                          int poolWaitThreshold,
+                                          int retryAfterSeconds) {
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.poolWaitThreshold = poolWaitThreshold;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        for (String endpointClass : new String[] {V2_QUERY, QUERY, COMMAND}) {
+            AdaptiveConcurrencyLimiter limiter = limiterFactory.get();
+            limiters.put(endpointClass, limiter);
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", endpointClass)
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Admitted requests in progress")
+                    .tag("class", endpointClass)
+                    .register(meterRegistry);
+            rejectedCounters.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                    .description("Requests rejected by the adaptive concurrency limit")
+                    .tag("class", endpointClass)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!(request instanceof HttpServletRequest httpRequest) || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String endpointClass = classify(httpRequest);
+        if (endpointClass == null || isPriorityLane(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            reject(httpResponse, endpointClass, limiter);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - startTime,
+                    connectionPoolMonitor.getThreadsAwaitingConnection() > poolWaitThreshold);
+        }
+    }
+
+    /**
+     * Endpoint class of an API request, or null for requests that are never limited
+     */
+    String classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path == null || !path.startsWith("/api/")) {
+            return null;
+        }
+        if (!"GET".equalsIgnoreCase(request.getMethod())) {
+            return COMMAND;
+        }
+        return path.startsWith("/api/v2/") ? V2_QUERY : QUERY;
+    }
+
+    private boolean isPriorityLane(HttpServletRequest request) {
+        return request.getAttribute(BulkheadFilter.LANE_ATTRIBUTE) instanceof RequestLanes.Lane lane && lane.isPriority();
+    }
+
+    private void reject(HttpServletResponse response, String endpointClass, AdaptiveConcurrencyLimiter limiter)
+            throws IOException {
+        rejectedCounters.get(endpointClass).increment();
+        logger.debug("Shedding {} request at concurrency limit {}", endpointClass, limiter.getLimit());
+
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"status\":\"OVERLOADED\",\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter(String endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
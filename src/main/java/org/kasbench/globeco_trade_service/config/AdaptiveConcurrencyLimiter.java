@@ -0,0 +1,119 @@
+package org.kasbench.globeco_trade_service.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit for one class of endpoints. Admitted requests report
+ * their latency; every {@code windowSize} samples the average ("short") latency is compared to a
+ * slowly moving baseline ("long") latency. While short latency stays within {@code tolerance} of
+ * the baseline the limit grows by roughly its square root; once latency rises the limit shrinks
+ * in proportion, down to half per window. A window in which threads were waiting for database
+ * connections is treated as overload and the limit is cut by {@code poolWaitBackoff}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWindowWeight;
+    private final double poolWaitBackoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Current sample window, guarded by this
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowPoolWait;
+    private double longRtt = -1;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int windowSize,
+                                      double smoothing, double tolerance, int longWindow, double poolWaitBackoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindowWeight = 1.0 / longWindow;
+        this.poolWaitBackoff = poolWaitBackoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Try to admit a request. Every successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and record its latency
+     * @param rttNanos time the request spent in the application
+     * @param poolWait whether threads were waiting for database connections when it finished
+     */
+    public void release(long rttNanos, boolean poolWait) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        record(rttNanos, inFlightAtRelease, poolWait);
+    }
+
+    private synchronized void record(long rttNanos, int inFlightAtRelease, boolean poolWait) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        windowPoolWait |= poolWait;
+        if (windowSamples >= windowSize) {
+            update();
+        }
+    }
+
+    private void update() {
+        double shortRtt = (double) windowRttSum / windowSamples;
+        if (longRtt < 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt * (1 - longWindowWeight) + shortRtt * longWindowWeight;
+        }
+        // Let the baseline recover quickly after a sustained period of high latency
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double newLimit;
+        if (windowPoolWait) {
+            // Backing off on pool waits is not smoothed; queued connection requests stall everyone
+            newLimit = current * poolWaitBackoff;
+        } else if (windowMaxInFlight < current / 2) {
+            // Demand is well below the limit, so latency says nothing about it
+            newLimit = current;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            newLimit = current * (1 - smoothing) + (current * gradient + Math.sqrt(current)) * smoothing;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowPoolWait = false;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
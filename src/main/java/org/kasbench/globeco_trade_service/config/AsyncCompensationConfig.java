@@ -1,5 +1,6 @@
 package org.kasbench.globeco_trade_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -101,4 +102,111 @@ public class AsyncCompensationConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Thread pool executor for v2 response enrichment (security and portfolio lookups).
+     * Bounded so that concurrent v2 requests cannot queue unlimited remote calls; lookups
+     * rejected when the queue is full are answered with fallback data by the caller. The queue
+     * defaults to the 2000 lookups of a full v2 page, and each page keeps only a window of its
+     * lookups submitted at a time.
+     * Pool metrics are published under the executor.* meters tagged with the bean name.
+     */
+    @Bean("enrichmentExecutor")
+    public ThreadPoolTaskExecutor enrichmentExecutor(
+            @Value("${enrichment.executor.core-pool-size:10}") int corePoolSize,
+            @Value("${enrichment.executor.max-pool-size:20}") int maxPoolSize,
+            @Value("${enrichment.executor.queue-capacity:2000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        
+        // Thread naming for easier debugging
+        executor.setThreadNamePrefix("enrichment-");
+        
+        // Rejection policy - fail fast rather than running remote calls on the request thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        
+        // Allow core threads to timeout when idle
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        
+        // Outstanding lookups are only useful to in-flight requests, so don't wait on shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread pool executor for the hedges of slow security and portfolio lookups. Primary requests
+     * run on the calling thread; a hedge starts on a free thread right away or is not fired, since
+     * a hedge that waits in a queue only adds to the latency it is meant to cut.
+     */
+    @Bean("hedgeExecutor")
+    public ThreadPoolTaskExecutor hedgeExecutor(
+            @Value("${external.hedging.executor.core-pool-size:10}") int corePoolSize,
+            @Value("${external.hedging.executor.max-pool-size:40}") int maxPoolSize,
+            @Value("${external.hedging.executor.queue-capacity:0}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("hedge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single-threaded executor that applies queued compensations. One drain task at a time
+     * takes whatever compensations have queued up and applies them as one batch, so a burst
+     * of failed submissions becomes a few set-based transactions instead of one per execution.
+     * When the queue is full the submitting thread applies its own compensation.
+     */
+    @Bean("compensationExecutor")
+    public ThreadPoolTaskExecutor compensationExecutor(
+            @Value("${compensation.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("compensation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        
+        // Queued compensations restore trade orders, so let them finish on shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread pool executor for dead letter queue replay batches. The replay waits for each
+     * chunk of batches before reading the next, so the queue only needs room for one chunk.
+     */
+    @Bean("deadLetterReplayExecutor")
+    public ThreadPoolTaskExecutor deadLetterReplayExecutor(
+            @Value("${dlq.replay.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("dlq-replay-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+/**
+ * Retry policy that only retries when the delegate policy allows it and the shared
+ * {@link RetryBudget} still has a retry to spend. Each {@code execute} counts as one primary call.
+ */
+public class BudgetedRetryPolicy implements RetryPolicy {
+
+    private static final String BUDGET_EXHAUSTED = "retry.budget.exhausted";
+
+    private final RetryPolicy delegate;
+    private final RetryBudget retryBudget;
+
+    public BudgetedRetryPolicy(RetryPolicy delegate, RetryBudget retryBudget) {
+        this.delegate = delegate;
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        return delegate.canRetry(context) && !context.hasAttribute(BUDGET_EXHAUSTED);
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        retryBudget.recordCall();
+        return delegate.open(parent);
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        delegate.close(context);
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        delegate.registerThrowable(context, throwable);
+        // Spend the budget once per failure; canRetry is asked more than once per attempt
+        if (delegate.canRetry(context) && !retryBudget.tryAcquireRetry()) {
+            context.setAttribute(BUDGET_EXHAUSTED, true);
+        }
+    }
+}
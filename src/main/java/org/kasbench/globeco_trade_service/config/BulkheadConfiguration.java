@@ -0,0 +1,72 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Bulkheads per endpoint class. Registers the {@link BulkheadFilter} right after the HTTP
+ * metrics filter and wraps the application DataSource in a {@link LaneAwareDataSource} so that
+ * each lane's reserved connections stay available to it whatever the load on other lanes.
+ * With separate read and write pools, the lane budgets are sized from each pool and
+ * {@link ReadWriteDataSourceConfig} wraps the pools themselves instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true")
+public class BulkheadConfiguration {
+
+    @Bean
+    public RequestLanes requestLanes(
+            BulkheadProperties bulkheadProperties,
+            @Value("${datasource.routing.enabled:false}") boolean routingEnabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${datasource.routing.write.maximum-pool-size:12}") int writePoolSize,
+            @Value("${datasource.routing.read.maximum-pool-size:8}") int readPoolSize) {
+        return routingEnabled
+                ? new RequestLanes(bulkheadProperties, writePoolSize, readPoolSize)
+                : new RequestLanes(bulkheadProperties, maximumPoolSize);
+    }
+
+    @Bean
+    public static BeanPostProcessor laneAwareDataSourcePostProcessor(
+            ObjectProvider<RequestLanes> requestLanes,
+            @Value("${datasource.routing.enabled:false}") boolean routingEnabled,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!routingEnabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof LaneAwareDataSource)) {
+                    return new LaneAwareDataSource(dataSource, requestLanes.getObject(),
+                            RequestLanes.Pool.WRITE, connectionTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(
+            RequestLanes requestLanes,
+            BulkheadProperties bulkheadProperties,
+            MeterRegistry meterRegistry) {
+        return new BulkheadFilter(requestLanes, meterRegistry, bulkheadProperties.getRetryAfterSeconds());
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter bulkheadFilter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(bulkheadFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(2); // After the metrics filter, before adaptive load shedding
+        registration.setName("bulkheadFilter");
+        return registration;
+    }
+}
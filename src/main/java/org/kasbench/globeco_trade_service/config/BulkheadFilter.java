@@ -0,0 +1,106 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servlet filter that admits requests into their bulkhead lane. A request waits up to the lane's
+ * max wait for a free slot and is rejected with 503 and a {@code Retry-After} header otherwise.
+ * While it runs, the lane is bound to the thread so that {@link LaneAwareDataSource} can hand it
+ * the lane's reserved connections, and exposed as a request attribute for later filters.
+ * <p>
+ * Records:
+ * - http.bulkhead.available (Gauge) - free slots per lane
+ * - http.bulkhead.queued (Gauge) - requests waiting for a slot per lane
+ * - http.bulkhead.rejected (Counter) - requests rejected per lane
+ * - http.bulkhead.connections.shared.available (Gauge) - unreserved connections not in use
+ */
+public class BulkheadFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    public static final String LANE_ATTRIBUTE = BulkheadFilter.class.getName() + ".lane";
+
+    private final RequestLanes requestLanes;
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+    private final int retryAfterSeconds;
+
+    public BulkheadFilter(RequestLanes requestLanes, MeterRegistry meterRegistry, int retryAfterSeconds) {
+        this.requestLanes = requestLanes;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        for (RequestLanes.Lane lane : requestLanes.getLanes()) {
+            Gauge.builder("http.bulkhead.available", lane, RequestLanes.Lane::getAvailableSlots)
+                    .description("Free request slots in the bulkhead lane")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            Gauge.builder("http.bulkhead.queued", lane, RequestLanes.Lane::getQueueLength)
+                    .description("Requests waiting for a slot in the bulkhead lane")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            rejectedCounters.put(lane.getName(), Counter.builder("http.bulkhead.rejected")
+                    .description("Requests rejected because the bulkhead lane was full")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry));
+        }
+        for (RequestLanes.Pool pool : RequestLanes.Pool.values()) {
+            if (requestLanes.hasPool(pool)) {
+                Gauge.builder("http.bulkhead.connections.shared.available", requestLanes,
+                                lanes -> lanes.getAvailableSharedConnections(pool))
+                        .description("Unreserved database connections not in use")
+                        .tag("pool", pool.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!(request instanceof HttpServletRequest httpRequest) || !(response instanceof HttpServletResponse httpResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestLanes.Lane lane = requestLanes.match(httpRequest.getMethod(), httpRequest.getRequestURI());
+        if (lane == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!lane.tryEnter()) {
+            rejectedCounters.get(lane.getName()).increment();
+            logger.debug("Bulkhead lane {} is full, rejecting {} {}", lane.getName(),
+                    httpRequest.getMethod(), httpRequest.getRequestURI());
+            httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            httpResponse.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"status\":\"OVERLOADED\",\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+            return;
+        }
+
+        httpRequest.setAttribute(LANE_ATTRIBUTE, lane);
+        RequestLanes.setCurrentLane(lane);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestLanes.setCurrentLane(null);
+            lane.exit();
+        }
+    }
+}
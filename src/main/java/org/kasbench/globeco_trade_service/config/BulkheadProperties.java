@@ -0,0 +1,141 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for request bulkheads.
+ * Each lane matches a set of endpoints and gets its own concurrency limit, wait queue and
+ * reserved database connections. Lanes are matched in declaration order; requests that match
+ * no lane are not limited.
+ */
+@Component
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Whether bulkheads are enabled.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Retry-After value, in seconds, of requests rejected because their lane was full.
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Lanes by name, in matching order.
+     */
+    private Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Map<String, Lane> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<String, Lane> lanes) {
+        this.lanes = lanes;
+    }
+
+    public static class Lane {
+
+        /**
+         * Ant-style path patterns, optionally prefixed with an HTTP method, e.g. "POST /api/v1/tradeOrders/{id}/submit".
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        /**
+         * Maximum requests of this lane processed concurrently.
+         */
+        private int maxConcurrent = 50;
+
+        /**
+         * How long a request may queue for a slot before it is rejected with 503.
+         */
+        private long maxWaitMs = 0;
+
+        /**
+         * Database connections held back for this lane; other lanes can never use them.
+         * With separate read and write pools, these are write pool connections.
+         */
+        private int reservedConnections = 0;
+
+        /**
+         * Read pool connections held back for this lane, when reads have their own pool.
+         */
+        private int reservedReadConnections = 0;
+
+        /**
+         * Priority lanes are exempt from adaptive load shedding.
+         */
+        private boolean priority = false;
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public int getReservedConnections() {
+            return reservedConnections;
+        }
+
+        public void setReservedConnections(int reservedConnections) {
+            this.reservedConnections = reservedConnections;
+        }
+
+        public int getReservedReadConnections() {
+            return reservedReadConnections;
+        }
+
+        public void setReservedReadConnections(int reservedReadConnections) {
+            this.reservedReadConnections = reservedReadConnections;
+        }
+
+        public boolean isPriority() {
+            return priority;
+        }
+
+        public void setPriority(boolean priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Propagates Spring cache evictions between replicas over PostgreSQL LISTEN/NOTIFY.
+ * Evictions are published as compact "origin|cache|key" messages with {@code pg_notify} once the
+ * surrounding transaction commits; each replica listens on a dedicated connection outside the
+ * Hikari pool and applies the messages of other replicas to its local caches. All local caches
+ * are cleared whenever the listener (re)connects, since messages may have been missed meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationBus implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String ALL_ENTRIES = "*";
+
+    private final DataSource dataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+    private final String origin = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter reconnectCounter;
+
+    private volatile CacheManager localCacheManager;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry,
+            @Value("${cache.invalidation.channel:cache_invalidation}") String channel,
+            @Value("${cache.invalidation.poll-timeout-ms:1000}") int pollTimeoutMs,
+            @Value("${cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidation messages sent to other replicas")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidation messages applied from other replicas")
+                .register(meterRegistry);
+        this.reconnectCounter = Counter.builder("cache.invalidation.reconnects")
+                .description("Times the cache invalidation listener lost its connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Set the cache manager that received invalidations are applied to. This must be the
+     * undecorated manager, so that applying a message does not publish it again.
+     */
+    public void setLocalCacheManager(CacheManager localCacheManager) {
+        this.localCacheManager = localCacheManager;
+    }
+
+    /**
+     * Publish the eviction of a cache entry, or of all entries when {@code key} is null.
+     * Inside a transaction, messages are de-duplicated and sent after commit only.
+     */
+    public void publish(String cacheName, Object key) {
+        String message = origin + "|" + cacheName + "|" + encodeKey(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(message));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> messages = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, messages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                    if (status == STATUS_COMMITTED) {
+                        send(messages);
+                    }
+                }
+            });
+            pending = messages;
+        }
+        pending.add(message);
+    }
+
+    private void send(Collection<String> messages) {
+        // A fresh pool connection: the committed transaction's connection may still be bound to this thread
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String message : messages) {
+                statement.setString(1, channel);
+                statement.setString(2, message);
+                statement.execute();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            publishedCounter.increment(messages.size());
+        } catch (SQLException e) {
+            // Other replicas fall back to the cache TTL for these entries
+            logger.warn("Failed to publish {} cache invalidation(s): {}", messages.size(), e.getMessage());
+        }
+    }
+
+    void apply(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3 || origin.equals(parts[0]) || localCacheManager == null) {
+            return;
+        }
+        Cache cache = localCacheManager.getCache(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        Object key = decodeKey(parts[2]);
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+        receivedCounter.increment();
+        logger.debug("Applied cache invalidation from {}: cache={}, key={}", parts[0], parts[1], parts[2]);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                clearLocalCaches();
+                logger.info("Listening for cache invalidations on channel {}", channel);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                reconnectCounter.increment();
+                logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void clearLocalCaches() {
+        CacheManager cacheManager = localCacheManager;
+        if (cacheManager != null) {
+            for (String cacheName : cacheManager.getCacheNames()) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        }
+    }
+
+    // Keys are typed so that e.g. an Integer id evicts the Integer cache key on the receiving side;
+    // keys of other types fall back to clearing the whole cache.
+    static String encodeKey(Object key) {
+        if (key == null) {
+            return ALL_ENTRIES;
+        } else if (key instanceof Integer) {
+            return "I:" + key;
+        } else if (key instanceof Long) {
+            return "L:" + key;
+        } else if (key instanceof String) {
+            return "S:" + key;
+        }
+        return ALL_ENTRIES;
+    }
+
+    static Object decodeKey(String encoded) {
+        if (encoded.length() < 2 || encoded.charAt(1) != ':') {
+            return null;
+        }
+        String value = encoded.substring(2);
+        try {
+            switch (encoded.charAt(0)) {
+                case 'I':
+                    return Integer.valueOf(value);
+                case 'L':
+                    return Long.valueOf(value);
+                case 'S':
+                    return value;
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -47,4 +47,25 @@ public class CircuitBreakerConfig {
 
         return registry.circuitBreaker("portfolioService", config);
     }
-}
\ No newline at end of file
+
+    /**
+     * Execution service breaker. Moves to half-open on its own once the wait elapses, so the
+     * retry queue drainer can see when to probe the execution service again.
+     */
+    @Bean
+    public CircuitBreaker executionServiceCircuitBreaker(CircuitBreakerRegistry registry) {
+        io.github.resilience4j.circuitbreaker.CircuitBreakerConfig config = 
+            io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .recordExceptions(HttpServerErrorException.class, ResourceAccessException.class)
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+
+        return registry.circuitBreaker("executionService", config);
+    }
+}
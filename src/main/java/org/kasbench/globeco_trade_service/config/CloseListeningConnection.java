@@ -0,0 +1,44 @@
+package org.kasbench.globeco_trade_service.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps JDBC connections handed out by a DataSource wrapper so that it learns when each one is
+ * returned. Every call is passed through to the connection; the listener runs once, after the
+ * first {@code close()}, whether or not closing the connection succeeded.
+ */
+final class CloseListeningConnection {
+
+    private CloseListeningConnection() {
+    }
+
+    static Connection wrap(Connection connection, Runnable onClose) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    boolean closing = "close".equals(method.getName()) && closed.compareAndSet(false, true);
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (closing) {
+                            onClose.run();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the adaptive concurrency limit filter behind the HTTP metrics and bulkhead filters,
+ * so that shed requests still show up in http_requests_total with status 503 and priority
+ * bulkhead lanes can be exempted.
+ */
+@Configuration
+@ConditionalOnProperty(name = "http.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimitFilter adaptiveConcurrencyLimitFilter(
+            ConnectionPoolMonitor connectionPoolMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${http.concurrency-limit.initial-limit:50}") int initialLimit,
+            @Value("${http.concurrency-limit.min-limit:10}") int minLimit,
+            @Value("${http.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${http.concurrency-limit.window-size:50}") int windowSize,
+            @Value("${http.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${http.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${http.concurrency-limit.long-window:100}") int longWindow,
+            @Value("${http.concurrency-limit.pool-wait-backoff:0.9}") double poolWaitBackoff,
+            @Value("${http.concurrency-limit.pool-wait-threshold:0}") int poolWaitThreshold,
+            @Value("${http.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        return new AdaptiveConcurrencyLimitFilter(
+                () -> new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, windowSize,
+                        smoothing, tolerance, longWindow, poolWaitBackoff),
+                connectionPoolMonitor, meterRegistry, poolWaitThreshold, retryAfterSeconds);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            AdaptiveConcurrencyLimitFilter adaptiveConcurrencyLimitFilter) {
+        FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(adaptiveConcurrencyLimitFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(3); // After the metrics and bulkhead filters
+        registration.setName("adaptiveConcurrencyLimitFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package org.kasbench.globeco_trade_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs a {@link ConnectionHoldTimeMetricsTrackerFactory} on every Hikari pool to publish
+ * connection hold time per pool and endpoint. The factory is set before the pool starts, which
+ * also keeps Boot from installing its plain Micrometer tracker over it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.hold-time-metrics.enabled", havingValue = "true")
+public class ConnectionHoldTimeConfiguration {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool
+                        && pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                    pool.setMetricsTrackerFactory(new ConnectionHoldTimeMetricsTrackerFactory(meterRegistry.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package org.kasbench.globeco_trade_service.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari metrics tracker factory that times how long each physical connection is borrowed from
+ * its pool, tagged with the pool and with the endpoint (HTTP method and mapped path pattern) of
+ * the request that returned it. Connections returned outside a request are tagged
+ * {@code background}. Hikari reports the usage when the connection goes back to the pool, on the
+ * thread that closed it, so connections the lazy connection proxy never borrowed are not counted.
+ * <p>
+ * Every event is also passed to Hikari's own Micrometer tracker, which publishes the hikaricp.* metrics.
+ */
+public class ConnectionHoldTimeMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    static final String BACKGROUND = "background";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsTrackerFactory poolMetrics;
+
+    public ConnectionHoldTimeMetricsTrackerFactory(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        IMetricsTracker delegate = poolMetrics.create(poolName, poolStats);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                Timer.builder("db.connection.hold")
+                        .description("Time a pooled database connection is borrowed before being returned, by endpoint")
+                        .tag("pool", poolName)
+                        .tag("endpoint", currentEndpoint())
+                        .register(meterRegistry)
+                        .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                delegate.recordConnectionTimeout();
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+    }
+
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        // Unmapped requests are grouped together rather than tagged by raw path
+        return servletAttributes.getRequest().getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
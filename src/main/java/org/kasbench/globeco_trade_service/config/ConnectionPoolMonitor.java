@@ -7,24 +7,34 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Connection Pool Monitor for HikariCP
- * Provides metrics collection and health checks for database connection pool
+ * Provides metrics collection and health checks for every database connection pool,
+ * including the separate read and write pools when reads are routed
  */
 @Component
 public class ConnectionPoolMonitor implements HealthIndicator {
     
     private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
     
-    private final HikariDataSource dataSource;
+    private final List<HikariDataSource> pools;
     private final MeterRegistry meterRegistry;
     
     // Health check thresholds
@@ -32,43 +42,91 @@ public class ConnectionPoolMonitor implements HealthIndicator {
     private static final double WARNING_UTILIZATION_THRESHOLD = 0.80;  // 80%
     
     @Autowired
+    public ConnectionPoolMonitor(ObjectProvider<DataSource> dataSources, MeterRegistry meterRegistry) {
+        this(unwrapPools(dataSources.orderedStream().toList()), meterRegistry);
+    }
+    
     public ConnectionPoolMonitor(DataSource dataSource, MeterRegistry meterRegistry) {
-        if (!(dataSource instanceof HikariDataSource)) {
+        this(unwrapPools(List.of(dataSource)), meterRegistry);
+    }
+    
+    private ConnectionPoolMonitor(List<HikariDataSource> pools, MeterRegistry meterRegistry) {
+        if (pools.isEmpty()) {
             throw new IllegalArgumentException("DataSource must be HikariDataSource for monitoring");
         }
-        this.dataSource = (HikariDataSource) dataSource;
+        this.pools = pools;
         this.meterRegistry = meterRegistry;
         
         // Register gauges for connection pool metrics
-        registerConnectionPoolGauges();
+        for (HikariDataSource pool : pools) {
+            registerConnectionPoolGauges(pool);
+        }
+    }
+    
+    /**
+     * The distinct HikariDataSources among the given DataSources and the ones they wrap
+     */
+    private static List<HikariDataSource> unwrapPools(List<DataSource> dataSources) {
+        Set<HikariDataSource> pools = new LinkedHashSet<>();
+        for (DataSource dataSource : dataSources) {
+            HikariDataSource pool = unwrapHikari(dataSource);
+            if (pool != null) {
+                pools.add(pool);
+            }
+        }
+        return new ArrayList<>(pools);
+    }
+    
+    /**
+     * The HikariDataSource itself or the one behind a wrapping DataSource, or null
+     */
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            return hikariDataSource;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+    
+    private static String poolName(HikariDataSource pool) {
+        return pool.getPoolName() != null ? pool.getPoolName() : "default";
     }
     
     /**
      * Register Micrometer gauges for connection pool metrics
      */
-    private void registerConnectionPoolGauges() {
-        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+    private void registerConnectionPoolGauges(HikariDataSource pool) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
         
         if (poolBean != null) {
+            Tags tags = Tags.of("pool", poolName(pool));
             Gauge.builder("hikari.connections.active", poolBean, bean -> (double) bean.getActiveConnections())
                 .description("Active connections in the pool")
+                .tags(tags)
                 .register(meterRegistry);
                 
             Gauge.builder("hikari.connections.idle", poolBean, bean -> (double) bean.getIdleConnections())
                 .description("Idle connections in the pool")
+                .tags(tags)
                 .register(meterRegistry);
                 
             Gauge.builder("hikari.connections.total", poolBean, bean -> (double) bean.getTotalConnections())
                 .description("Total connections in the pool")
+                .tags(tags)
                 .register(meterRegistry);
                 
             Gauge.builder("hikari.connections.pending", poolBean, bean -> (double) bean.getThreadsAwaitingConnection())
                 .description("Threads awaiting connections")
+                .tags(tags)
                 .register(meterRegistry);
                 
             // Custom utilization percentage gauge
-            Gauge.builder("hikari.connections.utilization", this, ConnectionPoolMonitor::getConnectionUtilization)
+            Gauge.builder("hikari.connections.utilization", pool, ConnectionPoolMonitor::getConnectionUtilization)
                 .description("Connection pool utilization percentage")
+                .tags(tags)
                 .register(meterRegistry);
         }
     }
@@ -78,53 +136,68 @@ public class ConnectionPoolMonitor implements HealthIndicator {
      */
     @Scheduled(fixedRate = 30000) // Every 30 seconds
     public void recordConnectionPoolMetrics() {
-        try {
-            HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
-            if (poolBean == null) {
-                logger.warn("HikariPoolMXBean is not available for metrics collection");
-                return;
+        for (HikariDataSource pool : pools) {
+            try {
+                HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+                if (poolBean == null) {
+                    logger.warn("HikariPoolMXBean of {} is not available for metrics collection", poolName(pool));
+                    continue;
+                }
+                
+                int activeConnections = poolBean.getActiveConnections();
+                int idleConnections = poolBean.getIdleConnections();
+                int totalConnections = poolBean.getTotalConnections();
+                int threadsAwaiting = poolBean.getThreadsAwaitingConnection();
+                double utilization = getConnectionUtilization(pool);
+                
+                // Log metrics for debugging
+                logger.debug("Connection Pool Metrics ({}) - Active: {}, Idle: {}, Total: {}, Awaiting: {}, Utilization: {}%",
+                    poolName(pool), activeConnections, idleConnections, totalConnections, threadsAwaiting,
+                    String.format("%.2f", utilization * 100));
+                
+                // Check for alert conditions
+                checkAlertThresholds(poolName(pool), utilization, threadsAwaiting);
+                
+            } catch (Exception e) {
+                logger.error("Error recording connection pool metrics of {}", poolName(pool), e);
             }
-            
-            int activeConnections = poolBean.getActiveConnections();
-            int idleConnections = poolBean.getIdleConnections();
-            int totalConnections = poolBean.getTotalConnections();
-            int threadsAwaiting = poolBean.getThreadsAwaitingConnection();
-            double utilization = getConnectionUtilization();
-            
-            // Log metrics for debugging
-            logger.debug("Connection Pool Metrics - Active: {}, Idle: {}, Total: {}, Awaiting: {}, Utilization: {:.2f}%",
-                activeConnections, idleConnections, totalConnections, threadsAwaiting, utilization * 100);
-            
-            // Check for alert conditions
-            checkAlertThresholds(utilization, threadsAwaiting);
-            
-        } catch (Exception e) {
-            logger.error("Error recording connection pool metrics", e);
         }
     }
     
     /**
      * Check alert thresholds and log warnings/errors
      */
-    private void checkAlertThresholds(double utilization, int threadsAwaiting) {
+    private void checkAlertThresholds(String poolName, double utilization, int threadsAwaiting) {
         if (utilization >= CRITICAL_UTILIZATION_THRESHOLD) {
-            logger.error("CRITICAL: Connection pool utilization is {}% (threshold: {}%)", 
+            logger.error("CRITICAL: Connection pool {} utilization is {}% (threshold: {}%)", poolName,
                 String.format("%.2f", utilization * 100), String.format("%.2f", CRITICAL_UTILIZATION_THRESHOLD * 100));
         } else if (utilization >= WARNING_UTILIZATION_THRESHOLD) {
-            logger.warn("WARNING: Connection pool utilization is {}% (threshold: {}%)", 
+            logger.warn("WARNING: Connection pool {} utilization is {}% (threshold: {}%)", poolName,
                 String.format("%.2f", utilization * 100), String.format("%.2f", WARNING_UTILIZATION_THRESHOLD * 100));
         }
         
         if (threadsAwaiting > 0) {
-            logger.warn("WARNING: {} threads are waiting for database connections", threadsAwaiting);
+            logger.warn("WARNING: {} threads are waiting for database connections of {}", threadsAwaiting, poolName);
+        }
+    }
+    
+    /**
+     * Number of threads currently blocked waiting for a connection, across all pools; pools not started count 0
+     */
+    public int getThreadsAwaitingConnection() {
+        int threadsAwaiting = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            threadsAwaiting += poolBean != null ? poolBean.getThreadsAwaitingConnection() : 0;
         }
+        return threadsAwaiting;
     }
     
     /**
      * Calculate connection pool utilization percentage
      */
-    private double getConnectionUtilization() {
-        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+    private static double getConnectionUtilization(HikariDataSource pool) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
         if (poolBean == null) {
             return 0.0;
         }
@@ -140,12 +213,42 @@ public class ConnectionPoolMonitor implements HealthIndicator {
     }
     
     /**
-     * Health check implementation for Spring Boot Actuator
+     * Health check implementation for Spring Boot Actuator. With a single pool its details are
+     * reported directly; with several, each pool is reported under its name and the worst pool
+     * decides the status.
      */
     @Override
     public Health health() {
+        if (pools.size() == 1) {
+            return health(pools.get(0));
+        }
+        Health.Builder healthBuilder = Health.up();
+        Map<String, Object> details = new LinkedHashMap<>();
+        Health worst = null;
+        for (HikariDataSource pool : pools) {
+            Health poolHealth = health(pool);
+            details.put(poolName(pool), poolHealth);
+            if (worst == null || severity(poolHealth.getStatus()) > severity(worst.getStatus())) {
+                worst = poolHealth;
+            }
+        }
+        healthBuilder.status(worst.getStatus()).withDetails(details);
+        if (worst.getDetails().containsKey("reason")) {
+            healthBuilder.withDetail("reason", worst.getDetails().get("reason"));
+        }
+        return healthBuilder.build();
+    }
+    
+    private static int severity(Status status) {
+        if (Status.DOWN.equals(status)) {
+            return 2;
+        }
+        return Status.UNKNOWN.equals(status) ? 1 : 0;
+    }
+    
+    private Health health(HikariDataSource pool) {
         try {
-            HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
             if (poolBean == null) {
                 return Health.down()
                     .withDetail("reason", "HikariPoolMXBean not available")
@@ -156,7 +259,7 @@ public class ConnectionPoolMonitor implements HealthIndicator {
             int idleConnections = poolBean.getIdleConnections();
             int totalConnections = poolBean.getTotalConnections();
             int threadsAwaiting = poolBean.getThreadsAwaitingConnection();
-            double utilization = getConnectionUtilization();
+            double utilization = getConnectionUtilization(pool);
             
             Health.Builder healthBuilder = Health.up()
                 .withDetail("activeConnections", activeConnections)
@@ -164,8 +267,8 @@ public class ConnectionPoolMonitor implements HealthIndicator {
                 .withDetail("totalConnections", totalConnections)
                 .withDetail("threadsAwaitingConnection", threadsAwaiting)
                 .withDetail("utilizationPercentage", String.format("%.2f%%", utilization * 100))
-                .withDetail("maxPoolSize", dataSource.getMaximumPoolSize())
-                .withDetail("minIdle", dataSource.getMinimumIdle());
+                .withDetail("maxPoolSize", pool.getMaximumPoolSize())
+                .withDetail("minIdle", pool.getMinimumIdle());
             
             // Determine health status based on utilization and waiting threads
             if (utilization >= CRITICAL_UTILIZATION_THRESHOLD || threadsAwaiting > 10) {
@@ -183,11 +286,11 @@ public class ConnectionPoolMonitor implements HealthIndicator {
             return healthBuilder.build();
             
         } catch (Exception e) {
-            logger.error("Error checking connection pool health", e);
+            logger.error("Error checking connection pool health of {}", poolName(pool), e);
             return Health.down()
                 .withDetail("reason", "Error checking connection pool health")
                 .withDetail("error", e.getMessage())
                 .build();
         }
     }
-}
\ No newline at end of file
+}
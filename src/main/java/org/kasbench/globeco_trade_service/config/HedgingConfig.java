@@ -0,0 +1,60 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.client.RequestHedger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+/**
+ * Request hedging for the security and portfolio service lookups. Each downstream gets its
+ * own hedger so that hedge delays and budgets follow that service's latency.
+ */
+@Configuration
+public class HedgingConfig {
+
+    @Value("${external.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${external.hedging.budget-ratio:0.05}")
+    private double budgetRatio;
+
+    @Value("${external.hedging.max-burst:10}")
+    private int maxBurst;
+
+    @Value("${external.hedging.min-delay-ms:5}")
+    private long minDelayMs;
+
+    @Value("${external.hedging.sample-window:1024}")
+    private int sampleWindow;
+
+    @Value("${external.hedging.min-samples:100}")
+    private int minSamples;
+
+    @Bean
+    public RequestHedger securityServiceHedger(
+            @Qualifier("securityServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("hedgeExecutor") ThreadPoolTaskExecutor hedgeExecutor,
+            MeterRegistry meterRegistry) {
+        return createHedger("securityService", circuitBreaker, hedgeExecutor, meterRegistry);
+    }
+
+    @Bean
+    public RequestHedger portfolioServiceHedger(
+            @Qualifier("portfolioServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("hedgeExecutor") ThreadPoolTaskExecutor hedgeExecutor,
+            MeterRegistry meterRegistry) {
+        return createHedger("portfolioService", circuitBreaker, hedgeExecutor, meterRegistry);
+    }
+
+    private RequestHedger createHedger(String downstream, CircuitBreaker circuitBreaker,
+                                       ThreadPoolTaskExecutor hedgeExecutor, MeterRegistry meterRegistry) {
+        return new RequestHedger(downstream, enabled, circuitBreaker, hedgeExecutor, meterRegistry,
+                budgetRatio, maxBurst, Duration.ofMillis(minDelayMs), sampleWindow, minSamples);
+    }
+}
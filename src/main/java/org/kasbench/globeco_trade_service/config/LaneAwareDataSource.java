@@ -0,0 +1,54 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * DataSource wrapper that enforces the bulkhead connection budget of {@link RequestLanes} for one pool.
+ * Each connection handed out holds one permit of the calling lane until it is closed, so
+ * non-priority traffic can never drain the connections reserved for another lane.
+ */
+public class LaneAwareDataSource extends DelegatingDataSource {
+
+    private final RequestLanes requestLanes;
+    private final RequestLanes.Pool pool;
+    private final long connectionTimeoutMs;
+
+    public LaneAwareDataSource(DataSource targetDataSource, RequestLanes requestLanes, RequestLanes.Pool pool,
+                               long connectionTimeoutMs) {
+        super(targetDataSource);
+        this.requestLanes = requestLanes;
+        this.pool = pool;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Semaphore permit = requestLanes.acquireConnectionPermit(pool, connectionTimeoutMs);
+        try {
+            return withPermit(super.getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Semaphore permit = requestLanes.acquireConnectionPermit(pool, connectionTimeoutMs);
+        try {
+            return withPermit(super.getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private Connection withPermit(Connection connection, Semaphore permit) {
+        return CloseListeningConnection.wrap(connection, permit::release);
+    }
+}
@@ -0,0 +1,115 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager decorator that publishes every eviction and clear through the
+ * {@link CacheInvalidationBus}, so that other replicas drop the same entries.
+ */
+public class NotifyingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public NotifyingCacheManager(CacheManager delegate, CacheInvalidationBus invalidationBus) {
+        this.delegate = delegate;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.setLocalCacheManager(delegate);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new NotifyingCache(target, invalidationBus));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    static class NotifyingCache implements Cache {
+        private final Cache delegate;
+        private final CacheInvalidationBus invalidationBus;
+
+        NotifyingCache(Cache delegate, CacheInvalidationBus invalidationBus) {
+            this.delegate = delegate;
+            this.invalidationBus = invalidationBus;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+            invalidationBus.publish(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean evicted = delegate.evictIfPresent(key);
+            invalidationBus.publish(getName(), key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            invalidationBus.publish(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean invalidated = delegate.invalidate();
+            invalidationBus.publish(getName(), null);
+            return invalidated;
+        }
+    }
+}
@@ -3,54 +3,51 @@ package org.kasbench.globeco_trade_service.config;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalListener;
-import org.kasbench.globeco_trade_service.client.PortfolioServiceClient;
-import org.kasbench.globeco_trade_service.client.SecurityServiceClient;
+import org.kasbench.globeco_trade_service.cache.OffHeapCache;
+import org.kasbench.globeco_trade_service.cache.ReferenceDtoCodecs;
 import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
 import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * Optimized cache configuration with improved settings for performance optimization.
- * Implements requirements 7.1, 7.2, and 7.4 from the performance optimization spec.
+ * Implements requirements 7.1 and 7.2 from the performance optimization spec; startup warm-up
+ * (requirement 7.4) is handled by CacheWarmupService.
  */
 @Configuration
 public class OptimizedCacheConfig {
     
     private static final Logger logger = LoggerFactory.getLogger(OptimizedCacheConfig.class);
     
-    private final SecurityServiceClient securityServiceClient;
-    private final PortfolioServiceClient portfolioServiceClient;
-    
-    public OptimizedCacheConfig(SecurityServiceClient securityServiceClient, 
-                               PortfolioServiceClient portfolioServiceClient) {
-        this.securityServiceClient = securityServiceClient;
-        this.portfolioServiceClient = portfolioServiceClient;
-    }
-    
     /**
      * Optimized security cache with increased size (2000) and TTL (10 minutes)
      * Requirement 7.1: Configure security cache with increased size and TTL
+     * With cache.offheap.enabled, entries are kept off-heap so the cache can hold the full security master.
      */
     @Bean("optimizedSecurityCache")
-    public Cache<String, SecurityDTO> optimizedSecurityCache() {
-        logger.debug("Initializing optimized security cache with size=2000, TTL=10min");
+    public Cache<String, SecurityDTO> optimizedSecurityCache(
+            @Value("${cache.offheap.enabled:false}") boolean offHeap,
+            @Value("${cache.optimized.security.max-size:2000}") int maxSize,
+            @Value("${cache.optimized.security.ttl-minutes:10}") int ttlMinutes,
+            @Value("${cache.offheap.security.max-size:500000}") int offHeapMaxSize,
+            @Value("${cache.offheap.security.slot-bytes:128}") int slotBytes) {
+        if (offHeap) {
+            logger.info("Initializing off-heap security cache with size={}, slot={} bytes, TTL={}min",
+                    offHeapMaxSize, slotBytes, ttlMinutes);
+            return new OffHeapCache<>(offHeapMaxSize, slotBytes, Duration.ofMinutes(ttlMinutes), ReferenceDtoCodecs.SECURITY);
+        }
+        logger.debug("Initializing optimized security cache with size={}, TTL={}min", maxSize, ttlMinutes);
         
         return Caffeine.newBuilder()
-                .maximumSize(2000)                          // Increased from 1000
-                .expireAfterWrite(Duration.ofMinutes(10))   // Increased from 5 minutes
-                .recordStats()                              // Enable statistics collection
+                .maximumSize(maxSize)                               // Increased from 1000
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))   // Increased from 5 minutes
+                .recordStats()                                      // Enable statistics collection
                 .removalListener(createSecurityRemovalListener())
                 .build();
     }
@@ -60,115 +57,27 @@ public class OptimizedCacheConfig {
      * Requirement 7.2: Configure portfolio cache with extended TTL
      */
     @Bean("optimizedPortfolioCache")
-    public Cache<String, PortfolioDTO> optimizedPortfolioCache() {
-        logger.debug("Initializing optimized portfolio cache with size=1000, TTL=15min");
+    public Cache<String, PortfolioDTO> optimizedPortfolioCache(
+            @Value("${cache.offheap.enabled:false}") boolean offHeap,
+            @Value("${cache.optimized.portfolio.max-size:1000}") int maxSize,
+            @Value("${cache.optimized.portfolio.ttl-minutes:15}") int ttlMinutes,
+            @Value("${cache.offheap.portfolio.max-size:100000}") int offHeapMaxSize,
+            @Value("${cache.offheap.portfolio.slot-bytes:256}") int slotBytes) {
+        if (offHeap) {
+            logger.info("Initializing off-heap portfolio cache with size={}, slot={} bytes, TTL={}min",
+                    offHeapMaxSize, slotBytes, ttlMinutes);
+            return new OffHeapCache<>(offHeapMaxSize, slotBytes, Duration.ofMinutes(ttlMinutes), ReferenceDtoCodecs.PORTFOLIO);
+        }
+        logger.debug("Initializing optimized portfolio cache with size={}, TTL={}min", maxSize, ttlMinutes);
         
         return Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(Duration.ofMinutes(15))   // Increased from 5 minutes
-                .recordStats()                              // Enable statistics collection
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))   // Increased from 5 minutes
+                .recordStats()                                      // Enable statistics collection
                 .removalListener(createPortfolioRemovalListener())
                 .build();
     }
     
-    /**
-     * Cache warming strategy on application startup
-     * Requirement 7.4: Implement cache warming strategy on application startup
-     */
-    @EventListener(ApplicationReadyEvent.class)
-    @Async
-    public void warmupCaches() {
-        logger.debug("Starting cache warmup process...");
-        
-        CompletableFuture<Void> securityWarmup = CompletableFuture.runAsync(this::warmupSecurityCache);
-        CompletableFuture<Void> portfolioWarmup = CompletableFuture.runAsync(this::warmupPortfolioCache);
-        
-        CompletableFuture.allOf(securityWarmup, portfolioWarmup)
-                .thenRun(() -> logger.debug("Cache warmup completed successfully"))
-                .exceptionally(throwable -> {
-                    logger.error("Cache warmup failed", throwable);
-                    return null;
-                });
-    }
-    
-    /**
-     * Warm up security cache with frequently accessed securities
-     */
-    private void warmupSecurityCache() {
-        try {
-            logger.debug("Warming up security cache...");
-            Cache<String, SecurityDTO> securityCache = optimizedSecurityCache();
-            
-            // Common securities that are frequently accessed
-            List<String> commonSecurities = Arrays.asList(
-                "AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "NFLX", "AMD", "INTC",
-                "JPM", "BAC", "WFC", "GS", "MS", "C", "USB", "PNC", "TFC", "COF",
-                "SPY", "QQQ", "IWM", "VTI", "VOO", "VEA", "VWO", "AGG", "BND", "TLT"
-            );
-            
-            int warmedCount = 0;
-            for (String ticker : commonSecurities) {
-                try {
-                    Optional<SecurityDTO> security = securityServiceClient.findSecurityByTicker(ticker);
-                    if (security.isPresent()) {
-                        securityCache.put(ticker, security.get());
-                        warmedCount++;
-                        logger.debug("Warmed security cache for ticker: {}", ticker);
-                    }
-                } catch (Exception e) {
-                    logger.debug("Failed to warm cache for security {}: {}", ticker, e.getMessage());
-                }
-                
-                // Small delay to avoid overwhelming the external service
-                Thread.sleep(10);
-            }
-            
-            logger.debug("Security cache warmup completed. Warmed {} securities", warmedCount);
-            
-        } catch (Exception e) {
-            logger.error("Security cache warmup failed", e);
-        }
-    }
-    
-    /**
-     * Warm up portfolio cache with frequently accessed portfolios
-     */
-    private void warmupPortfolioCache() {
-        try {
-            logger.debug("Warming up portfolio cache...");
-            Cache<String, PortfolioDTO> portfolioCache = optimizedPortfolioCache();
-            
-            // Common portfolio names that are frequently accessed
-            List<String> commonPortfolios = Arrays.asList(
-                "MAIN", "TRADING", "HEDGE", "EQUITY", "FIXED_INCOME", "ALTERNATIVES",
-                "GROWTH", "VALUE", "INCOME", "BALANCED", "CONSERVATIVE", "AGGRESSIVE",
-                "TECH", "HEALTHCARE", "FINANCIAL", "ENERGY", "CONSUMER", "INDUSTRIAL"
-            );
-            
-            int warmedCount = 0;
-            for (String portfolioName : commonPortfolios) {
-                try {
-                    Optional<PortfolioDTO> portfolio = portfolioServiceClient.findPortfolioByName(portfolioName);
-                    if (portfolio.isPresent()) {
-                        portfolioCache.put(portfolioName, portfolio.get());
-                        warmedCount++;
-                        logger.debug("Warmed portfolio cache for name: {}", portfolioName);
-                    }
-                } catch (Exception e) {
-                    logger.debug("Failed to warm cache for portfolio {}: {}", portfolioName, e.getMessage());
-                }
-                
-                // Small delay to avoid overwhelming the external service
-                Thread.sleep(10);
-            }
-            
-            logger.debug("Portfolio cache warmup completed. Warmed {} portfolios", warmedCount);
-            
-        } catch (Exception e) {
-            logger.error("Portfolio cache warmup failed", e);
-        }
-    }
-    
     /**
      * Create removal listener for security cache to log evictions
      */
@@ -0,0 +1,179 @@
+package org.kasbench.globeco_trade_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Separate Hikari pools for read-only and read-write transactions.
+ * Both pools take the shared spring.datasource.hikari.* settings and override the pool size and
+ * the server-side statement_timeout per pool. The primary DataSource is a
+ * {@link LazyConnectionDataSourceProxy} that defers fetching a physical connection until the
+ * first statement. By then the transaction manager has marked a {@code @Transactional(readOnly = true)}
+ * transaction read-only, and a {@link TransactionReadOnlyRoutingDataSource} takes its connection
+ * from the read pool instead of the write pool, whatever the Hibernate connection handling mode.
+ * Each pool is published by Boot's hikaricp.* metrics under its own pool name.
+ * <p>
+ * With bulkheads enabled, each pool is wrapped in a {@link LaneAwareDataSource} holding that
+ * pool's own lane budget.
+ * <p>
+ * With {@code datasource.replica.enabled}, a third pool points at a read replica and the read-only
+ * side becomes a {@link ReplicaRoutingDataSource}: read-only transactions of {@link ReplicaRead}
+ * endpoints go to the replica while its lag is within {@code datasource.replica.max-lag-ms}, and
+ * every other read-only transaction keeps using the primary's read pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteDataSourceConfig.class);
+
+    @Bean
+    public HikariDataSource writeDataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            @Value("${datasource.routing.write.maximum-pool-size:12}") int maximumPoolSize,
+            @Value("${datasource.routing.write.statement-timeout-ms:10000}") long statementTimeoutMs) {
+        return createPool(dataSourceProperties, environment, "trade-write-pool", maximumPoolSize, statementTimeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            @Value("${datasource.routing.read.maximum-pool-size:8}") int maximumPoolSize,
+            @Value("${datasource.routing.read.statement-timeout-ms:30000}") long statementTimeoutMs) {
+        return createPool(dataSourceProperties, environment, "trade-read-pool", maximumPoolSize, statementTimeoutMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("writeDataSource") DataSource writeDataSource,
+            @Qualifier("readDataSource") DataSource readDataSource,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+            ObjectProvider<RequestLanes> requestLanes,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        DataSource replicaRouting = replicaRoutingDataSource.getIfAvailable();
+        return dataSource(
+                withLanes(writeDataSource, requestLanes, RequestLanes.Pool.WRITE, connectionTimeoutMs),
+                replicaRouting != null ? replicaRouting
+                        : withLanes(readDataSource, requestLanes, RequestLanes.Pool.READ, connectionTimeoutMs));
+    }
+
+    DataSource dataSource(DataSource writeDataSource, DataSource readOnlyDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new TransactionReadOnlyRoutingDataSource(writeDataSource, readOnlyDataSource));
+        // Connections explicitly marked read-only outside a read-only transaction also use the read side
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+        // Avoid borrowing a connection at startup just to read these defaults
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    /**
+     * The pool wrapped in the bulkhead budget of the given pool, or the pool itself without bulkheads
+     */
+    static DataSource withLanes(DataSource pool, ObjectProvider<RequestLanes> requestLanes,
+                                RequestLanes.Pool lanePool, long connectionTimeoutMs) {
+        RequestLanes lanes = requestLanes.getIfAvailable();
+        return lanes != null && lanes.hasPool(lanePool)
+                ? new LaneAwareDataSource(pool, lanes, lanePool, connectionTimeoutMs) : pool;
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties dataSourceProperties, Environment environment,
+                                               String poolName, int maximumPoolSize, long statementTimeoutMs) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        return configurePool(pool, environment, poolName, maximumPoolSize, statementTimeoutMs);
+    }
+
+    private static HikariDataSource configurePool(HikariDataSource pool, Environment environment,
+                                                  String poolName, int maximumPoolSize, long statementTimeoutMs) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+
+        pool.setPoolName(poolName);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(Math.min(pool.getMinimumIdle(), maximumPoolSize));
+        // Runaway queries are cancelled by the server rather than holding the connection; 0 leaves it unset
+        if (statementTimeoutMs > 0) {
+            pool.setConnectionInitSql("SET statement_timeout = " + statementTimeoutMs);
+        }
+
+        logger.info("Configured {} with {} connections and statement_timeout {} ms",
+                poolName, maximumPoolSize, statementTimeoutMs);
+        return pool;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+    static class ReplicaConfig {
+
+        @Bean
+        public HikariDataSource replicaDataSource(
+                DataSourceProperties dataSourceProperties,
+                Environment environment,
+                @Value("${datasource.replica.url}") String url,
+                @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                @Value("${datasource.replica.maximum-pool-size:8}") int maximumPoolSize,
+                @Value("${datasource.replica.statement-timeout-ms:30000}") long statementTimeoutMs) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            return configurePool(pool, environment, "trade-replica-pool", maximumPoolSize, statementTimeoutMs);
+        }
+
+        @Bean
+        public ReplicaLagMonitor replicaLagMonitor(
+                @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                MeterRegistry meterRegistry,
+                @Value("${datasource.replica.lag-query:}") String lagQuery,
+                @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                @Value("${datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs) {
+            return new ReplicaLagMonitor(replicaDataSource, meterRegistry,
+                    lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery, maxLagMs, checkIntervalMs);
+        }
+
+        @Bean
+        public ReplicaRoutingDataSource replicaRoutingDataSource(
+                @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                @Qualifier("readDataSource") DataSource readDataSource,
+                ReplicaLagMonitor replicaLagMonitor,
+                MeterRegistry meterRegistry,
+                ObjectProvider<RequestLanes> requestLanes,
+                @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+            return new ReplicaRoutingDataSource(replicaDataSource,
+                    withLanes(readDataSource, requestLanes, RequestLanes.Pool.READ, connectionTimeoutMs),
+                    replicaLagMonitor, meterRegistry);
+        }
+
+        @Bean
+        public ReplicaRoutingAspect replicaRoutingAspect(MeterRegistry meterRegistry) {
+            return new ReplicaRoutingAspect(meterRegistry);
+        }
+    }
+}
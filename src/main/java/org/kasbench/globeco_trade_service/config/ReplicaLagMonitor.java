@@ -0,0 +1,87 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures the read replica's replication lag. The replica is only usable while the
+ * last check succeeded recently and reported a lag within {@code maxLagMs}; a failed or stale
+ * check sends replica routes back to the primary until the next successful one.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Lag in milliseconds on a PostgreSQL standby; zero once it has replayed everything it received,
+     * and on a server that is not in recovery at all
+     */
+    public static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final long staleAfterNanos;
+
+    private volatile long lagMs = -1;
+    private volatile long lastSuccessNanos;
+    private volatile boolean checked;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, MeterRegistry meterRegistry, String lagQuery,
+                             long maxLagMs, long checkIntervalMs) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        // Allow a couple of missed checks before the last measurement is no longer trusted
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMs * 3);
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMs)
+                .description("Last measured replication lag of the read replica in milliseconds, -1 if unknown")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("Whether replica-eligible routes are currently served by the read replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                resultSet.next();
+                lagMs = Math.max(0, Math.round(resultSet.getDouble(1)));
+            }
+            lastSuccessNanos = System.nanoTime();
+            checked = true;
+            if (lagMs > maxLagMs) {
+                logger.debug("Read replica lag {} ms exceeds {} ms, reading from primary", lagMs, maxLagMs);
+            }
+        } catch (Exception e) {
+            lagMs = -1;
+            logger.warn("Read replica lag check failed, reading from primary: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = lagMs;
+        return checked && lag >= 0 && lag <= maxLagMs
+                && System.nanoTime() - lastSuccessNanos <= staleAfterNanos;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+}
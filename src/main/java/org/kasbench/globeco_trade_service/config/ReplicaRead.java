@@ -0,0 +1,23 @@
+package org.kasbench.globeco_trade_service.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only endpoint whose read-only transactions may be served by the read replica.
+ * Only apply this where slightly stale data is acceptable; anything that reads back its own
+ * writes (such as the refetch after a submit) must stay on the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+
+    /**
+     * Route name used to tag the routing metrics; defaults to the method name
+     */
+    String value() default "";
+}
@@ -0,0 +1,42 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks the thread as running a {@link ReplicaRead} route for the duration of the annotated call,
+ * and times each call by route and by the database that served it.
+ */
+@Aspect
+public class ReplicaRoutingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(replicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint, ReplicaRead replicaRead) throws Throwable {
+        String route = replicaRead.value().isEmpty() ? joinPoint.getSignature().getName() : replicaRead.value();
+        ReplicaRoutingDataSource.Route previous = ReplicaRoutingDataSource.beginRoute(route);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            String target = ReplicaRoutingDataSource.currentTarget();
+            ReplicaRoutingDataSource.endRoute(previous);
+            Timer.builder("datasource.route.requests")
+                    .description("Replica-eligible requests by route and by the database that served them")
+                    .tag("route", route)
+                    .tag("target", target == null ? "none" : target)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
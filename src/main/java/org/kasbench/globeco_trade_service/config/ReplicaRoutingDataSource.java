@@ -0,0 +1,99 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read-only DataSource that sends connections for {@link ReplicaRead} routes to the read replica
+ * while the replica is within the allowed replication lag, and everything else, including replica
+ * routes while the replica is lagging or unreachable, to the primary's read pool.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String REPLICA = "replica";
+    public static final String PRIMARY = "primary";
+
+    /**
+     * Cache condition for results read inside a replica route: a replica may still return rows that a
+     * write on the primary has already evicted, so results it served must not go back into the cache
+     */
+    public static final String SERVED_BY_REPLICA =
+            "T(org.kasbench.globeco_trade_service.config.ReplicaRoutingDataSource).servedByReplica()";
+
+    private static final ThreadLocal<Route> CURRENT_ROUTE = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource replicaDataSource, DataSource primaryReadDataSource,
+                                    ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.meterRegistry = meterRegistry;
+        setTargetDataSources(Map.of(REPLICA, replicaDataSource, PRIMARY, primaryReadDataSource));
+        setDefaultTargetDataSource(primaryReadDataSource);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = CURRENT_ROUTE.get();
+        if (route == null) {
+            return PRIMARY;
+        }
+        String target = lagMonitor.isReplicaUsable() ? REPLICA : PRIMARY;
+        route.target = target;
+        Counter.builder("datasource.route.connections")
+                .description("Read-only connections taken for replica-eligible routes, by the database that served them")
+                .tag("route", route.name)
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment();
+        return target;
+    }
+
+    /**
+     * Mark the current thread as running a replica-eligible route until {@link #endRoute} is called
+     * with the returned value
+     */
+    static Route beginRoute(String name) {
+        Route previous = CURRENT_ROUTE.get();
+        CURRENT_ROUTE.set(new Route(name));
+        return previous;
+    }
+
+    static void endRoute(Route previous) {
+        if (previous == null) {
+            CURRENT_ROUTE.remove();
+        } else {
+            CURRENT_ROUTE.set(previous);
+        }
+    }
+
+    /**
+     * Database that served the current route's last connection, or null if it took none
+     */
+    static String currentTarget() {
+        Route route = CURRENT_ROUTE.get();
+        return route == null ? null : route.target;
+    }
+
+    /**
+     * Whether the current route's last connection came from the replica
+     */
+    public static boolean servedByReplica() {
+        return REPLICA.equals(currentTarget());
+    }
+
+    static final class Route {
+        private final String name;
+        private volatile String target;
+
+        private Route(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime state of the bulkhead lanes: request matching, per-lane concurrency permits and the
+ * database connection budget of each pool. Of a pool's connections, each lane's reserved
+ * connections are only usable by that lane; the rest form a shared budget for all other work,
+ * including requests outside any lane and background jobs. With separate read and write pools,
+ * each pool has its own budget, sized from that pool.
+ */
+public class RequestLanes {
+
+    /**
+     * Connection pool a budget applies to. WRITE is also the only pool when reads and writes share one.
+     */
+    public enum Pool { WRITE, READ }
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<Pool, Semaphore> sharedConnections = new EnumMap<>(Pool.class);
+    private final Map<Pool, Integer> sharedConnectionCounts = new EnumMap<>(Pool.class);
+
+    /**
+     * Lanes over a single pool shared by reads and writes
+     */
+    public RequestLanes(BulkheadProperties properties, int totalConnections) {
+        this(properties, totalConnections, 0);
+    }
+
+    /**
+     * Lanes over separate write and read pools; a read pool of 0 connections means there is none
+     */
+    public RequestLanes(BulkheadProperties properties, int writeConnections, int readConnections) {
+        for (Map.Entry<String, BulkheadProperties.Lane> entry : properties.getLanes().entrySet()) {
+            lanes.add(new Lane(entry.getKey(), entry.getValue(), readConnections > 0));
+        }
+        addPool(Pool.WRITE, writeConnections);
+        if (readConnections > 0) {
+            addPool(Pool.READ, readConnections);
+        }
+    }
+
+    private void addPool(Pool pool, int totalConnections) {
+        int reserved = 0;
+        for (Lane lane : lanes) {
+            Semaphore reservedConnections = lane.reservedConnections.get(pool);
+            reserved += reservedConnections != null ? reservedConnections.availablePermits() : 0;
+        }
+        if (reserved >= totalConnections) {
+            throw new IllegalArgumentException("Bulkhead lanes reserve " + reserved + " connections, but the "
+                    + pool.name().toLowerCase() + " pool only has " + totalConnections);
+        }
+        sharedConnectionCounts.put(pool, totalConnections - reserved);
+        sharedConnections.put(pool, new Semaphore(totalConnections - reserved, true));
+    }
+
+    /**
+     * The lane a request belongs to, or null if it matches none
+     */
+    public Lane match(String method, String path) {
+        for (Lane lane : lanes) {
+            if (lane.matches(method, path)) {
+                return lane;
+            }
+        }
+        return null;
+    }
+
+    public List<Lane> getLanes() {
+        return Collections.unmodifiableList(lanes);
+    }
+
+    /**
+     * Lane of the request being processed on this thread, or null
+     */
+    public static Lane currentLane() {
+        return CURRENT_LANE.get();
+    }
+
+    static void setCurrentLane(Lane lane) {
+        if (lane == null) {
+            CURRENT_LANE.remove();
+        } else {
+            CURRENT_LANE.set(lane);
+        }
+    }
+
+    /**
+     * Whether there is a connection budget for the given pool
+     */
+    public boolean hasPool(Pool pool) {
+        return sharedConnections.containsKey(pool);
+    }
+
+    /**
+     * Take a connection permit of the given pool for the current thread's lane: a reserved one if
+     * available, otherwise a shared one, waiting up to {@code timeoutMs}.
+     * @return the semaphore the permit must be returned to
+     */
+    Semaphore acquireConnectionPermit(Pool pool, long timeoutMs) throws SQLTransientConnectionException {
+        Lane lane = currentLane();
+        Semaphore reserved = lane != null ? lane.reservedConnections.get(pool) : null;
+        if (reserved != null && reserved.tryAcquire()) {
+            return reserved;
+        }
+        Semaphore shared = sharedConnections.get(pool);
+        try {
+            if (shared.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return shared;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new SQLTransientConnectionException("No " + pool.name().toLowerCase() + " database connection available for "
+                + (lane != null ? "bulkhead lane '" + lane.getName() + "'" : "shared work")
+                + " within " + timeoutMs + " ms");
+    }
+
+    public int getAvailableSharedConnections(Pool pool) {
+        return sharedConnections.get(pool).availablePermits();
+    }
+
+    public int getSharedConnectionCount(Pool pool) {
+        return sharedConnectionCounts.get(pool);
+    }
+
+    /**
+     * One bulkhead lane
+     */
+    public static class Lane {
+        private final String name;
+        private final List<String[]> patterns = new ArrayList<>();
+        private final Semaphore slots;
+        private final long maxWaitMs;
+        private final boolean priority;
+        private final Map<Pool, Semaphore> reservedConnections = new EnumMap<>(Pool.class);
+
+        Lane(String name, BulkheadProperties.Lane properties, boolean separateReadPool) {
+            this.name = name;
+            for (String pattern : properties.getPatterns()) {
+                String trimmed = pattern.trim();
+                int space = trimmed.indexOf(' ');
+                // {method or null, path pattern}
+                patterns.add(space > 0
+                        ? new String[] {trimmed.substring(0, space), trimmed.substring(space + 1).trim()}
+                        : new String[] {null, trimmed});
+            }
+            this.slots = new Semaphore(properties.getMaxConcurrent(), true);
+            this.maxWaitMs = properties.getMaxWaitMs();
+            this.priority = properties.isPriority();
+            if (properties.getReservedConnections() > 0) {
+                reservedConnections.put(Pool.WRITE, new Semaphore(properties.getReservedConnections(), true));
+            }
+            if (separateReadPool && properties.getReservedReadConnections() > 0) {
+                reservedConnections.put(Pool.READ, new Semaphore(properties.getReservedReadConnections(), true));
+            }
+        }
+
+        boolean matches(String method, String path) {
+            for (String[] pattern : patterns) {
+                if ((pattern[0] == null || pattern[0].equalsIgnoreCase(method))
+                        && PATH_MATCHER.match(pattern[1], path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Take a slot, queueing up to the lane's max wait
+         */
+        boolean tryEnter() {
+            try {
+                return maxWaitMs > 0 ? slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS) : slots.tryAcquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void exit() {
+            slots.release();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isPriority() {
+            return priority;
+        }
+
+        public int getAvailableSlots() {
+            return slots.availablePermits();
+        }
+
+        public int getQueueLength() {
+            return slots.getQueueLength();
+        }
+
+        public int getAvailableReservedConnections(Pool pool) {
+            Semaphore reserved = reservedConnections.get(pool);
+            return reserved != null ? reserved.availablePermits() : 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service-wide retry budget for calls to the execution service, shared by every layer that retries.
+ * A token bucket: each primary call deposits {@code ratio} tokens, each retry spends one, and a small
+ * reserve trickles in over time so that low-traffic periods can still retry. During an incident the
+ * bucket drains and retries stop, capping retries at roughly {@code ratio} of primary calls instead of
+ * multiplying load on a struggling downstream.
+ */
+@Component
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxTokens;
+
+    private final Counter callsCounter;
+    private final Counter grantedCounter;
+    private final Counter exhaustedCounter;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public RetryBudget(
+            @Value("${retry.budget.ratio:0.1}") double ratio,
+            @Value("${retry.budget.min-retries-per-second:1}") double minRetriesPerSecond,
+            @Value("${retry.budget.max-tokens:100}") double maxTokens,
+            MeterRegistry meterRegistry) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxTokens = maxTokens;
+        // Start with one second of reserve rather than a full bucket, so a restart cannot unleash a burst
+        this.tokens = Math.min(minRetriesPerSecond, maxTokens);
+        this.lastRefillNanos = System.nanoTime();
+
+        this.callsCounter = Counter.builder("retry.budget.calls")
+                .description("Primary calls that deposited into the retry budget")
+                .register(meterRegistry);
+        this.grantedCounter = Counter.builder("retry.budget.retries")
+                .description("Retries checked against the retry budget")
+                .tag("result", "granted")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("retry.budget.retries")
+                .description("Retries checked against the retry budget")
+                .tag("result", "exhausted")
+                .register(meterRegistry);
+        Gauge.builder("retry.budget.tokens", this, RetryBudget::availableTokens)
+                .description("Retries currently available in the retry budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a primary (first) attempt of a call
+     */
+    public synchronized void recordCall() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+        callsCounter.increment();
+    }
+
+    /**
+     * Spend one retry from the budget.
+     * @return false if the budget is exhausted and the caller must not retry now
+     */
+    public synchronized boolean tryAcquireRetry() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            grantedCounter.increment();
+            return true;
+        }
+        exhaustedCounter.increment();
+        return false;
+    }
+
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        tokens = Math.min(maxTokens, tokens + elapsedSeconds * minRetriesPerSecond);
+    }
+}
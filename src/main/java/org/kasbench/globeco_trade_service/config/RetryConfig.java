@@ -6,6 +6,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
@@ -14,6 +16,7 @@ import org.springframework.web.client.RestClientException;
 
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
+import java.util.Map;
 
 @Configuration
 @EnableRetry
@@ -57,18 +60,42 @@ public class RetryConfig {
      * - Configurable exponential backoff (default: 1s initial, 2x multiplier, 30s max)
      * - Retries on various network and timeout exceptions
      * - Retries on 5xx server errors but not 4xx client errors
+     * - Every retry is paid for from the shared {@link RetryBudget}; once it is exhausted, calls fail
+     *   after their first attempt. Executions that the ExecutionFailureHandler re-submits are
+     *   sent as single attempts instead, since the handler retries them itself.
      */
     @Bean
     @Qualifier("executionServiceRetryTemplate")
     @org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean(name = "executionServiceRetryTemplate")
-    public RetryTemplate executionServiceRetryTemplate() {
+    public RetryTemplate executionServiceRetryTemplate(RetryBudget retryBudget) {
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(executionMaxAttempts, Map.of(
+            ResourceAccessException.class, true,           // Network timeouts, connection refused
+            SocketTimeoutException.class, true,            // Socket timeouts
+            ConnectException.class, true,                  // Connection failures
+            HttpServerErrorException.class, true));        // 5xx server errors
+
+        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(executionInitialDelay);
+        backOffPolicy.setMultiplier(executionMultiplier);
+        backOffPolicy.setMaxInterval(executionMaxDelay);
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new BudgetedRetryPolicy(retryPolicy, retryBudget));
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+    
+    /**
+     * Single-attempt RetryTemplate for the layers above the execution service client.
+     * The client already retries within the retry budget, so retrying again around it
+     * would multiply downstream calls per logical request.
+     */
+    @Bean
+    @Qualifier("executionServiceSingleAttemptTemplate")
+    @org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean(name = "executionServiceSingleAttemptTemplate")
+    public RetryTemplate executionServiceSingleAttemptTemplate() {
         return RetryTemplate.builder()
-            .maxAttempts(executionMaxAttempts)
-            .exponentialBackoff(executionInitialDelay, executionMultiplier, executionMaxDelay)
-            .retryOn(ResourceAccessException.class)           // Network timeouts, connection refused
-            .retryOn(SocketTimeoutException.class)            // Socket timeouts
-            .retryOn(ConnectException.class)                  // Connection failures
-            .retryOn(HttpServerErrorException.class)          // 5xx server errors
+            .maxAttempts(1)
             .build();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for @Scheduled jobs. Boot's default scheduler runs every job on one thread, so a long
+ * reconciliation or replay run would hold up the rest, including the partition lease heartbeat.
+ * The jobs share a pool here, and the heartbeat has a thread of its own so that no job can delay
+ * lease renewal.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * Default scheduler for @Scheduled methods that do not name one
+     */
+    @Bean("taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Single-thread scheduler reserved for the partition lease heartbeat
+     */
+    @Bean("partitionHeartbeatScheduler")
+    public ThreadPoolTaskScheduler partitionHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("partition-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,36 @@
+package org.kasbench.globeco_trade_service.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view for every endpoint except the excluded ones. Used with
+ * {@code spring.jpa.open-in-view=false}: the v2 query endpoints load everything they need in a
+ * short read-only transaction and must not have a request-wide EntityManager that could pull a
+ * connection back out of the pool during enrichment, while the v1 endpoints still rely on lazy
+ * loading while rendering their responses.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpa.open-in-view.scoped", havingValue = "true")
+public class ScopedOpenInViewConfiguration {
+
+    @Bean
+    public WebMvcConfigurer scopedOpenInViewConfigurer(
+            EntityManagerFactory entityManagerFactory,
+            @Value("${jpa.open-in-view.excluded-paths:/api/v2/**}") String[] excludedPaths) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addWebRequestInterceptor(interceptor).excludePathPatterns(excludedPaths);
+            }
+        };
+    }
+}
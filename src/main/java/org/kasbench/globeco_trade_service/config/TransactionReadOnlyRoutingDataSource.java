@@ -0,0 +1,34 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource that takes connections from the read-only DataSource while the current Spring
+ * transaction is read-only, and from the read-write DataSource otherwise.
+ * <p>
+ * The transaction's read-only flag is set whatever the Hibernate connection handling mode.
+ * Hibernate only marks the JDBC connection itself read-only when it holds the connection for the
+ * whole session, so routing on the connection flag alone sends every transaction to the write pool
+ * once connections are released after each transaction.
+ */
+public class TransactionReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String READ_WRITE = "read-write";
+    private static final String READ_ONLY = "read-only";
+
+    public TransactionReadOnlyRoutingDataSource(DataSource readWriteDataSource, DataSource readOnlyDataSource) {
+        setTargetDataSources(Map.of(READ_WRITE, readWriteDataSource, READ_ONLY, readOnlyDataSource));
+        setDefaultTargetDataSource(readWriteDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ_ONLY : READ_WRITE;
+    }
+}
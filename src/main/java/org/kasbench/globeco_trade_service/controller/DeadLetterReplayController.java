@@ -0,0 +1,80 @@
+package org.kasbench.globeco_trade_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO;
+import org.kasbench.globeco_trade_service.service.DeadLetterReplayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/deadLetter")
+@Tag(name = "Dead Letter Queue", description = "Replay of failed compensations")
+public class DeadLetterReplayController {
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayController.class);
+
+    private final DeadLetterReplayService replayService;
+
+    public DeadLetterReplayController(DeadLetterReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    @PostMapping("/replay")
+    @Operation(
+        summary = "Replay the compensation dead letter queue",
+        description = "Replays entries after the replay cursor, deduplicated by execution ID. COMPENSATE deletes the " +
+                     "execution and takes its quantity back off the trade order's quantity sent; RESUBMIT sends the " +
+                     "execution to the execution service again. Executions that have been submitted since, or no longer " +
+                     "exist, are skipped. Entries dead-lettered again during the replay are left for the next one. The " +
+                     "cursor is checkpointed as the replay progresses, so a replay that stops early can simply be repeated."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Replay finished",
+            content = @Content(schema = @Schema(implementation = DeadLetterReplayResponseDTO.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid maxEvents"),
+        @ApiResponse(responseCode = "409", description = "A replay is already running")
+    })
+    public ResponseEntity<DeadLetterReplayResponseDTO> replay(
+            @RequestParam(name = "mode", defaultValue = "COMPENSATE") DeadLetterReplayResponseDTO.ReplayMode mode,
+            @RequestParam(name = "maxEvents", defaultValue = "10000") int maxEvents) {
+        if (maxEvents < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(replayService.replay(mode, maxEvents));
+        } catch (IllegalStateException e) {
+            logger.debug("Rejected dead letter queue replay: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/replay")
+    @Operation(summary = "Report of the most recent dead letter queue replay")
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Most recent replay",
+            content = @Content(schema = @Schema(implementation = DeadLetterReplayResponseDTO.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "No replay has run since startup")
+    })
+    public ResponseEntity<DeadLetterReplayResponseDTO> lastReplay() {
+        return replayService.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
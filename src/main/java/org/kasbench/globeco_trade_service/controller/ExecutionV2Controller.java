@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.kasbench.globeco_trade_service.config.ReplicaRead;
 import org.kasbench.globeco_trade_service.dto.ExecutionPageResponseDTO;
 import org.kasbench.globeco_trade_service.service.ExecutionEnhancedService;
 import org.kasbench.globeco_trade_service.util.SortingUtils;
@@ -46,6 +47,7 @@ public class ExecutionV2Controller {
             @ApiResponse(responseCode = "400", description = "Invalid query parameters", content = @Content(schema = @Schema(implementation = TradeOrderV2Controller.ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = TradeOrderV2Controller.ErrorResponse.class)))
     })
+    @ReplicaRead
     public ResponseEntity<ExecutionPageResponseDTO> getExecutionsV2(
             HttpServletRequest request,
 
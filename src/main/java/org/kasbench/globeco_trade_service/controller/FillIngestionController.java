@@ -0,0 +1,130 @@
+package org.kasbench.globeco_trade_service.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.FillIngestionResponseDTO;
+import org.kasbench.globeco_trade_service.service.FillIngestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/v1/executions")
+@Tag(name = "Execution Fills", description = "Streaming ingestion of execution fills")
+public class FillIngestionController {
+    private static final Logger logger = LoggerFactory.getLogger(FillIngestionController.class);
+    
+    public static final String NDJSON = "application/x-ndjson";
+    
+    private final FillIngestionService fillIngestionService;
+    private final ObjectMapper objectMapper;
+    
+    public FillIngestionController(FillIngestionService fillIngestionService, ObjectMapper objectMapper) {
+        this.fillIngestionService = fillIngestionService;
+        this.objectMapper = objectMapper;
+    }
+    
+    @PostMapping(value = "/fills/stream", consumes = NDJSON)
+    @Operation(
+        summary = "Stream cumulative execution fills",
+        description = "Accepts a long-lived chunked stream of newline-delimited JSON fills ({id, executionStatus, quantityFilled}). " +
+                     "Fills are applied asynchronously in per-execution order; superseded fills for the same execution may be coalesced. " +
+                     "The response is sent once every queued fill has been written or has failed, and only written fills count as accepted. " +
+                     "The version field is ignored: a fill is only applied if it does not move quantity filled backwards, so resending fills is safe."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream consumed; every valid fill was written",
+            content = @Content(schema = @Schema(implementation = FillIngestionResponseDTO.class))
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Ingestion saturated or disabled, or fills could not be written; resume after the received count",
+            content = @Content(schema = @Schema(implementation = FillIngestionResponseDTO.class))
+        )
+    })
+    public ResponseEntity<FillIngestionResponseDTO> streamFills(HttpServletRequest request) throws IOException {
+        if (!fillIngestionService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new FillIngestionResponseDTO(FillIngestionResponseDTO.StreamStatus.SATURATED, 0, 0, 0));
+        }
+        
+        FillIngestionService.Receipt receipt = fillIngestionService.newReceipt();
+        int received = 0;
+        int invalid = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                ExecutionFillDTO fill;
+                try {
+                    fill = objectMapper.readValue(line, ExecutionFillDTO.class);
+                } catch (JsonProcessingException e) {
+                    logger.debug("Skipping malformed fill line {}: {}", received + 1, e.getOriginalMessage());
+                    received++;
+                    invalid++;
+                    continue;
+                }
+                
+                FillIngestionService.SubmitOutcome outcome = fillIngestionService.submit(fill, receipt, received);
+                if (outcome == FillIngestionService.SubmitOutcome.REJECTED) {
+                    // Stop reading so everything after the last received line can be resent in order
+                    logger.warn("Fill ingestion saturated after {} fills, ending stream", received);
+                    return settle(receipt, FillIngestionResponseDTO.StreamStatus.SATURATED, received, invalid);
+                }
+                received++;
+                if (outcome == FillIngestionService.SubmitOutcome.INVALID) {
+                    invalid++;
+                }
+            }
+        }
+        
+        return settle(receipt, FillIngestionResponseDTO.StreamStatus.COMPLETED, received, invalid);
+    }
+    
+    /**
+     * Wait for the queued fills to be written, and cut the received count back to the first fill
+     * that was not, so the producer resends it and everything after it
+     */
+    private ResponseEntity<FillIngestionResponseDTO> settle(FillIngestionService.Receipt receipt,
+            FillIngestionResponseDTO.StreamStatus status, int received, int invalid) {
+        fillIngestionService.awaitSettled(receipt);
+        int firstUncommitted = receipt.firstUncommitted();
+        if (firstUncommitted >= 0 && firstUncommitted < received) {
+            logger.warn("Fill {} of the stream was not written, asking the producer to resume from it", firstUncommitted);
+            status = FillIngestionResponseDTO.StreamStatus.INCOMPLETE;
+            received = firstUncommitted;
+        }
+        
+        FillIngestionResponseDTO body = new FillIngestionResponseDTO(status, received, receipt.getCommitted(), invalid);
+        if (status == FillIngestionResponseDTO.StreamStatus.COMPLETED) {
+            logger.debug("Fill stream completed: {} received, {} accepted, {} invalid",
+                    received, body.getAccepted(), invalid);
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(body);
+    }
+}
@@ -0,0 +1,44 @@
+package org.kasbench.globeco_trade_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kasbench.globeco_trade_service.dto.PartitionOwnershipDTO;
+import org.kasbench.globeco_trade_service.service.PartitionCoordinator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@Tag(name = "Background Jobs", description = "Ownership of background work across replicas")
+public class JobPartitionController {
+
+    private final PartitionCoordinator partitionCoordinator;
+
+    public JobPartitionController(PartitionCoordinator partitionCoordinator) {
+        this.partitionCoordinator = partitionCoordinator;
+    }
+
+    @GetMapping("/partitions")
+    @Operation(
+        summary = "Ownership of background work partitions",
+        description = "Live replicas, the partitions owned by the replica answering, and the owner of every " +
+                     "partition as recorded in the lease table. Background jobs such as the retry drainer and " +
+                     "execution reconciliation only process work in the partitions their replica owns."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Partition ownership",
+            content = @Content(schema = @Schema(implementation = PartitionOwnershipDTO.class))
+        )
+    })
+    public ResponseEntity<PartitionOwnershipDTO> getPartitions() {
+        return ResponseEntity.ok(partitionCoordinator.getOwnership());
+    }
+}
@@ -9,6 +9,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.kasbench.globeco_trade_service.config.ReplicaRead;
 import org.kasbench.globeco_trade_service.dto.TradeOrderPageResponseDTO;
 import org.kasbench.globeco_trade_service.service.TradeOrderEnhancedService;
 import org.kasbench.globeco_trade_service.util.SortingUtils;
@@ -59,6 +60,7 @@ public class TradeOrderV2Controller {
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
+    @ReplicaRead
     public ResponseEntity<TradeOrderPageResponseDTO> getTradeOrdersV2(
             @Parameter(description = "Maximum number of results to return (1-1000)", example = "50")
             @RequestParam(required = false, defaultValue = "50") 
@@ -114,6 +116,14 @@ public class TradeOrderV2Controller {
             @RequestParam(name = "quantitySent.max", required = false) 
             BigDecimal quantitySentMax,
             
+            @Parameter(description = "Minimum quantity filled filter", example = "50.00")
+            @RequestParam(name = "quantityFilled.min", required = false) 
+            BigDecimal quantityFilledMin,
+            
+            @Parameter(description = "Maximum quantity filled filter", example = "500.00")
+            @RequestParam(name = "quantityFilled.max", required = false) 
+            BigDecimal quantityFilledMax,
+            
             @Parameter(description = "Filter by blotter abbreviation (comma-separated for OR condition)", 
                       example = "EQ,FI")
             @RequestParam(name = "blotter.abbreviation", required = false) 
@@ -135,12 +145,13 @@ public class TradeOrderV2Controller {
             // Validate quantity ranges
             validateQuantityRanges(quantityMin, quantityMax, "quantity");
             validateQuantityRanges(quantitySentMin, quantitySentMax, "quantitySent");
+            validateQuantityRanges(quantityFilledMin, quantityFilledMax, "quantityFilled");
             
             // Call enhanced service
             TradeOrderPageResponseDTO response = tradeOrderEnhancedService.getTradeOrdersV2(
                 limit, offset, sort, id, orderId, orderType, portfolioName, securityTicker,
                 quantityMin, quantityMax, quantitySentMin, quantitySentMax, 
-                blotterAbbreviation, submitted
+                quantityFilledMin, quantityFilledMax, blotterAbbreviation, submitted
             );
             
             logger.debug("Successfully retrieved {} trade orders out of {} total", 
@@ -0,0 +1,39 @@
+package org.kasbench.globeco_trade_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request DTO for bulk execution fills.
+ * Contains the fills to apply in a single transaction, each checked against its own version.
+ */
+public class BulkExecutionFillRequestDTO {
+    
+    @NotNull(message = "Fills list cannot be null")
+    @Size(min = 1, max = 5000, message = "Bulk size must be between 1 and 5000")
+    private List<@Valid ExecutionFillDTO> fills;
+    
+    public BulkExecutionFillRequestDTO() {
+    }
+    
+    public BulkExecutionFillRequestDTO(List<ExecutionFillDTO> fills) {
+        this.fills = fills;
+    }
+    
+    public List<ExecutionFillDTO> getFills() {
+        return fills;
+    }
+    
+    public void setFills(List<ExecutionFillDTO> fills) {
+        this.fills = fills;
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkExecutionFillRequestDTO{" +
+                "fills=" + (fills != null ? fills.size() + " items" : "null") +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package org.kasbench.globeco_trade_service.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for bulk execution fills.
+ * Contains the overall status and the result of each fill in request order.
+ */
+public class BulkExecutionFillResponseDTO {
+    
+    public enum BulkStatus {
+        SUCCESS, PARTIAL, FAILURE
+    }
+    
+    private BulkStatus status;
+    private String message;
+    private Integer totalRequested;
+    private Integer successful;
+    private Integer failed;
+    private List<ExecutionFillResultDTO> results;
+    
+    public BulkExecutionFillResponseDTO() {
+    }
+    
+    public BulkExecutionFillResponseDTO(BulkStatus status, String message, Integer totalRequested,
+                                        Integer successful, Integer failed, List<ExecutionFillResultDTO> results) {
+        this.status = status;
+        this.message = message;
+        this.totalRequested = totalRequested;
+        this.successful = successful;
+        this.failed = failed;
+        this.results = results;
+    }
+    
+    public BulkStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BulkStatus status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public Integer getTotalRequested() {
+        return totalRequested;
+    }
+    
+    public void setTotalRequested(Integer totalRequested) {
+        this.totalRequested = totalRequested;
+    }
+    
+    public Integer getSuccessful() {
+        return successful;
+    }
+    
+    public void setSuccessful(Integer successful) {
+        this.successful = successful;
+    }
+    
+    public Integer getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+    
+    public List<ExecutionFillResultDTO> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<ExecutionFillResultDTO> results) {
+        this.results = results;
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkExecutionFillResponseDTO{" +
+                "status=" + status +
+                ", message='" + message + '\'' +
+                ", totalRequested=" + totalRequested +
+                ", successful=" + successful +
+                ", failed=" + failed +
+                ", results=" + (results != null ? results.size() + " items" : "null") +
+                '}';
+    }
+}
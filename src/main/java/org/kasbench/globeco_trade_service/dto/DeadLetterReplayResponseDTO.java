@@ -0,0 +1,116 @@
+package org.kasbench.globeco_trade_service.dto;
+
+/**
+ * Summary of one replay of the compensation dead letter queue.
+ * Every entry read is accounted for exactly once: superseded by a later entry for the same
+ * execution, skipped because there was nothing left to do, applied, or failed again (and so
+ * sent back to the dead letter queue).
+ */
+public class DeadLetterReplayResponseDTO {
+
+    public enum ReplayMode {
+        COMPENSATE, RESUBMIT
+    }
+
+    private ReplayMode mode;
+    private Integer read;
+    private Integer duplicates;
+    private Integer skipped;
+    private Integer applied;
+    private Integer failed;
+    private Long elapsedMs;
+    private Double eventsPerSecond;
+
+    public DeadLetterReplayResponseDTO() {
+    }
+
+    public DeadLetterReplayResponseDTO(ReplayMode mode, Integer read, Integer duplicates, Integer skipped,
+            Integer applied, Integer failed, Long elapsedMs) {
+        this.mode = mode;
+        this.read = read;
+        this.duplicates = duplicates;
+        this.skipped = skipped;
+        this.applied = applied;
+        this.failed = failed;
+        this.elapsedMs = elapsedMs;
+        this.eventsPerSecond = elapsedMs > 0 ? read * 1000.0 / elapsedMs : (double) read;
+    }
+
+    public ReplayMode getMode() {
+        return mode;
+    }
+
+    public void setMode(ReplayMode mode) {
+        this.mode = mode;
+    }
+
+    public Integer getRead() {
+        return read;
+    }
+
+    public void setRead(Integer read) {
+        this.read = read;
+    }
+
+    public Integer getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(Integer duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public Integer getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(Integer skipped) {
+        this.skipped = skipped;
+    }
+
+    public Integer getApplied() {
+        return applied;
+    }
+
+    public void setApplied(Integer applied) {
+        this.applied = applied;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(Double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetterReplayResponseDTO{" +
+                "mode=" + mode +
+                ", read=" + read +
+                ", duplicates=" + duplicates +
+                ", skipped=" + skipped +
+                ", applied=" + applied +
+                ", failed=" + failed +
+                ", elapsedMs=" + elapsedMs +
+                ", eventsPerSecond=" + eventsPerSecond +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package org.kasbench.globeco_trade_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * One entry of a bulk fill request: the fill of {@link ExecutionPutFillDTO} plus the execution it applies to.
+ */
+public class ExecutionFillDTO extends ExecutionPutFillDTO {
+
+    @NotNull(message = "Execution id cannot be null")
+    private Integer id;
+
+    public ExecutionFillDTO() {
+    }
+
+    public ExecutionFillDTO(Integer id, String executionStatus, BigDecimal quantityFilled, Integer version) {
+        super(executionStatus, quantityFilled, version);
+        this.id = id;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+}
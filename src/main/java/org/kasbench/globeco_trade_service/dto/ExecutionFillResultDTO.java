@@ -0,0 +1,81 @@
+package org.kasbench.globeco_trade_service.dto;
+
+/**
+ * Individual fill result within a bulk fill response.
+ * On success, version is the execution's new version.
+ */
+public class ExecutionFillResultDTO {
+    
+    public enum ResultStatus {
+        SUCCESS, NOT_FOUND, CONFLICT, INVALID
+    }
+    
+    private Integer requestIndex;
+    private Integer executionId;
+    private ResultStatus status;
+    private String message;
+    private Integer version;
+    
+    public ExecutionFillResultDTO() {
+    }
+    
+    public ExecutionFillResultDTO(Integer requestIndex, Integer executionId, ResultStatus status,
+                                  String message, Integer version) {
+        this.requestIndex = requestIndex;
+        this.executionId = executionId;
+        this.status = status;
+        this.message = message;
+        this.version = version;
+    }
+    
+    public Integer getRequestIndex() {
+        return requestIndex;
+    }
+    
+    public void setRequestIndex(Integer requestIndex) {
+        this.requestIndex = requestIndex;
+    }
+    
+    public Integer getExecutionId() {
+        return executionId;
+    }
+    
+    public void setExecutionId(Integer executionId) {
+        this.executionId = executionId;
+    }
+    
+    public ResultStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ResultStatus status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExecutionFillResultDTO{" +
+                "requestIndex=" + requestIndex +
+                ", executionId=" + executionId +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package org.kasbench.globeco_trade_service.dto;
+
+/**
+ * Summary of one fill ingestion stream, sent once every queued fill has been written or has failed.
+ * Accepted counts fills written to the database, including fills superseded by a written fill.
+ * When the stream was cut short because ingestion was saturated, or some fills could not be
+ * written, the producer should resume after the first {@code received} lines; every valid fill
+ * before them has been written. Resent fills that were already written are skipped as stale.
+ */
+public class FillIngestionResponseDTO {
+    
+    public enum StreamStatus {
+        COMPLETED, SATURATED, INCOMPLETE
+    }
+    
+    private StreamStatus status;
+    private Integer received;
+    private Integer accepted;
+    private Integer invalid;
+    
+    public FillIngestionResponseDTO() {
+    }
+    
+    public FillIngestionResponseDTO(StreamStatus status, Integer received, Integer accepted, Integer invalid) {
+        this.status = status;
+        this.received = received;
+        this.accepted = accepted;
+        this.invalid = invalid;
+    }
+    
+    public StreamStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StreamStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getReceived() {
+        return received;
+    }
+    
+    public void setReceived(Integer received) {
+        this.received = received;
+    }
+    
+    public Integer getAccepted() {
+        return accepted;
+    }
+    
+    public void setAccepted(Integer accepted) {
+        this.accepted = accepted;
+    }
+    
+    public Integer getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(Integer invalid) {
+        this.invalid = invalid;
+    }
+    
+    @Override
+    public String toString() {
+        return "FillIngestionResponseDTO{" +
+                "status=" + status +
+                ", received=" + received +
+                ", accepted=" + accepted +
+                ", invalid=" + invalid +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package org.kasbench.globeco_trade_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ownership of background work partitions as seen by one replica.
+ * Partitions missing from {@code partitionOwners} are currently unowned, typically while they
+ * move from a replica that left to one that joined.
+ */
+public class PartitionOwnershipDTO {
+
+    private String replicaId;
+    private Integer partitionCount;
+    private List<String> liveReplicas;
+    private List<Integer> ownedPartitions;
+    private Map<Integer, String> partitionOwners;
+
+    public PartitionOwnershipDTO() {
+    }
+
+    public PartitionOwnershipDTO(String replicaId, Integer partitionCount, List<String> liveReplicas,
+            List<Integer> ownedPartitions, Map<Integer, String> partitionOwners) {
+        this.replicaId = replicaId;
+        this.partitionCount = partitionCount;
+        this.liveReplicas = liveReplicas;
+        this.ownedPartitions = ownedPartitions;
+        this.partitionOwners = partitionOwners;
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    public void setReplicaId(String replicaId) {
+        this.replicaId = replicaId;
+    }
+
+    public Integer getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(Integer partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    public List<String> getLiveReplicas() {
+        return liveReplicas;
+    }
+
+    public void setLiveReplicas(List<String> liveReplicas) {
+        this.liveReplicas = liveReplicas;
+    }
+
+    public List<Integer> getOwnedPartitions() {
+        return ownedPartitions;
+    }
+
+    public void setOwnedPartitions(List<Integer> ownedPartitions) {
+        this.ownedPartitions = ownedPartitions;
+    }
+
+    public Map<Integer, String> getPartitionOwners() {
+        return partitionOwners;
+    }
+
+    public void setPartitionOwners(Map<Integer, String> partitionOwners) {
+        this.partitionOwners = partitionOwners;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionOwnershipDTO{" +
+                "replicaId='" + replicaId + '\'' +
+                ", partitionCount=" + partitionCount +
+                ", liveReplicas=" + liveReplicas +
+                ", ownedPartitions=" + ownedPartitions +
+                ", partitionOwners=" + partitionOwners +
+                '}';
+    }
+}
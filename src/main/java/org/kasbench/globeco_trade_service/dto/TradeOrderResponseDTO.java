@@ -8,6 +8,9 @@ public class TradeOrderResponseDTO {
     private String securityId;
     private java.math.BigDecimal quantity;
     private java.math.BigDecimal quantitySent = java.math.BigDecimal.ZERO;
+    private java.math.BigDecimal quantityFilled = java.math.BigDecimal.ZERO;
+    private Integer partFilledCount = 0;
+    private Integer fullyFilledCount = 0;
     private java.math.BigDecimal limitPrice;
     private java.time.OffsetDateTime tradeTimestamp;
     private BlotterResponseDTO blotter;
@@ -56,6 +59,24 @@ public class TradeOrderResponseDTO {
     public void setQuantitySent(java.math.BigDecimal quantitySent) {
         this.quantitySent = quantitySent;
     }
+    public java.math.BigDecimal getQuantityFilled() {
+        return quantityFilled;
+    }
+    public void setQuantityFilled(java.math.BigDecimal quantityFilled) {
+        this.quantityFilled = quantityFilled;
+    }
+    public Integer getPartFilledCount() {
+        return partFilledCount;
+    }
+    public void setPartFilledCount(Integer partFilledCount) {
+        this.partFilledCount = partFilledCount;
+    }
+    public Integer getFullyFilledCount() {
+        return fullyFilledCount;
+    }
+    public void setFullyFilledCount(Integer fullyFilledCount) {
+        this.fullyFilledCount = fullyFilledCount;
+    }
     public java.math.BigDecimal getLimitPrice() {
         return limitPrice;
     }
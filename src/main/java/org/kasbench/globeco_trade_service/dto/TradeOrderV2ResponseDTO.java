@@ -11,6 +11,9 @@ public class TradeOrderV2ResponseDTO {
     private SecurityDTO security;
     private BigDecimal quantity;
     private BigDecimal quantitySent;
+    private BigDecimal quantityFilled;
+    private Integer partFilledCount;
+    private Integer fullyFilledCount;
     private BigDecimal limitPrice;
     private OffsetDateTime tradeTimestamp;
     private BlotterResponseDTO blotter;
@@ -76,6 +79,30 @@ public class TradeOrderV2ResponseDTO {
         this.quantitySent = quantitySent;
     }
     
+    public BigDecimal getQuantityFilled() {
+        return quantityFilled;
+    }
+    
+    public void setQuantityFilled(BigDecimal quantityFilled) {
+        this.quantityFilled = quantityFilled;
+    }
+    
+    public Integer getPartFilledCount() {
+        return partFilledCount;
+    }
+    
+    public void setPartFilledCount(Integer partFilledCount) {
+        this.partFilledCount = partFilledCount;
+    }
+    
+    public Integer getFullyFilledCount() {
+        return fullyFilledCount;
+    }
+    
+    public void setFullyFilledCount(Integer fullyFilledCount) {
+        this.fullyFilledCount = fullyFilledCount;
+    }
+    
     public BigDecimal getLimitPrice() {
         return limitPrice;
     }
@@ -126,6 +153,9 @@ public class TradeOrderV2ResponseDTO {
                 ", security=" + security +
                 ", quantity=" + quantity +
                 ", quantitySent=" + quantitySent +
+                ", quantityFilled=" + quantityFilled +
+                ", partFilledCount=" + partFilledCount +
+                ", fullyFilledCount=" + fullyFilledCount +
                 ", limitPrice=" + limitPrice +
                 ", tradeTimestamp=" + tradeTimestamp +
                 ", blotter=" + blotter +
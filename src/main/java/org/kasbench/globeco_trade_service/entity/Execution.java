@@ -49,6 +49,9 @@ public class Execution {
     @Column(name = "execution_service_id")
     private Integer executionServiceId;
 
+    @Column(name = "submission_attempted_at")
+    private OffsetDateTime submissionAttemptedAt;
+
     @Version
     @Column(nullable = false)
     private Integer version = 1;
@@ -78,6 +81,8 @@ public class Execution {
     public void setLimitPrice(BigDecimal limitPrice) { this.limitPrice = limitPrice; }
     public Integer getExecutionServiceId() { return executionServiceId; }
     public void setExecutionServiceId(Integer executionServiceId) { this.executionServiceId = executionServiceId; }
+    public OffsetDateTime getSubmissionAttemptedAt() { return submissionAttemptedAt; }
+    public void setSubmissionAttemptedAt(OffsetDateTime submissionAttemptedAt) { this.submissionAttemptedAt = submissionAttemptedAt; }
     public Integer getVersion() { return version; }
     public void setVersion(Integer version) { this.version = version; }
 } 
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.kasbench.globeco_trade_service.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * An execution waiting to be re-submitted to the execution service, kept in the database so that
+ * pending submissions survive restarts while the execution service is unavailable.
+ */
+@Entity
+@Table(name = "execution_retry")
+public class ExecutionRetry {
+    @Id
+    @Column(name = "execution_id")
+    private Integer executionId;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private OffsetDateTime enqueuedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
+    public Integer getExecutionId() {
+        return executionId;
+    }
+    public void setExecutionId(Integer executionId) {
+        this.executionId = executionId;
+    }
+    public Integer getAttempts() {
+        return attempts;
+    }
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    public void setNextAttemptAt(OffsetDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    public OffsetDateTime getEnqueuedAt() {
+        return enqueuedAt;
+    }
+    public void setEnqueuedAt(OffsetDateTime enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+    public String getLastError() {
+        return lastError;
+    }
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    public Integer getVersion() {
+        return version;
+    }
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,41 @@
+package org.kasbench.globeco_trade_service.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Lease on a background job held by one replica. Leases are claimed and renewed with conditional
+ * updates so that at most one replica holds an unexpired lease at any time.
+ */
+@Entity
+@Table(name = "job_lease")
+public class JobLease {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public String getOwner() {
+        return owner;
+    }
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,51 @@
+package org.kasbench.globeco_trade_service.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Local replica of a portfolio's name, kept in sync with the portfolio service so that
+ * trade orders and executions can be filtered and sorted by portfolio name in SQL.
+ */
+@Entity
+@Table(name = "portfolio_reference")
+public class PortfolioReference {
+    @Id
+    @Column(name = "portfolio_id", columnDefinition = "char(24)")
+    private String portfolioId;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    public Integer getVersion() {
+        return version;
+    }
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,51 @@
+package org.kasbench.globeco_trade_service.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Local replica of a security's ticker, kept in sync with the security service so that
+ * trade orders and executions can be filtered and sorted by ticker in SQL.
+ */
+@Entity
+@Table(name = "security_reference")
+public class SecurityReference {
+    @Id
+    @Column(name = "security_id", columnDefinition = "char(24)")
+    private String securityId;
+
+    @Column(nullable = false, length = 50)
+    private String ticker;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
+    public String getSecurityId() {
+        return securityId;
+    }
+    public void setSecurityId(String securityId) {
+        this.securityId = securityId;
+    }
+    public String getTicker() {
+        return ticker;
+    }
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    public Integer getVersion() {
+        return version;
+    }
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -42,6 +42,32 @@ public class TradeOrder {
     @Column(name = "submitted")
     private Boolean submitted = false;
 
+    // Fill rollup of this order's executions. Only ever changed by the delta updates applied with each
+    // execution fill, never written back from the entity, so stale entities cannot overwrite it.
+    @Column(name = "quantity_filled", insertable = false, updatable = false,
+            columnDefinition = "decimal(18,8) default 0 not null")
+    private BigDecimal quantityFilled = BigDecimal.ZERO;
+
+    @Column(name = "part_filled_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer partFilledCount = 0;
+
+    @Column(name = "fully_filled_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer fullyFilledCount = 0;
+
+    // Read-only views of the replicated reference rows, used to filter and sort by ticker / portfolio name.
+    // No foreign key: reference rows are replicated asynchronously and may not exist yet.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "security_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private SecurityReference securityReference;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PortfolioReference portfolioReference;
+
     @Version
     @Column(nullable = false)
     private Integer version = 1;
@@ -118,4 +144,22 @@ public class TradeOrder {
     public void setSubmitted(Boolean submitted) {
         this.submitted = submitted;
     }
+    public BigDecimal getQuantityFilled() {
+        return quantityFilled;
+    }
+    public void setQuantityFilled(BigDecimal quantityFilled) {
+        this.quantityFilled = quantityFilled;
+    }
+    public Integer getPartFilledCount() {
+        return partFilledCount;
+    }
+    public void setPartFilledCount(Integer partFilledCount) {
+        this.partFilledCount = partFilledCount;
+    }
+    public Integer getFullyFilledCount() {
+        return fullyFilledCount;
+    }
+    public void setFullyFilledCount(Integer fullyFilledCount) {
+        this.fullyFilledCount = fullyFilledCount;
+    }
 } 
\ No newline at end of file
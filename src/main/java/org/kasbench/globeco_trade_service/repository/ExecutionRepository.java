@@ -1,20 +1,33 @@
 package org.kasbench.globeco_trade_service.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.kasbench.globeco_trade_service.entity.Execution;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExecutionRepository extends JpaRepository<Execution, Integer>, JpaSpecificationExecutor<Execution> {
+public interface ExecutionRepository extends JpaRepository<Execution, Integer>, JpaSpecificationExecutor<Execution>,
+        ExecutionRepositoryCustom {
     
     /**
      * Find execution by ID with all related entities eagerly fetched to avoid lazy loading issues
      */
+    @Transactional(readOnly = true)
     @Query("SELECT e FROM Execution e " +
            "LEFT JOIN FETCH e.executionStatus " +
            "LEFT JOIN FETCH e.blotter " +
@@ -23,4 +36,88 @@ public interface ExecutionRepository extends JpaRepository<Execution, Integer>,
            "LEFT JOIN FETCH e.destination " +
            "WHERE e.id = :id")
     Optional<Execution> findByIdWithAllRelations(@Param("id") Integer id);
-} 
\ No newline at end of file
+    
+    /**
+     * Current fill state of the given executions, for validating bulk fills without loading entities
+     */
+    @Query("SELECT e.id AS id, e.version AS version, e.quantityPlaced AS quantityPlaced, " +
+           "e.quantityFilled AS quantityFilled, e.executionStatus.id AS executionStatusId, " +
+           "e.tradeOrder.id AS tradeOrderId " +
+           "FROM Execution e WHERE e.id IN :ids")
+    List<FillState> findFillStatesByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * Those of the given executions the execution service has not received, locked so that they
+     * cannot be submitted while a failed submission is reversed
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Execution e WHERE e.id IN :ids AND e.executionServiceId IS NULL ORDER BY e.id")
+    List<Execution> findUnsubmittedForUpdate(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * Those of the given executions the execution service has not received, locked for submitting
+     * them. Rows another transaction holds are skipped rather than waited for, so two submitters
+     * never send the same execution.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM Execution e WHERE e.id IN :ids AND e.executionServiceId IS NULL ORDER BY e.id")
+    List<Execution> claimUnsubmittedForUpdate(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * Local IDs of the executions known to the execution service under the given ID, newest first
+     */
+    @Query("SELECT e.id FROM Execution e WHERE e.executionServiceId = :executionServiceId ORDER BY e.id DESC")
+    List<Integer> findIdsByExecutionServiceId(@Param("executionServiceId") Integer executionServiceId);
+    
+    /**
+     * Record the first attempt to hand the given executions to the execution service. Executions
+     * already marked keep their original attempt time.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Execution e SET e.submissionAttemptedAt = :attemptedAt " +
+           "WHERE e.id IN :ids AND e.submissionAttemptedAt IS NULL")
+    int markSubmissionAttempted(@Param("ids") Collection<Integer> ids, @Param("attemptedAt") OffsetDateTime attemptedAt);
+    
+    /**
+     * One page of executions in the given status and partitions last changed before staleBefore and
+     * after the cursor, oldest first. Only executions the execution service received, or that were at
+     * least handed to it, are included; executions created without submission are left alone.
+     * Keyset pagination on (execution timestamp, ID) walks idx_executions_status_timestamp_desc
+     * backwards instead of counting past an offset.
+     */
+    @Query("SELECT e.id AS id, e.version AS version, e.executionTimestamp AS executionTimestamp, " +
+           "e.executionServiceId AS executionServiceId, e.quantityFilled AS quantityFilled " +
+           "FROM Execution e WHERE e.executionStatus.id = :executionStatusId " +
+           "AND e.executionTimestamp < :staleBefore " +
+           "AND (e.executionTimestamp > :cursorTimestamp " +
+           "OR (e.executionTimestamp = :cursorTimestamp AND e.id > :cursorId)) " +
+           "AND (e.executionServiceId IS NOT NULL OR e.submissionAttemptedAt IS NOT NULL) " +
+           "AND MOD(e.id, :partitionCount) IN :partitions " +
+           "ORDER BY e.executionTimestamp ASC, e.id ASC")
+    List<ReconciliationState> findReconciliationPage(@Param("executionStatusId") Integer executionStatusId,
+                                                     @Param("staleBefore") OffsetDateTime staleBefore,
+                                                     @Param("cursorTimestamp") OffsetDateTime cursorTimestamp,
+                                                     @Param("cursorId") Integer cursorId,
+                                                     @Param("partitionCount") int partitionCount,
+                                                     @Param("partitions") Collection<Integer> partitions,
+                                                     Pageable pageable);
+    
+    interface FillState {
+        Integer getId();
+        Integer getVersion();
+        BigDecimal getQuantityPlaced();
+        BigDecimal getQuantityFilled();
+        Integer getExecutionStatusId();
+        Integer getTradeOrderId();
+    }
+    
+    interface ReconciliationState {
+        Integer getId();
+        Integer getVersion();
+        OffsetDateTime getExecutionTimestamp();
+        Integer getExecutionServiceId();
+        BigDecimal getQuantityFilled();
+    }
+}
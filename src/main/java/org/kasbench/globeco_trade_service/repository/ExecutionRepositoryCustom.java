@@ -0,0 +1,43 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ExecutionRepositoryCustom {
+    
+    /**
+     * Apply fills with one batched {@code UPDATE ... WHERE id = ? AND version = ?}, bumping the version of
+     * each updated row. Must run inside a transaction.
+     * @return per fill, whether its row was updated; false means the row no longer had the expected version
+     */
+    boolean[] applyFills(List<FillUpdate> fills);
+    
+    /**
+     * Read the fill state of the given executions and lock their rows until the transaction ends, in ID
+     * order so that concurrent callers cannot deadlock. Must run inside a transaction.
+     */
+    List<ExecutionRepository.FillState> lockFillStates(Collection<Integer> ids);
+    
+    /**
+     * A fill to apply, guarded by the version the caller last saw
+     */
+    class FillUpdate {
+        private final Integer id;
+        private final Integer expectedVersion;
+        private final BigDecimal quantityFilled;
+        private final Integer executionStatusId;
+        
+        public FillUpdate(Integer id, Integer expectedVersion, BigDecimal quantityFilled, Integer executionStatusId) {
+            this.id = id;
+            this.expectedVersion = expectedVersion;
+            this.quantityFilled = quantityFilled;
+            this.executionStatusId = executionStatusId;
+        }
+        
+        public Integer getId() { return id; }
+        public Integer getExpectedVersion() { return expectedVersion; }
+        public BigDecimal getQuantityFilled() { return quantityFilled; }
+        public Integer getExecutionStatusId() { return executionStatusId; }
+    }
+}
@@ -0,0 +1,161 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class ExecutionRepositoryImpl implements ExecutionRepositoryCustom {
+    
+    private static final String APPLY_FILL_SQL =
+            "UPDATE execution SET quantity_filled = ?, execution_status_id = ?, version = version + 1 "
+            + "WHERE id = ? AND version = ?";
+    
+    private static final String LOCK_FILL_STATES_SQL =
+            "SELECT id, version, quantity_placed, quantity_filled, execution_status_id, trade_order_id "
+            + "FROM execution WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    
+    private static final String FILL_RESULTS_SQL =
+            "SELECT id, version, quantity_filled, execution_status_id FROM execution WHERE id IN (%s)";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize = 100;
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean[] applyFills(List<FillUpdate> fills) {
+        boolean[] applied = new boolean[fills.size()];
+        if (fills.isEmpty()) {
+            return applied;
+        }
+        List<Integer> unknown = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(APPLY_FILL_SQL)) {
+                int start = 0;
+                for (int i = 0; i < fills.size(); i++) {
+                    FillUpdate fill = fills.get(i);
+                    statement.setBigDecimal(1, fill.getQuantityFilled());
+                    statement.setInt(2, fill.getExecutionStatusId());
+                    statement.setInt(3, fill.getId());
+                    statement.setInt(4, fill.getExpectedVersion());
+                    statement.addBatch();
+                    if (i - start + 1 == batchSize || i == fills.size() - 1) {
+                        int[] counts = statement.executeBatch();
+                        for (int j = 0; j < counts.length; j++) {
+                            applied[start + j] = counts[j] > 0;
+                            if (counts[j] == Statement.SUCCESS_NO_INFO) {
+                                unknown.add(start + j);
+                            }
+                        }
+                        start = i + 1;
+                    }
+                }
+            }
+            if (!unknown.isEmpty()) {
+                verifyApplied(connection, fills, unknown, applied);
+            }
+        });
+        return applied;
+    }
+    
+    /**
+     * Drivers that cannot report per-statement counts return SUCCESS_NO_INFO, which says nothing
+     * about whether the version guard matched. Such a fill was applied if its row now holds exactly
+     * what the fill wrote, one version past the one it expected.
+     */
+    private void verifyApplied(Connection connection, List<FillUpdate> fills, List<Integer> unknown,
+            boolean[] applied) throws SQLException {
+        Map<Integer, FillResult> rows = new HashMap<>();
+        for (int start = 0; start < unknown.size(); start += batchSize) {
+            List<Integer> chunk = unknown.subList(start, Math.min(start + batchSize, unknown.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    String.format(FILL_RESULTS_SQL, placeholders))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setInt(i + 1, fills.get(chunk.get(i)).getId());
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.put(resultSet.getInt(1), new FillResult(
+                                resultSet.getInt(2), resultSet.getBigDecimal(3), resultSet.getInt(4)));
+                    }
+                }
+            }
+        }
+        for (int index : unknown) {
+            FillUpdate fill = fills.get(index);
+            FillResult row = rows.get(fill.getId());
+            applied[index] = row != null
+                    && row.version() == fill.getExpectedVersion() + 1
+                    && row.quantityFilled().compareTo(fill.getQuantityFilled()) == 0
+                    && row.executionStatusId() == fill.getExecutionStatusId();
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ExecutionRepository.FillState> lockFillStates(Collection<Integer> ids) {
+        List<Integer> sorted = ids.stream().distinct().sorted().toList();
+        List<ExecutionRepository.FillState> states = new ArrayList<>(sorted.size());
+        if (sorted.isEmpty()) {
+            return states;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (int start = 0; start < sorted.size(); start += batchSize) {
+                List<Integer> chunk = sorted.subList(start, Math.min(start + batchSize, sorted.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                try (PreparedStatement statement = connection.prepareStatement(
+                        String.format(LOCK_FILL_STATES_SQL, placeholders))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            states.add(new LockedFillState(
+                                    resultSet.getInt(1),
+                                    resultSet.getInt(2),
+                                    resultSet.getBigDecimal(3),
+                                    resultSet.getBigDecimal(4),
+                                    resultSet.getInt(5),
+                                    resultSet.getInt(6)));
+                        }
+                    }
+                }
+            }
+        });
+        return states;
+    }
+    
+    private record FillResult(int version, BigDecimal quantityFilled, int executionStatusId) {
+    }
+    
+    private record LockedFillState(Integer id, Integer version, BigDecimal quantityPlaced, BigDecimal quantityFilled,
+            Integer executionStatusId, Integer tradeOrderId) implements ExecutionRepository.FillState {
+        @Override public Integer getId() { return id; }
+        @Override public Integer getVersion() { return version; }
+        @Override public BigDecimal getQuantityPlaced() { return quantityPlaced; }
+        @Override public BigDecimal getQuantityFilled() { return quantityFilled; }
+        @Override public Integer getExecutionStatusId() { return executionStatusId; }
+        @Override public Integer getTradeOrderId() { return tradeOrderId; }
+    }
+}
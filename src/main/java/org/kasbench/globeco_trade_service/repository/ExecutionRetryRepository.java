@@ -0,0 +1,48 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.kasbench.globeco_trade_service.entity.ExecutionRetry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExecutionRetryRepository extends JpaRepository<ExecutionRetry, Integer> {
+
+    /**
+     * Retries due at the given time, oldest first. Rows locked by another drainer are skipped
+     * rather than waited for, so concurrent drainers claim disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM ExecutionRetry r WHERE r.nextAttemptAt <= :now ORDER BY r.nextAttemptAt, r.executionId")
+    List<ExecutionRetry> findDueForUpdate(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    /**
+     * Retries due at the given time whose execution IDs fall in the given partitions, oldest first.
+     * Replicas owning different partitions claim different rows, so they do not contend for locks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM ExecutionRetry r WHERE r.nextAttemptAt <= :now " +
+           "AND MOD(r.executionId, :partitionCount) IN :partitions ORDER BY r.nextAttemptAt, r.executionId")
+    List<ExecutionRetry> findDueForUpdateInPartitions(@Param("now") OffsetDateTime now,
+                                                      @Param("partitionCount") int partitionCount,
+                                                      @Param("partitions") Collection<Integer> partitions,
+                                                      Pageable pageable);
+
+    /**
+     * Of the given queued executions, those the execution service already knows about
+     */
+    @Query("SELECT e.id FROM Execution e WHERE e.id IN :executionIds AND e.executionServiceId IS NOT NULL")
+    List<Integer> findSubmittedExecutionIds(@Param("executionIds") Collection<Integer> executionIds);
+}
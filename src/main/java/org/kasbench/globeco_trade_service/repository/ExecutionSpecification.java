@@ -2,16 +2,20 @@ package org.kasbench.globeco_trade_service.repository;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import org.kasbench.globeco_trade_service.entity.Blotter;
 import org.kasbench.globeco_trade_service.entity.Destination;
 import org.kasbench.globeco_trade_service.entity.Execution;
 import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.kasbench.globeco_trade_service.entity.SecurityReference;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.kasbench.globeco_trade_service.entity.TradeType;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 public class ExecutionSpecification {
@@ -165,6 +169,52 @@ public class ExecutionSpecification {
         };
     }
     
+    /**
+     * Filter by security ticker through trade order and the replicated security reference table
+     * (supports comma-separated values for OR condition, case-insensitive).
+     * Executions whose security has not been replicated yet match on the given security IDs
+     * instead, which the caller resolves remotely for the tickers missing from the table.
+     */
+    public static Specification<Execution> hasSecurityTicker(String tickers, Collection<String> unreplicatedSecurityIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (tickers == null || tickers.trim().isEmpty()) return null;
+            
+            Join<Execution, TradeOrder> tradeOrderJoin = root.join("tradeOrder", JoinType.INNER);
+            Join<TradeOrder, SecurityReference> securityJoin = tradeOrderJoin.join("securityReference", JoinType.LEFT);
+            
+            List<String> tickerList = Arrays.stream(tickers.split(","))
+                .map(ticker -> ticker.trim().toUpperCase())
+                .filter(ticker -> !ticker.isEmpty())
+                .toList();
+            Predicate replicated = criteriaBuilder.upper(securityJoin.get("ticker")).in(tickerList);
+            if (unreplicatedSecurityIds.isEmpty()) return replicated;
+            return criteriaBuilder.or(replicated, tradeOrderJoin.get("securityId").in(unreplicatedSecurityIds));
+        };
+    }
+    
+    /**
+     * Filter by portfolio name through trade order and the replicated portfolio reference table
+     * (supports comma-separated values for OR condition).
+     * Executions whose portfolio has not been replicated yet match on the given portfolio IDs
+     * instead, which the caller resolves remotely for the names missing from the table.
+     */
+    public static Specification<Execution> hasPortfolioName(String names, Collection<String> unreplicatedPortfolioIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (names == null || names.trim().isEmpty()) return null;
+            
+            Join<Execution, TradeOrder> tradeOrderJoin = root.join("tradeOrder", JoinType.INNER);
+            Join<TradeOrder, PortfolioReference> portfolioJoin = tradeOrderJoin.join("portfolioReference", JoinType.LEFT);
+            
+            List<String> nameList = Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+            Predicate replicated = portfolioJoin.get("name").in(nameList);
+            if (unreplicatedPortfolioIds.isEmpty()) return replicated;
+            return criteriaBuilder.or(replicated, tradeOrderJoin.get("portfolioId").in(unreplicatedPortfolioIds));
+        };
+    }
+    
     /**
      * Filter by minimum quantity ordered
      */
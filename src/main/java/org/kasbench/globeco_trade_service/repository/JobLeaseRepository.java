@@ -0,0 +1,54 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import org.kasbench.globeco_trade_service.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Lease expiry is computed and compared with the database clock, so replicas whose clocks
+ * disagree still agree on when a lease has expired.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Renew the lease if the given owner holds it, or take it over if it has expired
+     * @return 1 if the owner now holds the lease, 0 if someone else does or there is no lease row yet
+     */
+    @Modifying
+    @Query(value = "UPDATE job_lease SET owner = :owner, expires_at = CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1' SECOND " +
+                   "WHERE name = :name AND (owner = :owner OR expires_at < CURRENT_TIMESTAMP)", nativeQuery = true)
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("ttlSeconds") double ttlSeconds);
+
+    /**
+     * Create the lease row for a job nobody has held yet. Fails with a duplicate key if another replica got there first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_lease (name, owner, expires_at) " +
+                   "VALUES (:name, :owner, CURRENT_TIMESTAMP + :ttlSeconds * INTERVAL '1' SECOND)", nativeQuery = true)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("ttlSeconds") double ttlSeconds);
+
+    @Modifying
+    @Query("DELETE FROM JobLease l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * Unexpired leases whose names start with the given prefix
+     */
+    @Query(value = "SELECT * FROM job_lease WHERE name LIKE CONCAT(:prefix, '%') AND expires_at > CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    List<JobLease> findLive(@Param("prefix") String prefix);
+
+    /**
+     * Remove leases under the given prefix that expired more than the given time ago, such as those of replicas that are gone
+     */
+    @Modifying
+    @Query(value = "DELETE FROM job_lease WHERE name LIKE CONCAT(:prefix, '%') " +
+                   "AND expires_at < CURRENT_TIMESTAMP - :graceSeconds * INTERVAL '1' SECOND", nativeQuery = true)
+    int deleteExpired(@Param("prefix") String prefix, @Param("graceSeconds") double graceSeconds);
+}
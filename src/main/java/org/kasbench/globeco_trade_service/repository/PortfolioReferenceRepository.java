@@ -0,0 +1,33 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PortfolioReferenceRepository extends JpaRepository<PortfolioReference, String> {
+
+    /**
+     * Portfolio IDs referenced by trade orders that have no replicated name, or one
+     * last refreshed before the given time, in ID order after the given ID. The portfolio
+     * service has no list-all API, so this drives the periodic full refresh of portfolio names.
+     */
+    @Query("SELECT DISTINCT t.portfolioId FROM TradeOrder t WHERE t.portfolioId > :after AND NOT EXISTS " +
+           "(SELECT p.portfolioId FROM PortfolioReference p WHERE p.portfolioId = t.portfolioId AND p.updatedAt >= :since) " +
+           "ORDER BY t.portfolioId")
+    List<String> findPortfolioIdsNeedingRefresh(@Param("since") OffsetDateTime since, @Param("after") String after,
+                                                Pageable pageable);
+
+    /**
+     * The given portfolio names that have been replicated
+     */
+    @Query("SELECT DISTINCT p.name FROM PortfolioReference p WHERE p.name IN :names")
+    List<String> findReplicatedNames(@Param("names") Collection<String> names);
+}
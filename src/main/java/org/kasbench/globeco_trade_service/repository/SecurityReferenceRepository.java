@@ -0,0 +1,20 @@
+package org.kasbench.globeco_trade_service.repository;
+
+import org.kasbench.globeco_trade_service.entity.SecurityReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SecurityReferenceRepository extends JpaRepository<SecurityReference, String> {
+
+    /**
+     * The given upper-case tickers that have been replicated, upper-cased
+     */
+    @Query("SELECT DISTINCT UPPER(s.ticker) FROM SecurityReference s WHERE UPPER(s.ticker) IN :tickers")
+    List<String> findReplicatedTickers(@Param("tickers") Collection<String> tickers);
+}
@@ -8,7 +8,9 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,25 +20,43 @@ public interface TradeOrderRepository extends JpaRepository<TradeOrder, Integer>
     /**
      * Find trade order by ID with blotter eagerly fetched
      */
+    @Transactional(readOnly = true)
     @Query("SELECT t FROM TradeOrder t LEFT JOIN FETCH t.blotter WHERE t.id = :id")
     Optional<TradeOrder> findByIdWithBlotter(@Param("id") Integer id);
     
     /**
      * Find trade orders by order_id
      */
+    @Transactional(readOnly = true)
     List<TradeOrder> findByOrderId(Integer orderId);
     
     /**
      * Find trade orders by order_id with pagination
      */
+    @Transactional(readOnly = true)
     Page<TradeOrder> findByOrderId(Integer orderId, Pageable pageable);
     
     /**
      * Find all trade orders with blotter eagerly fetched using specification
      */
+    @Transactional(readOnly = true)
     @Query("SELECT DISTINCT t FROM TradeOrder t LEFT JOIN FETCH t.blotter")
     List<TradeOrder> findAllWithBlotter();
     
+    /**
+     * Distinct security IDs referenced by unsubmitted or recent trade orders, for cache warm-up
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT DISTINCT t.securityId FROM TradeOrder t WHERE t.submitted = false OR t.tradeTimestamp >= :since")
+    List<String> findActiveSecurityIds(@Param("since") OffsetDateTime since, Pageable pageable);
+    
+    /**
+     * Distinct portfolio IDs referenced by unsubmitted or recent trade orders, for cache warm-up
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT DISTINCT t.portfolioId FROM TradeOrder t WHERE t.submitted = false OR t.tradeTimestamp >= :since")
+    List<String> findActivePortfolioIds(@Param("since") OffsetDateTime since, Pageable pageable);
+    
     /**
      * Custom method to find with specification and eager fetch blotter
      * Note: This will be implemented in a custom repository implementation
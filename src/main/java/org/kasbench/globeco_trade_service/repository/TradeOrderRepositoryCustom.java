@@ -5,10 +5,92 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 public interface TradeOrderRepositoryCustom {
     
     /**
      * Find all trade orders with specification and eager fetch blotter
      */
     Page<TradeOrder> findAllWithBlotterAndSpecification(Specification<TradeOrder> spec, Pageable pageable);
+    
+    /**
+     * Add fill rollup deltas to their trade orders with one batched update. The version of the trade
+     * orders is left alone, so fills never conflict with concurrent submits. Must run inside a transaction.
+     */
+    void applyFillRollups(List<FillRollupDelta> deltas);
+    
+    /**
+     * Put quantity sent and submitted of trade orders back to the given values with one batched update,
+     * e.g. to compensate submissions the execution service refused. Must run inside a transaction.
+     * @return for each state, whether its trade order was found and updated
+     */
+    boolean[] restoreSubmissionStates(List<SubmissionState> states);
+    
+    /**
+     * Take the quantity of failed submissions back off the quantity sent of their trade orders with one
+     * batched update, clearing submitted once a trade order is no longer fully sent. Unlike restoring a
+     * submission state, this keeps whatever else happened to the trade order since. Trade orders that
+     * have sent less than the quantity are left alone. Must run inside a transaction.
+     * @return for each reversal, whether its trade order was found with enough sent and was updated
+     */
+    boolean[] reverseSubmissions(List<SubmissionReversal> reversals);
+    
+    /**
+     * Change to the fill rollup of one trade order
+     */
+    class FillRollupDelta {
+        private final Integer tradeOrderId;
+        private final BigDecimal quantityFilled;
+        private final int partFilledCount;
+        private final int fullyFilledCount;
+        
+        public FillRollupDelta(Integer tradeOrderId, BigDecimal quantityFilled, int partFilledCount, int fullyFilledCount) {
+            this.tradeOrderId = tradeOrderId;
+            this.quantityFilled = quantityFilled;
+            this.partFilledCount = partFilledCount;
+            this.fullyFilledCount = fullyFilledCount;
+        }
+        
+        public Integer getTradeOrderId() { return tradeOrderId; }
+        public BigDecimal getQuantityFilled() { return quantityFilled; }
+        public int getPartFilledCount() { return partFilledCount; }
+        public int getFullyFilledCount() { return fullyFilledCount; }
+    }
+    
+    /**
+     * Quantity of one failed submission to take back off its trade order
+     */
+    class SubmissionReversal {
+        private final Integer tradeOrderId;
+        private final BigDecimal quantity;
+        
+        public SubmissionReversal(Integer tradeOrderId, BigDecimal quantity) {
+            this.tradeOrderId = tradeOrderId;
+            this.quantity = quantity;
+        }
+        
+        public Integer getTradeOrderId() { return tradeOrderId; }
+        public BigDecimal getQuantity() { return quantity; }
+    }
+    
+    /**
+     * Submission state of one trade order
+     */
+    class SubmissionState {
+        private final Integer tradeOrderId;
+        private final BigDecimal quantitySent;
+        private final Boolean submitted;
+        
+        public SubmissionState(Integer tradeOrderId, BigDecimal quantitySent, Boolean submitted) {
+            this.tradeOrderId = tradeOrderId;
+            this.quantitySent = quantitySent;
+            this.submitted = submitted;
+        }
+        
+        public Integer getTradeOrderId() { return tradeOrderId; }
+        public BigDecimal getQuantitySent() { return quantitySent; }
+        public Boolean getSubmitted() { return submitted; }
+    }
 }
\ No newline at end of file
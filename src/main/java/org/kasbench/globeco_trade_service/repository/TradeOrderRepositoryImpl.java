@@ -4,22 +4,56 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.hibernate.Session;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public class TradeOrderRepositoryImpl implements TradeOrderRepositoryCustom {
     
+    private static final String APPLY_FILL_ROLLUP_SQL =
+            "UPDATE trade_order SET quantity_filled = quantity_filled + ?, "
+            + "part_filled_count = part_filled_count + ?, fully_filled_count = fully_filled_count + ? "
+            + "WHERE id = ?";
+    
+    private static final String RESTORE_SUBMISSION_STATE_SQL =
+            "UPDATE trade_order SET quantity_sent = ?, submitted = ?, version = version + 1 WHERE id = ?";
+    
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM trade_order WHERE id IN (%s)";
+    
+    // The CASE sees quantity_sent as it was before this update
+    private static final String REVERSE_SUBMISSION_SQL =
+            "UPDATE trade_order SET quantity_sent = quantity_sent - ?, "
+            + "submitted = CASE WHEN quantity - (quantity_sent - ?) > 0.01 THEN FALSE ELSE submitted END, "
+            + "version = version + 1 WHERE id = ? AND quantity_sent >= ?";
+    
     @PersistenceContext
     private EntityManager entityManager;
     
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize = 100;
+    
     @Override
+    @Transactional(readOnly = true)
     public Page<TradeOrder> findAllWithBlotterAndSpecification(Specification<TradeOrder> spec, Pageable pageable) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         
@@ -42,8 +76,8 @@ public class TradeOrderRepositoryImpl implements TradeOrderRepositoryCustom {
         if (pageable.getSort().isSorted()) {
             List<Order> orders = pageable.getSort().stream()
                 .map(order -> order.isAscending() 
-                    ? cb.asc(root.get(order.getProperty()))
-                    : cb.desc(root.get(order.getProperty())))
+                    ? cb.asc(resolveSortPath(root, order.getProperty()))
+                    : cb.desc(resolveSortPath(root, order.getProperty())))
                 .toList();
             query.orderBy(orders);
         }
@@ -71,4 +105,146 @@ public class TradeOrderRepositoryImpl implements TradeOrderRepositoryCustom {
         
         return new PageImpl<>(content, pageable, total);
     }
-}
\ No newline at end of file
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyFillRollups(List<FillRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(APPLY_FILL_ROLLUP_SQL)) {
+                for (int i = 0; i < deltas.size(); i++) {
+                    FillRollupDelta delta = deltas.get(i);
+                    statement.setBigDecimal(1, delta.getQuantityFilled());
+                    statement.setInt(2, delta.getPartFilledCount());
+                    statement.setInt(3, delta.getFullyFilledCount());
+                    statement.setInt(4, delta.getTradeOrderId());
+                    statement.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == deltas.size() - 1) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+        });
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean[] restoreSubmissionStates(List<SubmissionState> states) {
+        boolean[] restored = new boolean[states.size()];
+        if (states.isEmpty()) {
+            return restored;
+        }
+        List<Integer> unknown = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RESTORE_SUBMISSION_STATE_SQL)) {
+                int start = 0;
+                for (int i = 0; i < states.size(); i++) {
+                    SubmissionState state = states.get(i);
+                    statement.setBigDecimal(1, state.getQuantitySent());
+                    if (state.getSubmitted() != null) {
+                        statement.setBoolean(2, state.getSubmitted());
+                    } else {
+                        statement.setNull(2, Types.BOOLEAN);
+                    }
+                    statement.setInt(3, state.getTradeOrderId());
+                    statement.addBatch();
+                    if (i - start + 1 == batchSize || i == states.size() - 1) {
+                        int[] counts = statement.executeBatch();
+                        for (int j = 0; j < counts.length; j++) {
+                            restored[start + j] = counts[j] > 0;
+                            if (counts[j] == Statement.SUCCESS_NO_INFO) {
+                                unknown.add(start + j);
+                            }
+                        }
+                        start = i + 1;
+                    }
+                }
+            }
+            if (!unknown.isEmpty()) {
+                // Drivers that cannot report per-statement counts return SUCCESS_NO_INFO; the update
+                // only matches on id, so it was restored if the trade order exists
+                Set<Integer> existing = findExistingIds(connection,
+                        unknown.stream().map(index -> states.get(index).getTradeOrderId()).toList());
+                for (int index : unknown) {
+                    restored[index] = existing.contains(states.get(index).getTradeOrderId());
+                }
+            }
+        });
+        return restored;
+    }
+    
+    private Set<Integer> findExistingIds(Connection connection, List<Integer> ids) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    String.format(EXISTING_IDS_SQL, placeholders))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setInt(i + 1, chunk.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        existing.add(resultSet.getInt(1));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean[] reverseSubmissions(List<SubmissionReversal> reversals) {
+        boolean[] reversed = new boolean[reversals.size()];
+        if (reversals.isEmpty()) {
+            return reversed;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(REVERSE_SUBMISSION_SQL)) {
+                int start = 0;
+                for (int i = 0; i < reversals.size(); i++) {
+                    SubmissionReversal reversal = reversals.get(i);
+                    statement.setBigDecimal(1, reversal.getQuantity());
+                    statement.setBigDecimal(2, reversal.getQuantity());
+                    statement.setInt(3, reversal.getTradeOrderId());
+                    statement.setBigDecimal(4, reversal.getQuantity());
+                    statement.addBatch();
+                    if (i - start + 1 == batchSize || i == reversals.size() - 1) {
+                        int[] counts = statement.executeBatch();
+                        for (int j = 0; j < counts.length; j++) {
+                            // SUCCESS_NO_INFO cannot tell a guarded miss from an update, so it is not trusted
+                            reversed[start + j] = counts[j] > 0;
+                        }
+                        start = i + 1;
+                    }
+                }
+            }
+        });
+        return reversed;
+    }
+    
+    /**
+     * Resolve a possibly nested sort property (e.g. securityReference.ticker) to a path,
+     * left joining intermediate associations so rows without a match are not dropped.
+     */
+    private Path<?> resolveSortPath(Root<TradeOrder> root, String property) {
+        String[] parts = property.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            from = leftJoin(from, parts[i]);
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+    
+    private From<?, ?> leftJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.LEFT) {
+                return join;
+            }
+        }
+        return from.join(attribute, JoinType.LEFT);
+    }
+}
@@ -7,12 +7,15 @@ import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.kasbench.globeco_trade_service.entity.Blotter;
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.kasbench.globeco_trade_service.entity.SecurityReference;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 public class TradeOrderSpecification {
@@ -94,6 +97,50 @@ public class TradeOrderSpecification {
         };
     }
     
+    /**
+     * Filter by security ticker through the replicated security reference table
+     * (supports comma-separated values for OR condition, case-insensitive).
+     * Trade orders whose security has not been replicated yet match on the given security IDs
+     * instead, which the caller resolves remotely for the tickers missing from the table.
+     */
+    public static Specification<TradeOrder> hasSecurityTicker(String tickers, Collection<String> unreplicatedSecurityIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (tickers == null || tickers.trim().isEmpty()) return null;
+            
+            Join<TradeOrder, SecurityReference> securityJoin = root.join("securityReference", JoinType.LEFT);
+            
+            List<String> tickerList = Arrays.stream(tickers.split(","))
+                .map(ticker -> ticker.trim().toUpperCase())
+                .filter(ticker -> !ticker.isEmpty())
+                .toList();
+            Predicate replicated = criteriaBuilder.upper(securityJoin.get("ticker")).in(tickerList);
+            if (unreplicatedSecurityIds.isEmpty()) return replicated;
+            return criteriaBuilder.or(replicated, root.get("securityId").in(unreplicatedSecurityIds));
+        };
+    }
+    
+    /**
+     * Filter by portfolio name through the replicated portfolio reference table
+     * (supports comma-separated values for OR condition).
+     * Trade orders whose portfolio has not been replicated yet match on the given portfolio IDs
+     * instead, which the caller resolves remotely for the names missing from the table.
+     */
+    public static Specification<TradeOrder> hasPortfolioName(String names, Collection<String> unreplicatedPortfolioIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (names == null || names.trim().isEmpty()) return null;
+            
+            Join<TradeOrder, PortfolioReference> portfolioJoin = root.join("portfolioReference", JoinType.LEFT);
+            
+            List<String> nameList = Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+            Predicate replicated = portfolioJoin.get("name").in(nameList);
+            if (unreplicatedPortfolioIds.isEmpty()) return replicated;
+            return criteriaBuilder.or(replicated, root.get("portfolioId").in(unreplicatedPortfolioIds));
+        };
+    }
+    
     /**
      * Filter by minimum quantity
      */
@@ -133,6 +180,26 @@ public class TradeOrderSpecification {
             return criteriaBuilder.lessThanOrEqualTo(root.get("quantitySent"), maxQuantitySent);
         };
     }
+
+    /**
+     * Filter by minimum quantity filled
+     */
+    public static Specification<TradeOrder> hasQuantityFilledGreaterThanOrEqual(BigDecimal minQuantityFilled) {
+        return (root, query, criteriaBuilder) -> {
+            if (minQuantityFilled == null) return null;
+            return criteriaBuilder.greaterThanOrEqualTo(root.get("quantityFilled"), minQuantityFilled);
+        };
+    }
+
+    /**
+     * Filter by maximum quantity filled
+     */
+    public static Specification<TradeOrder> hasQuantityFilledLessThanOrEqual(BigDecimal maxQuantityFilled) {
+        return (root, query, criteriaBuilder) -> {
+            if (maxQuantityFilled == null) return null;
+            return criteriaBuilder.lessThanOrEqualTo(root.get("quantityFilled"), maxQuantityFilled);
+        };
+    }
     
     /**
      * Filter by blotter abbreviation (supports comma-separated values for OR condition)
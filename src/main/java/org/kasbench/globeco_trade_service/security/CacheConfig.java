@@ -1,21 +1,45 @@
 package org.kasbench.globeco_trade_service.security;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.kasbench.globeco_trade_service.config.CacheInvalidationBus;
+import org.kasbench.globeco_trade_service.config.NotifyingCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
+    /**
+     * Caches of security service data. Changes to it never pass through this service's eviction,
+     * so these keep their own shorter TTL rather than the one of the locally-invalidated caches.
+     */
+    private static final List<String> EXTERNAL_CACHES = List.of("securityTypes", "securities");
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("securityTypes", "securities", "blotters", "tradeOrders", "destinations", "tradeTypes", "executionStatuses", "executions");
-        cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES));
-        return cacheManager;
+    public CacheManager cacheManager(ObjectProvider<CacheInvalidationBus> invalidationBus,
+                                     @Value("${cache.manager.ttl-minutes:5}") long ttlMinutes,
+                                     @Value("${cache.manager.external-ttl-minutes:5}") long externalTtlMinutes) {
+        // Without cross-replica invalidation, replicas never see each other's evictions and the TTL
+        // is the only bound on staleness, so every cache keeps the short one
+        CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+        long localTtlMinutes = bus != null ? ttlMinutes : externalTtlMinutes;
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("blotters", "tradeOrders", "destinations", "tradeTypes", "executionStatuses", "executions");
+        cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(localTtlMinutes, TimeUnit.MINUTES));
+        for (String name : EXTERNAL_CACHES) {
+            cacheManager.registerCustomCache(name,
+                    Caffeine.newBuilder().expireAfterWrite(externalTtlMinutes, TimeUnit.MINUTES).build());
+        }
+
+        // With cross-replica invalidation, evictions on one replica are applied on all of them
+        return bus != null ? new NotifyingCacheManager(cacheManager, bus) : cacheManager;
     }
-} 
\ No newline at end of file
+}
@@ -80,6 +80,10 @@ public class AsyncExecutionService {
                     logger.debug("Successfully completed async execution submission for execution {} in {} ms", 
                             executionId, duration);
                     return result;
+                } else if ("queued".equals(result.getStatus())) {
+                    // The retry drainer submits it later; compensating would delete its retry entry
+                    logger.info("Async execution submission for execution {} queued for retry", executionId);
+                    return result;
                 } else {
                     logger.warn("Async execution submission failed for execution {}: {}", 
                             executionId, result.getError());
@@ -1,6 +1,8 @@
 package org.kasbench.globeco_trade_service.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.kasbench.globeco_trade_service.client.PortfolioServiceClient;
 import org.kasbench.globeco_trade_service.client.SecurityServiceClient;
 import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
@@ -8,15 +10,27 @@ import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -32,27 +46,42 @@ public class BatchCacheLoadingService {
     private final PortfolioServiceClient portfolioServiceClient;
     private final Cache<String, SecurityDTO> optimizedSecurityCache;
     private final Cache<String, PortfolioDTO> optimizedPortfolioCache;
-    private final ExecutorService batchLoadingExecutor;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final AsyncTaskExecutor enrichmentExecutor;
+    private final int maxInFlightPerBatch;
+    private final Counter rejectedLookupCounter;
+    private final Counter cancelledLookupCounter;
+    private final Counter deadlineExceededCounter;
     
     public BatchCacheLoadingService(
             SecurityServiceClient securityServiceClient,
             PortfolioServiceClient portfolioServiceClient,
             @Qualifier("optimizedSecurityCache") Cache<String, SecurityDTO> optimizedSecurityCache,
-            @Qualifier("optimizedPortfolioCache") Cache<String, PortfolioDTO> optimizedPortfolioCache) {
+            @Qualifier("optimizedPortfolioCache") Cache<String, PortfolioDTO> optimizedPortfolioCache,
+            ReferenceDataIndex referenceDataIndex,
+            @Qualifier("enrichmentExecutor") AsyncTaskExecutor enrichmentExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${enrichment.max-in-flight-per-page:16}") int maxInFlightPerBatch) {
         
         this.securityServiceClient = securityServiceClient;
         this.portfolioServiceClient = portfolioServiceClient;
         this.optimizedSecurityCache = optimizedSecurityCache;
         this.optimizedPortfolioCache = optimizedPortfolioCache;
+        this.referenceDataIndex = referenceDataIndex;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.maxInFlightPerBatch = maxInFlightPerBatch;
         
-        // Create dedicated thread pool for batch loading operations
-        this.batchLoadingExecutor = Executors.newFixedThreadPool(10, r -> {
-            Thread t = new Thread(r, "batch-cache-loader");
-            t.setDaemon(true);
-            return t;
-        });
+        this.rejectedLookupCounter = Counter.builder("enrichment.lookups.rejected")
+                .description("Security/portfolio lookups rejected because the enrichment executor was saturated")
+                .register(meterRegistry);
+        this.cancelledLookupCounter = Counter.builder("enrichment.lookups.cancelled")
+                .description("Security/portfolio lookups cancelled because the request deadline passed")
+                .register(meterRegistry);
+        this.deadlineExceededCounter = Counter.builder("enrichment.deadline.exceeded")
+                .description("Page enrichments that did not complete within the request deadline")
+                .register(meterRegistry);
         
-        logger.debug("BatchCacheLoadingService initialized with dedicated thread pool");
+        logger.debug("BatchCacheLoadingService initialized with dedicated enrichment executor");
     }
     
     /**
@@ -70,84 +99,14 @@ public class BatchCacheLoadingService {
         
         logger.debug("Starting batch load for {} securities", securityIds.size());
         
-        return CompletableFuture.supplyAsync(() -> {
-            // Use ConcurrentHashMap for thread safety
-            Map<String, SecurityDTO> results = new ConcurrentHashMap<>();
-            
-            // Filter out securities already in cache
-            Set<String> uncachedIds = securityIds.stream()
-                    .filter(id -> optimizedSecurityCache.getIfPresent(getCacheKey("ID", id)) == null)
-                    .collect(Collectors.toSet());
-            
-            if (uncachedIds.isEmpty()) {
-                logger.debug("All securities found in cache, no external calls needed");
-                // Return cached values
-                securityIds.forEach(id -> {
-                    SecurityDTO cached = optimizedSecurityCache.getIfPresent(getCacheKey("ID", id));
-                    if (cached != null) {
-                        results.put(id, cached);
-                    }
+        // Use ConcurrentHashMap for thread safety
+        Map<String, SecurityDTO> results = new ConcurrentHashMap<>();
+        return loadSecuritiesInto(securityIds, results, new LookupWindow())
+                .thenApply(ignored -> {
+                    logger.debug("Batch load completed for securities. Loaded: {}, Total requested: {}", 
+                            results.size(), securityIds.size());
+                    return results;
                 });
-                return results;
-            }
-            
-            logger.debug("Loading {} uncached securities from external service", uncachedIds.size());
-            
-            // Create parallel futures for each security lookup
-            Map<String, CompletableFuture<Optional<SecurityDTO>>> futures = uncachedIds.stream()
-                    .collect(Collectors.toConcurrentMap(
-                            id -> id,
-                            id -> CompletableFuture.supplyAsync(() -> {
-                                try {
-                                    return securityServiceClient.findSecurityById(id);
-                                } catch (Exception e) {
-                                    logger.warn("Failed to load security {}: {}", id, e.getMessage());
-                                    return Optional.<SecurityDTO>empty();
-                                }
-                            }, batchLoadingExecutor)
-                    ));
-            
-            // Wait for all futures to complete and collect results
-            futures.forEach((id, future) -> {
-                try {
-                    Optional<SecurityDTO> securityOpt = future.join();
-                    if (securityOpt.isPresent()) {
-                        SecurityDTO security = securityOpt.get();
-                        results.put(id, security);
-                        // Cache the result
-                        optimizedSecurityCache.put(getCacheKey("ID", id), security);
-                        logger.debug("Loaded and cached security: {}", id);
-                    } else {
-                        // Create fallback and cache it
-                        SecurityDTO fallback = createFallbackSecurity(id);
-                        results.put(id, fallback);
-                        optimizedSecurityCache.put(getCacheKey("ID", id), fallback);
-                        logger.debug("Created fallback for security: {}", id);
-                    }
-                } catch (Exception e) {
-                    logger.error("Error processing security {}: {}", id, e.getMessage(), e);
-                    // Create fallback for error cases
-                    SecurityDTO fallback = createFallbackSecurity(id);
-                    results.put(id, fallback);
-                }
-            });
-            
-            // Add any cached securities that were requested
-            securityIds.stream()
-                    .filter(id -> !uncachedIds.contains(id))
-                    .forEach(id -> {
-                        SecurityDTO cached = optimizedSecurityCache.getIfPresent(getCacheKey("ID", id));
-                        if (cached != null) {
-                            results.put(id, cached);
-                        }
-                    });
-            
-            logger.debug("Batch load completed for securities. Loaded: {}, Total requested: {}", 
-                    results.size(), securityIds.size());
-            
-            return results;
-            
-        }, batchLoadingExecutor);
     }
     
     /**
@@ -165,84 +124,14 @@ public class BatchCacheLoadingService {
         
         logger.debug("Starting batch load for {} portfolios", portfolioIds.size());
         
-        return CompletableFuture.supplyAsync(() -> {
-            // Use ConcurrentHashMap for thread safety
-            Map<String, PortfolioDTO> results = new ConcurrentHashMap<>();
-            
-            // Filter out portfolios already in cache
-            Set<String> uncachedIds = portfolioIds.stream()
-                    .filter(id -> optimizedPortfolioCache.getIfPresent(getCacheKey("ID", id)) == null)
-                    .collect(Collectors.toSet());
-            
-            if (uncachedIds.isEmpty()) {
-                logger.debug("All portfolios found in cache, no external calls needed");
-                // Return cached values
-                portfolioIds.forEach(id -> {
-                    PortfolioDTO cached = optimizedPortfolioCache.getIfPresent(getCacheKey("ID", id));
-                    if (cached != null) {
-                        results.put(id, cached);
-                    }
+        // Use ConcurrentHashMap for thread safety
+        Map<String, PortfolioDTO> results = new ConcurrentHashMap<>();
+        return loadPortfoliosInto(portfolioIds, results, new LookupWindow())
+                .thenApply(ignored -> {
+                    logger.debug("Batch load completed for portfolios. Loaded: {}, Total requested: {}", 
+                            results.size(), portfolioIds.size());
+                    return results;
                 });
-                return results;
-            }
-            
-            logger.debug("Loading {} uncached portfolios from external service", uncachedIds.size());
-            
-            // Create parallel futures for each portfolio lookup
-            Map<String, CompletableFuture<Optional<PortfolioDTO>>> futures = uncachedIds.stream()
-                    .collect(Collectors.toConcurrentMap(
-                            id -> id,
-                            id -> CompletableFuture.supplyAsync(() -> {
-                                try {
-                                    return portfolioServiceClient.findPortfolioById(id);
-                                } catch (Exception e) {
-                                    logger.warn("Failed to load portfolio {}: {}", id, e.getMessage());
-                                    return Optional.<PortfolioDTO>empty();
-                                }
-                            }, batchLoadingExecutor)
-                    ));
-            
-            // Wait for all futures to complete and collect results
-            futures.forEach((id, future) -> {
-                try {
-                    Optional<PortfolioDTO> portfolioOpt = future.join();
-                    if (portfolioOpt.isPresent()) {
-                        PortfolioDTO portfolio = portfolioOpt.get();
-                        results.put(id, portfolio);
-                        // Cache the result
-                        optimizedPortfolioCache.put(getCacheKey("ID", id), portfolio);
-                        logger.debug("Loaded and cached portfolio: {}", id);
-                    } else {
-                        // Create fallback and cache it
-                        PortfolioDTO fallback = createFallbackPortfolio(id);
-                        results.put(id, fallback);
-                        optimizedPortfolioCache.put(getCacheKey("ID", id), fallback);
-                        logger.debug("Created fallback for portfolio: {}", id);
-                    }
-                } catch (Exception e) {
-                    logger.error("Error processing portfolio {}: {}", id, e.getMessage(), e);
-                    // Create fallback for error cases
-                    PortfolioDTO fallback = createFallbackPortfolio(id);
-                    results.put(id, fallback);
-                }
-            });
-            
-            // Add any cached portfolios that were requested
-            portfolioIds.stream()
-                    .filter(id -> !uncachedIds.contains(id))
-                    .forEach(id -> {
-                        PortfolioDTO cached = optimizedPortfolioCache.getIfPresent(getCacheKey("ID", id));
-                        if (cached != null) {
-                            results.put(id, cached);
-                        }
-                    });
-            
-            logger.debug("Batch load completed for portfolios. Loaded: {}, Total requested: {}", 
-                    results.size(), portfolioIds.size());
-            
-            return results;
-            
-        }, batchLoadingExecutor);
     }
     
     /**
@@ -259,81 +148,294 @@ public class BatchCacheLoadingService {
         
         logger.debug("Starting batch load for {} securities by ticker", tickers.size());
         
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, SecurityDTO> results = new ConcurrentHashMap<>();
-            
-            // Normalize tickers and filter out cached ones
-            Set<String> normalizedTickers = tickers.stream()
-                    .map(ticker -> ticker.trim().toUpperCase())
-                    .collect(Collectors.toSet());
-            
-            Set<String> uncachedTickers = normalizedTickers.stream()
-                    .filter(ticker -> optimizedSecurityCache.getIfPresent(ticker) == null)
-                    .collect(Collectors.toSet());
-            
-            if (uncachedTickers.isEmpty()) {
-                logger.debug("All securities found in cache by ticker, no external calls needed");
-                normalizedTickers.forEach(ticker -> {
-                    SecurityDTO cached = optimizedSecurityCache.getIfPresent(ticker);
-                    if (cached != null) {
-                        results.put(ticker, cached);
+        Map<String, SecurityDTO> results = new ConcurrentHashMap<>();
+        
+        // Normalize tickers so that "aapl" and " AAPL " share one lookup
+        Set<String> normalizedTickers = tickers.stream()
+                .map(ticker -> ticker.trim().toUpperCase())
+                .collect(Collectors.toSet());
+        
+        LookupWindow window = new LookupWindow();
+        List<CompletableFuture<Void>> lookups = new ArrayList<>();
+        for (String ticker : normalizedTickers) {
+            SecurityDTO cached = optimizedSecurityCache.getIfPresent(ticker);
+            if (cached != null) {
+                results.put(ticker, cached);
+                continue;
+            }
+            lookups.add(window.dispatch(() -> securityServiceClient.findSecurityByTicker(ticker))
+                    .handle((securityOpt, throwable) -> {
+                        if (throwable != null) {
+                            logger.warn("Failed to load security by ticker {}: {}", ticker, throwable.getMessage());
+                            results.put(ticker, createFallbackSecurity(ticker));
+                        } else if (securityOpt.isPresent()) {
+                            results.put(ticker, securityOpt.get());
+                            optimizedSecurityCache.put(ticker, securityOpt.get());
+                            referenceDataIndex.recordSecurity(securityOpt.get());
+                            logger.debug("Loaded and cached security by ticker: {}", ticker);
+                        } else {
+                            SecurityDTO fallback = createFallbackSecurity(ticker);
+                            results.put(ticker, fallback);
+                            optimizedSecurityCache.put(ticker, fallback);
+                            logger.debug("Created fallback for ticker: {}", ticker);
+                        }
+                        return null;
+                    }));
+        }
+        
+        if (lookups.isEmpty()) {
+            logger.debug("All securities found in cache by ticker, no external calls needed");
+        }
+        
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    logger.debug("Batch load by ticker completed. Loaded: {}, Total requested: {}", 
+                            results.size(), tickers.size());
+                    return results;
+                });
+    }
+    
+    /**
+     * Resolve all securities and portfolios referenced by one page of results in a single
+     * parallel, deduplicated batch. At most {@code enrichment.max-in-flight-per-page} lookups of
+     * the batch are submitted to the enrichment executor at a time, so a full page of up to 2000
+     * lookups neither fills the executor queue nor starves concurrent pages. Lookups still
+     * outstanding when the timeout elapses (or when the request thread is interrupted) are
+     * cancelled and answered with fallback DTOs, so that a slow downstream can neither stall the
+     * response nor keep consuming enrichment threads.
+     * 
+     * @param securityIds distinct security IDs referenced by the page
+     * @param portfolioIds distinct portfolio IDs referenced by the page
+     * @param timeout overall time budget for the batch
+     * @return resolved securities and portfolios keyed by ID
+     */
+    public PageEnrichment loadPageEnrichment(Set<String> securityIds, Set<String> portfolioIds, Duration timeout) {
+        Map<String, SecurityDTO> securities = new ConcurrentHashMap<>();
+        Map<String, PortfolioDTO> portfolios = new ConcurrentHashMap<>();
+        LookupWindow window = new LookupWindow();
+        
+        CompletableFuture<Void> pending = CompletableFuture.allOf(
+                loadSecuritiesInto(securityIds, securities, window),
+                loadPortfoliosInto(portfolioIds, portfolios, window));
+        
+        boolean abandoned = false;
+        try {
+            pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            deadlineExceededCounter.increment();
+            logger.warn("Page enrichment did not complete within {} ms (securities: {}/{}, portfolios: {}/{}), " +
+                    "using fallbacks for pending entries",
+                    timeout.toMillis(), securities.size(), securityIds.size(), portfolios.size(), portfolioIds.size());
+            abandoned = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Page enrichment interrupted, using fallbacks for pending entries");
+            abandoned = true;
+        } catch (ExecutionException e) {
+            logger.warn("Page enrichment failed: {}", e.getMessage());
+        }
+        
+        // Snapshot before cancelling so that lookups completing after the deadline
+        // (including cancelled ones) cannot mutate the caller's view
+        PageEnrichment enrichment = new PageEnrichment(Map.copyOf(securities), Map.copyOf(portfolios));
+        if (abandoned) {
+            window.cancel();
+        }
+        return enrichment;
+    }
+    
+    /**
+     * Dispatches one batch's remote lookups to the enrichment executor, keeping at most
+     * {@code maxInFlightPerBatch} of them submitted at a time; the others start as earlier ones
+     * complete. A saturated executor completes a lookup's future exceptionally instead of
+     * running it on the calling thread.
+     */
+    private final class LookupWindow {
+        // Guarded by this
+        private final Queue<BooleanSupplier> waiting = new ArrayDeque<>();
+        private final List<Future<?>> submitted = new ArrayList<>();
+        private int inFlight;
+        private boolean cancelled;
+        
+        <T> CompletableFuture<Optional<T>> dispatch(Supplier<Optional<T>> lookup) {
+            CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+            BooleanSupplier start = () -> submit(lookup, result);
+            synchronized (this) {
+                if (cancelled) {
+                    result.cancel(false);
+                    return result;
+                }
+                if (inFlight >= maxInFlightPerBatch) {
+                    waiting.add(start);
+                    return result;
+                }
+                inFlight++;
+            }
+            if (!start.getAsBoolean()) {
+                startNext();
+            }
+            return result;
+        }
+        
+        /**
+         * @return whether the lookup was accepted by the executor
+         */
+        private <T> boolean submit(Supplier<Optional<T>> lookup, CompletableFuture<Optional<T>> result) {
+            try {
+                Future<?> task = enrichmentExecutor.submit(() -> {
+                    try {
+                        result.complete(lookup.get());
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    } finally {
+                        startNext();
                     }
                 });
-                return results;
+                synchronized (this) {
+                    submitted.add(task);
+                }
+                return true;
+            } catch (TaskRejectedException e) {
+                rejectedLookupCounter.increment();
+                result.completeExceptionally(e);
+                return false;
             }
-            
-            // Create parallel futures for each ticker lookup
-            Map<String, CompletableFuture<Optional<SecurityDTO>>> futures = uncachedTickers.stream()
-                    .collect(Collectors.toConcurrentMap(
-                            ticker -> ticker,
-                            ticker -> CompletableFuture.supplyAsync(() -> {
-                                try {
-                                    return securityServiceClient.findSecurityByTicker(ticker);
-                                } catch (Exception e) {
-                                    logger.warn("Failed to load security by ticker {}: {}", ticker, e.getMessage());
-                                    return Optional.<SecurityDTO>empty();
-                                }
-                            }, batchLoadingExecutor)
-                    ));
-            
-            // Process results
-            futures.forEach((ticker, future) -> {
-                try {
-                    Optional<SecurityDTO> securityOpt = future.join();
-                    if (securityOpt.isPresent()) {
-                        SecurityDTO security = securityOpt.get();
-                        results.put(ticker, security);
-                        optimizedSecurityCache.put(ticker, security);
-                        logger.debug("Loaded and cached security by ticker: {}", ticker);
-                    } else {
-                        SecurityDTO fallback = createFallbackSecurity(ticker);
-                        results.put(ticker, fallback);
-                        optimizedSecurityCache.put(ticker, fallback);
-                        logger.debug("Created fallback for ticker: {}", ticker);
+        }
+        
+        /**
+         * Hand the slot of a finished lookup to the next waiting one, or release it
+         */
+        private void startNext() {
+            while (true) {
+                BooleanSupplier next;
+                synchronized (this) {
+                    next = cancelled ? null : waiting.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
                     }
-                } catch (Exception e) {
-                    logger.error("Error processing ticker {}: {}", ticker, e.getMessage(), e);
-                    SecurityDTO fallback = createFallbackSecurity(ticker);
-                    results.put(ticker, fallback);
                 }
-            });
-            
-            // Add cached securities
-            normalizedTickers.stream()
-                    .filter(ticker -> !uncachedTickers.contains(ticker))
-                    .forEach(ticker -> {
-                        SecurityDTO cached = optimizedSecurityCache.getIfPresent(ticker);
-                        if (cached != null) {
-                            results.put(ticker, cached);
+                if (next.getAsBoolean()) {
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Cancel lookups that have not completed yet; waiting and queued lookups never start and
+         * running ones are interrupted
+         */
+        void cancel() {
+            List<Future<?>> tasks;
+            int cancelled;
+            synchronized (this) {
+                this.cancelled = true;
+                cancelled = waiting.size();
+                waiting.clear();
+                tasks = new ArrayList<>(submitted);
+            }
+            for (Future<?> task : tasks) {
+                if (task.cancel(true)) {
+                    cancelled++;
+                }
+            }
+            if (cancelled > 0) {
+                cancelledLookupCounter.increment(cancelled);
+                logger.debug("Cancelled {} outstanding enrichment lookups", cancelled);
+            }
+        }
+    }
+    
+    /**
+     * Dispatch lookups for all uncached security IDs and collect results into the given map.
+     * Cached entries are resolved on the calling thread; the returned future completes once
+     * every dispatched lookup has completed. Lookups are dispatched through {@code window} so
+     * that the caller can cancel them.
+     */
+    private CompletableFuture<Void> loadSecuritiesInto(Set<String> securityIds, Map<String, SecurityDTO> results,
+                                                       LookupWindow window) {
+        List<CompletableFuture<Void>> lookups = new ArrayList<>();
+        
+        for (String id : securityIds) {
+            SecurityDTO cached = optimizedSecurityCache.getIfPresent(getCacheKey("ID", id));
+            if (cached != null) {
+                results.put(id, cached);
+                continue;
+            }
+            lookups.add(window.dispatch(() -> securityServiceClient.findSecurityById(id))
+                    .handle((securityOpt, throwable) -> {
+                        if (throwable != null) {
+                            // Fallback without caching on error
+                            logger.warn("Failed to load security {}: {}", id, throwable.getMessage());
+                            results.put(id, createFallbackSecurity(id));
+                        } else if (securityOpt.isPresent()) {
+                            results.put(id, securityOpt.get());
+                            optimizedSecurityCache.put(getCacheKey("ID", id), securityOpt.get());
+                            referenceDataIndex.recordSecurity(securityOpt.get());
+                            logger.debug("Loaded and cached security: {}", id);
+                        } else {
+                            SecurityDTO fallback = createFallbackSecurity(id);
+                            results.put(id, fallback);
+                            optimizedSecurityCache.put(getCacheKey("ID", id), fallback);
+                            logger.debug("Created fallback for security: {}", id);
                         }
-                    });
-            
-            logger.debug("Batch load by ticker completed. Loaded: {}, Total requested: {}", 
-                    results.size(), tickers.size());
-            
-            return results;
-            
-        }, batchLoadingExecutor);
+                        return null;
+                    }));
+        }
+        
+        if (lookups.isEmpty()) {
+            logger.debug("All securities found in cache, no external calls needed");
+        } else {
+            logger.debug("Loading {} uncached securities from external service", lookups.size());
+        }
+        
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]));
+    }
+    
+    /**
+     * Dispatch lookups for all uncached portfolio IDs and collect results into the given map.
+     * Cached entries are resolved on the calling thread; the returned future completes once
+     * every dispatched lookup has completed. Lookups are dispatched through {@code window} so
+     * that the caller can cancel them.
+     */
+    private CompletableFuture<Void> loadPortfoliosInto(Set<String> portfolioIds, Map<String, PortfolioDTO> results,
+                                                       LookupWindow window) {
+        List<CompletableFuture<Void>> lookups = new ArrayList<>();
+        
+        for (String id : portfolioIds) {
+            PortfolioDTO cached = optimizedPortfolioCache.getIfPresent(getCacheKey("ID", id));
+            if (cached != null) {
+                results.put(id, cached);
+                continue;
+            }
+            lookups.add(window.dispatch(() -> portfolioServiceClient.findPortfolioById(id))
+                    .handle((portfolioOpt, throwable) -> {
+                        if (throwable != null) {
+                            // Fallback without caching on error
+                            logger.warn("Failed to load portfolio {}: {}", id, throwable.getMessage());
+                            results.put(id, createFallbackPortfolio(id));
+                        } else if (portfolioOpt.isPresent()) {
+                            results.put(id, portfolioOpt.get());
+                            optimizedPortfolioCache.put(getCacheKey("ID", id), portfolioOpt.get());
+                            referenceDataIndex.recordPortfolio(portfolioOpt.get());
+                            logger.debug("Loaded and cached portfolio: {}", id);
+                        } else {
+                            PortfolioDTO fallback = createFallbackPortfolio(id);
+                            results.put(id, fallback);
+                            optimizedPortfolioCache.put(getCacheKey("ID", id), fallback);
+                            logger.debug("Created fallback for portfolio: {}", id);
+                        }
+                        return null;
+                    }));
+        }
+        
+        if (lookups.isEmpty()) {
+            logger.debug("All portfolios found in cache, no external calls needed");
+        } else {
+            logger.debug("Loading {} uncached portfolios from external service", lookups.size());
+        }
+        
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]));
     }
     
     /**
@@ -371,6 +473,39 @@ public class BatchCacheLoadingService {
         return new PortfolioDTO(safeId, safeId);
     }
     
+    /**
+     * Securities and portfolios resolved for one page of results.
+     * Lookups for IDs that were not resolved fall back to the ID itself.
+     */
+    public static class PageEnrichment {
+        private final Map<String, SecurityDTO> securities;
+        private final Map<String, PortfolioDTO> portfolios;
+        
+        public PageEnrichment(Map<String, SecurityDTO> securities, Map<String, PortfolioDTO> portfolios) {
+            this.securities = securities;
+            this.portfolios = portfolios;
+        }
+        
+        public SecurityDTO getSecurity(String securityId) {
+            if (securityId == null) {
+                return null;
+            }
+            SecurityDTO security = securities.get(securityId);
+            return security != null ? security : new SecurityDTO(securityId, securityId);
+        }
+        
+        public PortfolioDTO getPortfolio(String portfolioId) {
+            if (portfolioId == null) {
+                return null;
+            }
+            PortfolioDTO portfolio = portfolios.get(portfolioId);
+            return portfolio != null ? portfolio : new PortfolioDTO(portfolioId, portfolioId);
+        }
+        
+        public int getSecurityCount() { return securities.size(); }
+        public int getPortfolioCount() { return portfolios.size(); }
+    }
+    
     /**
      * Statistics holder for batch cache operations
      */
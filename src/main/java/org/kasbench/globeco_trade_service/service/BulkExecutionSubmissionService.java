@@ -1,5 +1,6 @@
 package org.kasbench.globeco_trade_service.service;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.kasbench.globeco_trade_service.client.ExecutionServiceClient;
 import org.kasbench.globeco_trade_service.config.ExecutionBatchProperties;
 import org.kasbench.globeco_trade_service.dto.ExecutionServiceBatchRequestDTO;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,6 +38,7 @@ public class BulkExecutionSubmissionService {
     private final ExecutionBatchProperties batchProperties;
     private final ExecutionFailureHandler failureHandler;
     private final BulkExecutionErrorHandler errorHandler;
+    private final ExecutionServiceIdIndex executionServiceIdIndex;
     
     @Autowired
     public BulkExecutionSubmissionService(
@@ -44,18 +47,22 @@ public class BulkExecutionSubmissionService {
             ExecutionServiceClient executionServiceClient,
             ExecutionBatchProperties batchProperties,
             ExecutionFailureHandler failureHandler,
-            BulkExecutionErrorHandler errorHandler) {
+            BulkExecutionErrorHandler errorHandler,
+            ExecutionServiceIdIndex executionServiceIdIndex) {
         this.executionRepository = executionRepository;
         this.batchProcessor = batchProcessor;
         this.executionServiceClient = executionServiceClient;
         this.batchProperties = batchProperties;
         this.failureHandler = failureHandler;
         this.errorHandler = errorHandler;
+        this.executionServiceIdIndex = executionServiceIdIndex;
     }
     
     /**
      * Submits multiple executions in bulk with automatic batch size management.
      * Large execution lists are automatically split into multiple batches based on configuration.
+     * Only executions the execution service has not received are submitted; they stay locked until
+     * the submission commits, and executions another submitter holds are left out of the result.
      * 
      * @param executionIds List of execution IDs to submit
      * @return BulkSubmitResult containing aggregated results from all batches
@@ -71,8 +78,14 @@ public class BulkExecutionSubmissionService {
         long startTime = System.currentTimeMillis();
         
         try {
+            List<Integer> claimedIds = claimUnsubmitted(executionIds);
+            if (claimedIds.isEmpty()) {
+                logger.debug("None of {} executions is waiting to be submitted", executionIds.size());
+                return createEmptyResult(executionIds.size(), "No unsubmitted executions found");
+            }
+            
             // Load executions with all relationships
-            List<Execution> executions = loadExecutionsWithRelations(executionIds);
+            List<Execution> executions = loadExecutionsWithRelations(claimedIds);
             
             if (executions.isEmpty()) {
                 logger.warn("No valid executions found for provided IDs");
@@ -137,6 +150,10 @@ public class BulkExecutionSubmissionService {
             ExecutionServiceBatchRequestDTO batchRequest = batchProcessor.buildBatchRequest(executions);
             logger.debug("Built batch request for {} executions", batchSize);
             
+            // Record the attempt before sending, so reconciliation can re-drive executions whose
+            // submission is lost however the call ends
+            markSubmissionAttempted(executions);
+            
             // Submit batch to external service
             BatchExecutionResponseDTO response = executionServiceClient.submitBatch(batchRequest);
             logger.debug("Received batch response with status: {}", response.getStatus());
@@ -165,6 +182,10 @@ public class BulkExecutionSubmissionService {
             
             return result;
             
+        } catch (CallNotPermittedException ex) {
+            // The execution service is known to be down; park the batch for the retry queue drainer
+            logger.debug("Execution service circuit is open, queueing batch of {} executions", batchSize);
+            return failureHandler.deferExecutions(executions, "Execution service circuit is open");
         } catch (Exception ex) {
             long batchDuration = System.currentTimeMillis() - batchStartTime;
             
@@ -185,6 +206,21 @@ public class BulkExecutionSubmissionService {
         }
     }
     
+    /**
+     * Locks those of the given executions that have not reached the execution service, skipping
+     * any that another transaction is submitting.
+     */
+    private List<Integer> claimUnsubmitted(List<Integer> executionIds) {
+        List<Integer> claimedIds = executionRepository.claimUnsubmittedForUpdate(executionIds).stream()
+            .map(Execution::getId)
+            .collect(Collectors.toList());
+        if (claimedIds.size() < executionIds.size()) {
+            logger.debug("Skipping {} executions already submitted or being submitted elsewhere",
+                        executionIds.size() - claimedIds.size());
+        }
+        return claimedIds;
+    }
+    
     /**
      * Loads executions with all required relationships to avoid lazy loading issues.
      */
@@ -335,6 +371,21 @@ public class BulkExecutionSubmissionService {
                                    results, overallStatus, message);
     }
     
+    /**
+     * Marks the executions as handed to the execution service. The in-memory entities are kept in
+     * step so saving them after the response does not clear the marker.
+     */
+    private void markSubmissionAttempted(List<Execution> executions) {
+        OffsetDateTime attemptedAt = OffsetDateTime.now();
+        executionRepository.markSubmissionAttempted(
+            executions.stream().map(Execution::getId).collect(Collectors.toList()), attemptedAt);
+        for (Execution execution : executions) {
+            if (execution.getSubmissionAttemptedAt() == null) {
+                execution.setSubmissionAttemptedAt(attemptedAt);
+            }
+        }
+    }
+    
     /**
      * Updates execution entities based on submission results.
      */
@@ -365,6 +416,7 @@ public class BulkExecutionSubmissionService {
             // Set execution service ID if provided
             if (result.getExecutionServiceId() != null) {
                 execution.setExecutionServiceId(result.getExecutionServiceId());
+                executionServiceIdIndex.record(result.getExecutionServiceId(), execution.getId());
             }
             
             // Set quantity placed to quantity ordered
@@ -0,0 +1,343 @@
+package org.kasbench.globeco_trade_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.kasbench.globeco_trade_service.client.PortfolioServiceClient;
+import org.kasbench.globeco_trade_service.client.SecurityServiceClient;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the optimized security/portfolio caches to a local snapshot file so that a restarted
+ * pod begins with warm caches. The snapshot is restored before readiness (ahead of the startup
+ * warm-up, which then only loads the misses), and restored entries are revalidated against the
+ * reference services a few at a time in the background.
+ *
+ * <p>File layout: a fixed header (magic, format version, creation time, payload length, CRC32
+ * of the payload) followed by the security entries and then the portfolio entries, each as
+ * cache key, ID and ticker/name. Strings are length-prefixed UTF-8.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "cache.snapshot.enabled", havingValue = "true")
+public class CacheSnapshotService implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    static final int MAGIC = 0x47545343; // "GTSC"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final Cache<String, SecurityDTO> optimizedSecurityCache;
+    private final Cache<String, PortfolioDTO> optimizedPortfolioCache;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final SecurityServiceClient securityServiceClient;
+    private final PortfolioServiceClient portfolioServiceClient;
+    private final Path snapshotPath;
+    private final Duration maxAge;
+    private final int revalidateBatchSize;
+
+    // Restored cache keys awaiting revalidation against the reference services
+    private final Queue<String> securityKeysToRevalidate = new ConcurrentLinkedQueue<>();
+    private final Queue<String> portfolioKeysToRevalidate = new ConcurrentLinkedQueue<>();
+
+    private final Counter securitiesRestoredCounter;
+    private final Counter portfoliosRestoredCounter;
+    private final Counter snapshotWriteCounter;
+    private final Counter snapshotFailureCounter;
+
+    public CacheSnapshotService(
+            @Qualifier("optimizedSecurityCache") Cache<String, SecurityDTO> optimizedSecurityCache,
+            @Qualifier("optimizedPortfolioCache") Cache<String, PortfolioDTO> optimizedPortfolioCache,
+            ReferenceDataIndex referenceDataIndex,
+            SecurityServiceClient securityServiceClient,
+            PortfolioServiceClient portfolioServiceClient,
+            MeterRegistry meterRegistry,
+            @Value("${cache.snapshot.path:/tmp/globeco-trade-service/enrichment-cache.snapshot}") String snapshotPath,
+            @Value("${cache.snapshot.max-age-minutes:1440}") long maxAgeMinutes,
+            @Value("${cache.snapshot.revalidate-batch-size:20}") int revalidateBatchSize) {
+        this.optimizedSecurityCache = optimizedSecurityCache;
+        this.optimizedPortfolioCache = optimizedPortfolioCache;
+        this.referenceDataIndex = referenceDataIndex;
+        this.securityServiceClient = securityServiceClient;
+        this.portfolioServiceClient = portfolioServiceClient;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.revalidateBatchSize = revalidateBatchSize;
+
+        this.securitiesRestoredCounter = Counter.builder("cache.snapshot.restored")
+                .description("Cache entries restored from the on-disk snapshot")
+                .tag("type", "security")
+                .register(meterRegistry);
+        this.portfoliosRestoredCounter = Counter.builder("cache.snapshot.restored")
+                .description("Cache entries restored from the on-disk snapshot")
+                .tag("type", "portfolio")
+                .register(meterRegistry);
+        this.snapshotWriteCounter = Counter.builder("cache.snapshot.writes")
+                .description("Cache snapshots written to disk")
+                .register(meterRegistry);
+        this.snapshotFailureCounter = Counter.builder("cache.snapshot.failures")
+                .description("Cache snapshots that could not be written or restored")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        restore();
+    }
+
+    /**
+     * Restore the caches from the snapshot file. Missing, stale, corrupt or incompatible
+     * snapshots are ignored and the caches fill on demand as usual.
+     * @return number of entries restored
+     */
+    public int restore() {
+        if (!Files.exists(snapshotPath)) {
+            logger.info("No cache snapshot found at {}", snapshotPath);
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("unexpected snapshot size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a cache snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                logger.info("Ignoring cache snapshot with format version {} (expected {})", version, FORMAT_VERSION);
+                return 0;
+            }
+            long createdAt = buffer.getLong();
+            Duration age = Duration.ofMillis(System.currentTimeMillis() - createdAt);
+            if (age.compareTo(maxAge) > 0) {
+                logger.info("Ignoring cache snapshot created {} minutes ago", age.toMinutes());
+                return 0;
+            }
+            int payloadLength = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (payloadLength != size - HEADER_BYTES) {
+                throw new IOException("truncated snapshot");
+            }
+            ByteBuffer payload = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+
+            int securities = readEntries(payload, (key, id, ticker) -> {
+                SecurityDTO security = new SecurityDTO(id, ticker);
+                // Entries loaded since startup are newer than the snapshot
+                if (optimizedSecurityCache.asMap().putIfAbsent(key, security) != null) {
+                    return false;
+                }
+                referenceDataIndex.recordSecurity(security);
+                securityKeysToRevalidate.add(key);
+                return true;
+            });
+            int portfolios = readEntries(payload, (key, id, name) -> {
+                PortfolioDTO portfolio = new PortfolioDTO(id, name);
+                if (optimizedPortfolioCache.asMap().putIfAbsent(key, portfolio) != null) {
+                    return false;
+                }
+                referenceDataIndex.recordPortfolio(portfolio);
+                portfolioKeysToRevalidate.add(key);
+                return true;
+            });
+            securitiesRestoredCounter.increment(securities);
+            portfoliosRestoredCounter.increment(portfolios);
+            logger.info("Restored {} securities and {} portfolios from cache snapshot", securities, portfolios);
+            return securities + portfolios;
+        } catch (IOException | RuntimeException e) {
+            snapshotFailureCounter.increment();
+            logger.warn("Ignoring unreadable cache snapshot {}: {}", snapshotPath, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Write the current cache contents to the snapshot file. The file is written beside the
+     * target and moved into place atomically, so readers never see a partial snapshot.
+     */
+    @Scheduled(initialDelayString = "${cache.snapshot.interval-ms:300000}",
+               fixedDelayString = "${cache.snapshot.interval-ms:300000}")
+    @PreDestroy
+    public void writeSnapshot() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            int securities = writeEntries(out, optimizedSecurityCache.asMap(),
+                    SecurityDTO::getSecurityId, SecurityDTO::getTicker);
+            int portfolios = writeEntries(out, optimizedPortfolioCache.asMap(),
+                    PortfolioDTO::getPortfolioId, PortfolioDTO::getName);
+            out.flush();
+            byte[] payload = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(payload.length)
+                    .putLong(crc.getValue())
+                    .flip();
+
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer body = ByteBuffer.wrap(payload);
+                    while (header.hasRemaining() || body.hasRemaining()) {
+                        channel.write(new ByteBuffer[] { header, body });
+                    }
+                    channel.force(true);
+                }
+                Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            snapshotWriteCounter.increment();
+            logger.debug("Wrote cache snapshot with {} securities and {} portfolios ({} bytes)",
+                    securities, portfolios, HEADER_BYTES + payload.length);
+        } catch (IOException | RuntimeException e) {
+            snapshotFailureCounter.increment();
+            logger.warn("Failed to write cache snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh a few restored entries from the reference services. Entries that cannot be
+     * revalidated are kept until they expire from the cache as usual.
+     */
+    @Scheduled(fixedDelayString = "${cache.snapshot.revalidate-interval-ms:1000}")
+    public void revalidateRestoredEntries() {
+        for (int i = 0; i < revalidateBatchSize; i++) {
+            String key = securityKeysToRevalidate.poll();
+            if (key == null) {
+                break;
+            }
+            SecurityDTO restored = optimizedSecurityCache.getIfPresent(key);
+            if (restored != null) {
+                revalidate(() -> securityServiceClient.findSecurityById(restored.getSecurityId()))
+                        .ifPresent(security -> {
+                            optimizedSecurityCache.put(key, security);
+                            referenceDataIndex.recordSecurity(security);
+                        });
+            }
+        }
+        for (int i = 0; i < revalidateBatchSize; i++) {
+            String key = portfolioKeysToRevalidate.poll();
+            if (key == null) {
+                break;
+            }
+            PortfolioDTO restored = optimizedPortfolioCache.getIfPresent(key);
+            if (restored != null) {
+                revalidate(() -> portfolioServiceClient.findPortfolioById(restored.getPortfolioId()))
+                        .ifPresent(portfolio -> {
+                            optimizedPortfolioCache.put(key, portfolio);
+                            referenceDataIndex.recordPortfolio(portfolio);
+                        });
+            }
+        }
+    }
+
+    int getPendingRevalidations() {
+        return securityKeysToRevalidate.size() + portfolioKeysToRevalidate.size();
+    }
+
+    private <T> Optional<T> revalidate(Supplier<Optional<T>> lookup) {
+        try {
+            return lookup.get();
+        } catch (Exception e) {
+            logger.debug("Revalidation of restored cache entry failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private <T> int writeEntries(DataOutputStream out, Map<String, T> entries,
+                                 Function<T, String> id,
+                                 Function<T, String> value) throws IOException {
+        // Fallback entries carry the ID as ticker/name and are not worth persisting
+        Map<String, T> real = entries.entrySet().stream()
+                .filter(entry -> id.apply(entry.getValue()) != null && value.apply(entry.getValue()) != null)
+                .filter(entry -> !id.apply(entry.getValue()).equals(value.apply(entry.getValue())))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        out.writeInt(real.size());
+        for (Map.Entry<String, T> entry : real.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, id.apply(entry.getValue()));
+            writeString(out, value.apply(entry.getValue()));
+        }
+        return real.size();
+    }
+
+    private int readEntries(ByteBuffer payload, EntryConsumer consumer) {
+        int count = payload.getInt();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            if (consumer.accept(readString(payload), readString(payload), readString(payload))) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private String readString(ByteBuffer payload) {
+        byte[] utf8 = new byte[payload.getInt()];
+        payload.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer {
+        boolean accept(String key, String id, String value);
+    }
+}
@@ -0,0 +1,156 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the security/portfolio enrichment caches at startup with the IDs referenced by
+ * unsubmitted or recent trade orders. Runs as an {@link ApplicationRunner}, so the application
+ * reports ready (actuator readiness group and /api/v1/health/readiness) only once warm-up has
+ * finished or its time cap has been reached.
+ */
+@Service
+@ConditionalOnProperty(name = "cache.warmup.enabled", havingValue = "true")
+public class CacheWarmupService implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final TradeOrderRepository tradeOrderRepository;
+    private final BatchCacheLoadingService batchCacheLoadingService;
+    private final Duration lookback;
+    private final int maxIds;
+    private final int batchSize;
+    private final Duration timeout;
+
+    private final AtomicInteger securityTargets = new AtomicInteger();
+    private final AtomicInteger portfolioTargets = new AtomicInteger();
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final Counter securitiesLoadedCounter;
+    private final Counter portfoliosLoadedCounter;
+    private final Counter timeoutCounter;
+    private final Timer warmupTimer;
+
+    public CacheWarmupService(
+            TradeOrderRepository tradeOrderRepository,
+            BatchCacheLoadingService batchCacheLoadingService,
+            MeterRegistry meterRegistry,
+            @Value("${cache.warmup.lookback-hours:24}") long lookbackHours,
+            @Value("${cache.warmup.max-ids:1000}") int maxIds,
+            @Value("${cache.warmup.batch-size:200}") int batchSize,
+            @Value("${cache.warmup.timeout-ms:60000}") long timeoutMs) {
+        this.tradeOrderRepository = tradeOrderRepository;
+        this.batchCacheLoadingService = batchCacheLoadingService;
+        this.lookback = Duration.ofHours(lookbackHours);
+        this.maxIds = maxIds;
+        this.batchSize = batchSize;
+        this.timeout = Duration.ofMillis(timeoutMs);
+
+        Gauge.builder("cache.warmup.targets", securityTargets, AtomicInteger::get)
+                .description("IDs selected for startup cache warm-up")
+                .tag("type", "security")
+                .register(meterRegistry);
+        Gauge.builder("cache.warmup.targets", portfolioTargets, AtomicInteger::get)
+                .description("IDs selected for startup cache warm-up")
+                .tag("type", "portfolio")
+                .register(meterRegistry);
+        Gauge.builder("cache.warmup.in_progress", inProgress, AtomicInteger::get)
+                .description("1 while startup cache warm-up is running")
+                .register(meterRegistry);
+        this.securitiesLoadedCounter = Counter.builder("cache.warmup.loaded")
+                .description("Entries loaded by startup cache warm-up")
+                .tag("type", "security")
+                .register(meterRegistry);
+        this.portfoliosLoadedCounter = Counter.builder("cache.warmup.loaded")
+                .description("Entries loaded by startup cache warm-up")
+                .tag("type", "portfolio")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("cache.warmup.timeouts")
+                .description("Startup cache warm-ups cut short by the time cap")
+                .register(meterRegistry);
+        this.warmupTimer = Timer.builder("cache.warmup.duration")
+                .description("Time spent warming caches at startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        inProgress.set(1);
+        try {
+            warmupTimer.record(this::warmup);
+        } catch (Exception e) {
+            // Never block startup on a failed warm-up; requests fall back to on-demand loading
+            logger.warn("Cache warm-up failed: {}", e.getMessage());
+        } finally {
+            inProgress.set(0);
+        }
+    }
+
+    void warmup() {
+        long startTime = System.nanoTime();
+        long deadline = startTime + timeout.toNanos();
+
+        OffsetDateTime since = OffsetDateTime.now().minus(lookback);
+        List<String> securityIds = tradeOrderRepository.findActiveSecurityIds(since, PageRequest.of(0, maxIds));
+        List<String> portfolioIds = tradeOrderRepository.findActivePortfolioIds(since, PageRequest.of(0, maxIds));
+        securityTargets.set(securityIds.size());
+        portfolioTargets.set(portfolioIds.size());
+        logger.info("Warming caches with {} securities and {} portfolios", securityIds.size(), portfolioIds.size());
+
+        List<Set<String>> securityBatches = partition(securityIds);
+        List<Set<String>> portfolioBatches = partition(portfolioIds);
+        int batches = Math.max(securityBatches.size(), portfolioBatches.size());
+        for (int i = 0; i < batches; i++) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                timeoutCounter.increment();
+                logger.warn("Cache warm-up stopped after {} ms time cap ({} of {} batches loaded)",
+                        timeout.toMillis(), i, batches);
+                return;
+            }
+            Set<String> securityBatch = i < securityBatches.size() ? securityBatches.get(i) : Set.of();
+            Set<String> portfolioBatch = i < portfolioBatches.size() ? portfolioBatches.get(i) : Set.of();
+
+            // Loads populate the enrichment caches and the reference index as a side effect
+            BatchCacheLoadingService.PageEnrichment loaded = batchCacheLoadingService.loadPageEnrichment(
+                    securityBatch, portfolioBatch, Duration.ofNanos(remaining));
+            securitiesLoadedCounter.increment(loaded.getSecurityCount());
+            portfoliosLoadedCounter.increment(loaded.getPortfolioCount());
+        }
+
+        logger.info("Cache warm-up completed in {} ms", Duration.ofNanos(System.nanoTime() - startTime).toMillis());
+    }
+
+    private List<Set<String>> partition(List<String> ids) {
+        List<Set<String>> batches = new ArrayList<>();
+        Set<String> batch = new LinkedHashSet<>();
+        for (String id : ids) {
+            batch.add(id);
+            if (batch.size() >= batchSize) {
+                batches.add(batch);
+                batch = new LinkedHashSet<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -1,5 +1,8 @@
 package org.kasbench.globeco_trade_service.service;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
@@ -16,9 +19,13 @@ public class CompensationFailedEvent {
     private final String errorMessage;
     private final OffsetDateTime failureTime;
     
-    public CompensationFailedEvent(Integer executionId, Integer tradeOrderId, 
-            BigDecimal originalQuantitySent, Boolean originalSubmittedStatus,
-            String errorMessage, OffsetDateTime failureTime) {
+    @JsonCreator
+    public CompensationFailedEvent(@JsonProperty("executionId") Integer executionId, 
+            @JsonProperty("tradeOrderId") Integer tradeOrderId, 
+            @JsonProperty("originalQuantitySent") BigDecimal originalQuantitySent, 
+            @JsonProperty("originalSubmittedStatus") Boolean originalSubmittedStatus,
+            @JsonProperty("errorMessage") String errorMessage, 
+            @JsonProperty("failureTime") OffsetDateTime failureTime) {
         this.executionId = executionId;
         this.tradeOrderId = tradeOrderId;
         this.originalQuantitySent = originalQuantitySent;
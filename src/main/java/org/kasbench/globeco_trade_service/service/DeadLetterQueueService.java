@@ -1,9 +1,12 @@
 package org.kasbench.globeco_trade_service.service;
 
+import java.util.List;
+
 /**
  * Service interface for handling dead letter queue operations.
  * This service is responsible for sending failed compensation events
- * to a dead letter queue for manual intervention.
+ * to a dead letter queue for manual intervention, and for handing them
+ * back in order to whatever replays them.
  */
 public interface DeadLetterQueueService {
     
@@ -15,6 +18,74 @@ public interface DeadLetterQueueService {
      */
     void send(CompensationFailedEvent event) throws DeadLetterQueueException;
     
+    /**
+     * Reads events after the replay cursor, oldest first, without moving the cursor.
+     * 
+     * @param maxEvents The maximum number of events to return
+     * @return The pending events, empty when the cursor has caught up
+     * @throws DeadLetterQueueException if the dead letter queue cannot be read
+     */
+    List<DeadLetterEntry> readPending(int maxEvents) throws DeadLetterQueueException;
+    
+    /**
+     * Moves the replay cursor past the given entry and every entry before it.
+     * 
+     * @param entry The last entry that has been dealt with
+     * @throws DeadLetterQueueException if the cursor cannot be saved
+     */
+    void acknowledge(DeadLetterEntry entry) throws DeadLetterQueueException;
+    
+    /**
+     * Position just past the entries written so far. Entries sent afterwards lie beyond it.
+     * 
+     * @return The current end of the dead letter queue
+     * @throws DeadLetterQueueException if the dead letter queue cannot be read
+     */
+    Position endPosition() throws DeadLetterQueueException;
+    
+    /**
+     * An event read from the dead letter queue together with its position.
+     */
+    class DeadLetterEntry {
+        private final CompensationFailedEvent event;
+        private final long segment;
+        private final long nextOffset;
+        
+        public DeadLetterEntry(CompensationFailedEvent event, long segment, long nextOffset) {
+            this.event = event;
+            this.segment = segment;
+            this.nextOffset = nextOffset;
+        }
+        
+        public CompensationFailedEvent getEvent() { return event; }
+        public long getSegment() { return segment; }
+        public long getNextOffset() { return nextOffset; }
+    }
+    
+    /**
+     * A position in the dead letter queue: a segment and an offset within it.
+     */
+    class Position {
+        private final long segment;
+        private final long offset;
+        
+        public Position(long segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+        
+        public long getSegment() { return segment; }
+        public long getOffset() { return offset; }
+        
+        /**
+         * Whether the entry ends at or before this position
+         */
+        public boolean covers(DeadLetterEntry entry) {
+            return entry.getSegment() < segment
+                    || (entry.getSegment() == segment && entry.getNextOffset() <= offset);
+        }
+    }
+    
     /**
      * Exception thrown when dead letter queue operations fail.
      */
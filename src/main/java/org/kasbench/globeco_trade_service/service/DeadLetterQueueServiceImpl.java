@@ -3,73 +3,383 @@ package org.kasbench.globeco_trade_service.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of DeadLetterQueueService that writes failed compensation events
  * to a file-based dead letter queue for manual intervention.
- * 
+ *
+ * The file is an append-only log owned by a single writer thread. Senders queue their entry
+ * and wait; the writer takes everything queued at that moment, appends it with one write and
+ * one fsync, and then releases all of the waiting senders (group commit). Once the active
+ * file reaches its maximum size it is renamed to {@code <file>.<segment>} and a new one is
+ * started. Replay reads the segments in order from a cursor stored next to the log in
+ * {@code <file>.cursor}, and rotated segments are deleted once the cursor has moved past them.
+ *
  * In a production environment, this would typically integrate with a message queue
  * system like RabbitMQ, Apache Kafka, or AWS SQS.
  */
 @Service
 public class DeadLetterQueueServiceImpl implements DeadLetterQueueService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(DeadLetterQueueServiceImpl.class);
-    private final String dlqFilePath;
-    
+    private static final String ENTRY_MARKER = "COMPENSATION_FAILED: ";
+
+    private final Path dlqFile;
+    private final Path cursorFile;
+    private final long maxSegmentBytes;
+    private final long commitTimeoutMs;
+
     private final ObjectMapper objectMapper;
-    
-    public DeadLetterQueueServiceImpl() {
-        this("logs/compensation-dlq.log");
-    }
-    
+    private final BlockingQueue<PendingWrite> pendingWrites;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // Guards segment numbering and rotation against concurrent readers; written only by the writer thread
+    private final Object segmentLock = new Object();
+    private FileChannel channel;
+    private long activeSegment;
+    private long activeSize;
+
     public DeadLetterQueueServiceImpl(String dlqFilePath) {
-        this.dlqFilePath = dlqFilePath;
+        this(dlqFilePath, 64L * 1024 * 1024, 10000, 5000);
+    }
+
+    @Autowired
+    public DeadLetterQueueServiceImpl(
+            @Value("${dlq.file-path:logs/compensation-dlq.log}") String dlqFilePath,
+            @Value("${dlq.max-segment-bytes:67108864}") long maxSegmentBytes,
+            @Value("${dlq.queue-capacity:10000}") int queueCapacity,
+            @Value("${dlq.commit-timeout-ms:5000}") long commitTimeoutMs) {
+        this.dlqFile = Paths.get(dlqFilePath);
+        this.cursorFile = Paths.get(dlqFilePath + ".cursor");
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.commitTimeoutMs = commitTimeoutMs;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.pendingWrites = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.writerThread = new Thread(this::writeLoop, "dlq-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
     }
-    
+
     @Override
     public void send(CompensationFailedEvent event) throws DeadLetterQueueException {
+        logger.warn("Sending compensation failed event to dead letter queue: {}", event);
+
+        // Create a structured log entry
+        PendingWrite write = new PendingWrite((createLogEntry(event) + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            if (!running || !pendingWrites.offer(write, commitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new DeadLetterQueueException("Dead letter queue is not accepting events");
+            }
+            write.committed.get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadLetterQueueException("Interrupted while sending event to dead letter queue", e);
+        } catch (TimeoutException e) {
+            throw new DeadLetterQueueException("Timed out waiting for dead letter queue write", e);
+        } catch (ExecutionException e) {
+            logger.error("Failed to write compensation failed event to dead letter queue: {}", e.getCause().getMessage(), e.getCause());
+            throw new DeadLetterQueueException("Failed to send event to dead letter queue", e.getCause());
+        }
+
+        logger.error("CRITICAL: Compensation failed event written to dead letter queue - manual intervention required for execution {} and trade order {}",
+                event.getExecutionId(), event.getTradeOrderId());
+    }
+
+    @Override
+    public List<DeadLetterEntry> readPending(int maxEvents) throws DeadLetterQueueException {
+        List<DeadLetterEntry> entries = new ArrayList<>();
+        try {
+            long[] cursor = readCursor();
+            synchronized (segmentLock) {
+                long lastSegment = currentSegment();
+                for (long segment = cursor[0]; segment <= lastSegment && entries.size() < maxEvents; segment++) {
+                    long offset = segment == cursor[0] ? cursor[1] : 0;
+                    readSegment(segment, lastSegment, offset, maxEvents, entries);
+                }
+            }
+        } catch (IOException e) {
+            throw new DeadLetterQueueException("Failed to read dead letter queue", e);
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized void acknowledge(DeadLetterEntry entry) throws DeadLetterQueueException {
+        boolean movedSegment;
         try {
-            logger.warn("Sending compensation failed event to dead letter queue: {}", event);
-            
-            // Ensure the parent directory exists
-            Path dlqFile = Paths.get(dlqFilePath);
-            Path parentDir = dlqFile.getParent();
-            if (parentDir != null && !Files.exists(parentDir)) {
-                Files.createDirectories(parentDir);
+            long[] cursor = readCursor();
+            if (entry.getSegment() < cursor[0]
+                    || (entry.getSegment() == cursor[0] && entry.getNextOffset() <= cursor[1])) {
+                return;
             }
-            
-            // Create a structured log entry
-            String logEntry = createLogEntry(event);
-            
-            // Write to the dead letter queue file
-            Files.write(dlqFile, (logEntry + System.lineSeparator()).getBytes(), 
-                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            
-            logger.error("CRITICAL: Compensation failed event written to dead letter queue - manual intervention required for execution {} and trade order {}", 
-                    event.getExecutionId(), event.getTradeOrderId());
-            
+            movedSegment = entry.getSegment() > cursor[0];
+            if (cursorFile.getParent() != null) {
+                Files.createDirectories(cursorFile.getParent());
+            }
+            Path temp = cursorFile.resolveSibling(cursorFile.getFileName() + ".tmp");
+            Files.writeString(temp, entry.getSegment() + " " + entry.getNextOffset());
+            Files.move(temp, cursorFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
-            logger.error("Failed to write compensation failed event to dead letter queue: {}", e.getMessage(), e);
-            throw new DeadLetterQueueException("Failed to send event to dead letter queue", e);
+            throw new DeadLetterQueueException("Failed to save dead letter queue cursor", e);
+        }
+        if (movedSegment) {
+            deleteSegmentsBefore(entry.getSegment());
         }
     }
-    
+
+    @Override
+    public Position endPosition() throws DeadLetterQueueException {
+        try {
+            synchronized (segmentLock) {
+                // An entry still being written ends past the current size, so it is not covered
+                return new Position(currentSegment(), Files.exists(dlqFile) ? Files.size(dlqFile) : 0);
+            }
+        } catch (IOException e) {
+            throw new DeadLetterQueueException("Failed to read dead letter queue", e);
+        }
+    }
+
+    /**
+     * Stops accepting events and writes out whatever is still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !pendingWrites.isEmpty()) {
+            List<PendingWrite> group = new ArrayList<>();
+            try {
+                PendingWrite first = pendingWrites.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                pendingWrites.drainTo(group);
+                commit(group);
+                group.forEach(write -> write.committed.complete(null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(write -> write.committed.completeExceptionally(e));
+                break;
+            } catch (Exception e) {
+                logger.error("Failed to commit {} dead letter queue entries: {}", group.size(), e.getMessage(), e);
+                group.forEach(write -> write.committed.completeExceptionally(e));
+            }
+        }
+        synchronized (segmentLock) {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Appends a group of entries with one write and one fsync, rotating first if they would
+     * push the active segment past its maximum size.
+     */
+    private void commit(List<PendingWrite> group) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (PendingWrite write : group) {
+            buffer.write(write.bytes);
+        }
+
+        synchronized (segmentLock) {
+            if (channel == null) {
+                openActiveSegment();
+            }
+            if (activeSize > 0 && activeSize + buffer.size() > maxSegmentBytes) {
+                rotate();
+            }
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+        activeSize += buffer.size();
+    }
+
+    private void openActiveSegment() throws IOException {
+        // Ensure the parent directory exists
+        Path parentDir = dlqFile.getParent();
+        if (parentDir != null && !Files.exists(parentDir)) {
+            Files.createDirectories(parentDir);
+        }
+        activeSegment = lastRotatedSegment() + 1;
+        channel = FileChannel.open(dlqFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSize = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        Files.move(dlqFile, segmentPath(activeSegment), StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Rotated dead letter queue segment {} at {} bytes", activeSegment, activeSize);
+        openActiveSegment();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close dead letter queue file: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Reads complete entries of one segment from the given offset. The active segment is the
+     * one numbered after the last rotated segment.
+     */
+    private void readSegment(long segment, long lastSegment, long offset, int maxEvents,
+            List<DeadLetterEntry> entries) throws IOException {
+        Path path = segment == lastSegment ? dlqFile : segmentPath(segment);
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (offset >= Files.size(path)) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            in.skipNBytes(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = offset;
+            int next;
+            // Anything after the last newline is an entry still being written, so it is never returned
+            while (entries.size() < maxEvents && (next = in.read()) >= 0) {
+                position++;
+                if (next != '\n') {
+                    line.write(next);
+                    continue;
+                }
+                CompensationFailedEvent event = parseLogEntry(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                if (event != null) {
+                    entries.add(new DeadLetterEntry(event, segment, position));
+                }
+            }
+        }
+    }
+
+    private CompensationFailedEvent parseLogEntry(String line) {
+        int marker = line.indexOf(ENTRY_MARKER);
+        if (marker < 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(line.substring(marker + ENTRY_MARKER.length()), CompensationFailedEvent.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping dead letter queue entry that cannot be replayed: {}", line);
+            return null;
+        }
+    }
+
+    private long[] readCursor() throws IOException {
+        if (!Files.exists(cursorFile)) {
+            return new long[] {1, 0};
+        }
+        String[] parts = Files.readString(cursorFile).trim().split(" ");
+        return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+    }
+
+    private long currentSegment() throws IOException {
+        return channel != null ? activeSegment : lastRotatedSegment() + 1;
+    }
+
+    private long lastRotatedSegment() throws IOException {
+        Path parentDir = dlqFile.toAbsolutePath().getParent();
+        if (!Files.isDirectory(parentDir)) {
+            return 0;
+        }
+        String prefix = dlqFile.getFileName() + ".";
+        long last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(parentDir, dlqFile.getFileName() + ".*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    last = Math.max(last, Long.parseLong(suffix));
+                }
+            }
+        }
+        // Segments before the cursor are deleted once replayed, so the numbering continues from it
+        return Math.max(last, readCursor()[0] - 1);
+    }
+
+    /**
+     * Deletes the rotated segments the cursor has moved past. A segment that cannot be deleted is
+     * left behind and tried again the next time the cursor moves to a later segment.
+     */
+    private void deleteSegmentsBefore(long segment) {
+        String prefix = dlqFile.getFileName() + ".";
+        synchronized (segmentLock) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(
+                    dlqFile.toAbsolutePath().getParent(), dlqFile.getFileName() + ".*")) {
+                for (Path file : files) {
+                    String suffix = file.getFileName().toString().substring(prefix.length());
+                    if (suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit)
+                            || Long.parseLong(suffix) >= segment) {
+                        continue;
+                    }
+                    try {
+                        Files.delete(file);
+                        logger.info("Deleted replayed dead letter queue segment {}", suffix);
+                    } catch (IOException e) {
+                        logger.warn("Failed to delete replayed dead letter queue segment {}: {}", suffix, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to list replayed dead letter queue segments: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return dlqFile.resolveSibling(dlqFile.getFileName() + "." + segment);
+    }
+
     /**
      * Creates a structured log entry for the compensation failed event.
-     * 
+     *
      * @param event The compensation failed event
      * @return A formatted log entry string
      */
@@ -78,18 +388,30 @@ public class DeadLetterQueueServiceImpl implements DeadLetterQueueService {
             // Create a structured log entry with timestamp and event details
             String timestamp = event.getFailureTime().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
             String eventJson = objectMapper.writeValueAsString(event);
-            
+
             return String.format("[%s] COMPENSATION_FAILED: %s", timestamp, eventJson);
-            
+
         } catch (JsonProcessingException e) {
             logger.error("Failed to serialize compensation failed event to JSON: {}", e.getMessage());
-            
+
             // Fallback to simple string representation
-            return String.format("[%s] COMPENSATION_FAILED: executionId=%d, tradeOrderId=%d, error=%s", 
+            return String.format("[%s] COMPENSATION_FAILED: executionId=%d, tradeOrderId=%d, error=%s",
                     event.getFailureTime().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
-                    event.getExecutionId(), 
-                    event.getTradeOrderId(), 
+                    event.getExecutionId(),
+                    event.getTradeOrderId(),
                     event.getErrorMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * An entry waiting for the writer thread
+     */
+    private static final class PendingWrite {
+        private final byte[] bytes;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        PendingWrite(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO.ReplayMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically replays new dead letter queue entries in the configured mode. Disabled by default:
+ * whether failed compensations should be compensated again or re-submitted is an operational
+ * decision, so most deployments replay on demand through the replay endpoint.
+ */
+@Component
+@ConditionalOnProperty(name = "dlq.replay.enabled", havingValue = "true")
+public class DeadLetterReplayJob {
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayJob.class);
+
+    private final DeadLetterReplayService replayService;
+    private final ReplayMode mode;
+    private final int maxEventsPerRun;
+
+    public DeadLetterReplayJob(
+            DeadLetterReplayService replayService,
+            @Value("${dlq.replay.mode:COMPENSATE}") ReplayMode mode,
+            @Value("${dlq.replay.max-events-per-run:10000}") int maxEventsPerRun) {
+        this.replayService = replayService;
+        this.mode = mode;
+        this.maxEventsPerRun = maxEventsPerRun;
+
+        logger.info("Dead letter queue replay job enabled in {} mode for up to {} events per run", mode, maxEventsPerRun);
+    }
+
+    @Scheduled(initialDelayString = "${dlq.replay.interval-ms:60000}",
+               fixedDelayString = "${dlq.replay.interval-ms:60000}")
+    public void run() {
+        if (replayService.isRunning()) {
+            logger.debug("Skipping scheduled dead letter queue replay, a replay is already running");
+            return;
+        }
+        try {
+            replayService.replay(mode, maxEventsPerRun);
+        } catch (IllegalStateException e) {
+            logger.debug("Skipping scheduled dead letter queue replay: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Scheduled dead letter queue replay failed: {}", e.getMessage(), e);
+        }
+    }
+}
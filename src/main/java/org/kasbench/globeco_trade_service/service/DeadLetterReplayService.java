@@ -0,0 +1,274 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO;
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO.ReplayMode;
+import org.kasbench.globeco_trade_service.entity.Execution;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.service.DeadLetterQueueService.DeadLetterEntry;
+import org.kasbench.globeco_trade_service.service.DeadLetterQueueService.Position;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the compensation dead letter queue. Entries are read from the replay cursor in chunks,
+ * deduplicated by execution ID (the latest entry wins) and checked against the executions as they
+ * are now: executions that have since been submitted need nothing more, and executions that no
+ * longer exist cannot be acted on. Executions waiting in the {@link ExecutionRetryQueue} are left
+ * to the retry drainer rather than re-submitted. The rest are either reversed (see
+ * {@link TransactionCompensationHandler#reverseFailedSubmissions}) or re-submitted to the execution
+ * service, in parallel batches paced to a maximum event rate. The cursor is moved past a chunk once
+ * all of its batches are done, so an interrupted replay resumes where it stopped. Entries that fail
+ * again are sent back to the dead letter queue behind the cursor; a replay stops at the end of the
+ * queue as it was when the replay started, so they are left for the next one.
+ */
+@Service
+public class DeadLetterReplayService {
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+
+    private static final String SUBMITTED_STATUS = "SUCCESS";
+    private static final String COMPLETED_STATUS = "COMPLETED";
+    private static final String QUEUED_STATUS = "QUEUED";
+
+    private final DeadLetterQueueService deadLetterQueueService;
+    private final ExecutionRepository executionRepository;
+    private final TransactionCompensationHandler compensationHandler;
+    private final BulkExecutionSubmissionService bulkExecutionSubmissionService;
+    private final ExecutionRetryQueue retryQueue;
+    private final Executor replayExecutor;
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxEventsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile DeadLetterReplayResponseDTO lastReport;
+    private long nextDispatchNanos;
+
+    private final Counter appliedCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+
+    public DeadLetterReplayService(
+            DeadLetterQueueService deadLetterQueueService,
+            ExecutionRepository executionRepository,
+            TransactionCompensationHandler compensationHandler,
+            BulkExecutionSubmissionService bulkExecutionSubmissionService,
+            ExecutionRetryQueue retryQueue,
+            @Qualifier("deadLetterReplayExecutor") Executor replayExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${dlq.replay.batch-size:100}") int batchSize,
+            @Value("${dlq.replay.parallelism:4}") int parallelism,
+            @Value("${dlq.replay.max-events-per-second:500}") int maxEventsPerSecond) {
+        this.deadLetterQueueService = deadLetterQueueService;
+        this.executionRepository = executionRepository;
+        this.compensationHandler = compensationHandler;
+        this.bulkExecutionSubmissionService = bulkExecutionSubmissionService;
+        this.retryQueue = retryQueue;
+        this.replayExecutor = replayExecutor;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.maxEventsPerSecond = maxEventsPerSecond;
+
+        this.appliedCounter = replayCounter(meterRegistry, "applied");
+        this.failedCounter = replayCounter(meterRegistry, "failed");
+        this.skippedCounter = replayCounter(meterRegistry, "skipped");
+    }
+
+    private static Counter replayCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dlq.replay.events")
+                .description("Dead letter queue entries replayed")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Report of the most recent replay, if any
+     */
+    public Optional<DeadLetterReplayResponseDTO> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    /**
+     * Replay up to {@code maxEvents} entries after the replay cursor.
+     *
+     * @throws IllegalStateException if a replay is already running
+     */
+    public DeadLetterReplayResponseDTO replay(ReplayMode mode, int maxEvents) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A dead letter queue replay is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            nextDispatchNanos = start;
+            Tally tally = new Tally();
+            Position end = deadLetterQueueService.endPosition();
+            while (tally.read < maxEvents) {
+                List<DeadLetterEntry> read = deadLetterQueueService.readPending(
+                        Math.min(batchSize * parallelism, maxEvents - tally.read));
+                List<DeadLetterEntry> chunk = read.stream().takeWhile(end::covers).toList();
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                replayChunk(mode, chunk, tally);
+                // Checkpoint: everything up to the end of this chunk has been dealt with
+                deadLetterQueueService.acknowledge(chunk.get(chunk.size() - 1));
+                if (chunk.size() < read.size()) {
+                    break;
+                }
+            }
+
+            DeadLetterReplayResponseDTO report = new DeadLetterReplayResponseDTO(mode, tally.read, tally.duplicates,
+                    tally.skipped, tally.applied, tally.failed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            lastReport = report;
+            logger.info("Dead letter queue replay finished: {}", report);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void replayChunk(ReplayMode mode, List<DeadLetterEntry> chunk, Tally tally) {
+        tally.read += chunk.size();
+
+        Map<Integer, CompensationFailedEvent> latest = new LinkedHashMap<>();
+        for (DeadLetterEntry entry : chunk) {
+            if (entry.getEvent().getExecutionId() == null) {
+                tally.skipped++;
+                skippedCounter.increment();
+                continue;
+            }
+            if (latest.put(entry.getEvent().getExecutionId(), entry.getEvent()) != null) {
+                tally.duplicates++;
+            }
+        }
+
+        Map<Integer, Execution> executions = executionRepository.findAllById(latest.keySet()).stream()
+                .collect(Collectors.toMap(Execution::getId, Function.identity()));
+        Set<Integer> queued = mode == ReplayMode.RESUBMIT ? retryQueue.queuedAmong(latest.keySet()) : Set.of();
+        List<CompensationFailedEvent> pending = new ArrayList<>();
+        int skipped = 0;
+        for (CompensationFailedEvent event : latest.values()) {
+            Execution execution = executions.get(event.getExecutionId());
+            if (execution == null && mode == ReplayMode.COMPENSATE) {
+                // Without the execution its quantity is unknown, so the trade order cannot be safely corrected
+                logger.warn("Execution {} no longer exists; trade order {} needs manual review",
+                        event.getExecutionId(), event.getTradeOrderId());
+            }
+            if (execution == null || execution.getExecutionServiceId() != null
+                    || queued.contains(event.getExecutionId())) {
+                skipped++;
+            } else {
+                pending.add(event);
+            }
+        }
+        tally.skipped += skipped;
+        skippedCounter.increment(skipped);
+
+        List<CompletableFuture<int[]>> batches = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += batchSize) {
+            List<CompensationFailedEvent> batch = pending.subList(start, Math.min(start + batchSize, pending.size()));
+            pace(batch.size());
+            batches.add(CompletableFuture.supplyAsync(() -> mode == ReplayMode.COMPENSATE
+                    ? compensationHandler.reverseFailedSubmissions(batch)
+                    : resubmit(batch), replayExecutor));
+        }
+        for (CompletableFuture<int[]> batch : batches) {
+            int[] outcome = batch.join();
+            tally.applied += outcome[0];
+            tally.failed += outcome[1];
+            tally.skipped += outcome[2];
+            appliedCounter.increment(outcome[0]);
+            failedCounter.increment(outcome[1]);
+            skippedCounter.increment(outcome[2]);
+        }
+    }
+
+    /**
+     * Re-submit a batch of executions, sending those the execution service still refuses back to the
+     * dead letter queue. Executions deferred to the retry queue are handed over and count as applied;
+     * those left out of the result were submitted or being submitted elsewhere and count as skipped.
+     * @return number of executions submitted, failed and skipped
+     */
+    private int[] resubmit(List<CompensationFailedEvent> batch) {
+        List<Integer> executionIds = batch.stream().map(CompensationFailedEvent::getExecutionId).toList();
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        Set<Integer> reported = new HashSet<>(executionIds);
+        try {
+            BulkSubmitResult result = bulkExecutionSubmissionService.submitExecutionsBulk(executionIds);
+            reported.clear();
+            for (ExecutionSubmitResult submitResult : result.getResults()) {
+                reported.add(submitResult.getExecutionId());
+                String status = submitResult.getStatus();
+                if (!SUBMITTED_STATUS.equals(status) && !COMPLETED_STATUS.equals(status) && !QUEUED_STATUS.equals(status)) {
+                    failures.put(submitResult.getExecutionId(), submitResult.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Re-submitting {} dead-lettered executions failed: {}", executionIds.size(), e.getMessage());
+            executionIds.forEach(id -> failures.put(id, e.getMessage()));
+        }
+
+        for (CompensationFailedEvent event : batch) {
+            if (failures.containsKey(event.getExecutionId())) {
+                deadLetterQueueService.send(new CompensationFailedEvent(event.getExecutionId(), event.getTradeOrderId(),
+                        event.getOriginalQuantitySent(), event.getOriginalSubmittedStatus(),
+                        "Replay re-submission failed: " + failures.get(event.getExecutionId()), OffsetDateTime.now()));
+            }
+        }
+        int skipped = batch.size() - reported.size();
+        return new int[] {batch.size() - failures.size() - skipped, failures.size(), skipped};
+    }
+
+    /**
+     * Hold the dispatching thread so that events go out no faster than the configured rate
+     */
+    private void pace(int events) {
+        long now = System.nanoTime();
+        long dispatchAt = Math.max(now, nextDispatchNanos);
+        nextDispatchNanos = dispatchAt + TimeUnit.SECONDS.toNanos(events) / maxEventsPerSecond;
+        if (dispatchAt > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(dispatchAt - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while replaying the dead letter queue", e);
+            }
+        }
+    }
+
+    /**
+     * Running totals of one replay
+     */
+    private static final class Tally {
+        private int read;
+        private int duplicates;
+        private int skipped;
+        private int applied;
+        private int failed;
+    }
+}
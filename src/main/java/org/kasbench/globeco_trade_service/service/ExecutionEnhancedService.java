@@ -3,8 +3,6 @@ package org.kasbench.globeco_trade_service.service;
 import org.kasbench.globeco_trade_service.dto.ExecutionPageResponseDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionV2ResponseDTO;
 import org.kasbench.globeco_trade_service.dto.PaginationDTO;
-import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
-import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.kasbench.globeco_trade_service.entity.Execution;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
@@ -13,16 +11,22 @@ import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
 import org.kasbench.globeco_trade_service.util.SortingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ExecutionEnhancedService {
@@ -30,18 +34,28 @@ public class ExecutionEnhancedService {
     
     private final ExecutionRepository executionRepository;
     private final TradeOrderRepository tradeOrderRepository;
-    private final SecurityCacheService securityCacheService;
-    private final PortfolioCacheService portfolioCacheService;
+    private final ReferenceFilterResolver referenceFilterResolver;
+    private final BatchCacheLoadingService batchCacheLoadingService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration enrichmentTimeout;
+    private final boolean referenceTablesEnabled;
     
     public ExecutionEnhancedService(
             ExecutionRepository executionRepository,
             TradeOrderRepository tradeOrderRepository,
-            SecurityCacheService securityCacheService,
-            PortfolioCacheService portfolioCacheService) {
+            ReferenceFilterResolver referenceFilterResolver,
+            BatchCacheLoadingService batchCacheLoadingService,
+            PlatformTransactionManager transactionManager,
+            @Value("${enrichment.timeout-ms:2000}") long enrichmentTimeoutMs,
+            @Value("${reference.sync.enabled:false}") boolean referenceTablesEnabled) {
         this.executionRepository = executionRepository;
         this.tradeOrderRepository = tradeOrderRepository;
-        this.securityCacheService = securityCacheService;
-        this.portfolioCacheService = portfolioCacheService;
+        this.referenceFilterResolver = referenceFilterResolver;
+        this.batchCacheLoadingService = batchCacheLoadingService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enrichmentTimeout = Duration.ofMillis(enrichmentTimeoutMs);
+        this.referenceTablesEnabled = referenceTablesEnabled;
     }
     
     /**
@@ -84,12 +98,15 @@ public class ExecutionEnhancedService {
         String portfolioId = null;
         String securityId = null;
         
-        if (portfolioName != null && !portfolioName.trim().isEmpty()) {
-            portfolioId = resolvePortfolioNamesToIds(portfolioName);
-        }
-        
-        if (securityTicker != null && !securityTicker.trim().isEmpty()) {
-            securityId = resolveSecurityTickersToIds(securityTicker);
+        // With replicated reference tables, names and tickers are filtered by join in the same query
+        if (!referenceTablesEnabled) {
+            if (portfolioName != null && !portfolioName.trim().isEmpty()) {
+                portfolioId = referenceFilterResolver.resolvePortfolioNamesToIds(portfolioName);
+            }
+            
+            if (securityTicker != null && !securityTicker.trim().isEmpty()) {
+                securityId = referenceFilterResolver.resolveSecurityTickersToIds(securityTicker);
+            }
         }
         
         // Build specification for filtering
@@ -100,18 +117,61 @@ public class ExecutionEnhancedService {
             quantityFilledMin, quantityFilledMax,
             executionServiceId
         );
+        if (referenceTablesEnabled) {
+            // Names and tickers not replicated yet are resolved remotely rather than dropped
+            spec = spec.and(ExecutionSpecification.hasPortfolioName(portfolioName,
+                    referenceFilterResolver.resolveUnreplicatedPortfolioNames(portfolioName)))
+                .and(ExecutionSpecification.hasSecurityTicker(securityTicker,
+                    referenceFilterResolver.resolveUnreplicatedSecurityTickers(securityTicker)));
+        }
+        
+        // All SQL, including the lazy loads of each execution's relations, runs in one short
+        // read-only transaction, so the connection is back in the pool before any remote enrichment call
+        Specification<Execution> query = spec;
+        PageRows rows = readOnlyTransaction.execute(status -> loadPageRows(query, pageable));
+        
+        // Resolve the page's distinct securities and portfolios in one parallel batch,
+        // then fill them into the trade order summaries sequentially
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+            rows.securityIds, rows.portfolioIds, enrichmentTimeout);
+        for (int i = 0; i < rows.dtos.size(); i++) {
+            ExecutionV2ResponseDTO.TradeOrderSummaryDTO summary = rows.dtos.get(i).getTradeOrder();
+            if (summary != null) {
+                summary.setPortfolio(enrichment.getPortfolio(rows.rowPortfolioIds.get(i)));
+                summary.setSecurity(enrichment.getSecurity(rows.rowSecurityIds.get(i)));
+            }
+        }
         
-        // Execute query
+        logger.debug("Retrieved {} executions out of {} total", rows.dtos.size(), rows.pagination.getTotalElements());
+        
+        return new ExecutionPageResponseDTO(rows.dtos, rows.pagination);
+    }
+    
+    /**
+     * Run the page query and copy everything the response needs out of the entities, collecting
+     * the distinct security and portfolio IDs of the page's trade orders to resolve afterwards
+     */
+    private PageRows loadPageRows(Specification<Execution> spec, Pageable pageable) {
         Page<Execution> page = executionRepository.findAll(spec, pageable);
         
-        // Convert to enhanced DTOs with external service data
-        List<ExecutionV2ResponseDTO> enhancedExecutions = page.getContent()
-            .parallelStream()
-            .map(this::convertToV2ResponseDTO)
-            .toList();
+        PageRows rows = new PageRows();
+        for (Execution execution : page.getContent()) {
+            rows.dtos.add(convertToV2ResponseDTO(execution));
+            TradeOrder tradeOrder = execution.getTradeOrder();
+            String securityId = tradeOrder != null ? tradeOrder.getSecurityId() : null;
+            String portfolioId = tradeOrder != null ? tradeOrder.getPortfolioId() : null;
+            rows.rowSecurityIds.add(securityId);
+            rows.rowPortfolioIds.add(portfolioId);
+            if (securityId != null) {
+                rows.securityIds.add(securityId);
+            }
+            if (portfolioId != null) {
+                rows.portfolioIds.add(portfolioId);
+            }
+        }
         
         // Create pagination metadata
-        PaginationDTO pagination = new PaginationDTO(
+        rows.pagination = new PaginationDTO(
             (int) page.getTotalElements(),
             page.getTotalPages(),
             page.getNumber(),
@@ -119,14 +179,11 @@ public class ExecutionEnhancedService {
             page.hasNext(),
             page.hasPrevious()
         );
-        
-        logger.debug("Retrieved {} executions out of {} total", enhancedExecutions.size(), page.getTotalElements());
-        
-        return new ExecutionPageResponseDTO(enhancedExecutions, pagination);
+        return rows;
     }
     
     /**
-     * Convert Execution entity to enhanced V2 response DTO with external service data
+     * Convert Execution entity to V2 response DTO; the trade order's portfolio and security are filled in after enrichment
      */
     private ExecutionV2ResponseDTO convertToV2ResponseDTO(Execution execution) {
         ExecutionV2ResponseDTO dto = new ExecutionV2ResponseDTO();
@@ -158,55 +215,15 @@ public class ExecutionEnhancedService {
             dto.setDestination(convertDestinationToResponseDTO(execution.getDestination()));
         }
         
-        // Enhanced trade order summary with external service data
         if (execution.getTradeOrder() != null) {
-            dto.setTradeOrder(createTradeOrderSummary(execution.getTradeOrder()));
+            TradeOrder tradeOrder = execution.getTradeOrder();
+            dto.setTradeOrder(new ExecutionV2ResponseDTO.TradeOrderSummaryDTO(
+                tradeOrder.getId(), tradeOrder.getOrderId(), null, null));
         }
         
         return dto;
     }
     
-    /**
-     * Create enhanced trade order summary with external service data
-     */
-    private ExecutionV2ResponseDTO.TradeOrderSummaryDTO createTradeOrderSummary(TradeOrder tradeOrder) {
-        try {
-            // Get enhanced portfolio and security data
-            PortfolioDTO portfolio = null;
-            SecurityDTO security = null;
-            
-            try {
-                if (tradeOrder.getPortfolioId() != null) {
-                    portfolio = portfolioCacheService.getPortfolioById(tradeOrder.getPortfolioId());
-                }
-                
-                if (tradeOrder.getSecurityId() != null) {
-                    security = securityCacheService.getSecurityById(tradeOrder.getSecurityId());
-                }
-            } catch (Exception e) {
-                logger.warn("Error enriching trade order {} summary with external data: {}", tradeOrder.getId(), e.getMessage());
-                // Set fallback data
-                if (tradeOrder.getPortfolioId() != null) {
-                    portfolio = new PortfolioDTO(tradeOrder.getPortfolioId(), tradeOrder.getPortfolioId());
-                }
-                if (tradeOrder.getSecurityId() != null) {
-                    security = new SecurityDTO(tradeOrder.getSecurityId(), tradeOrder.getSecurityId());
-                }
-            }
-            
-            return new ExecutionV2ResponseDTO.TradeOrderSummaryDTO(
-                tradeOrder.getId(),
-                tradeOrder.getOrderId(),
-                portfolio,
-                security
-            );
-        } catch (Exception e) {
-            logger.error("Error creating trade order summary for trade order {}: {}", tradeOrder.getId(), e.getMessage());
-            // Fallback summary
-            return new ExecutionV2ResponseDTO.TradeOrderSummaryDTO(tradeOrder.getId(), null, null, null);
-        }
-    }
-    
     /**
      * Convert ExecutionStatus entity to response DTO
      */
@@ -264,44 +281,14 @@ public class ExecutionEnhancedService {
     }
     
     /**
-     * Resolve portfolio names to portfolio IDs for filtering
-     */
-    private String resolvePortfolioNamesToIds(String portfolioNames) {
-        try {
-            String[] names = portfolioNames.split(",");
-            StringBuilder ids = new StringBuilder();
-            
-            for (String name : names) {
-                PortfolioDTO portfolio = portfolioCacheService.getPortfolioByName(name.trim());
-                if (ids.length() > 0) ids.append(",");
-                ids.append(portfolio.getPortfolioId());
-            }
-            
-            return ids.toString();
-        } catch (Exception e) {
-            logger.warn("Error resolving portfolio names to IDs: {}", e.getMessage());
-            return portfolioNames; // Fallback to original names
-        }
-    }
-    
-    /**
-     * Resolve security tickers to security IDs for filtering
+     * Page content copied out of the persistence context, ready for enrichment
      */
-    private String resolveSecurityTickersToIds(String securityTickers) {
-        try {
-            String[] tickers = securityTickers.split(",");
-            StringBuilder ids = new StringBuilder();
-            
-            for (String ticker : tickers) {
-                SecurityDTO security = securityCacheService.getSecurityByTicker(ticker.trim());
-                if (ids.length() > 0) ids.append(",");
-                ids.append(security.getSecurityId());
-            }
-            
-            return ids.toString();
-        } catch (Exception e) {
-            logger.warn("Error resolving security tickers to IDs: {}", e.getMessage());
-            return securityTickers; // Fallback to original tickers
-        }
+    private static final class PageRows {
+        private final List<ExecutionV2ResponseDTO> dtos = new ArrayList<>();
+        private final List<String> rowSecurityIds = new ArrayList<>();
+        private final List<String> rowPortfolioIds = new ArrayList<>();
+        private final Set<String> securityIds = new HashSet<>();
+        private final Set<String> portfolioIds = new HashSet<>();
+        private PaginationDTO pagination;
     }
-} 
\ No newline at end of file
+}
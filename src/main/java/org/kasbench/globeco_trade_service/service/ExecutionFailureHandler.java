@@ -1,7 +1,9 @@
 package org.kasbench.globeco_trade_service.service;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.kasbench.globeco_trade_service.client.ExecutionServiceClient;
 import org.kasbench.globeco_trade_service.config.ExecutionBatchProperties;
+import org.kasbench.globeco_trade_service.config.RetryBudget;
 import org.kasbench.globeco_trade_service.dto.ExecutionServiceBatchRequestDTO;
 import org.kasbench.globeco_trade_service.dto.BatchExecutionResponseDTO;
 import org.kasbench.globeco_trade_service.entity.Execution;
@@ -24,6 +26,11 @@ import java.util.stream.Collectors;
  * Component responsible for handling execution failures and implementing retry logic.
  * Processes partial failures from batch submissions and retries failed executions
  * individually or in smaller batches using exponential backoff strategy.
+ * While the execution service circuit breaker is not closed, failures are parked in the
+ * {@link ExecutionRetryQueue} instead, so request threads never sit in retry loops.
+ * Every re-submission is a retry paid for from the shared {@link RetryBudget}; executions
+ * the budget cannot cover are queued as well. Re-submissions go to the execution service client
+ * as single attempts, so this handler is the only layer retrying them.
  */
 @Component
 public class ExecutionFailureHandler {
@@ -35,6 +42,8 @@ public class ExecutionFailureHandler {
     private final ExecutionBatchProperties batchProperties;
     private final RetryTemplate retryTemplate;
     private final BulkExecutionErrorHandler errorHandler;
+    private final ExecutionRetryQueue retryQueue;
+    private final RetryBudget retryBudget;
     
     // Track retry attempts per execution to prevent infinite retries
     private final Map<Integer, Integer> retryAttempts = new ConcurrentHashMap<>();
@@ -44,13 +53,17 @@ public class ExecutionFailureHandler {
             ExecutionBatchProcessor batchProcessor,
             ExecutionServiceClient executionServiceClient,
             ExecutionBatchProperties batchProperties,
-            @Qualifier("executionServiceRetryTemplate") RetryTemplate retryTemplate,
-            BulkExecutionErrorHandler errorHandler) {
+            @Qualifier("executionServiceSingleAttemptTemplate") RetryTemplate retryTemplate,
+            BulkExecutionErrorHandler errorHandler,
+            ExecutionRetryQueue retryQueue,
+            RetryBudget retryBudget) {
         this.batchProcessor = batchProcessor;
         this.executionServiceClient = executionServiceClient;
         this.batchProperties = batchProperties;
         this.retryTemplate = retryTemplate;
         this.errorHandler = errorHandler;
+        this.retryQueue = retryQueue;
+        this.retryBudget = retryBudget;
     }
     
     /**
@@ -82,6 +95,13 @@ public class ExecutionFailureHandler {
             return result;
         }
         
+        // Retrying in-line against an unavailable execution service would only hold the request thread
+        if (executionServiceClient.isCircuitOpen()) {
+            logger.debug("Execution service circuit is open, queueing {} retryable failures", failedExecutions.size());
+            return mergeResults(result, deferExecutions(failedExecutions, "Execution service circuit is open"),
+                                originalExecutions);
+        }
+        
         logger.debug("Found {} retryable failures, attempting retry", failedExecutions.size());
         
         // Retry failed executions
@@ -193,6 +213,12 @@ public class ExecutionFailureHandler {
                                            "Maximum retry attempts exceeded", null);
         }
         
+        if (!retryBudget.tryAcquireRetry()) {
+            logger.debug("Retry budget exhausted, queueing execution {}", executionId);
+            retryAttempts.remove(executionId);
+            return deferExecutions(List.of(execution), "Retry budget exhausted").getResults().get(0);
+        }
+        
         logger.debug("Retrying execution {} individually (attempt {} of {})", 
                     executionId, currentAttempts + 1, batchProperties.getRetryFailedIndividually());
         
@@ -200,13 +226,13 @@ public class ExecutionFailureHandler {
             // Increment retry counter
             retryAttempts.put(executionId, currentAttempts + 1);
             
-            // Use retry template for exponential backoff
+            // These re-submissions are the retries, so the client makes a single attempt for each
             BatchExecutionResponseDTO response = retryTemplate.execute(context -> {
                 logger.debug("Executing retry attempt {} for execution {}", 
                            context.getRetryCount() + 1, executionId);
                 
                 ExecutionServiceBatchRequestDTO request = batchProcessor.buildBatchRequest(List.of(execution));
-                return executionServiceClient.submitBatch(request);
+                return executionServiceClient.submitBatchOnce(request);
             });
             
             // Process the response
@@ -229,6 +255,9 @@ public class ExecutionFailureHandler {
                 return new ExecutionSubmitResult(executionId, "FAILED", "Empty retry response", null);
             }
             
+        } catch (CallNotPermittedException ex) {
+            retryAttempts.remove(executionId);
+            return deferExecutions(List.of(execution), "Execution service circuit is open").getResults().get(0);
         } catch (Exception ex) {
             // Map exception to detailed error information
             List<Integer> executionIdList = List.of(executionId);
@@ -255,6 +284,32 @@ public class ExecutionFailureHandler {
         }
     }
     
+    /**
+     * Parks executions in the durable retry queue instead of submitting them now.
+     * Each execution is reported as QUEUED: not submitted yet, but accepted for submission by the
+     * retry drainer, so callers must keep the execution rather than compensate it.
+     * 
+     * @param executions The executions to queue
+     * @param reason Why the executions could not be submitted
+     * @return BulkSubmitResult reporting every execution as queued
+     */
+    public BulkSubmitResult deferExecutions(List<Execution> executions, String reason) {
+        if (executions == null || executions.isEmpty()) {
+            return new BulkSubmitResult(0, 0, 0, new ArrayList<>(), "SUCCESS", "No executions to queue");
+        }
+        
+        List<Integer> executionIds = executions.stream().map(Execution::getId).collect(Collectors.toList());
+        retryQueue.enqueue(executionIds, reason);
+        clearRetryCounters(executionIds);
+        
+        String message = "Queued for retry: " + reason;
+        List<ExecutionSubmitResult> results = executionIds.stream()
+            .map(executionId -> new ExecutionSubmitResult(executionId, "QUEUED", message, null))
+            .collect(Collectors.toList());
+        
+        return new BulkSubmitResult(executions.size(), 0, executions.size(), results, "FAILED", message);
+    }
+    
     /**
      * Extracts executions from a bulk result that failed but are suitable for retry.
      * Filters out permanent failures that should not be retried.
@@ -314,6 +369,11 @@ public class ExecutionFailureHandler {
     private BulkSubmitResult retryBatch(List<Execution> executions) {
         logger.debug("Retrying batch of {} executions", executions.size());
         
+        if (!retryBudget.tryAcquireRetry()) {
+            logger.debug("Retry budget exhausted, queueing batch of {} executions", executions.size());
+            return deferExecutions(executions, "Retry budget exhausted");
+        }
+        
         try {
             // Update retry counters for all executions in the batch
             for (Execution execution : executions) {
@@ -321,12 +381,12 @@ public class ExecutionFailureHandler {
                 retryAttempts.put(execution.getId(), currentAttempts + 1);
             }
             
-            // Use retry template for the batch
+            // These re-submissions are the retries, so the client makes a single attempt for each
             BatchExecutionResponseDTO response = retryTemplate.execute(context -> {
                 logger.debug("Executing batch retry attempt {}", context.getRetryCount() + 1);
                 
                 ExecutionServiceBatchRequestDTO request = batchProcessor.buildBatchRequest(executions);
-                return executionServiceClient.submitBatch(request);
+                return executionServiceClient.submitBatchOnce(request);
             });
             
             // Process the response
@@ -344,6 +404,8 @@ public class ExecutionFailureHandler {
             
             return result;
             
+        } catch (CallNotPermittedException ex) {
+            return deferExecutions(executions, "Execution service circuit is open");
         } catch (Exception ex) {
             // Map exception to detailed error information
             List<Integer> executionIdList = executions.stream().map(Execution::getId).collect(Collectors.toList());
@@ -0,0 +1,43 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically reconciles stale executions against the execution service. Every replica runs the
+ * job over the executions in the partitions it owns, so together the replicas cover all executions
+ * once and no two reconcile the same one. A run stops between pages once its partitions have moved.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.reconciliation.enabled", havingValue = "true")
+public class ExecutionReconciliationJob {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionReconciliationJob.class);
+
+    private final ExecutionReconciliationService reconciliationService;
+    private final PartitionCoordinator partitionCoordinator;
+
+    public ExecutionReconciliationJob(
+            ExecutionReconciliationService reconciliationService,
+            PartitionCoordinator partitionCoordinator) {
+        this.reconciliationService = reconciliationService;
+        this.partitionCoordinator = partitionCoordinator;
+    }
+
+    @Scheduled(initialDelayString = "${execution.reconciliation.interval-ms:60000}",
+               fixedDelayString = "${execution.reconciliation.interval-ms:60000}")
+    public void run() {
+        PartitionCoordinator.Assignment assignment = partitionCoordinator.getAssignment();
+        if (assignment.isEmpty()) {
+            logger.debug("Skipping execution reconciliation, this replica owns no partitions");
+            return;
+        }
+        try {
+            reconciliationService.reconcile(assignment, () -> partitionCoordinator.stillOwns(assignment));
+        } catch (Exception e) {
+            logger.error("Scheduled execution reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
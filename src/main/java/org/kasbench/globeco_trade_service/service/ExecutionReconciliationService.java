@@ -0,0 +1,331 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.client.ExecutionServiceClient;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionServiceResponseDTO;
+import org.kasbench.globeco_trade_service.entity.ExecutionRetry;
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository.ReconciliationState;
+import org.kasbench.globeco_trade_service.repository.ExecutionRetryRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reconciles executions left in a non-terminal status against the execution service. Executions
+ * in the given partitions that have not changed for a while are paged oldest first, per status, through
+ * idx_executions_status_timestamp_desc, so a backlog cannot starve the oldest of them. Only executions
+ * with a recorded submission attempt are considered; those the execution service never received are
+ * re-submitted in bulk, unless the retry queue already holds them; the rest are read back from the execution
+ * service and, where its status or filled quantity differs, corrected with one bulk fill per page.
+ * Corrections carry the version read with the page, so an execution that changes in the meantime
+ * is left for the next run.
+ */
+@Service
+public class ExecutionReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionReconciliationService.class);
+
+    private static final String SUBMITTED_STATUS = "SUCCESS";
+    private static final String COMPLETED_STATUS = "COMPLETED";
+    private static final String QUEUED_STATUS = "QUEUED";
+    private static final OffsetDateTime SCAN_START = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private final ExecutionRepository executionRepository;
+    private final ExecutionStatusRepository executionStatusRepository;
+    private final ExecutionRetryRepository executionRetryRepository;
+    private final ExecutionServiceClient executionServiceClient;
+    private final ExecutionService executionService;
+    private final BulkExecutionSubmissionService bulkExecutionSubmissionService;
+    private final List<String> statuses;
+    private final Duration staleAfter;
+    private final int pageSize;
+    private final int maxExecutionsPerRun;
+
+    private final Counter unchangedCounter;
+    private final Counter correctedCounter;
+    private final Counter resubmittedCounter;
+    private final Counter missingCounter;
+    private final Counter failedCounter;
+
+    public ExecutionReconciliationService(
+            ExecutionRepository executionRepository,
+            ExecutionStatusRepository executionStatusRepository,
+            ExecutionRetryRepository executionRetryRepository,
+            ExecutionServiceClient executionServiceClient,
+            ExecutionService executionService,
+            BulkExecutionSubmissionService bulkExecutionSubmissionService,
+            MeterRegistry meterRegistry,
+            @Value("${execution.reconciliation.statuses:NEW,SENT}") List<String> statuses,
+            @Value("${execution.reconciliation.stale-after-ms:300000}") long staleAfterMs,
+            @Value("${execution.reconciliation.page-size:100}") int pageSize,
+            @Value("${execution.reconciliation.max-executions-per-run:10000}") int maxExecutionsPerRun) {
+        this.executionRepository = executionRepository;
+        this.executionStatusRepository = executionStatusRepository;
+        this.executionRetryRepository = executionRetryRepository;
+        this.executionServiceClient = executionServiceClient;
+        this.executionService = executionService;
+        this.bulkExecutionSubmissionService = bulkExecutionSubmissionService;
+        this.statuses = statuses;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.pageSize = pageSize;
+        this.maxExecutionsPerRun = maxExecutionsPerRun;
+
+        this.unchangedCounter = reconciliationCounter(meterRegistry, "unchanged");
+        this.correctedCounter = reconciliationCounter(meterRegistry, "corrected");
+        this.resubmittedCounter = reconciliationCounter(meterRegistry, "resubmitted");
+        this.missingCounter = reconciliationCounter(meterRegistry, "missing");
+        this.failedCounter = reconciliationCounter(meterRegistry, "failed");
+    }
+
+    private static Counter reconciliationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("execution.reconciliation.executions")
+                .description("Executions reconciled against the execution service")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconcile up to the configured number of stale executions in the given partitions, stopping
+     * before the next page once {@code stillOwned} reports that the partitions have moved
+     */
+    public ReconciliationReport reconcile(PartitionCoordinator.Assignment assignment, BooleanSupplier stillOwned) {
+        long start = System.nanoTime();
+        OffsetDateTime staleBefore = OffsetDateTime.now().minus(staleAfter);
+        ReconciliationReport report = new ReconciliationReport();
+
+        for (String abbreviation : statuses) {
+            if (report.ownershipLost) {
+                break;
+            }
+            Optional<ExecutionStatus> status = executionStatusRepository.findByAbbreviation(abbreviation);
+            if (status.isEmpty()) {
+                logger.warn("Skipping reconciliation of unknown execution status {}", abbreviation);
+                continue;
+            }
+            OffsetDateTime cursorTimestamp = SCAN_START;
+            Integer cursorId = Integer.MIN_VALUE;
+            while (report.examined < maxExecutionsPerRun) {
+                if (!stillOwned.getAsBoolean()) {
+                    report.ownershipLost = true;
+                    logger.warn("Stopping execution reconciliation, partitions have moved to another replica");
+                    break;
+                }
+                int limit = Math.min(pageSize, maxExecutionsPerRun - report.examined);
+                List<ReconciliationState> page = executionRepository.findReconciliationPage(
+                        status.get().getId(), staleBefore, cursorTimestamp, cursorId, assignment.getPartitionCount(),
+                        assignment.getPartitions(), PageRequest.of(0, limit));
+                if (page.isEmpty()) {
+                    break;
+                }
+                reconcilePage(abbreviation, page, report);
+                ReconciliationState last = page.get(page.size() - 1);
+                cursorTimestamp = last.getExecutionTimestamp();
+                cursorId = last.getId();
+                if (page.size() < limit) {
+                    break;
+                }
+            }
+        }
+
+        report.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Execution reconciliation finished: {}", report);
+        return report;
+    }
+
+    private void reconcilePage(String localStatus, List<ReconciliationState> page, ReconciliationReport report) {
+        report.examined += page.size();
+
+        List<Integer> unsent = new ArrayList<>();
+        List<ReconciliationState> sent = new ArrayList<>();
+        for (ReconciliationState execution : page) {
+            if (execution.getExecutionServiceId() == null) {
+                unsent.add(execution.getId());
+            } else {
+                sent.add(execution);
+            }
+        }
+        if (!unsent.isEmpty()) {
+            resubmit(unsent, report);
+        }
+        if (!sent.isEmpty()) {
+            correct(localStatus, sent, report);
+        }
+    }
+
+    /**
+     * Re-submit executions whose submission was attempted but never reached the execution service.
+     * Executions waiting in the retry queue are left to the retry drainer, which already has them scheduled.
+     */
+    private void resubmit(List<Integer> executionIds, ReconciliationReport report) {
+        Set<Integer> queued = new HashSet<>();
+        for (ExecutionRetry retry : executionRetryRepository.findAllById(executionIds)) {
+            queued.add(retry.getExecutionId());
+        }
+        List<Integer> pending = executionIds.stream().filter(id -> !queued.contains(id)).toList();
+        report.unchanged += queued.size();
+        unchangedCounter.increment(queued.size());
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int resubmitted = 0;
+        try {
+            BulkSubmitResult result = bulkExecutionSubmissionService.submitExecutionsBulk(pending);
+            for (ExecutionSubmitResult submitResult : result.getResults()) {
+                String status = submitResult.getStatus();
+                if (SUBMITTED_STATUS.equals(status) || COMPLETED_STATUS.equals(status) || QUEUED_STATUS.equals(status)) {
+                    resubmitted++;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Re-submitting {} stale executions failed: {}", pending.size(), e.getMessage());
+        }
+        report.resubmitted += resubmitted;
+        report.failed += pending.size() - resubmitted;
+        resubmittedCounter.increment(resubmitted);
+        failedCounter.increment(pending.size() - resubmitted);
+    }
+
+    /**
+     * Bring submitted executions in line with the execution service in one bulk fill
+     */
+    private void correct(String localStatus, List<ReconciliationState> executions, ReconciliationReport report) {
+        Map<Integer, ExecutionServiceResponseDTO> remote;
+        try {
+            remote = executionServiceClient.getExecutions(
+                    executions.stream().map(ReconciliationState::getExecutionServiceId).toList());
+        } catch (Exception e) {
+            logger.warn("Reading {} executions from the execution service failed: {}", executions.size(), e.getMessage());
+            report.failed += executions.size();
+            failedCounter.increment(executions.size());
+            return;
+        }
+
+        List<ExecutionFillDTO> fills = new ArrayList<>();
+        int unchanged = 0;
+        int missing = 0;
+        for (ReconciliationState execution : executions) {
+            ExecutionServiceResponseDTO state = remote.get(execution.getExecutionServiceId());
+            if (state == null) {
+                missing++;
+            } else if (localStatus.equals(state.getExecutionStatus())
+                    && state.getQuantityFilled() != null
+                    && state.getQuantityFilled().compareTo(execution.getQuantityFilled()) == 0) {
+                unchanged++;
+            } else {
+                fills.add(new ExecutionFillDTO(execution.getId(), state.getExecutionStatus(),
+                        state.getQuantityFilled(), execution.getVersion()));
+            }
+        }
+        report.unchanged += unchanged;
+        report.missing += missing;
+        unchangedCounter.increment(unchanged);
+        missingCounter.increment(missing);
+        if (fills.isEmpty()) {
+            return;
+        }
+
+        int corrected = 0;
+        try {
+            for (ExecutionFillResultDTO result : executionService.fillExecutions(fills)) {
+                if (result.getStatus() == ExecutionFillResultDTO.ResultStatus.SUCCESS) {
+                    corrected++;
+                } else {
+                    logger.debug("Execution {} not corrected: {}", result.getExecutionId(), result.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Correcting {} executions failed: {}", fills.size(), e.getMessage());
+        }
+        report.corrected += corrected;
+        report.failed += fills.size() - corrected;
+        correctedCounter.increment(corrected);
+        failedCounter.increment(fills.size() - corrected);
+    }
+
+    /**
+     * Outcome of one reconciliation run. Every execution examined is counted once: unchanged
+     * (or already queued for retry), corrected, re-submitted, missing from the execution service, or failed.
+     */
+    public static class ReconciliationReport {
+        private int examined;
+        private int unchanged;
+        private int corrected;
+        private int resubmitted;
+        private int missing;
+        private int failed;
+        private boolean ownershipLost;
+        private long elapsedMs;
+
+        public int getExamined() {
+            return examined;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public int getCorrected() {
+            return corrected;
+        }
+
+        public int getResubmitted() {
+            return resubmitted;
+        }
+
+        public int getMissing() {
+            return missing;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Whether the run stopped early because this replica no longer owned the partitions
+         */
+        public boolean isOwnershipLost() {
+            return ownershipLost;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return "ReconciliationReport{" +
+                    "examined=" + examined +
+                    ", unchanged=" + unchanged +
+                    ", corrected=" + corrected +
+                    ", resubmitted=" + resubmitted +
+                    ", missing=" + missing +
+                    ", failed=" + failed +
+                    ", ownershipLost=" + ownershipLost +
+                    ", elapsedMs=" + elapsedMs +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.config.ExecutionBatchProperties;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Re-submits executions parked in the {@link ExecutionRetryQueue}. Does nothing while the execution
+ * service circuit breaker is open; once it turns half-open a single batch probes the execution
+ * service, and once it is closed the queue is drained in full batches. Each replica drains only the
+ * executions in the partitions it owns, and stops between batches once they have moved.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.retry-queue.enabled", havingValue = "true")
+public class ExecutionRetryDrainer {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionRetryDrainer.class);
+
+    private final ExecutionRetryQueue retryQueue;
+    private final BulkExecutionSubmissionService bulkExecutionSubmissionService;
+    private final CircuitBreaker circuitBreaker;
+    private final PartitionCoordinator partitionCoordinator;
+    private final ExecutionBatchProperties batchProperties;
+    private final int maxBatchesPerRun;
+
+    private final Counter resubmittedCounter;
+    private final Counter requeuedCounter;
+
+    public ExecutionRetryDrainer(
+            ExecutionRetryQueue retryQueue,
+            BulkExecutionSubmissionService bulkExecutionSubmissionService,
+            @Qualifier("executionServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+            PartitionCoordinator partitionCoordinator,
+            ExecutionBatchProperties batchProperties,
+            MeterRegistry meterRegistry,
+            @Value("${execution.retry-queue.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.retryQueue = retryQueue;
+        this.bulkExecutionSubmissionService = bulkExecutionSubmissionService;
+        this.circuitBreaker = circuitBreaker;
+        this.partitionCoordinator = partitionCoordinator;
+        this.batchProperties = batchProperties;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.resubmittedCounter = Counter.builder("execution.retry.drain")
+                .description("Queued executions re-submitted by the retry drainer")
+                .tag("result", "submitted")
+                .register(meterRegistry);
+        this.requeuedCounter = Counter.builder("execution.retry.drain")
+                .description("Queued executions re-submitted by the retry drainer")
+                .tag("result", "requeued")
+                .register(meterRegistry);
+
+        logger.info("Execution retry drainer enabled with up to {} batches per run", maxBatchesPerRun);
+    }
+
+    @Scheduled(initialDelayString = "${execution.retry-queue.drain-interval-ms:5000}",
+               fixedDelayString = "${execution.retry-queue.drain-interval-ms:5000}")
+    public void drain() {
+        PartitionCoordinator.Assignment assignment = partitionCoordinator.getAssignment();
+        if (assignment.isEmpty()) {
+            return;
+        }
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (!partitionCoordinator.stillOwns(assignment)) {
+                // Partitions moved since the run started; their new owner drains them
+                return;
+            }
+            CircuitBreaker.State state = circuitBreaker.getState();
+            if (state != CircuitBreaker.State.CLOSED && state != CircuitBreaker.State.HALF_OPEN) {
+                return;
+            }
+
+            List<Integer> executionIds = retryQueue.claimDue(batchProperties.getEffectiveBatchSize(), assignment);
+            if (executionIds.isEmpty()) {
+                return;
+            }
+            if (!resubmit(executionIds) || state == CircuitBreaker.State.HALF_OPEN) {
+                // Let the breaker settle on the probe before sending more
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-submit one claimed batch, completing the executions that went through and re-queueing the rest.
+     * @return whether every execution in the batch was submitted
+     */
+    boolean resubmit(List<Integer> executionIds) {
+        BulkSubmitResult result;
+        try {
+            result = bulkExecutionSubmissionService.submitExecutionsBulk(executionIds);
+        } catch (Exception e) {
+            logger.warn("Re-submitting {} queued executions failed: {}", executionIds.size(), e.getMessage());
+            retryQueue.enqueue(executionIds, e.getMessage());
+            requeuedCounter.increment(executionIds.size());
+            return false;
+        }
+
+        List<Integer> submitted = new ArrayList<>();
+        List<Integer> failed = new ArrayList<>();
+        String lastError = result.getMessage();
+        Set<Integer> reported = new HashSet<>();
+        for (ExecutionSubmitResult submitResult : result.getResults()) {
+            reported.add(submitResult.getExecutionId());
+            if ("SUCCESS".equals(submitResult.getStatus()) || "COMPLETED".equals(submitResult.getStatus())) {
+                submitted.add(submitResult.getExecutionId());
+            } else {
+                failed.add(submitResult.getExecutionId());
+                lastError = submitResult.getMessage();
+            }
+        }
+        // Executions missing from the result no longer exist
+        for (Integer executionId : executionIds) {
+            if (!reported.contains(executionId)) {
+                submitted.add(executionId);
+            }
+        }
+
+        retryQueue.complete(submitted);
+        retryQueue.enqueue(failed, lastError);
+        resubmittedCounter.increment(result.getSuccessful());
+        requeuedCounter.increment(failed.size());
+
+        logger.debug("Re-submitted {} queued executions: {} submitted, {} re-queued",
+                executionIds.size(), result.getSuccessful(), failed.size());
+        return failed.isEmpty();
+    }
+}
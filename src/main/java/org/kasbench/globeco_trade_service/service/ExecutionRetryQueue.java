@@ -0,0 +1,212 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.entity.ExecutionRetry;
+import org.kasbench.globeco_trade_service.repository.ExecutionRetryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Durable queue of executions waiting to be re-submitted to the execution service.
+ * Submissions that fail while the execution service is unavailable are parked here instead of
+ * being retried on the request thread; {@link ExecutionRetryDrainer} claims due entries and
+ * re-submits them in full batches once the circuit breaker lets calls through again.
+ */
+@Service
+public class ExecutionRetryQueue {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionRetryQueue.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ExecutionRetryRepository executionRetryRepository;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
+    private final int maxAttempts;
+
+    private final Counter enqueuedCounter;
+    private final Counter completedCounter;
+    private final Counter abandonedCounter;
+
+    public ExecutionRetryQueue(
+            ExecutionRetryRepository executionRetryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${execution.retry-queue.initial-backoff-ms:5000}") long initialBackoffMs,
+            @Value("${execution.retry-queue.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${execution.retry-queue.claim-lease-ms:60000}") long claimLeaseMs,
+            @Value("${execution.retry-queue.max-attempts:20}") int maxAttempts) {
+        this.executionRetryRepository = executionRetryRepository;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+        this.maxAttempts = maxAttempts;
+
+        this.enqueuedCounter = Counter.builder("execution.retry.queue")
+                .description("Execution retry queue operations")
+                .tag("result", "enqueued")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("execution.retry.queue")
+                .description("Execution retry queue operations")
+                .tag("result", "completed")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("execution.retry.queue")
+                .description("Execution retry queue operations")
+                .tag("result", "abandoned")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Park the given executions for a later attempt. Executions already queued keep their attempt
+     * count and are pushed back by the backoff for it; those that have used up their attempts are dropped.
+     */
+    @Transactional
+    public void enqueue(Collection<Integer> executionIds, String reason) {
+        if (executionIds == null || executionIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> ids = new LinkedHashSet<>(executionIds);
+        ids.remove(null);
+        Map<Integer, ExecutionRetry> existing = executionRetryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ExecutionRetry::getExecutionId, Function.identity()));
+
+        OffsetDateTime now = OffsetDateTime.now();
+        String lastError = truncate(reason);
+        List<ExecutionRetry> toSave = new ArrayList<>();
+        List<ExecutionRetry> toAbandon = new ArrayList<>();
+        for (Integer executionId : ids) {
+            ExecutionRetry retry = existing.get(executionId);
+            if (retry == null) {
+                retry = new ExecutionRetry();
+                retry.setExecutionId(executionId);
+                retry.setAttempts(0);
+                retry.setEnqueuedAt(now);
+                enqueuedCounter.increment();
+            } else if (retry.getAttempts() >= maxAttempts) {
+                toAbandon.add(retry);
+                continue;
+            }
+            retry.setNextAttemptAt(now.plus(backoff(retry.getAttempts())));
+            retry.setLastError(lastError);
+            toSave.add(retry);
+        }
+
+        executionRetryRepository.saveAll(toSave);
+        if (!toAbandon.isEmpty()) {
+            executionRetryRepository.deleteAll(toAbandon);
+            abandonedCounter.increment(toAbandon.size());
+            logger.warn("Gave up re-submitting {} executions after {} attempts: {}", toAbandon.size(), maxAttempts,
+                    toAbandon.stream().map(ExecutionRetry::getExecutionId).collect(Collectors.toList()));
+        }
+        logger.debug("Queued {} executions for retry: {}", toSave.size(), reason);
+    }
+
+    /**
+     * Claim up to {@code limit} due executions for re-submission. Claimed entries count an attempt and
+     * are leased until re-queued or completed, so a crashed drainer's claims become due again.
+     * Executions that have meanwhile been submitted by other means are removed instead of claimed.
+     */
+    @Transactional
+    public List<Integer> claimDue(int limit) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return claim(executionRetryRepository.findDueForUpdate(now, PageRequest.of(0, limit)), now);
+    }
+
+    /**
+     * Claim up to {@code limit} due executions in the given partitions, as {@link #claimDue(int)} does
+     */
+    @Transactional
+    public List<Integer> claimDue(int limit, PartitionCoordinator.Assignment assignment) {
+        if (assignment.isEmpty()) {
+            return List.of();
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        return claim(executionRetryRepository.findDueForUpdateInPartitions(now, assignment.getPartitionCount(),
+                assignment.getPartitions(), PageRequest.of(0, limit)), now);
+    }
+
+    private List<Integer> claim(List<ExecutionRetry> due, OffsetDateTime now) {
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> dueIds = due.stream().map(ExecutionRetry::getExecutionId).collect(Collectors.toList());
+        Set<Integer> alreadySubmitted = new HashSet<>(executionRetryRepository.findSubmittedExecutionIds(dueIds));
+
+        List<Integer> claimed = new ArrayList<>();
+        List<ExecutionRetry> submitted = new ArrayList<>();
+        for (ExecutionRetry retry : due) {
+            if (alreadySubmitted.contains(retry.getExecutionId())) {
+                submitted.add(retry);
+                continue;
+            }
+            retry.setAttempts(retry.getAttempts() + 1);
+            retry.setNextAttemptAt(now.plus(claimLease));
+            claimed.add(retry.getExecutionId());
+        }
+        if (!submitted.isEmpty()) {
+            executionRetryRepository.deleteAll(submitted);
+            completedCounter.increment(submitted.size());
+        }
+        return claimed;
+    }
+
+    /**
+     * Remove executions that no longer need re-submitting
+     */
+    @Transactional
+    public void complete(Collection<Integer> executionIds) {
+        if (executionIds == null || executionIds.isEmpty()) {
+            return;
+        }
+        List<ExecutionRetry> retries = executionRetryRepository.findAllById(executionIds);
+        executionRetryRepository.deleteAll(retries);
+        completedCounter.increment(retries.size());
+    }
+
+    /**
+     * Whether the execution is waiting in the queue to be re-submitted
+     */
+    public boolean isQueued(Integer executionId) {
+        return executionId != null && executionRetryRepository.existsById(executionId);
+    }
+
+    /**
+     * Those of the given executions that are waiting in the queue to be re-submitted
+     */
+    public Set<Integer> queuedAmong(Collection<Integer> executionIds) {
+        Set<Integer> queued = new HashSet<>();
+        for (ExecutionRetry retry : executionRetryRepository.findAllById(executionIds)) {
+            queued.add(retry.getExecutionId());
+        }
+        return queued;
+    }
+
+    private Duration backoff(int attempts) {
+        // Doubles per attempt, capped so that long outages are still probed regularly
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String reason) {
+        if (reason == null || reason.length() <= MAX_ERROR_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,6 +1,8 @@
 package org.kasbench.globeco_trade_service.service;
 
 import org.kasbench.globeco_trade_service.entity.Execution;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionPutFillDTO;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +24,47 @@ public interface ExecutionService {
     void deleteExecution(Integer id, Integer version);
     Execution fillExecution(Integer id, ExecutionPutFillDTO fillDTO);
 
+    /**
+     * Resolve the local ID of the execution known to the execution service under the given ID.
+     * Served from the in-memory index when possible, falling back to a query. An indexed ID is not
+     * checked against the execution, so callers that go on to load it should use
+     * {@link #getExecutionByServiceId} instead.
+     * @param executionServiceId ID assigned by the execution service
+     * @return Local execution ID, if any execution carries that execution service ID
+     */
+    Optional<Integer> resolveExecutionId(Integer executionServiceId);
+
+    /**
+     * Load the execution known to the execution service under the given ID. An execution found through
+     * the in-memory index must still carry that execution service ID; if it does not, e.g. because
+     * another replica re-pointed or deleted it, the index entry is dropped and the ID resolved by query.
+     * @param executionServiceId ID assigned by the execution service
+     * @return The execution carrying that execution service ID, if any
+     */
+    Optional<Execution> getExecutionByServiceId(Integer executionServiceId);
+
+    /**
+     * Fill the execution known to the execution service under the given ID, resolved as in
+     * {@link #getExecutionByServiceId} and filled as in {@link #fillExecution}
+     * @param executionServiceId ID assigned by the execution service
+     * @param fillDTO Fill to apply
+     * @return The filled execution
+     */
+    Execution fillExecutionByServiceId(Integer executionServiceId, ExecutionPutFillDTO fillDTO);
+
+    /**
+     * Apply many fills in one transaction. Each fill is checked against its own version and validated
+     * like {@link #fillExecution}; fills that fail do not prevent the others from being applied.
+     * @param fills Fills to apply
+     * @return One result per fill, in request order
+     */
+    List<ExecutionFillResultDTO> fillExecutions(List<ExecutionFillDTO> fills);
+
+    /**
+     * Outcome of a single submission. Status is "submitted" once the execution service has the execution,
+     * or "queued" when it was parked in the retry queue and will be submitted by the retry drainer;
+     * otherwise status is null and error says why the submission failed.
+     */
     class SubmitResult {
         private String status;
         private String error;
@@ -0,0 +1,77 @@
+package org.kasbench.globeco_trade_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Bounded in-memory map of execution service ID -> local execution ID.
+ * Fed whenever a submission records the execution service ID of an execution, so that
+ * callbacks addressed by the execution service's own ID resolve without a query.
+ * Mappings recorded inside a transaction only become visible once it commits.
+ */
+@Component
+public class ExecutionServiceIdIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionServiceIdIndex.class);
+
+    private final Cache<Integer, Integer> executionIdsByServiceId;
+
+    public ExecutionServiceIdIndex(@Value("${execution.service-id-index.max-size:200000}") int maxSize) {
+        this.executionIdsByServiceId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+
+        logger.debug("ExecutionServiceIdIndex initialized with Max Size: {}", maxSize);
+    }
+
+    /**
+     * Record that the given execution is known to the execution service under the given ID
+     */
+    public void record(Integer executionServiceId, Integer executionId) {
+        if (executionServiceId == null || executionId == null) {
+            return;
+        }
+        afterCommit(() -> executionIdsByServiceId.put(executionServiceId, executionId));
+    }
+
+    /**
+     * Forget the mapping of the given execution service ID, e.g. because its execution was deleted
+     */
+    public void evict(Integer executionServiceId) {
+        if (executionServiceId == null) {
+            return;
+        }
+        afterCommit(() -> executionIdsByServiceId.invalidate(executionServiceId));
+    }
+
+    public Optional<Integer> lookup(Integer executionServiceId) {
+        if (executionServiceId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(executionIdsByServiceId.getIfPresent(executionServiceId));
+    }
+
+    public long size() {
+        return executionIdsByServiceId.estimatedSize();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
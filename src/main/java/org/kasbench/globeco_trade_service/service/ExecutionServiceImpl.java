@@ -2,7 +2,10 @@ package org.kasbench.globeco_trade_service.service;
 
 import org.kasbench.globeco_trade_service.entity.*;
 import org.kasbench.globeco_trade_service.repository.*;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionPutFillDTO;
+import org.kasbench.globeco_trade_service.config.ReplicaRoutingDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
@@ -21,6 +24,11 @@ import java.util.Optional;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 import java.math.BigDecimal;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
@@ -35,6 +43,8 @@ public class ExecutionServiceImpl implements ExecutionService {
     private final DestinationRepository destinationRepository;
     private final RestTemplate restTemplate;
     private final org.springframework.retry.support.RetryTemplate retryTemplate;
+    private final ExecutionServiceIdIndex executionServiceIdIndex;
+    private final TradeOrderFillRollup tradeOrderFillRollup;
     @Value("${execution.service.base-url:http://globeco-execution-service:8084}")
     private String executionServiceBaseUrl;
 
@@ -52,7 +62,9 @@ public class ExecutionServiceImpl implements ExecutionService {
             DestinationRepository destinationRepository,
             @org.springframework.beans.factory.annotation.Qualifier("executionServiceRestTemplate") RestTemplate restTemplate,
             @org.springframework.beans.factory.annotation.Qualifier("executionServiceRetryTemplate") org.springframework.retry.support.RetryTemplate retryTemplate,
-            BulkExecutionSubmissionService bulkExecutionSubmissionService) {
+            BulkExecutionSubmissionService bulkExecutionSubmissionService,
+            ExecutionServiceIdIndex executionServiceIdIndex,
+            TradeOrderFillRollup tradeOrderFillRollup) {
         this.executionRepository = executionRepository;
         this.executionStatusRepository = executionStatusRepository;
         this.blotterRepository = blotterRepository;
@@ -62,6 +74,8 @@ public class ExecutionServiceImpl implements ExecutionService {
         this.restTemplate = restTemplate;
         this.retryTemplate = retryTemplate;
         this.bulkExecutionSubmissionService = bulkExecutionSubmissionService;
+        this.executionServiceIdIndex = executionServiceIdIndex;
+        this.tradeOrderFillRollup = tradeOrderFillRollup;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -90,13 +104,15 @@ public class ExecutionServiceImpl implements ExecutionService {
     }
 
     @Override
-    @Cacheable(value = "executions", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "executions", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public List<Execution> getAllExecutions() {
         return executionRepository.findAll();
     }
 
     @Override
-    @Cacheable(value = "executions", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "executions", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public PaginatedResult<Execution> getAllExecutions(Integer limit, Integer offset) {
         if (limit == null && offset == null) {
             // No pagination requested, return all data
@@ -121,7 +137,8 @@ public class ExecutionServiceImpl implements ExecutionService {
     }
 
     @Override
-    @Cacheable(value = "executions", key = "#id", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "executions", key = "#id", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public Optional<Execution> getExecutionById(Integer id) {
         return executionRepository.findById(id);
     }
@@ -136,7 +153,12 @@ public class ExecutionServiceImpl implements ExecutionService {
         if (execution.getExecutionServiceId() != null) {
             execution.setExecutionServiceId(execution.getExecutionServiceId());
         }
-        return executionRepository.save(execution);
+        Execution saved = executionRepository.save(execution);
+        executionServiceIdIndex.record(saved.getExecutionServiceId(), saved.getId());
+        TradeOrderFillRollup.Changes rollup = tradeOrderFillRollup.changes();
+        addToRollup(rollup, saved);
+        tradeOrderFillRollup.apply(rollup);
+        return saved;
     }
 
     @Override
@@ -145,15 +167,24 @@ public class ExecutionServiceImpl implements ExecutionService {
     public Execution updateExecution(Integer id, Execution execution) {
         Execution existing = executionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Execution not found: " + id));
+        TradeOrderFillRollup.Changes rollup = tradeOrderFillRollup.changes();
+        removeFromRollup(rollup, existing);
         existing.setExecutionTimestamp(execution.getExecutionTimestamp());
         existing.setQuantityOrdered(execution.getQuantityOrdered());
         existing.setQuantityPlaced(execution.getQuantityPlaced());
         existing.setQuantityFilled(execution.getQuantityFilled());
         existing.setLimitPrice(execution.getLimitPrice());
         // Set executionServiceId if provided
+        if (!Objects.equals(existing.getExecutionServiceId(), execution.getExecutionServiceId())) {
+            executionServiceIdIndex.evict(existing.getExecutionServiceId());
+            executionServiceIdIndex.record(execution.getExecutionServiceId(), id);
+        }
         existing.setExecutionServiceId(execution.getExecutionServiceId());
         resolveRelationshipsForUpdate(existing, execution);
-        return executionRepository.save(existing);
+        Execution saved = executionRepository.save(existing);
+        addToRollup(rollup, saved);
+        tradeOrderFillRollup.apply(rollup);
+        return saved;
     }
 
     @Override
@@ -166,6 +197,8 @@ public class ExecutionServiceImpl implements ExecutionService {
             throw new IllegalArgumentException("Version mismatch for execution: " + id);
         }
         executionRepository.deleteById(id);
+        executionServiceIdIndex.evict(existing.getExecutionServiceId());
+        tradeOrderFillRollup.apply(removeFromRollup(tradeOrderFillRollup.changes(), existing));
     }
 
     @Override
@@ -200,11 +233,143 @@ public class ExecutionServiceImpl implements ExecutionService {
         }
 
         // Update only the specified fields
+        TradeOrderFillRollup.Changes rollup = tradeOrderFillRollup.changes();
+        removeFromRollup(rollup, existing);
         existing.setQuantityFilled(fillDTO.getQuantityFilled());
         existing.setExecutionStatus(newStatus);
 
-        // Save and return
-        return executionRepository.save(existing);
+        // Save, roll the fill up into the trade order and return
+        Execution saved = executionRepository.save(existing);
+        tradeOrderFillRollup.apply(addToRollup(rollup, saved));
+        return saved;
+    }
+
+    @Override
+    public Optional<Integer> resolveExecutionId(Integer executionServiceId) {
+        Optional<Integer> indexed = executionServiceIdIndex.lookup(executionServiceId);
+        if (indexed.isPresent()) {
+            return indexed;
+        }
+        return queryExecutionId(executionServiceId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Execution> getExecutionByServiceId(Integer executionServiceId) {
+        Optional<Integer> indexed = executionServiceIdIndex.lookup(executionServiceId);
+        if (indexed.isPresent()) {
+            Optional<Execution> execution = executionRepository.findById(indexed.get())
+                    .filter(candidate -> executionServiceId.equals(candidate.getExecutionServiceId()));
+            if (execution.isPresent()) {
+                return execution;
+            }
+            logger.debug("Index entry {} -> {} is stale, resolving by query", executionServiceId, indexed.get());
+            executionServiceIdIndex.evict(executionServiceId);
+        }
+        return queryExecutionId(executionServiceId).flatMap(executionRepository::findById);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "executions", allEntries = true, cacheManager = "cacheManager")
+    public Execution fillExecutionByServiceId(Integer executionServiceId, ExecutionPutFillDTO fillDTO) {
+        Execution execution = getExecutionByServiceId(executionServiceId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Execution not found with execution service id: " + executionServiceId));
+        return fillExecution(execution.getId(), fillDTO);
+    }
+
+    private Optional<Integer> queryExecutionId(Integer executionServiceId) {
+        List<Integer> ids = executionRepository.findIdsByExecutionServiceId(executionServiceId);
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        executionServiceIdIndex.record(executionServiceId, ids.get(0));
+        return Optional.of(ids.get(0));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "executions", allEntries = true, cacheManager = "cacheManager")
+    public List<ExecutionFillResultDTO> fillExecutions(List<ExecutionFillDTO> fills) {
+        ExecutionFillResultDTO[] results = new ExecutionFillResultDTO[fills.size()];
+
+        // Current state of every referenced execution in one query, without loading entities
+        Set<Integer> ids = new HashSet<>();
+        for (ExecutionFillDTO fill : fills) {
+            if (fill.getId() != null) {
+                ids.add(fill.getId());
+            }
+        }
+        Map<Integer, ExecutionRepository.FillState> states = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ExecutionRepository.FillState state : executionRepository.findFillStatesByIdIn(ids)) {
+                states.put(state.getId(), state);
+            }
+        }
+
+        // Validate each fill like fillExecution does; only valid ones go into the batch. Only the
+        // first fill for an execution can match its version, so later ones are conflicts up front
+        List<ExecutionRepositoryCustom.FillUpdate> updates = new ArrayList<>();
+        List<Integer> updateIndexes = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < fills.size(); i++) {
+            ExecutionFillDTO fill = fills.get(i);
+            ExecutionRepository.FillState state = fill.getId() != null ? states.get(fill.getId()) : null;
+            ExecutionStatus newStatus = getExecutionStatusByAbbreviation(fill.getExecutionStatus());
+            String error = null;
+            ExecutionFillResultDTO.ResultStatus status = ExecutionFillResultDTO.ResultStatus.INVALID;
+            if (fill.getId() == null || fill.getVersion() == null || fill.getQuantityFilled() == null) {
+                error = "id, version and quantityFilled are required";
+            } else if (!seen.add(fill.getId())) {
+                status = ExecutionFillResultDTO.ResultStatus.CONFLICT;
+                error = "Duplicate fill for execution " + fill.getId() + " in this request";
+            } else if (state == null) {
+                status = ExecutionFillResultDTO.ResultStatus.NOT_FOUND;
+                error = "Execution not found with id: " + fill.getId();
+            } else if (!state.getVersion().equals(fill.getVersion())) {
+                status = ExecutionFillResultDTO.ResultStatus.CONFLICT;
+                error = "Version mismatch. Expected version: " + state.getVersion()
+                        + ", provided: " + fill.getVersion();
+            } else if (newStatus == null) {
+                error = "Invalid execution status: " + fill.getExecutionStatus()
+                        + ". Valid values are: NEW, SENT, PART, FILL, CANC";
+            } else if (fill.getQuantityFilled().compareTo(BigDecimal.ZERO) < 0) {
+                error = "Quantity filled cannot be negative";
+            } else if (fill.getQuantityFilled().compareTo(state.getQuantityPlaced()) > 0) {
+                error = "Quantity filled (" + fill.getQuantityFilled()
+                        + ") cannot exceed quantity placed (" + state.getQuantityPlaced() + ")";
+            }
+            if (error != null) {
+                results[i] = new ExecutionFillResultDTO(i, fill.getId(), status, error, null);
+                continue;
+            }
+            updates.add(new ExecutionRepositoryCustom.FillUpdate(
+                    fill.getId(), fill.getVersion(), fill.getQuantityFilled(), newStatus.getId()));
+            updateIndexes.add(i);
+        }
+
+        // A fill whose version changed since it was read matches no row and is reported as a conflict
+        boolean[] applied = executionRepository.applyFills(updates);
+        TradeOrderFillRollup.Changes rollup = tradeOrderFillRollup.changes();
+        for (int j = 0; j < applied.length; j++) {
+            int i = updateIndexes.get(j);
+            ExecutionFillDTO fill = fills.get(i);
+            if (applied[j]) {
+                // The version matched, so the row still had the state read above
+                ExecutionRepository.FillState state = states.get(fill.getId());
+                ExecutionRepositoryCustom.FillUpdate update = updates.get(j);
+                rollup.remove(state.getTradeOrderId(), state.getQuantityFilled(), state.getExecutionStatusId())
+                        .add(state.getTradeOrderId(), update.getQuantityFilled(), update.getExecutionStatusId());
+            }
+            results[i] = applied[j]
+                    ? new ExecutionFillResultDTO(i, fill.getId(), ExecutionFillResultDTO.ResultStatus.SUCCESS,
+                            null, fill.getVersion() + 1)
+                    : new ExecutionFillResultDTO(i, fill.getId(), ExecutionFillResultDTO.ResultStatus.CONFLICT,
+                            "Version mismatch. Execution was modified concurrently", null);
+        }
+        tradeOrderFillRollup.apply(rollup);
+        return Arrays.asList(results);
     }
 
     @Override
@@ -228,6 +393,9 @@ public class ExecutionServiceImpl implements ExecutionService {
             
             if ("SUCCESS".equals(singleResult.getStatus()) || "COMPLETED".equals(singleResult.getStatus())) {
                 return new SubmitResult("submitted", null);
+            } else if ("QUEUED".equals(singleResult.getStatus())) {
+                // Parked for the retry drainer: the execution must be kept, not compensated
+                return new SubmitResult("queued", null);
             } else {
                 return new SubmitResult(null, singleResult.getMessage());
             }
@@ -242,6 +410,22 @@ public class ExecutionServiceImpl implements ExecutionService {
         }
     }
 
+    private TradeOrderFillRollup.Changes addToRollup(TradeOrderFillRollup.Changes rollup, Execution execution) {
+        return rollup.add(tradeOrderId(execution), execution.getQuantityFilled(), executionStatusId(execution));
+    }
+
+    private TradeOrderFillRollup.Changes removeFromRollup(TradeOrderFillRollup.Changes rollup, Execution execution) {
+        return rollup.remove(tradeOrderId(execution), execution.getQuantityFilled(), executionStatusId(execution));
+    }
+
+    private static Integer tradeOrderId(Execution execution) {
+        return execution.getTradeOrder() != null ? execution.getTradeOrder().getId() : null;
+    }
+
+    private static Integer executionStatusId(Execution execution) {
+        return execution.getExecutionStatus() != null ? execution.getExecutionStatus().getId() : null;
+    }
+
     private void resolveRelationships(Execution execution) {
         if (execution.getExecutionStatus() != null && execution.getExecutionStatus().getId() != null) {
             ExecutionStatus status = getExecutionStatusById(execution.getExecutionStatus().getId());
@@ -0,0 +1,566 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepositoryCustom.FillUpdate;
+import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests a stream of cumulative fill events. Events are partitioned by execution ID onto
+ * single-writer lanes, each with a bounded queue, so fills for one execution are applied in
+ * arrival order. Each lane collects events for up to one flush window, keeps only the latest
+ * fill per execution, and applies the survivors in one transaction with a batched update. The
+ * executions are locked while their fills are applied, so the trade order fill rollup is
+ * updated from their exact previous state in the same transaction.
+ * <p>
+ * A full lane makes {@link #submit} wait, which stops the caller reading its input and so pushes
+ * back on the producer; if the lane stays full past the offer timeout the event is refused.
+ * <p>
+ * Every queued event is settled on the {@link Receipt} of the stream that sent it once its batch
+ * commits or finally fails, so a stream only reports fills as accepted once they are written. Fills
+ * for unknown executions or past quantity placed are settled as failed; a fill behind the quantity
+ * already filled is accepted, as a later fill has superseded it. A batch that fails is retried,
+ * then applied one execution at a time so that one bad fill does not fail the rest. Events still
+ * queued when the shutdown timeout runs out are settled as failed.
+ */
+@Service
+public class FillIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(FillIngestionService.class);
+
+    /**
+     * Outcome of offering one event to the ingestion lanes
+     */
+    public enum SubmitOutcome {
+        QUEUED, INVALID, REJECTED
+    }
+
+    private final ExecutionRepository executionRepository;
+    private final ExecutionStatusRepository executionStatusRepository;
+    private final CacheManager cacheManager;
+    private final TradeOrderFillRollup tradeOrderFillRollup;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long offerTimeoutMs;
+    private final long flushWindowNanos;
+    private final int maxBatchSize;
+    private final int flushAttempts;
+    private final long flushRetryBackoffMs;
+    private final long commitTimeoutMs;
+    private final long shutdownTimeoutMs;
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<String, Integer> statusIdsByAbbreviation = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    private final Counter eventsQueued;
+    private final Counter eventsInvalid;
+    private final Counter eventsRejected;
+    private final Counter eventsCoalesced;
+    private final Counter fillsApplied;
+    private final Counter fillsStale;
+    private final Counter fillsRejected;
+    private final Counter fillsFailed;
+    private final Counter flushesRetried;
+    private final Timer flushTimer;
+
+    public FillIngestionService(
+            ExecutionRepository executionRepository,
+            ExecutionStatusRepository executionStatusRepository,
+            @Qualifier("cacheManager") CacheManager cacheManager,
+            TradeOrderFillRollup tradeOrderFillRollup,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${fills.ingest.enabled:false}") boolean enabled,
+            @Value("${fills.ingest.lanes:4}") int laneCount,
+            @Value("${fills.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${fills.ingest.offer-timeout-ms:5000}") long offerTimeoutMs,
+            @Value("${fills.ingest.flush-window-ms:50}") long flushWindowMs,
+            @Value("${fills.ingest.max-batch-size:2000}") int maxBatchSize,
+            @Value("${fills.ingest.flush-attempts:3}") int flushAttempts,
+            @Value("${fills.ingest.flush-retry-backoff-ms:200}") long flushRetryBackoffMs,
+            @Value("${fills.ingest.commit-timeout-ms:30000}") long commitTimeoutMs,
+            @Value("${fills.ingest.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.executionRepository = executionRepository;
+        this.executionStatusRepository = executionStatusRepository;
+        this.cacheManager = cacheManager;
+        this.tradeOrderFillRollup = tradeOrderFillRollup;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.flushWindowNanos = TimeUnit.MILLISECONDS.toNanos(flushWindowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.flushAttempts = Math.max(1, flushAttempts);
+        this.flushRetryBackoffMs = flushRetryBackoffMs;
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        this.eventsQueued = eventCounter(meterRegistry, "queued");
+        this.eventsInvalid = eventCounter(meterRegistry, "invalid");
+        this.eventsRejected = eventCounter(meterRegistry, "rejected");
+        this.eventsCoalesced = Counter.builder("fills.ingest.coalesced")
+                .description("Fill events superseded by a later fill for the same execution within a flush window")
+                .register(meterRegistry);
+        this.fillsApplied = flushCounter(meterRegistry, "applied");
+        this.fillsStale = flushCounter(meterRegistry, "stale");
+        this.fillsRejected = flushCounter(meterRegistry, "rejected");
+        this.fillsFailed = flushCounter(meterRegistry, "failed");
+        this.flushesRetried = Counter.builder("fills.ingest.flush.retried")
+                .description("Failed flushes of ingested fills that were retried")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("fills.ingest.flush")
+                .description("Time to apply one coalesced batch of fills")
+                .register(meterRegistry);
+        Gauge.builder("fills.ingest.queued", this, FillIngestionService::getQueuedCount)
+                .description("Fill events waiting in the ingestion lanes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            running = true;
+            for (int i = 0; i < laneCount; i++) {
+                Lane lane = new Lane(i, queueCapacity);
+                lanes.add(lane);
+                lane.thread.start();
+            }
+            logger.info("Fill ingestion started with {} lanes of {} events", laneCount, queueCapacity);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fills.ingest.events")
+                .description("Fill events offered to the ingestion lanes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter flushCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fills.ingest.flushed")
+                .description("Coalesced fills written to the database")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    /**
+     * Start tracking the fills of one stream
+     */
+    public Receipt newReceipt() {
+        return new Receipt();
+    }
+
+    /**
+     * Offer one cumulative fill. Blocks while the execution's lane is full, up to the offer timeout.
+     * A queued fill is settled on the receipt under the given sequence number once it is written
+     * or has finally failed.
+     */
+    public SubmitOutcome submit(ExecutionFillDTO fill, Receipt receipt, int sequence) {
+        if (!isEnabled()) {
+            eventsRejected.increment();
+            return SubmitOutcome.REJECTED;
+        }
+        Integer statusId = fill.getExecutionStatus() != null ? resolveStatusId(fill.getExecutionStatus()) : null;
+        if (fill.getId() == null || fill.getQuantityFilled() == null
+                || fill.getQuantityFilled().compareTo(BigDecimal.ZERO) < 0 || statusId == null) {
+            eventsInvalid.increment();
+            return SubmitOutcome.INVALID;
+        }
+
+        Lane lane = lanes.get(Math.floorMod(fill.getId(), lanes.size()));
+        PendingFill pending = new PendingFill(
+                new FillUpdate(fill.getId(), null, fill.getQuantityFilled(), statusId), receipt, sequence);
+        receipt.track(sequence);
+        try {
+            if (lane.queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                eventsQueued.increment();
+                return SubmitOutcome.QUEUED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        receipt.untrack(sequence);
+        eventsRejected.increment();
+        return SubmitOutcome.REJECTED;
+    }
+
+    private Integer resolveStatusId(String abbreviation) {
+        Integer statusId = statusIdsByAbbreviation.get(abbreviation);
+        if (statusId == null) {
+            // Statuses rarely change; reload them on a miss rather than on a schedule
+            for (ExecutionStatus status : executionStatusRepository.findAll()) {
+                statusIdsByAbbreviation.put(status.getAbbreviation(), status.getId());
+            }
+            statusId = statusIdsByAbbreviation.get(abbreviation);
+        }
+        return statusId;
+    }
+
+    public int getQueuedCount() {
+        int queued = 0;
+        for (Lane lane : lanes) {
+            queued += lane.queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Wait until every fill queued under the receipt has been written or has failed, up to the
+     * commit timeout. Fills still outstanding afterwards stay uncommitted on the receipt.
+     */
+    public void awaitSettled(Receipt receipt) {
+        try {
+            if (!receipt.await(commitTimeoutMs)) {
+                logger.warn("Fills still unwritten after {} ms; reporting them as not accepted", commitTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting events and let each lane flush what it has queued, up to the shutdown timeout.
+     * Whatever is still queued then is settled as failed, so its streams do not report it as accepted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Lane lane : lanes) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            try {
+                if (remainingMs > 0) {
+                    lane.thread.join(remainingMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<PendingFill> unflushed = new ArrayList<>();
+        for (Lane lane : lanes) {
+            lane.queue.drainTo(unflushed);
+        }
+        for (PendingFill pending : unflushed) {
+            pending.settle(false);
+        }
+        fillsFailed.increment(unflushed.size());
+        if (unflushed.isEmpty()) {
+            logger.info("Fill ingestion stopped with every queued event flushed");
+        } else {
+            logger.warn("Fill ingestion stopped with {} events unflushed; they were not accepted", unflushed.size());
+        }
+    }
+
+    /**
+     * Write one coalesced batch, retrying it as a whole and then one execution at a time, and
+     * settle every event it covers
+     */
+    private void flush(Map<Integer, List<PendingFill>> batch) throws InterruptedException {
+        List<FillUpdate> fills = new ArrayList<>(batch.size());
+        for (List<PendingFill> events : batch.values()) {
+            fills.add(events.get(events.size() - 1).update);
+        }
+        for (int attempt = 1; attempt <= flushAttempts; attempt++) {
+            Set<Integer> rejected = apply(fills);
+            if (rejected != null) {
+                settleCommitted(batch.values(), rejected);
+                return;
+            }
+            if (attempt < flushAttempts) {
+                flushesRetried.increment();
+                Thread.sleep(flushRetryBackoffMs * attempt);
+            }
+        }
+        if (batch.size() == 1) {
+            settle(batch.values(), false);
+            return;
+        }
+
+        // Isolate the fills that keep failing the batch so the others are still written
+        logger.warn("Applying {} ingested fills one execution at a time after {} failed attempts",
+                fills.size(), flushAttempts);
+        for (List<PendingFill> events : batch.values()) {
+            Set<Integer> rejected = apply(List.of(events.get(events.size() - 1).update));
+            if (rejected != null) {
+                settleCommitted(List.of(events), rejected);
+            } else {
+                settle(List.of(events), false);
+            }
+        }
+    }
+
+    private void settle(Iterable<List<PendingFill>> batch, boolean applied) {
+        for (List<PendingFill> events : batch) {
+            if (!applied) {
+                fillsFailed.increment();
+            }
+            for (PendingFill pending : events) {
+                pending.settle(applied);
+            }
+        }
+    }
+
+    /**
+     * Settle the events of a committed batch, failing those of the executions whose fill was rejected
+     */
+    private void settleCommitted(Iterable<List<PendingFill>> batch, Set<Integer> rejected) {
+        for (List<PendingFill> events : batch) {
+            boolean applied = !rejected.contains(events.get(0).update.getId());
+            for (PendingFill pending : events) {
+                pending.settle(applied);
+            }
+        }
+    }
+
+    /**
+     * Apply the fills in one transaction
+     * @return IDs of the executions whose fill was rejected, or null if the transaction failed
+     */
+    private Set<Integer> apply(List<FillUpdate> fills) {
+        long start = System.nanoTime();
+        try {
+            List<Integer> appliedIds = new ArrayList<>();
+            Set<Integer> rejected = transactionTemplate.execute(status -> applyLocked(fills, appliedIds));
+            fillsApplied.increment(appliedIds.size());
+            fillsRejected.increment(rejected.size());
+            fillsStale.increment(fills.size() - appliedIds.size() - rejected.size());
+            if (!appliedIds.isEmpty()) {
+                Cache executions = cacheManager.getCache("executions");
+                if (executions != null) {
+                    executions.clear();
+                }
+            }
+            return rejected;
+        } catch (Exception e) {
+            logger.error("Failed to apply {} ingested fills: {}", fills.size(), e.getMessage(), e);
+            return null;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Lock the executions, keep the fills that move quantity filled forward without passing quantity
+     * placed, and apply them together with their trade order rollup. Fills behind the current
+     * quantity filled are skipped as stale.
+     * @param appliedIds receives the IDs of the executions whose fill was applied
+     * @return IDs of the executions that do not exist or whose fill passes quantity placed
+     */
+    private Set<Integer> applyLocked(List<FillUpdate> fills, List<Integer> appliedIds) {
+        Map<Integer, ExecutionRepository.FillState> states = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(fills.size());
+        for (FillUpdate fill : fills) {
+            ids.add(fill.getId());
+        }
+        for (ExecutionRepository.FillState state : executionRepository.lockFillStates(ids)) {
+            states.put(state.getId(), state);
+        }
+
+        List<FillUpdate> updates = new ArrayList<>();
+        Set<Integer> rejected = new HashSet<>();
+        TradeOrderFillRollup.Changes rollup = tradeOrderFillRollup.changes();
+        for (FillUpdate fill : fills) {
+            ExecutionRepository.FillState state = states.get(fill.getId());
+            if (state == null || fill.getQuantityFilled().compareTo(state.getQuantityPlaced()) > 0) {
+                rejected.add(fill.getId());
+                continue;
+            }
+            if (fill.getQuantityFilled().compareTo(state.getQuantityFilled()) < 0) {
+                continue;
+            }
+            updates.add(new FillUpdate(fill.getId(), state.getVersion(), fill.getQuantityFilled(),
+                    fill.getExecutionStatusId()));
+            rollup.remove(state.getTradeOrderId(), state.getQuantityFilled(), state.getExecutionStatusId())
+                    .add(state.getTradeOrderId(), fill.getQuantityFilled(), fill.getExecutionStatusId());
+        }
+
+        // Rows are locked, so every version still matches
+        executionRepository.applyFills(updates);
+        tradeOrderFillRollup.apply(rollup);
+        for (FillUpdate update : updates) {
+            appliedIds.add(update.getId());
+        }
+        return rejected;
+    }
+
+    /**
+     * The fills one stream has queued, settled as their batches are written. Once a stream has
+     * been read, everything before {@link #firstUncommitted()} is known to be in the database.
+     */
+    public static final class Receipt {
+        // Guarded by this
+        private final NavigableSet<Integer> outstanding = new TreeSet<>();
+        private int committed;
+        private int firstFailed = Integer.MAX_VALUE;
+
+        private Receipt() {
+        }
+
+        private synchronized void track(int sequence) {
+            outstanding.add(sequence);
+        }
+
+        private synchronized void untrack(int sequence) {
+            outstanding.remove(sequence);
+            if (outstanding.isEmpty()) {
+                notifyAll();
+            }
+        }
+
+        private synchronized void settle(int sequence, boolean applied) {
+            if (!outstanding.remove(sequence)) {
+                return;
+            }
+            if (applied) {
+                committed++;
+            } else {
+                firstFailed = Math.min(firstFailed, sequence);
+            }
+            if (outstanding.isEmpty()) {
+                notifyAll();
+            }
+        }
+
+        private synchronized boolean await(long timeoutMs) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!outstanding.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+
+        /**
+         * @return number of fills written so far, including those superseded by a written fill and
+         *         those behind the quantity already filled
+         */
+        public synchronized int getCommitted() {
+            return committed;
+        }
+
+        /**
+         * @return sequence number of the first fill that failed or is still unwritten, or -1 if there is none
+         */
+        public synchronized int firstUncommitted() {
+            int first = Math.min(firstFailed, outstanding.isEmpty() ? Integer.MAX_VALUE : outstanding.first());
+            return first == Integer.MAX_VALUE ? -1 : first;
+        }
+    }
+
+    /**
+     * One queued fill and the receipt of the stream that sent it
+     */
+    private static final class PendingFill {
+        private final FillUpdate update;
+        private final Receipt receipt;
+        private final int sequence;
+
+        private PendingFill(FillUpdate update, Receipt receipt, int sequence) {
+            this.update = update;
+            this.receipt = receipt;
+            this.sequence = sequence;
+        }
+
+        private void settle(boolean applied) {
+            receipt.settle(sequence, applied);
+        }
+    }
+
+    /**
+     * One single-writer lane: a bounded queue drained by its own thread
+     */
+    private final class Lane implements Runnable {
+        private final BlockingQueue<PendingFill> queue;
+        private final Thread thread;
+
+        Lane(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "fill-ingest-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingFill first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    flush(collectWindow(first));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    logger.error("Fill ingestion lane {} failed: {}", thread.getName(), e.getMessage(), e);
+                }
+            }
+        }
+
+        /**
+         * Gather events until the flush window closes or the batch is full, grouped by execution in
+         * arrival order; only the last event of each group is written
+         */
+        private Map<Integer, List<PendingFill>> collectWindow(PendingFill first) throws InterruptedException {
+            Map<Integer, List<PendingFill>> batch = new LinkedHashMap<>();
+            batch.computeIfAbsent(first.update.getId(), id -> new ArrayList<>()).add(first);
+            int collected = 1;
+            long deadline = System.nanoTime() + flushWindowNanos;
+            while (collected < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                PendingFill next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                collected++;
+                List<PendingFill> events = batch.computeIfAbsent(next.update.getId(), id -> new ArrayList<>());
+                if (!events.isEmpty()) {
+                    eventsCoalesced.increment();
+                }
+                events.add(next);
+            }
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.kasbench.globeco_trade_service.entity.JobLease;
+import org.kasbench.globeco_trade_service.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Named leases over the job_lease table, such as the member and partition leases of the
+ * {@link PartitionCoordinator}. A replica holds a lease until it expires and renews it by
+ * acquiring it again. Leases are claimed with conditional updates in their own short
+ * transactions, so the database decides the winner and no connection or lock is held between
+ * renewals. Expiry is computed and compared with the database clock rather than each replica's.
+ */
+@Service
+public class JobLeaseService {
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String ownerId;
+
+    public JobLeaseService(
+            JobLeaseRepository jobLeaseRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${jobs.lease.owner-id:${HOSTNAME:local}}") String replicaName) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // A restarted pod keeps its name, so tell its incarnations apart
+        this.ownerId = replicaName + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+        logger.info("Job leases held as {}", ownerId);
+    }
+
+    /**
+     * Acquire or renew the named lease for the given time.
+     * @return whether this replica holds the lease until then
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        double ttlSeconds = seconds(ttl);
+        try {
+            Integer claimed = transactionTemplate.execute(status -> jobLeaseRepository.claim(name, ownerId, ttlSeconds));
+            if (claimed != null && claimed > 0) {
+                return true;
+            }
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> jobLeaseRepository.existsById(name)))) {
+                return false;
+            }
+            transactionTemplate.execute(status -> jobLeaseRepository.create(name, ownerId, ttlSeconds));
+            logger.info("Acquired new job lease {}", name);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another replica created the lease first
+            return false;
+        }
+    }
+
+    /**
+     * Give up the named lease if this replica holds it, so another replica can take over without waiting for it to expire
+     */
+    public void release(String name) {
+        transactionTemplate.execute(status -> jobLeaseRepository.release(name, ownerId));
+    }
+
+    /**
+     * Unexpired leases whose names start with the given prefix
+     */
+    public List<JobLease> getLiveLeases(String prefix) {
+        return jobLeaseRepository.findLive(prefix);
+    }
+
+    /**
+     * Drop leases under the given prefix that expired more than the given grace period ago
+     */
+    public void purgeExpired(String prefix, Duration grace) {
+        transactionTemplate.execute(status -> jobLeaseRepository.deleteExpired(prefix, seconds(grace)));
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
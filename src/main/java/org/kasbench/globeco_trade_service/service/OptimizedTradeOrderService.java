@@ -51,7 +51,7 @@ public class OptimizedTradeOrderService {
             DestinationRepository destinationRepository,
             ExecutionService executionService,
             AsyncExecutionService asyncExecutionService,
-            @org.springframework.beans.factory.annotation.Qualifier("executionServiceRetryTemplate") RetryTemplate retryTemplate,
+            @org.springframework.beans.factory.annotation.Qualifier("executionServiceSingleAttemptTemplate") RetryTemplate retryTemplate,
             TransactionCompensationHandler compensationHandler) {
         this.tradeOrderRepository = tradeOrderRepository;
         this.executionRepository = executionRepository;
@@ -223,11 +223,11 @@ public class OptimizedTradeOrderService {
             if (!noExecuteSubmit) {
                 try {
                     final Integer executionId = savedExecution.getId();
-                    submitToExternalService(executionId);
-                    
-                    // Re-fetch execution to get updated status and execution service ID
-                    savedExecution = executionRepository.findById(executionId)
-                            .orElseThrow(() -> new RuntimeException("Execution not found after submission: " + executionId));
+                    if (submitToExternalService(executionId)) {
+                        // Re-fetch execution to get updated status and execution service ID
+                        savedExecution = executionRepository.findById(executionId)
+                                .orElseThrow(() -> new RuntimeException("Execution not found after submission: " + executionId));
+                    }
                     
                 } catch (Exception executionServiceException) {
                     logger.error("External execution service failure for trade order {}: {}",
@@ -264,12 +264,14 @@ public class OptimizedTradeOrderService {
     }
     
     /**
-     * Submits execution to external service with retry logic (synchronous).
+     * Submits execution to external service (synchronous). Retries happen inside the execution
+     * service client, within the shared retry budget.
      * This method is called outside of any database transaction to avoid blocking commits.
      * 
      * @param executionId The ID of the execution to submit
+     * @return true if the execution was submitted, false if it was queued for the retry drainer
      */
-    private void submitToExternalService(Integer executionId) {
+    private boolean submitToExternalService(Integer executionId) {
         logger.debug("Submitting execution {} to external service (synchronous)", executionId);
         
         ExecutionService.SubmitResult result = retryTemplate.execute(context -> {
@@ -283,11 +285,16 @@ public class OptimizedTradeOrderService {
             return executionService.submitExecution(executionId);
         });
         
+        if ("queued".equals(result.getStatus())) {
+            logger.info("Execution {} queued for retry, execution service unavailable", executionId);
+            return false;
+        }
         if (result.getError() != null || !"submitted".equals(result.getStatus())) {
             throw new RuntimeException("Execution service submission failed: " + result.getError());
         }
         
         logger.debug("Execution {} successfully submitted to external service", executionId);
+        return true;
     }
     
     /**
@@ -306,6 +313,8 @@ public class OptimizedTradeOrderService {
                     if (throwable != null) {
                         logger.error("Async execution service submission failed for execution {}: {}", 
                                 executionId, throwable.getMessage());
+                    } else if ("queued".equals(result.getStatus())) {
+                        logger.info("Execution {} queued for retry, execution service unavailable", executionId);
                     } else if (result.getError() != null || !"submitted".equals(result.getStatus())) {
                         logger.warn("Async execution service submission completed with error for execution {}: {}", 
                                 executionId, result.getError());
@@ -357,11 +366,11 @@ public class OptimizedTradeOrderService {
                 } else {
                     // Use synchronous submission with manual compensation handling
                     try {
-                        submitToExternalService(executionId);
-                        
-                        // Re-fetch execution to get updated status and execution service ID
-                        savedExecution = executionRepository.findById(executionId)
-                                .orElseThrow(() -> new RuntimeException("Execution not found after submission: " + executionId));
+                        if (submitToExternalService(executionId)) {
+                            // Re-fetch execution to get updated status and execution service ID
+                            savedExecution = executionRepository.findById(executionId)
+                                    .orElseThrow(() -> new RuntimeException("Execution not found after submission: " + executionId));
+                        }
                         
                     } catch (Exception executionServiceException) {
                         logger.error("External execution service failure for trade order {}: {}",
@@ -0,0 +1,220 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.kasbench.globeco_trade_service.dto.PartitionOwnershipDTO;
+import org.kasbench.globeco_trade_service.entity.JobLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Splits background work into a fixed number of hash partitions and spreads them over the live
+ * replicas, so that sweepers on different replicas work disjoint rows instead of contending for
+ * the same ones. Built on job leases: every replica heartbeats a member lease, and each partition
+ * is a lease held by one replica at a time.
+ * <p>
+ * On every heartbeat a replica lists the live members and assigns each partition to one of them by
+ * rendezvous hashing, which every replica computes alike and which moves only the partitions of
+ * members that joined or left. It claims the partitions assigned to it and releases those that no
+ * longer are; a partition moves once its previous holder has released it or its lease has expired.
+ * A replica that misses heartbeats stops reporting partitions as owned {@code expiry-margin-ms}
+ * before its leases could expire, so work it started on an owned partition can finish before
+ * another replica may take the partition over. Lease expiry uses the database clock; the margin
+ * is measured on this replica's monotonic clock from the start of the heartbeat that renewed them.
+ * The heartbeat runs on a scheduler thread of its own, so long background jobs cannot delay it.
+ */
+@Service
+public class PartitionCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionCoordinator.class);
+
+    static final String MEMBER_PREFIX = "member:";
+    static final String PARTITION_PREFIX = "partition:";
+
+    private final JobLeaseService jobLeaseService;
+    private final int partitionCount;
+    private final Duration leaseTtl;
+    private final long ownershipNanos;
+
+    private volatile Assignment assignment;
+    private volatile long assignmentDeadlineNanos = System.nanoTime();
+    private volatile List<String> members = List.of();
+
+    private final Counter rebalanceCounter;
+
+    public PartitionCoordinator(
+            JobLeaseService jobLeaseService,
+            MeterRegistry meterRegistry,
+            @Value("${jobs.partitions.count:128}") int partitionCount,
+            @Value("${jobs.partitions.lease-ms:30000}") long leaseMs,
+            @Value("${jobs.partitions.expiry-margin-ms:5000}") long expiryMarginMs) {
+        if (expiryMarginMs >= leaseMs) {
+            throw new IllegalArgumentException("jobs.partitions.expiry-margin-ms must be less than jobs.partitions.lease-ms");
+        }
+        this.jobLeaseService = jobLeaseService;
+        this.partitionCount = partitionCount;
+        this.leaseTtl = Duration.ofMillis(leaseMs);
+        this.ownershipNanos = Duration.ofMillis(leaseMs - expiryMarginMs).toNanos();
+        this.assignment = new Assignment(partitionCount, Set.of());
+
+        this.rebalanceCounter = Counter.builder("jobs.partitions.rebalances")
+                .description("Changes in the set of partitions owned by this replica")
+                .register(meterRegistry);
+        Gauge.builder("jobs.partitions.owned", this, coordinator -> coordinator.getAssignment().getPartitions().size())
+                .description("Background work partitions owned by this replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Partitions this replica currently owns; empty until the first heartbeat and from the expiry
+     * margin before its leases may expire
+     */
+    public Assignment getAssignment() {
+        if (System.nanoTime() - assignmentDeadlineNanos < 0) {
+            return assignment;
+        }
+        return new Assignment(partitionCount, Set.of());
+    }
+
+    /**
+     * Whether this replica still owns every partition of an assignment taken earlier. Work that
+     * runs across several batches checks this before each one and stops once it does not.
+     */
+    public boolean stillOwns(Assignment assignment) {
+        return getAssignment().getPartitions().containsAll(assignment.getPartitions());
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.partitions.heartbeat-ms:10000}", scheduler = "partitionHeartbeatScheduler")
+    public void heartbeat() {
+        try {
+            rebalance();
+        } catch (Exception e) {
+            logger.warn("Partition heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renew this replica's membership and claim or release partitions to match the current members
+     */
+    synchronized void rebalance() {
+        // Every lease claimed below expires no earlier than a lease TTL from here
+        long started = System.nanoTime();
+        String self = jobLeaseService.getOwnerId();
+
+        jobLeaseService.tryAcquire(MEMBER_PREFIX + self, leaseTtl);
+        jobLeaseService.purgeExpired(MEMBER_PREFIX, leaseTtl);
+        TreeSet<String> live = new TreeSet<>();
+        for (JobLease member : jobLeaseService.getLiveLeases(MEMBER_PREFIX)) {
+            live.add(member.getOwner());
+        }
+        live.add(self);
+
+        Set<Integer> previous = assignment.getPartitions();
+        Set<Integer> owned = new TreeSet<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (self.equals(assign(partition, live))) {
+                if (jobLeaseService.tryAcquire(PARTITION_PREFIX + partition, leaseTtl)) {
+                    owned.add(partition);
+                }
+            } else if (previous.contains(partition)) {
+                jobLeaseService.release(PARTITION_PREFIX + partition);
+            }
+        }
+
+        if (!owned.equals(previous)) {
+            rebalanceCounter.increment();
+            logger.info("Owning {} of {} partitions with {} live replicas: {}", owned.size(), partitionCount, live.size(), owned);
+        }
+        assignment = new Assignment(partitionCount, Set.copyOf(owned));
+        assignmentDeadlineNanos = started + ownershipNanos;
+        members = List.copyOf(live);
+    }
+
+    /**
+     * The member a partition belongs to: the one with the highest hash of member and partition
+     */
+    static String assign(int partition, Collection<String> members) {
+        String owner = null;
+        long highest = Long.MIN_VALUE;
+        for (String member : members) {
+            long weight = mix(member.hashCode() * 0x9E3779B97F4A7C15L + partition);
+            if (owner == null || weight > highest) {
+                owner = member;
+                highest = weight;
+            }
+        }
+        return owner;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Ownership of every partition as recorded in the lease table, as seen by this replica
+     */
+    public PartitionOwnershipDTO getOwnership() {
+        TreeMap<Integer, String> owners = new TreeMap<>();
+        for (JobLease lease : jobLeaseService.getLiveLeases(PARTITION_PREFIX)) {
+            owners.put(Integer.valueOf(lease.getName().substring(PARTITION_PREFIX.length())), lease.getOwner());
+        }
+        return new PartitionOwnershipDTO(jobLeaseService.getOwnerId(), partitionCount, members,
+                new ArrayList<>(getAssignment().getPartitions()), owners);
+    }
+
+    /**
+     * Hand this replica's partitions over right away rather than when their leases expire
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        Set<Integer> owned = assignment.getPartitions();
+        assignment = new Assignment(partitionCount, Set.of());
+        try {
+            for (Integer partition : owned) {
+                jobLeaseService.release(PARTITION_PREFIX + partition);
+            }
+            jobLeaseService.release(MEMBER_PREFIX + jobLeaseService.getOwnerId());
+        } catch (Exception e) {
+            logger.warn("Could not release partitions on shutdown, they move once their leases expire: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Partitions owned by one replica. Work item {@code id} falls in partition {@code id mod partitionCount}.
+     */
+    public static class Assignment {
+        private final int partitionCount;
+        private final Set<Integer> partitions;
+
+        public Assignment(int partitionCount, Set<Integer> partitions) {
+            this.partitionCount = partitionCount;
+            this.partitions = partitions;
+        }
+
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        public Set<Integer> getPartitions() {
+            return partitions;
+        }
+
+        public boolean isEmpty() {
+            return partitions.isEmpty();
+        }
+    }
+}
@@ -19,12 +19,15 @@ public class PortfolioCacheService {
     
     private final PortfolioServiceClient portfolioServiceClient;
     private final Cache<String, PortfolioDTO> portfolioCache;
+    private final ReferenceDataIndex referenceDataIndex;
     
     public PortfolioCacheService(
             PortfolioServiceClient portfolioServiceClient,
+            ReferenceDataIndex referenceDataIndex,
             @Value("${cache.portfolio.ttl-minutes:5}") int ttlMinutes,
             @Value("${cache.portfolio.max-size:1000}") int maxSize) {
         this.portfolioServiceClient = portfolioServiceClient;
+        this.referenceDataIndex = referenceDataIndex;
         this.portfolioCache = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
@@ -63,6 +66,7 @@ public class PortfolioCacheService {
             if (portfolioOpt.isPresent()) {
                 PortfolioDTO portfolio = portfolioOpt.get();
                 portfolioCache.put(cacheKey, portfolio);
+                referenceDataIndex.recordPortfolio(portfolio);
                 logger.debug("Cached portfolio: {} -> {}", normalizedId, portfolio.getName());
                 return portfolio;
             } else {
@@ -108,6 +112,7 @@ public class PortfolioCacheService {
             if (portfolioOpt.isPresent()) {
                 PortfolioDTO portfolio = portfolioOpt.get();
                 portfolioCache.put(normalizedName, portfolio);
+                referenceDataIndex.recordPortfolio(portfolio);
                 logger.debug("Cached portfolio: {} -> {}", normalizedName, portfolio.getPortfolioId());
                 return portfolio;
             } else {
@@ -0,0 +1,167 @@
+package org.kasbench.globeco_trade_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local reverse index of security ticker -> security ID and portfolio name -> portfolio ID.
+ * Fed by every security/portfolio DTO loaded into the enrichment caches, so that repeated
+ * ticker and name filters can be resolved in memory without remote round trips.
+ */
+@Component
+public class ReferenceDataIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataIndex.class);
+
+    private final Cache<String, String> securityIdsByTicker;
+    private final Cache<String, String> portfolioIdsByName;
+
+    // New or changed mappings (ID -> ticker / name) awaiting replication to the local reference tables
+    private final Map<String, String> pendingSecurities = new ConcurrentHashMap<>();
+    private final Map<String, String> pendingPortfolios = new ConcurrentHashMap<>();
+    private volatile int maxPendingChanges = 0;
+
+    public ReferenceDataIndex(
+            @Value("${reference.index.max-size:100000}") int maxSize,
+            @Value("${reference.index.ttl-minutes:60}") int ttlMinutes) {
+        this.securityIdsByTicker = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.portfolioIdsByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+
+        logger.debug("ReferenceDataIndex initialized with TTL: {} minutes, Max Size: {}", ttlMinutes, maxSize);
+    }
+
+    /**
+     * Record the ticker -> ID mapping of a security. Fallback DTOs, which carry the
+     * lookup key in both fields, are ignored so that they never shadow a real mapping.
+     */
+    public void recordSecurity(SecurityDTO security) {
+        if (security == null || security.getSecurityId() == null || security.getTicker() == null) {
+            return;
+        }
+        if (security.getSecurityId().equals(security.getTicker())) {
+            return;
+        }
+        String previous = securityIdsByTicker.asMap().put(normalizeTicker(security.getTicker()), security.getSecurityId());
+        if (!security.getSecurityId().equals(previous)) {
+            trackChange(pendingSecurities, security.getSecurityId(), security.getTicker().trim());
+        }
+    }
+
+    /**
+     * Record the name -> ID mapping of a portfolio. Fallback DTOs are ignored.
+     */
+    public void recordPortfolio(PortfolioDTO portfolio) {
+        if (portfolio == null || portfolio.getPortfolioId() == null || portfolio.getName() == null) {
+            return;
+        }
+        if (portfolio.getPortfolioId().equals(portfolio.getName())) {
+            return;
+        }
+        String previous = portfolioIdsByName.asMap().put(normalizeName(portfolio.getName()), portfolio.getPortfolioId());
+        if (!portfolio.getPortfolioId().equals(previous)) {
+            trackChange(pendingPortfolios, portfolio.getPortfolioId(), normalizeName(portfolio.getName()));
+        }
+    }
+
+    /**
+     * Look up a security ID by ticker (case-insensitive)
+     */
+    public Optional<String> findSecurityIdByTicker(String ticker) {
+        if (ticker == null || ticker.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(securityIdsByTicker.getIfPresent(normalizeTicker(ticker)));
+    }
+
+    /**
+     * Look up a portfolio ID by name
+     */
+    public Optional<String> findPortfolioIdByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(portfolioIdsByName.getIfPresent(normalizeName(name)));
+    }
+
+    /**
+     * Start tracking new or changed mappings for replication. Tracking is off by default so
+     * that nothing accumulates when no consumer drains the changes. Once {@code maxPending}
+     * changes are waiting, further changes are dropped and left to the periodic full refresh.
+     */
+    public void enableChangeTracking(int maxPending) {
+        this.maxPendingChanges = maxPending;
+    }
+
+    /**
+     * Remove and return the security ID -> ticker mappings recorded since the last drain
+     */
+    public Map<String, String> drainPendingSecurities() {
+        return drain(pendingSecurities);
+    }
+
+    /**
+     * Remove and return the portfolio ID -> name mappings recorded since the last drain
+     */
+    public Map<String, String> drainPendingPortfolios() {
+        return drain(pendingPortfolios);
+    }
+
+    public long getSecurityCount() {
+        return securityIdsByTicker.estimatedSize();
+    }
+
+    public long getPortfolioCount() {
+        return portfolioIdsByName.estimatedSize();
+    }
+
+    /**
+     * Clear all index entries
+     */
+    public void invalidateAll() {
+        securityIdsByTicker.invalidateAll();
+        portfolioIdsByName.invalidateAll();
+        logger.debug("Cleared all reference index entries");
+    }
+
+    private void trackChange(Map<String, String> pending, String id, String value) {
+        if (pending.size() < maxPendingChanges || pending.containsKey(id)) {
+            pending.put(id, value);
+        }
+    }
+
+    private Map<String, String> drain(Map<String, String> pending) {
+        Map<String, String> drained = new HashMap<>();
+        for (String id : pending.keySet()) {
+            String value = pending.remove(id);
+            if (value != null) {
+                drained.put(id, value);
+            }
+        }
+        return drained;
+    }
+
+    private String normalizeTicker(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+
+    private String normalizeName(String name) {
+        return name.trim();
+    }
+}
@@ -0,0 +1,107 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.kasbench.globeco_trade_service.entity.SecurityReference;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.repository.SecurityReferenceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes replicated security tickers and portfolio names to the local reference tables.
+ * Existing rows are loaded in one query per batch and updated in place; new rows are
+ * inserted through JDBC batching.
+ */
+@Service
+public class ReferenceDataStore {
+
+    private final SecurityReferenceRepository securityReferenceRepository;
+    private final PortfolioReferenceRepository portfolioReferenceRepository;
+
+    public ReferenceDataStore(SecurityReferenceRepository securityReferenceRepository,
+                              PortfolioReferenceRepository portfolioReferenceRepository) {
+        this.securityReferenceRepository = securityReferenceRepository;
+        this.portfolioReferenceRepository = portfolioReferenceRepository;
+    }
+
+    /**
+     * Every replicated security ticker
+     * @return security ID -> ticker
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> findSecurityTickers() {
+        Map<String, String> tickersBySecurityId = new HashMap<>();
+        for (SecurityReference reference : securityReferenceRepository.findAll()) {
+            tickersBySecurityId.put(reference.getSecurityId(), reference.getTicker());
+        }
+        return tickersBySecurityId;
+    }
+
+    /**
+     * Insert or update security tickers
+     * @param tickersBySecurityId security ID -> ticker
+     * @return number of rows written
+     */
+    @Transactional
+    public int upsertSecurities(Map<String, String> tickersBySecurityId) {
+        if (tickersBySecurityId.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<String, SecurityReference> existing = securityReferenceRepository.findAllById(tickersBySecurityId.keySet())
+                .stream()
+                .collect(Collectors.toMap(SecurityReference::getSecurityId, Function.identity()));
+
+        List<SecurityReference> toSave = new ArrayList<>();
+        tickersBySecurityId.forEach((securityId, ticker) -> {
+            SecurityReference reference = existing.get(securityId);
+            if (reference == null) {
+                reference = new SecurityReference();
+                reference.setSecurityId(securityId);
+            }
+            reference.setTicker(ticker);
+            reference.setUpdatedAt(now);
+            toSave.add(reference);
+        });
+        securityReferenceRepository.saveAll(toSave);
+        return toSave.size();
+    }
+
+    /**
+     * Insert or update portfolio names
+     * @param namesByPortfolioId portfolio ID -> name
+     * @return number of rows written
+     */
+    @Transactional
+    public int upsertPortfolios(Map<String, String> namesByPortfolioId) {
+        if (namesByPortfolioId.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<String, PortfolioReference> existing = portfolioReferenceRepository.findAllById(namesByPortfolioId.keySet())
+                .stream()
+                .collect(Collectors.toMap(PortfolioReference::getPortfolioId, Function.identity()));
+
+        List<PortfolioReference> toSave = new ArrayList<>();
+        namesByPortfolioId.forEach((portfolioId, name) -> {
+            PortfolioReference reference = existing.get(portfolioId);
+            if (reference == null) {
+                reference = new PortfolioReference();
+                reference.setPortfolioId(portfolioId);
+            }
+            reference.setName(name);
+            reference.setUpdatedAt(now);
+            toSave.add(reference);
+        });
+        portfolioReferenceRepository.saveAll(toSave);
+        return toSave.size();
+    }
+}
@@ -0,0 +1,191 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.security.Security;
+import org.kasbench.globeco_trade_service.security.SecurityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mirrors security tickers and portfolio names into the local reference tables so that the
+ * v2 APIs can filter and sort by them in SQL. Mappings loaded through the enrichment caches
+ * are replicated incrementally; a periodic full refresh writes the securities whose ticker
+ * changed in the security master and pages through every portfolio referenced by a trade order
+ * whose name is missing or stale.
+ */
+@Service
+@ConditionalOnProperty(name = "reference.sync.enabled", havingValue = "true")
+public class ReferenceDataSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataSyncService.class);
+
+    private final ReferenceDataIndex referenceDataIndex;
+    private final ReferenceDataStore referenceDataStore;
+    private final SecurityService securityService;
+    private final BatchCacheLoadingService batchCacheLoadingService;
+    private final PortfolioReferenceRepository portfolioReferenceRepository;
+    private final int batchSize;
+    private final Duration fullRefreshInterval;
+    private final Duration lookupTimeout;
+
+    private final Counter securitiesReplicatedCounter;
+    private final Counter portfoliosReplicatedCounter;
+    private final Counter syncFailureCounter;
+
+    public ReferenceDataSyncService(
+            ReferenceDataIndex referenceDataIndex,
+            ReferenceDataStore referenceDataStore,
+            SecurityService securityService,
+            BatchCacheLoadingService batchCacheLoadingService,
+            PortfolioReferenceRepository portfolioReferenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${reference.sync.max-pending:10000}") int maxPending,
+            @Value("${reference.sync.batch-size:500}") int batchSize,
+            @Value("${reference.sync.full-refresh-interval-ms:3600000}") long fullRefreshIntervalMs,
+            @Value("${enrichment.timeout-ms:2000}") long lookupTimeoutMs) {
+        this.referenceDataIndex = referenceDataIndex;
+        this.referenceDataStore = referenceDataStore;
+        this.securityService = securityService;
+        this.batchCacheLoadingService = batchCacheLoadingService;
+        this.portfolioReferenceRepository = portfolioReferenceRepository;
+        this.batchSize = batchSize;
+        this.fullRefreshInterval = Duration.ofMillis(fullRefreshIntervalMs);
+        this.lookupTimeout = Duration.ofMillis(lookupTimeoutMs);
+
+        this.securitiesReplicatedCounter = Counter.builder("reference.sync.rows")
+                .description("Reference rows written to the local reference tables")
+                .tag("type", "security")
+                .register(meterRegistry);
+        this.portfoliosReplicatedCounter = Counter.builder("reference.sync.rows")
+                .description("Reference rows written to the local reference tables")
+                .tag("type", "portfolio")
+                .register(meterRegistry);
+        this.syncFailureCounter = Counter.builder("reference.sync.failures")
+                .description("Reference data sync runs that failed")
+                .register(meterRegistry);
+
+        referenceDataIndex.enableChangeTracking(maxPending);
+        logger.info("Reference data sync enabled with batch size {} and full refresh every {} ms",
+                batchSize, fullRefreshIntervalMs);
+    }
+
+    /**
+     * Replicate the mappings recorded by the enrichment caches since the last run
+     */
+    @Scheduled(fixedDelayString = "${reference.sync.flush-interval-ms:5000}")
+    public void replicatePendingChanges() {
+        try {
+            writeSecurities(referenceDataIndex.drainPendingSecurities());
+            writePortfolios(referenceDataIndex.drainPendingPortfolios());
+        } catch (Exception e) {
+            syncFailureCounter.increment();
+            logger.warn("Incremental reference data sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replicate changed security tickers and refresh missing or stale portfolio names
+     */
+    @Scheduled(initialDelayString = "${reference.sync.full-refresh-initial-delay-ms:30000}",
+               fixedDelayString = "${reference.sync.full-refresh-interval-ms:3600000}")
+    public void fullRefresh() {
+        try {
+            refreshSecurities();
+            refreshPortfolios();
+        } catch (Exception e) {
+            syncFailureCounter.increment();
+            logger.warn("Full reference data refresh failed: {}", e.getMessage());
+        }
+    }
+
+    void refreshSecurities() {
+        Map<String, String> tickersBySecurityId = new HashMap<>();
+        for (Security security : securityService.getSecurities()) {
+            if (security.getSecurityId() != null && security.getTicker() != null) {
+                tickersBySecurityId.put(security.getSecurityId(), security.getTicker().trim());
+            }
+        }
+        int total = tickersBySecurityId.size();
+        Map<String, String> replicated = referenceDataStore.findSecurityTickers();
+        tickersBySecurityId.entrySet().removeIf(entry -> entry.getValue().equals(replicated.get(entry.getKey())));
+        writeSecurities(tickersBySecurityId);
+        logger.debug("Refreshed {} of {} security references", tickersBySecurityId.size(), total);
+    }
+
+    void refreshPortfolios() throws Exception {
+        // The portfolio service has no list-all API, so refresh the portfolios trade orders actually reference.
+        // Pages are keyed on portfolio ID, so portfolios the lookup could not name are not read again this run
+        OffsetDateTime staleBefore = OffsetDateTime.now().minus(fullRefreshInterval);
+        String after = "";
+        List<String> portfolioIds;
+        do {
+            portfolioIds = portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(
+                    staleBefore, after, PageRequest.of(0, batchSize));
+            if (portfolioIds.isEmpty()) {
+                return;
+            }
+            refreshPortfolioPage(portfolioIds);
+            after = portfolioIds.get(portfolioIds.size() - 1);
+        } while (portfolioIds.size() == batchSize);
+    }
+
+    private void refreshPortfolioPage(List<String> portfolioIds) throws Exception {
+        Map<String, PortfolioDTO> portfolios = batchCacheLoadingService
+                .batchLoadPortfolios(new HashSet<>(portfolioIds))
+                .get(lookupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        Map<String, String> namesByPortfolioId = new HashMap<>();
+        portfolios.forEach((portfolioId, portfolio) -> {
+            // Skip fallbacks, which carry the ID as name
+            if (portfolio.getName() != null && !portfolioId.equals(portfolio.getName())) {
+                namesByPortfolioId.put(portfolioId, portfolio.getName().trim());
+            }
+        });
+        writePortfolios(namesByPortfolioId);
+        logger.debug("Refreshed {} of {} stale portfolio references", namesByPortfolioId.size(), portfolioIds.size());
+    }
+
+    private void writeSecurities(Map<String, String> tickersBySecurityId) {
+        for (Map<String, String> batch : partition(tickersBySecurityId)) {
+            securitiesReplicatedCounter.increment(referenceDataStore.upsertSecurities(batch));
+        }
+    }
+
+    private void writePortfolios(Map<String, String> namesByPortfolioId) {
+        for (Map<String, String> batch : partition(namesByPortfolioId)) {
+            portfoliosReplicatedCounter.increment(referenceDataStore.upsertPortfolios(batch));
+        }
+    }
+
+    private List<Map<String, String>> partition(Map<String, String> values) {
+        List<Map<String, String>> batches = new ArrayList<>();
+        Map<String, String> batch = new HashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                batches.add(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,215 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.repository.SecurityReferenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Resolves comma-separated security ticker and portfolio name filters of the v2 APIs to IDs.
+ * Values are answered from the local {@link ReferenceDataIndex} and {@link ReferenceMasterIndex}
+ * first; the remaining values are looked up concurrently through the cache services, which feed
+ * the index in turn.
+ * <p>
+ * When ticker and name filters run against the replicated reference tables, values that have not
+ * been replicated yet are resolved here instead, so the filter does not drop their rows.
+ */
+@Service
+public class ReferenceFilterResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceFilterResolver.class);
+
+    private final SecurityCacheService securityCacheService;
+    private final PortfolioCacheService portfolioCacheService;
+    private final ReferenceDataIndex referenceDataIndex;
+    private final ReferenceMasterIndex referenceMasterIndex;
+    private final SecurityReferenceRepository securityReferenceRepository;
+    private final PortfolioReferenceRepository portfolioReferenceRepository;
+    private final AsyncTaskExecutor enrichmentExecutor;
+    private final Duration timeout;
+
+    public ReferenceFilterResolver(
+            SecurityCacheService securityCacheService,
+            PortfolioCacheService portfolioCacheService,
+            ReferenceDataIndex referenceDataIndex,
+            ReferenceMasterIndex referenceMasterIndex,
+            SecurityReferenceRepository securityReferenceRepository,
+            PortfolioReferenceRepository portfolioReferenceRepository,
+            @Qualifier("enrichmentExecutor") AsyncTaskExecutor enrichmentExecutor,
+            @Value("${enrichment.timeout-ms:2000}") long timeoutMs) {
+        this.securityCacheService = securityCacheService;
+        this.portfolioCacheService = portfolioCacheService;
+        this.referenceDataIndex = referenceDataIndex;
+        this.referenceMasterIndex = referenceMasterIndex;
+        this.securityReferenceRepository = securityReferenceRepository;
+        this.portfolioReferenceRepository = portfolioReferenceRepository;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Resolve security tickers to security IDs for filtering
+     * @param securityTickers comma-separated tickers
+     * @return comma-separated security IDs; unresolved tickers are passed through unchanged
+     */
+    public String resolveSecurityTickersToIds(String securityTickers) {
+        return resolve(securityTickers, "security ticker",
+                ticker -> referenceDataIndex.findSecurityIdByTicker(ticker)
+                        .or(() -> referenceMasterIndex.findSecurityByTicker(ticker).map(SecurityDTO::getSecurityId)),
+                ticker -> securityCacheService.getSecurityByTicker(ticker).getSecurityId());
+    }
+
+    /**
+     * Resolve portfolio names to portfolio IDs for filtering
+     * @param portfolioNames comma-separated portfolio names
+     * @return comma-separated portfolio IDs; unresolved names are passed through unchanged
+     */
+    public String resolvePortfolioNamesToIds(String portfolioNames) {
+        return resolve(portfolioNames, "portfolio name",
+                name -> referenceDataIndex.findPortfolioIdByName(name)
+                        .or(() -> referenceMasterIndex.findPortfolioByName(name).map(PortfolioDTO::getPortfolioId)),
+                name -> portfolioCacheService.getPortfolioByName(name).getPortfolioId());
+    }
+
+    /**
+     * Resolve the tickers that are not in the replicated security reference table yet. Their
+     * remote lookups feed the index, so the next reference sync flush replicates them.
+     * @param securityTickers comma-separated tickers
+     * @return security IDs of the unreplicated tickers; empty when every ticker is replicated
+     */
+    public List<String> resolveUnreplicatedSecurityTickers(String securityTickers) {
+        List<String> tickers = splitValues(securityTickers);
+        if (tickers.isEmpty()) {
+            return List.of();
+        }
+        Set<String> replicated = new HashSet<>(securityReferenceRepository.findReplicatedTickers(
+                tickers.stream().map(String::toUpperCase).toList()));
+        List<String> missing = tickers.stream()
+                .filter(ticker -> !replicated.contains(ticker.toUpperCase()))
+                .toList();
+        return missing.isEmpty() ? List.of() : splitValues(resolveSecurityTickersToIds(String.join(",", missing)));
+    }
+
+    /**
+     * Resolve the names that are not in the replicated portfolio reference table yet. Their
+     * remote lookups feed the index, so the next reference sync flush replicates them.
+     * @param portfolioNames comma-separated portfolio names
+     * @return portfolio IDs of the unreplicated names; empty when every name is replicated
+     */
+    public List<String> resolveUnreplicatedPortfolioNames(String portfolioNames) {
+        List<String> names = splitValues(portfolioNames);
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        Set<String> replicated = new HashSet<>(portfolioReferenceRepository.findReplicatedNames(names));
+        List<String> missing = names.stream()
+                .filter(name -> !replicated.contains(name))
+                .toList();
+        return missing.isEmpty() ? List.of() : splitValues(resolvePortfolioNamesToIds(String.join(",", missing)));
+    }
+
+    private static List<String> splitValues(String values) {
+        if (values == null) {
+            return List.of();
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private String resolve(String values, String kind,
+                           Function<String, Optional<String>> indexLookup,
+                           Function<String, String> remoteLookup) {
+        Set<String> distinctValues = new LinkedHashSet<>(splitValues(values));
+
+        // Preserve the order of the filter values in the resolved ID list
+        Map<String, String> resolved = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String value : distinctValues) {
+            Optional<String> indexed = indexLookup.apply(value);
+            if (indexed.isPresent()) {
+                resolved.put(value, indexed.get());
+            } else {
+                resolved.put(value, value);
+                misses.add(value);
+            }
+        }
+
+        if (misses.size() == 1) {
+            // No point handing a single lookup to another thread
+            resolved.put(misses.get(0), lookupQuietly(remoteLookup, misses.get(0), kind));
+        } else if (!misses.isEmpty()) {
+            resolveConcurrently(misses, resolved, kind, remoteLookup);
+        }
+
+        logger.debug("Resolved {} {} values ({} from local indexes)", distinctValues.size(), kind,
+                distinctValues.size() - misses.size());
+        return String.join(",", resolved.values());
+    }
+
+    private void resolveConcurrently(List<String> misses, Map<String, String> resolved, String kind,
+                                     Function<String, String> remoteLookup) {
+        Map<String, CompletableFuture<String>> lookups = new LinkedHashMap<>();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (String value : misses) {
+            CompletableFuture<String> lookup = new CompletableFuture<>();
+            try {
+                tasks.add(enrichmentExecutor.submit(() -> lookup.complete(lookupQuietly(remoteLookup, value, kind))));
+            } catch (TaskRejectedException e) {
+                logger.warn("Enrichment executor saturated, {} '{}' left unresolved", kind, value);
+                lookup.complete(value);
+            }
+            lookups.put(value, lookup);
+        }
+
+        try {
+            CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Resolving {} {} values did not complete within {} ms", misses.size(), kind, timeout.toMillis());
+            tasks.forEach(task -> task.cancel(true));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+        } catch (ExecutionException e) {
+            logger.warn("Error resolving {} values: {}", kind, e.getMessage());
+        }
+
+        lookups.forEach((value, lookup) -> resolved.put(value, lookup.getNow(value)));
+    }
+
+    private String lookupQuietly(Function<String, String> remoteLookup, String value, String kind) {
+        try {
+            String id = remoteLookup.apply(value);
+            return id != null ? id : value;
+        } catch (Exception e) {
+            logger.warn("Error resolving {} '{}' to ID: {}", kind, value, e.getMessage());
+            return value; // Fallback to original value
+        }
+    }
+}
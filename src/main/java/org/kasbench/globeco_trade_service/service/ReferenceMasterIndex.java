@@ -0,0 +1,115 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.security.Security;
+import org.kasbench.globeco_trade_service.security.SecurityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory security master and portfolio name index. The full securities list, which
+ * {@link SecurityService#getSecurities()} already downloads into the {@code securities} cache,
+ * and the replicated portfolio names are periodically rebuilt into immutable snapshots with
+ * hash lookups by ID and ticker/name, which answer the ticker and name filters of the v2 APIs.
+ * Snapshots are swapped atomically, so readers never block on a refresh.
+ */
+@Component
+public class ReferenceMasterIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceMasterIndex.class);
+
+    private final SecurityService securityService;
+    private final PortfolioReferenceRepository portfolioReferenceRepository;
+    private final boolean enabled;
+
+    private volatile Snapshot<SecurityDTO> securities;
+    private volatile Snapshot<PortfolioDTO> portfolios;
+
+    public ReferenceMasterIndex(
+            SecurityService securityService,
+            PortfolioReferenceRepository portfolioReferenceRepository,
+            MeterRegistry meterRegistry,
+            @Value("${reference.master.enabled:false}") boolean enabled) {
+        this.securityService = securityService;
+        this.portfolioReferenceRepository = portfolioReferenceRepository;
+        this.enabled = enabled;
+
+        Gauge.builder("reference.master.size", this, index -> index.getSecurityCount())
+                .description("Entries in the in-memory reference master index")
+                .tag("type", "security")
+                .register(meterRegistry);
+        Gauge.builder("reference.master.size", this, index -> index.getPortfolioCount())
+                .description("Entries in the in-memory reference master index")
+                .tag("type", "portfolio")
+                .register(meterRegistry);
+    }
+
+    public Optional<PortfolioDTO> findPortfolioById(String portfolioId) {
+        Snapshot<PortfolioDTO> snapshot = portfolios;
+        return snapshot == null || portfolioId == null ? Optional.empty() : snapshot.findById(portfolioId.trim());
+    }
+
+    public Optional<PortfolioDTO> findPortfolioByName(String name) {
+        Snapshot<PortfolioDTO> snapshot = portfolios;
+        return snapshot == null || name == null ? Optional.empty() : snapshot.findByKey(name.trim());
+    }
+
+    public int getSecurityCount() {
+        Snapshot<SecurityDTO> snapshot = securities;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    public int getPortfolioCount() {
+        Snapshot<PortfolioDTO> snapshot = portfolios;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    private static String normalizeTicker(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+
+    /**
+     * Immutable index over one kind of reference DTO
+     */
+    private static final class Snapshot<T> {
+        private final Map<String, T> byId;
+        private final Map<String, T> byKey;
+
+        Snapshot(Collection<T> entries, Function<T, String> idOf, Function<T, String> keyOf,
+                 Function<String, String> lookupKey) {
+            this.byId = new HashMap<>(entries.size() * 2);
+            this.byKey = new HashMap<>(entries.size() * 2);
+            for (T entry : entries) {
+                byId.put(idOf.apply(entry), entry);
+                byKey.put(lookupKey.apply(keyOf.apply(entry)), entry);
+            }
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        Optional<T> findById(String id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        Optional<T> findByKey(String key) {
+            return Optional.ofNullable(byKey.get(key));
+        }
+    }
+}
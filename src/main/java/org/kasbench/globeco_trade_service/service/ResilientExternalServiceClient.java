@@ -25,6 +25,7 @@ public class ResilientExternalServiceClient {
     private final CircuitBreaker portfolioServiceCircuitBreaker;
     private final SecurityCacheService securityCacheService;
     private final PortfolioCacheService portfolioCacheService;
+    private final ReferenceDataIndex referenceDataIndex;
     
     public ResilientExternalServiceClient(
             SecurityServiceClient securityServiceClient,
@@ -32,13 +33,15 @@ public class ResilientExternalServiceClient {
             CircuitBreaker securityServiceCircuitBreaker,
             CircuitBreaker portfolioServiceCircuitBreaker,
             SecurityCacheService securityCacheService,
-            PortfolioCacheService portfolioCacheService) {
+            PortfolioCacheService portfolioCacheService,
+            ReferenceDataIndex referenceDataIndex) {
         this.securityServiceClient = securityServiceClient;
         this.portfolioServiceClient = portfolioServiceClient;
         this.securityServiceCircuitBreaker = securityServiceCircuitBreaker;
         this.portfolioServiceCircuitBreaker = portfolioServiceCircuitBreaker;
         this.securityCacheService = securityCacheService;
         this.portfolioCacheService = portfolioCacheService;
+        this.referenceDataIndex = referenceDataIndex;
     }
     
     /**
@@ -170,13 +173,16 @@ public class ResilientExternalServiceClient {
     }
     
     /**
-     * Fallback strategy for security service by ticker - try cache lookup by ticker
+     * Fallback strategy for security service by ticker - try the local ticker->ID index
      */
     private Optional<SecurityDTO> getSecurityByTickerFallback(String ticker, Throwable ex) {
         try {
-            // For ticker-based lookup, we can't easily fallback to cache since cache is ID-based
-            // In a real implementation, you might maintain a ticker->ID mapping cache
-            logger.warn("Security service fallback: no cache fallback available for ticker-based lookup: {}", ticker);
+            Optional<String> securityId = referenceDataIndex.findSecurityIdByTicker(ticker);
+            if (securityId.isPresent()) {
+                logger.debug("Security service fallback: found indexed security ID for ticker: {}", ticker);
+                return Optional.of(new SecurityDTO(securityId.get(), ticker));
+            }
+            logger.warn("Security service fallback: no indexed security ID for ticker: {}", ticker);
         } catch (Exception cacheEx) {
             logger.warn("Cache fallback failed for security ticker: {}", ticker, cacheEx);
         }
@@ -207,11 +213,15 @@ public class ResilientExternalServiceClient {
     }
     
     /**
-     * Fallback strategy for portfolio service by name - no cache fallback available
+     * Fallback strategy for portfolio service by name - try the local name->ID index
      */
     private Optional<PortfolioDTO> getPortfolioByNameFallback(String name, Throwable ex) {
-        // For name-based lookup, we can't easily fallback to cache since cache is ID-based
-        logger.warn("Portfolio service fallback: no cache fallback available for name-based lookup: {}", name);
+        Optional<String> portfolioId = referenceDataIndex.findPortfolioIdByName(name);
+        if (portfolioId.isPresent()) {
+            logger.debug("Portfolio service fallback: found indexed portfolio ID for name: {}", name);
+            return Optional.of(new PortfolioDTO(portfolioId.get(), name));
+        }
+        logger.warn("Portfolio service fallback: no indexed portfolio ID for name: {}", name);
         return Optional.of(createPlaceholderPortfolio("UNKNOWN", name));
     }
     
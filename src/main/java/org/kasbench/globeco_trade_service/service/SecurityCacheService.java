@@ -19,12 +19,15 @@ public class SecurityCacheService {
     
     private final SecurityServiceClient securityServiceClient;
     private final Cache<String, SecurityDTO> securityCache;
+    private final ReferenceDataIndex referenceDataIndex;
     
     public SecurityCacheService(
             SecurityServiceClient securityServiceClient,
+            ReferenceDataIndex referenceDataIndex,
             @Value("${cache.security.ttl-minutes:5}") int ttlMinutes,
             @Value("${cache.security.max-size:1000}") int maxSize) {
         this.securityServiceClient = securityServiceClient;
+        this.referenceDataIndex = referenceDataIndex;
         this.securityCache = Caffeine.newBuilder()
                 .maximumSize(maxSize)
                 .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
@@ -63,6 +66,7 @@ public class SecurityCacheService {
             if (securityOpt.isPresent()) {
                 SecurityDTO security = securityOpt.get();
                 securityCache.put(cacheKey, security);
+                referenceDataIndex.recordSecurity(security);
                 logger.debug("Cached security: {} -> {}", normalizedId, security.getTicker());
                 return security;
             } else {
@@ -108,6 +112,7 @@ public class SecurityCacheService {
             if (securityOpt.isPresent()) {
                 SecurityDTO security = securityOpt.get();
                 securityCache.put(normalizedTicker, security);
+                referenceDataIndex.recordSecurity(security);
                 logger.debug("Cached security: {} -> {}", normalizedTicker, security.getSecurityId());
                 return security;
             } else {
@@ -1,8 +1,6 @@
 package org.kasbench.globeco_trade_service.service;
 
 import org.kasbench.globeco_trade_service.dto.PaginationDTO;
-import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
-import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.kasbench.globeco_trade_service.dto.TradeOrderPageResponseDTO;
 import org.kasbench.globeco_trade_service.dto.TradeOrderV2ResponseDTO;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
@@ -11,15 +9,22 @@ import org.kasbench.globeco_trade_service.repository.TradeOrderSpecification;
 import org.kasbench.globeco_trade_service.util.SortingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Service
@@ -27,16 +32,26 @@ public class TradeOrderEnhancedService {
     private static final Logger logger = LoggerFactory.getLogger(TradeOrderEnhancedService.class);
     
     private final TradeOrderRepository tradeOrderRepository;
-    private final SecurityCacheService securityCacheService;
-    private final PortfolioCacheService portfolioCacheService;
+    private final ReferenceFilterResolver referenceFilterResolver;
+    private final BatchCacheLoadingService batchCacheLoadingService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration enrichmentTimeout;
+    private final boolean referenceTablesEnabled;
     
     public TradeOrderEnhancedService(
             TradeOrderRepository tradeOrderRepository,
-            SecurityCacheService securityCacheService,
-            PortfolioCacheService portfolioCacheService) {
+            ReferenceFilterResolver referenceFilterResolver,
+            BatchCacheLoadingService batchCacheLoadingService,
+            PlatformTransactionManager transactionManager,
+            @Value("${enrichment.timeout-ms:2000}") long enrichmentTimeoutMs,
+            @Value("${reference.sync.enabled:false}") boolean referenceTablesEnabled) {
         this.tradeOrderRepository = tradeOrderRepository;
-        this.securityCacheService = securityCacheService;
-        this.portfolioCacheService = portfolioCacheService;
+        this.referenceFilterResolver = referenceFilterResolver;
+        this.batchCacheLoadingService = batchCacheLoadingService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enrichmentTimeout = Duration.ofMillis(enrichmentTimeoutMs);
+        this.referenceTablesEnabled = referenceTablesEnabled;
     }
     
     /**
@@ -55,6 +70,8 @@ public class TradeOrderEnhancedService {
             BigDecimal quantityMax,
             BigDecimal quantitySentMin,
             BigDecimal quantitySentMax,
+            BigDecimal quantityFilledMin,
+            BigDecimal quantityFilledMax,
             String blotterAbbreviation,
             Boolean submitted) {
         
@@ -75,32 +92,75 @@ public class TradeOrderEnhancedService {
         String portfolioId = null;
         String securityId = null;
         
-        if (portfolioName != null && !portfolioName.trim().isEmpty()) {
-            portfolioId = resolvePortfolioNamesToIds(portfolioName);
-        }
-        
-        if (securityTicker != null && !securityTicker.trim().isEmpty()) {
-            securityId = resolveSecurityTickersToIds(securityTicker);
+        // With replicated reference tables, names and tickers are filtered by join in the same query
+        if (!referenceTablesEnabled) {
+            if (portfolioName != null && !portfolioName.trim().isEmpty()) {
+                portfolioId = referenceFilterResolver.resolvePortfolioNamesToIds(portfolioName);
+            }
+            
+            if (securityTicker != null && !securityTicker.trim().isEmpty()) {
+                securityId = referenceFilterResolver.resolveSecurityTickersToIds(securityTicker);
+            }
         }
         
         Specification<TradeOrder> spec = TradeOrderSpecification.buildSpecification(
             id, orderId, orderType, portfolioId, securityId,
             quantityMin, quantityMax, quantitySentMin, quantitySentMax,
             blotterAbbreviation, submitted
-        );
+        ).and(TradeOrderSpecification.hasQuantityFilledGreaterThanOrEqual(quantityFilledMin))
+            .and(TradeOrderSpecification.hasQuantityFilledLessThanOrEqual(quantityFilledMax));
+        if (referenceTablesEnabled) {
+            // Names and tickers not replicated yet are resolved remotely rather than dropped
+            spec = spec.and(TradeOrderSpecification.hasPortfolioName(portfolioName,
+                    referenceFilterResolver.resolveUnreplicatedPortfolioNames(portfolioName)))
+                .and(TradeOrderSpecification.hasSecurityTicker(securityTicker,
+                    referenceFilterResolver.resolveUnreplicatedSecurityTickers(securityTicker)));
+        }
         
-        // Execute query with eager fetch of blotter to avoid lazy loading issues
+        // All SQL runs and the rows are copied out in one short read-only transaction, so the
+        // connection is back in the pool before any remote enrichment call is made
+        Specification<TradeOrder> query = spec;
+        PageRows rows = readOnlyTransaction.execute(status -> loadPageRows(query, pageable));
+        
+        // Resolve the page's distinct securities and portfolios in one parallel batch,
+        // then fill them into the rows sequentially
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+            rows.securityIds, rows.portfolioIds, enrichmentTimeout);
+        for (int i = 0; i < rows.dtos.size(); i++) {
+            // Fallbacks already applied by the batch
+            TradeOrderV2ResponseDTO dto = rows.dtos.get(i);
+            dto.setPortfolio(enrichment.getPortfolio(rows.rowPortfolioIds.get(i)));
+            dto.setSecurity(enrichment.getSecurity(rows.rowSecurityIds.get(i)));
+        }
+        
+        logger.debug("Retrieved {} trade orders out of {} total", rows.dtos.size(), rows.pagination.getTotalElements());
+        
+        return new TradeOrderPageResponseDTO(rows.dtos, rows.pagination);
+    }
+    
+    /**
+     * Run the page query and copy everything the response needs out of the entities, collecting
+     * the distinct security and portfolio IDs to resolve afterwards
+     */
+    private PageRows loadPageRows(Specification<TradeOrder> spec, Pageable pageable) {
+        // Eager fetch of blotter to avoid lazy loading issues
         Page<TradeOrder> page = tradeOrderRepository.findAllWithBlotterAndSpecification(spec, pageable);
         
-        // Convert to enhanced DTOs with external service data
-        // Using sequential stream to avoid Hibernate lazy loading issues in parallel context
-        List<TradeOrderV2ResponseDTO> enhancedTradeOrders = page.getContent()
-            .stream()
-            .map(this::convertToV2ResponseDTO)
-            .toList();
+        PageRows rows = new PageRows();
+        for (TradeOrder tradeOrder : page.getContent()) {
+            rows.dtos.add(convertToV2ResponseDTO(tradeOrder));
+            rows.rowSecurityIds.add(tradeOrder.getSecurityId());
+            rows.rowPortfolioIds.add(tradeOrder.getPortfolioId());
+            if (tradeOrder.getSecurityId() != null) {
+                rows.securityIds.add(tradeOrder.getSecurityId());
+            }
+            if (tradeOrder.getPortfolioId() != null) {
+                rows.portfolioIds.add(tradeOrder.getPortfolioId());
+            }
+        }
         
         // Create pagination metadata
-        PaginationDTO pagination = new PaginationDTO(
+        rows.pagination = new PaginationDTO(
             (int) page.getTotalElements(),
             page.getTotalPages(),
             page.getNumber(),
@@ -108,14 +168,11 @@ public class TradeOrderEnhancedService {
             page.hasNext(),
             page.hasPrevious()
         );
-        
-        logger.debug("Retrieved {} trade orders out of {} total", enhancedTradeOrders.size(), page.getTotalElements());
-        
-        return new TradeOrderPageResponseDTO(enhancedTradeOrders, pagination);
+        return rows;
     }
     
     /**
-     * Convert TradeOrder entity to enhanced V2 response DTO with external service data
+     * Convert TradeOrder entity to V2 response DTO; portfolio and security are filled in after enrichment
      */
     private TradeOrderV2ResponseDTO convertToV2ResponseDTO(TradeOrder tradeOrder) {
         TradeOrderV2ResponseDTO dto = new TradeOrderV2ResponseDTO();
@@ -126,35 +183,14 @@ public class TradeOrderEnhancedService {
         dto.setOrderType(tradeOrder.getOrderType());
         dto.setQuantity(tradeOrder.getQuantity());
         dto.setQuantitySent(tradeOrder.getQuantitySent());
+        dto.setQuantityFilled(tradeOrder.getQuantityFilled());
+        dto.setPartFilledCount(tradeOrder.getPartFilledCount());
+        dto.setFullyFilledCount(tradeOrder.getFullyFilledCount());
         dto.setLimitPrice(tradeOrder.getLimitPrice());
         dto.setTradeTimestamp(tradeOrder.getTradeTimestamp());
         dto.setSubmitted(tradeOrder.getSubmitted());
         dto.setVersion(tradeOrder.getVersion());
         
-        // Enhanced fields with external service data
-        try {
-            // Get portfolio information
-            if (tradeOrder.getPortfolioId() != null) {
-                PortfolioDTO portfolio = portfolioCacheService.getPortfolioById(tradeOrder.getPortfolioId());
-                dto.setPortfolio(portfolio);
-            }
-            
-            // Get security information
-            if (tradeOrder.getSecurityId() != null) {
-                SecurityDTO security = securityCacheService.getSecurityById(tradeOrder.getSecurityId());
-                dto.setSecurity(security);
-            }
-        } catch (Exception e) {
-            logger.warn("Error enriching trade order {} with external data: {}", tradeOrder.getId(), e.getMessage());
-            // Set fallback data
-            if (tradeOrder.getPortfolioId() != null) {
-                dto.setPortfolio(new PortfolioDTO(tradeOrder.getPortfolioId(), tradeOrder.getPortfolioId()));
-            }
-            if (tradeOrder.getSecurityId() != null) {
-                dto.setSecurity(new SecurityDTO(tradeOrder.getSecurityId(), tradeOrder.getSecurityId()));
-            }
-        }
-        
         // Blotter information (already available in entity)
         if (tradeOrder.getBlotter() != null) {
             dto.setBlotter(convertBlotterToResponseDTO(tradeOrder.getBlotter()));
@@ -163,48 +199,6 @@ public class TradeOrderEnhancedService {
         return dto;
     }
     
-    /**
-     * Resolve portfolio names to portfolio IDs for filtering
-     */
-    private String resolvePortfolioNamesToIds(String portfolioNames) {
-        try {
-            String[] names = portfolioNames.split(",");
-            StringBuilder ids = new StringBuilder();
-            
-            for (String name : names) {
-                PortfolioDTO portfolio = portfolioCacheService.getPortfolioByName(name.trim());
-                if (ids.length() > 0) ids.append(",");
-                ids.append(portfolio.getPortfolioId());
-            }
-            
-            return ids.toString();
-        } catch (Exception e) {
-            logger.warn("Error resolving portfolio names to IDs: {}", e.getMessage());
-            return portfolioNames; // Fallback to original names
-        }
-    }
-    
-    /**
-     * Resolve security tickers to security IDs for filtering
-     */
-    private String resolveSecurityTickersToIds(String securityTickers) {
-        try {
-            String[] tickers = securityTickers.split(",");
-            StringBuilder ids = new StringBuilder();
-            
-            for (String ticker : tickers) {
-                SecurityDTO security = securityCacheService.getSecurityByTicker(ticker.trim());
-                if (ids.length() > 0) ids.append(",");
-                ids.append(security.getSecurityId());
-            }
-            
-            return ids.toString();
-        } catch (Exception e) {
-            logger.warn("Error resolving security tickers to IDs: {}", e.getMessage());
-            return securityTickers; // Fallback to original tickers
-        }
-    }
-    
     /**
      * Convert Blotter entity to response DTO
      */
@@ -218,4 +212,16 @@ public class TradeOrderEnhancedService {
         dto.setVersion(blotter.getVersion());
         return dto;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Page content copied out of the persistence context, ready for enrichment
+     */
+    private static final class PageRows {
+        private final List<TradeOrderV2ResponseDTO> dtos = new ArrayList<>();
+        private final List<String> rowSecurityIds = new ArrayList<>();
+        private final List<String> rowPortfolioIds = new ArrayList<>();
+        private final Set<String> securityIds = new HashSet<>();
+        private final Set<String> portfolioIds = new HashSet<>();
+        private PaginationDTO pagination;
+    }
+}
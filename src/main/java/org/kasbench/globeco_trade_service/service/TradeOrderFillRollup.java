@@ -0,0 +1,134 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepositoryCustom.FillRollupDelta;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the fill rollup of each trade order (quantity filled and the number of partially and
+ * fully filled executions) incrementally. Callers describe the execution states a change removes and
+ * adds; the net delta per trade order is applied in the caller's transaction with one batched update.
+ */
+@Component
+public class TradeOrderFillRollup {
+
+    static final String PART_FILLED_STATUS = "PART";
+    static final String FULLY_FILLED_STATUS = "FULL";
+
+    private final TradeOrderRepository tradeOrderRepository;
+    private final ExecutionStatusRepository executionStatusRepository;
+    private final CacheManager cacheManager;
+    private final Map<Integer, String> statusAbbreviationsById = new ConcurrentHashMap<>();
+
+    public TradeOrderFillRollup(
+            TradeOrderRepository tradeOrderRepository,
+            ExecutionStatusRepository executionStatusRepository,
+            @Qualifier("cacheManager") CacheManager cacheManager) {
+        this.tradeOrderRepository = tradeOrderRepository;
+        this.executionStatusRepository = executionStatusRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public Changes changes() {
+        return new Changes();
+    }
+
+    /**
+     * Apply the net changes to their trade orders. Must run inside the transaction that changed the executions.
+     */
+    public void apply(Changes changes) {
+        List<FillRollupDelta> deltas = new ArrayList<>();
+        // Trade orders in ID order, so concurrent appliers lock rows in the same order
+        changes.totals.forEach((tradeOrderId, total) -> {
+            if (!total.isEmpty()) {
+                deltas.add(new FillRollupDelta(tradeOrderId, total.quantityFilled,
+                        total.partFilledCount, total.fullyFilledCount));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        tradeOrderRepository.applyFillRollups(deltas);
+        Cache tradeOrders = cacheManager.getCache("tradeOrders");
+        if (tradeOrders != null) {
+            tradeOrders.clear();
+        }
+    }
+
+    private String statusAbbreviation(Integer executionStatusId) {
+        if (executionStatusId == null) {
+            return null;
+        }
+        String abbreviation = statusAbbreviationsById.get(executionStatusId);
+        if (abbreviation == null) {
+            // Statuses rarely change; reload them on a miss rather than on a schedule
+            for (ExecutionStatus status : executionStatusRepository.findAll()) {
+                statusAbbreviationsById.put(status.getId(), status.getAbbreviation());
+            }
+            abbreviation = statusAbbreviationsById.get(executionStatusId);
+        }
+        return abbreviation;
+    }
+
+    /**
+     * Execution states removed from and added to trade orders by one unit of work
+     */
+    public class Changes {
+        private final Map<Integer, Total> totals = new TreeMap<>();
+
+        /**
+         * Count an execution state towards its trade order, e.g. a new execution or the state after a fill
+         */
+        public Changes add(Integer tradeOrderId, BigDecimal quantityFilled, Integer executionStatusId) {
+            return accumulate(tradeOrderId, quantityFilled, executionStatusId, 1);
+        }
+
+        /**
+         * Stop counting an execution state, e.g. a deleted execution or the state before a fill
+         */
+        public Changes remove(Integer tradeOrderId, BigDecimal quantityFilled, Integer executionStatusId) {
+            return accumulate(tradeOrderId, quantityFilled, executionStatusId, -1);
+        }
+
+        private Changes accumulate(Integer tradeOrderId, BigDecimal quantityFilled, Integer executionStatusId, int sign) {
+            if (tradeOrderId == null) {
+                return this;
+            }
+            Total total = totals.computeIfAbsent(tradeOrderId, id -> new Total());
+            if (quantityFilled != null) {
+                total.quantityFilled = sign > 0
+                        ? total.quantityFilled.add(quantityFilled)
+                        : total.quantityFilled.subtract(quantityFilled);
+            }
+            String abbreviation = statusAbbreviation(executionStatusId);
+            if (PART_FILLED_STATUS.equals(abbreviation)) {
+                total.partFilledCount += sign;
+            } else if (FULLY_FILLED_STATUS.equals(abbreviation)) {
+                total.fullyFilledCount += sign;
+            }
+            return this;
+        }
+    }
+
+    private static final class Total {
+        private BigDecimal quantityFilled = BigDecimal.ZERO;
+        private int partFilledCount;
+        private int fullyFilledCount;
+
+        boolean isEmpty() {
+            return quantityFilled.signum() == 0 && partFilledCount == 0 && fullyFilledCount == 0;
+        }
+    }
+}
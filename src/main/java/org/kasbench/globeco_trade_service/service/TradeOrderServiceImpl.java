@@ -13,6 +13,7 @@ import org.kasbench.globeco_trade_service.repository.TradeTypeRepository;
 import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
 import org.kasbench.globeco_trade_service.repository.DestinationRepository;
 import org.kasbench.globeco_trade_service.dto.TradeOrderSubmitDTO;
+import org.kasbench.globeco_trade_service.config.ReplicaRoutingDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,7 +54,7 @@ public class TradeOrderServiceImpl implements TradeOrderService {
             ExecutionRepository executionRepository, TradeTypeRepository tradeTypeRepository,
             ExecutionStatusRepository executionStatusRepository, DestinationRepository destinationRepository,
             ExecutionService executionService,
-            @org.springframework.beans.factory.annotation.Qualifier("executionServiceRetryTemplate") RetryTemplate retryTemplate) {
+            @org.springframework.beans.factory.annotation.Qualifier("executionServiceSingleAttemptTemplate") RetryTemplate retryTemplate) {
         this.tradeOrderRepository = tradeOrderRepository;
         this.blotterRepository = blotterRepository;
         this.executionRepository = executionRepository;
@@ -65,19 +66,22 @@ public class TradeOrderServiceImpl implements TradeOrderService {
     }
 
     @Override
-    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public List<TradeOrder> getAllTradeOrders() {
         return tradeOrderRepository.findAll();
     }
 
     @Override
-    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public PaginatedResult<TradeOrder> getAllTradeOrders(Integer limit, Integer offset) {
         return getAllTradeOrders(limit, offset, null);
     }
 
     @Override
-    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tradeOrders", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public PaginatedResult<TradeOrder> getAllTradeOrders(Integer limit, Integer offset, Integer orderId) {
         if (orderId != null) {
             // Filter by order_id
@@ -122,7 +126,8 @@ public class TradeOrderServiceImpl implements TradeOrderService {
     }
 
     @Override
-    @Cacheable(value = "tradeOrders", key = "#id", cacheManager = "cacheManager")
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tradeOrders", key = "#id", cacheManager = "cacheManager", unless = ReplicaRoutingDataSource.SERVED_BY_REPLICA)
     public Optional<TradeOrder> getTradeOrderById(Integer id) {
         return tradeOrderRepository.findById(id);
     }
@@ -510,7 +515,7 @@ public class TradeOrderServiceImpl implements TradeOrderService {
                 final Integer executionId = savedExecution.getId();
                 logger.debug("Automatically submitting execution {} to external service", executionId);
                 try {
-                    // Use retry template for external service call with enhanced logging
+                    // Single attempt here; the execution service client retries within the shared retry budget
                     ExecutionService.SubmitResult result = retryTemplate.execute(context -> {
                         if (context.getRetryCount() > 0) {
                             logger.warn("Retrying execution service submission for execution {} (attempt {})",
@@ -522,6 +527,11 @@ public class TradeOrderServiceImpl implements TradeOrderService {
                         return executionService.submitExecution(executionId);
                     });
 
+                    if ("queued".equals(result.getStatus())) {
+                        // Accepted but not yet sent: the retry drainer submits it, so keep the execution
+                        logger.info("Execution {} queued for retry, execution service unavailable", executionId);
+                        return savedExecution;
+                    }
                     if (result.getError() != null || !"submitted".equals(result.getStatus())) {
                         throw new RuntimeException("Execution service submission failed: " + result.getError());
                     }
@@ -1,28 +1,49 @@
 package org.kasbench.globeco_trade_service.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.kasbench.globeco_trade_service.entity.Execution;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
 import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepositoryCustom.SubmissionReversal;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepositoryCustom.SubmissionState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Transaction Compensation Handler implementing the saga pattern for handling
  * failed operations with async rollback capabilities and dead letter queue integration.
  * 
- * This component provides sophisticated compensation logic for failed external service
- * submissions, ensuring that only specific failed operations are rolled back while
- * maintaining data consistency.
+ * Compensations are queued on a bounded queue and applied by the single-threaded
+ * {@code compensationExecutor} in batches: each batch deletes its executions and restores
+ * its trade orders in one transaction with set-based statements. If a batch fails, its
+ * compensations are retried one by one so that only the ones that really cannot be applied
+ * end up in the dead letter queue. When the queue is full the caller applies its own
+ * compensation, which pushes back on whatever is producing failures.
+ * 
+ * Submissions that failed some time ago, such as those replayed from the dead letter queue,
+ * are reversed rather than compensated: see {@link #reverseFailedSubmissions}.
  */
 @Component
 public class TransactionCompensationHandler {
@@ -32,59 +53,248 @@ public class TransactionCompensationHandler {
     private final ExecutionRepository executionRepository;
     private final TradeOrderRepository tradeOrderRepository;
     private final DeadLetterQueueService deadLetterQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor compensationExecutor;
+    private final BlockingQueue<PendingCompensation> pending;
+    private final int maxBatchSize;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    
+    private final Counter compensatedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter callerRunsCounter;
     
     @Autowired
     public TransactionCompensationHandler(
             ExecutionRepository executionRepository,
             TradeOrderRepository tradeOrderRepository,
-            DeadLetterQueueService deadLetterQueueService) {
+            DeadLetterQueueService deadLetterQueueService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("compensationExecutor") Executor compensationExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${compensation.queue-capacity:10000}") int queueCapacity,
+            @Value("${compensation.max-batch-size:500}") int maxBatchSize) {
         this.executionRepository = executionRepository;
         this.tradeOrderRepository = tradeOrderRepository;
         this.deadLetterQueueService = deadLetterQueueService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.compensationExecutor = compensationExecutor;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        
+        this.compensatedCounter = Counter.builder("compensation.executions")
+                .description("Failed submissions compensated")
+                .tag("result", "compensated")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("compensation.executions")
+                .description("Failed submissions compensated")
+                .tag("result", "dead_lettered")
+                .register(meterRegistry);
+        this.callerRunsCounter = Counter.builder("compensation.caller.runs")
+                .description("Compensations applied on the submitting thread because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("compensation.queued", pending, BlockingQueue::size)
+                .description("Compensations waiting to be applied")
+                .register(meterRegistry);
     }
     
     /**
      * Compensates for failed submission with async rollback.
-     * This method implements the saga pattern by asynchronously rolling back
-     * specific failed operations without affecting successful ones.
+     * The execution is deleted and the trade order put back to its original state together
+     * with the other compensations queued at the time, without affecting successful submissions.
      * 
      * @param execution The execution that failed to submit
      * @param originalTradeOrderState The original state of the trade order before submission
-     * @return CompletableFuture that completes when compensation is finished
+     * @return CompletableFuture that completes when compensation is finished, or completes exceptionally
+     *         once a compensation that could not be applied has been sent to the dead letter queue
      */
-    @Async("compensationExecutor")
     public CompletableFuture<Void> compensateFailedSubmission(Execution execution, TradeOrderState originalTradeOrderState) {
-        return CompletableFuture.runAsync(() -> {
-            logger.debug("Starting async compensation for execution {} and trade order {}", 
-                    execution.getId(), originalTradeOrderState.getTradeOrderId());
-            
+        PendingCompensation compensation = new PendingCompensation(execution.getId(), originalTradeOrderState);
+        logger.debug("Queueing compensation for execution {} and trade order {}", 
+                execution.getId(), originalTradeOrderState.getTradeOrderId());
+        
+        if (!pending.offer(compensation)) {
+            callerRunsCounter.increment();
+            applyBatch(List.of(compensation));
+            return compensation.future;
+        }
+        scheduleDrain();
+        return compensation.future;
+    }
+    
+    /**
+     * Reverses failed submissions some time after they failed, e.g. when replaying the dead letter queue.
+     * Putting the trade orders back to the state captured at the time would undo whatever happened to
+     * them since, so instead each trade order has the quantity of its execution taken back off what it
+     * has sent now. Executions the execution service has received since, or that no longer exist, are
+     * left alone. The batch is applied in one transaction, or one event at a time if that fails; events
+     * that still cannot be applied are sent back to the dead letter queue.
+     * 
+     * @param events The dead-lettered failures to reverse
+     * @return number of events reversed, failed and skipped
+     */
+    public int[] reverseFailedSubmissions(List<CompensationFailedEvent> events) {
+        try {
+            Integer reversed = transactionTemplate.execute(status -> reverseSetBased(events));
+            compensatedCounter.increment(reversed);
+            return new int[] {reversed, 0, events.size() - reversed};
+        } catch (Exception e) {
+            logger.warn("Batched reversal of {} failed submissions failed, reversing individually: {}", 
+                    events.size(), e.getMessage());
+        }
+        
+        int reversed = 0;
+        int failed = 0;
+        for (CompensationFailedEvent event : events) {
+            try {
+                reversed += transactionTemplate.execute(status -> reverseSetBased(List.of(event)));
+            } catch (Exception e) {
+                logger.error("Failed to reverse submission of execution {} to trade order {}: {}", 
+                        event.getExecutionId(), event.getTradeOrderId(), e.getMessage());
+                failed++;
+                deadLetteredCounter.increment();
+                sendToDeadLetterQueue(event.getExecutionId(), new TradeOrderState(event.getTradeOrderId(),
+                        event.getOriginalQuantitySent(), event.getOriginalSubmittedStatus()), e);
+            }
+        }
+        compensatedCounter.increment(reversed);
+        return new int[] {reversed, failed, events.size() - reversed - failed};
+    }
+    
+    /**
+     * Number of compensations waiting to be applied
+     */
+    public int getQueuedCount() {
+        return pending.size();
+    }
+    
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compensationExecutor.execute(this::drain);
+        } catch (RuntimeException e) {
+            logger.warn("Compensation executor refused drain, draining on caller: {}", e.getMessage());
+            drain();
+        }
+    }
+    
+    private void drain() {
+        try {
+            while (true) {
+                List<PendingCompensation> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size()));
+                pending.drainTo(batch, maxBatchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                applyBatch(batch);
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+        // A compensation queued between the last poll and the reset would otherwise wait for the next one
+        if (!pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+    
+    /**
+     * Apply a batch of compensations in one transaction, falling back to one transaction per
+     * compensation if the batch as a whole cannot be applied.
+     */
+    private void applyBatch(List<PendingCompensation> batch) {
+        List<PendingCompensation> batchable = new ArrayList<>(batch.size());
+        List<PendingCompensation> individual = new ArrayList<>();
+        for (PendingCompensation compensation : batch) {
+            TradeOrderState state = compensation.state;
+            if (compensation.executionId == null || state.getTradeOrderId() == null || state.getQuantitySent() == null) {
+                individual.add(compensation);
+            } else {
+                batchable.add(compensation);
+            }
+        }
+        
+        if (!batchable.isEmpty()) {
             try {
-                // Create compensation record for tracking
-                CompensationRecord compensationRecord = createCompensationRecord(execution, originalTradeOrderState);
-                
-                // Step 1: Delete the execution record (separate transaction)
-                deleteExecutionRecord(execution.getId());
-                logger.debug("Deleted execution record {} during compensation", execution.getId());
-                
-                // Step 2: Restore trade order state (separate transaction)
-                restoreTradeOrderState(originalTradeOrderState);
-                logger.debug("Restored trade order {} state during compensation", originalTradeOrderState.getTradeOrderId());
-                
-                // Step 3: Mark compensation as successful
-                markCompensationSuccessful(compensationRecord);
-                
-                logger.debug("Successfully completed async compensation for execution {} and trade order {}", 
-                        execution.getId(), originalTradeOrderState.getTradeOrderId());
-                
-            } catch (Exception compensationException) {
-                logger.error("CRITICAL: Failed to perform async compensation for execution {} and trade order {}: {}", 
-                        execution.getId(), originalTradeOrderState.getTradeOrderId(), 
-                        compensationException.getMessage(), compensationException);
-                
-                // Send to dead letter queue for manual intervention
-                sendToDeadLetterQueue(execution, originalTradeOrderState, compensationException);
+                transactionTemplate.executeWithoutResult(status -> applySetBased(batchable));
+                compensatedCounter.increment(batchable.size());
+                batchable.forEach(compensation -> compensation.future.complete(null));
+                logger.debug("Compensated {} failed submissions in one batch", batchable.size());
+            } catch (Exception e) {
+                logger.warn("Batched compensation of {} executions failed, compensating individually: {}", 
+                        batchable.size(), e.getMessage());
+                individual.addAll(batchable);
+            }
+        }
+        individual.forEach(this::applyIndividually);
+    }
+    
+    private void applySetBased(List<PendingCompensation> batch) {
+        List<Integer> executionIds = new ArrayList<>(batch.size());
+        List<SubmissionState> states = new ArrayList<>(batch.size());
+        for (PendingCompensation compensation : batch) {
+            executionIds.add(compensation.executionId);
+            states.add(new SubmissionState(compensation.state.getTradeOrderId(), 
+                    compensation.state.getQuantitySent(), compensation.state.getSubmitted()));
+        }
+        
+        executionRepository.deleteAllByIdInBatch(executionIds);
+        boolean[] restored = tradeOrderRepository.restoreSubmissionStates(states);
+        for (int i = 0; i < restored.length; i++) {
+            if (!restored[i]) {
+                // Roll the batch back so the individual pass reports exactly which trade order is missing
+                throw new CompensationException("TradeOrder not found during compensation: " + states.get(i).getTradeOrderId());
+            }
+        }
+    }
+    
+    /**
+     * Delete the still unsubmitted executions and take their quantities back off their trade orders
+     * @return number of executions reversed
+     */
+    private int reverseSetBased(List<CompensationFailedEvent> events) {
+        List<Integer> ids = events.stream().map(CompensationFailedEvent::getExecutionId).toList();
+        List<Execution> unsubmitted = executionRepository.findUnsubmittedForUpdate(ids);
+        if (unsubmitted.isEmpty()) {
+            return 0;
+        }
+        
+        List<Integer> executionIds = new ArrayList<>(unsubmitted.size());
+        List<SubmissionReversal> reversals = new ArrayList<>(unsubmitted.size());
+        for (Execution execution : unsubmitted) {
+            executionIds.add(execution.getId());
+            reversals.add(new SubmissionReversal(execution.getTradeOrder().getId(), execution.getQuantityOrdered()));
+        }
+        executionRepository.deleteAllByIdInBatch(executionIds);
+        boolean[] reversed = tradeOrderRepository.reverseSubmissions(reversals);
+        for (int i = 0; i < reversed.length; i++) {
+            if (!reversed[i]) {
+                throw new CompensationException("TradeOrder " + reversals.get(i).getTradeOrderId()
+                        + " not found or has sent less than execution " + executionIds.get(i));
             }
-        });
+        }
+        return unsubmitted.size();
+    }
+    
+    private void applyIndividually(PendingCompensation compensation) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deleteExecutionRecord(compensation.executionId));
+            transactionTemplate.executeWithoutResult(status -> restoreTradeOrderState(compensation.state));
+            compensatedCounter.increment();
+            logger.debug("Successfully completed compensation for execution {} and trade order {}", 
+                    compensation.executionId, compensation.state.getTradeOrderId());
+            compensation.future.complete(null);
+        } catch (Exception compensationException) {
+            logger.error("CRITICAL: Failed to perform async compensation for execution {} and trade order {}: {}", 
+                    compensation.executionId, compensation.state.getTradeOrderId(), 
+                    compensationException.getMessage(), compensationException);
+            
+            // Send to dead letter queue for manual intervention
+            deadLetteredCounter.increment();
+            sendToDeadLetterQueue(compensation.executionId, compensation.state, compensationException);
+            compensation.future.completeExceptionally(compensationException);
+        }
     }
     
     /**
@@ -140,52 +350,17 @@ public class TransactionCompensationHandler {
         }
     }
     
-    /**
-     * Creates a compensation record for tracking compensation operations.
-     * 
-     * @param execution The execution being compensated
-     * @param originalState The original trade order state
-     * @return The created compensation record
-     */
-    private CompensationRecord createCompensationRecord(Execution execution, TradeOrderState originalState) {
-        CompensationRecord record = new CompensationRecord();
-        record.setExecutionId(execution.getId());
-        record.setTradeOrderId(originalState.getTradeOrderId());
-        record.setOriginalQuantitySent(originalState.getQuantitySent());
-        record.setOriginalSubmittedStatus(originalState.getSubmitted());
-        record.setCompensationStartTime(OffsetDateTime.now());
-        record.setStatus(CompensationStatus.IN_PROGRESS);
-        
-        logger.debug("Created compensation record for execution {} and trade order {}", 
-                execution.getId(), originalState.getTradeOrderId());
-        
-        return record;
-    }
-    
-    /**
-     * Marks a compensation as successful.
-     * 
-     * @param compensationRecord The compensation record to mark as successful
-     */
-    private void markCompensationSuccessful(CompensationRecord compensationRecord) {
-        compensationRecord.setStatus(CompensationStatus.COMPLETED);
-        compensationRecord.setCompensationEndTime(OffsetDateTime.now());
-        
-        logger.debug("Marked compensation as successful for execution {} and trade order {}", 
-                compensationRecord.getExecutionId(), compensationRecord.getTradeOrderId());
-    }
-    
     /**
      * Sends failed compensation to dead letter queue for manual intervention.
      * 
-     * @param execution The execution that failed compensation
+     * @param executionId The ID of the execution that failed compensation
      * @param originalState The original trade order state
      * @param exception The exception that caused compensation failure
      */
-    private void sendToDeadLetterQueue(Execution execution, TradeOrderState originalState, Exception exception) {
+    private void sendToDeadLetterQueue(Integer executionId, TradeOrderState originalState, Exception exception) {
         try {
             CompensationFailedEvent event = new CompensationFailedEvent(
-                    execution.getId(),
+                    executionId,
                     originalState.getTradeOrderId(),
                     originalState.getQuantitySent(),
                     originalState.getSubmitted(),
@@ -196,11 +371,11 @@ public class TransactionCompensationHandler {
             deadLetterQueueService.send(event);
             
             logger.error("Sent failed compensation to dead letter queue for execution {} and trade order {}", 
-                    execution.getId(), originalState.getTradeOrderId());
+                    executionId, originalState.getTradeOrderId());
             
         } catch (Exception dlqException) {
             logger.error("CRITICAL: Failed to send compensation failure to dead letter queue for execution {} and trade order {}: {}", 
-                    execution.getId(), originalState.getTradeOrderId(), dlqException.getMessage(), dlqException);
+                    executionId, originalState.getTradeOrderId(), dlqException.getMessage(), dlqException);
             
             // This is a critical failure - compensation failed AND we couldn't queue it for manual intervention
             // In a production system, this should trigger immediate alerts
@@ -227,47 +402,17 @@ public class TransactionCompensationHandler {
     }
     
     /**
-     * Represents a compensation record for tracking compensation operations.
+     * A compensation waiting in the queue
      */
-    private static class CompensationRecord {
-        private Integer executionId;
-        private Integer tradeOrderId;
-        private BigDecimal originalQuantitySent;
-        private Boolean originalSubmittedStatus;
-        private OffsetDateTime compensationStartTime;
-        private OffsetDateTime compensationEndTime;
-        private CompensationStatus status;
-        
-        // Getters and setters
-        public Integer getExecutionId() { return executionId; }
-        public void setExecutionId(Integer executionId) { this.executionId = executionId; }
+    private static final class PendingCompensation {
+        private final Integer executionId;
+        private final TradeOrderState state;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
         
-        public Integer getTradeOrderId() { return tradeOrderId; }
-        public void setTradeOrderId(Integer tradeOrderId) { this.tradeOrderId = tradeOrderId; }
-        
-        public BigDecimal getOriginalQuantitySent() { return originalQuantitySent; }
-        public void setOriginalQuantitySent(BigDecimal originalQuantitySent) { this.originalQuantitySent = originalQuantitySent; }
-        
-        public Boolean getOriginalSubmittedStatus() { return originalSubmittedStatus; }
-        public void setOriginalSubmittedStatus(Boolean originalSubmittedStatus) { this.originalSubmittedStatus = originalSubmittedStatus; }
-        
-        public OffsetDateTime getCompensationStartTime() { return compensationStartTime; }
-        public void setCompensationStartTime(OffsetDateTime compensationStartTime) { this.compensationStartTime = compensationStartTime; }
-        
-        public OffsetDateTime getCompensationEndTime() { return compensationEndTime; }
-        public void setCompensationEndTime(OffsetDateTime compensationEndTime) { this.compensationEndTime = compensationEndTime; }
-        
-        public CompensationStatus getStatus() { return status; }
-        public void setStatus(CompensationStatus status) { this.status = status; }
-    }
-    
-    /**
-     * Status of compensation operations.
-     */
-    private enum CompensationStatus {
-        IN_PROGRESS,
-        COMPLETED,
-        FAILED
+        PendingCompensation(Integer executionId, TradeOrderState state) {
+            this.executionId = executionId;
+            this.state = state;
+        }
     }
     
     /**
@@ -11,7 +11,7 @@ public class SortingUtils {
     
     // Valid sortable fields for TradeOrder
     private static final Set<String> VALID_TRADE_ORDER_SORT_FIELDS = Set.of(
-        "id", "orderId", "orderType", "quantity", "quantitySent", 
+        "id", "orderId", "orderType", "quantity", "quantitySent", "quantityFilled",
         "tradeTimestamp", "submitted", "blotter.abbreviation",
         "security.ticker", "portfolio.name"
     );
@@ -76,18 +76,18 @@ public class SortingUtils {
             }
             
             // Map virtual fields to actual database fields
+            String[] mappedFields;
             if ("TradeOrder".equals(entityName)) {
-                fieldName = mapTradeOrderVirtualField(fieldName);
+                mappedFields = mapTradeOrderVirtualField(fieldName);
             } else if ("Execution".equals(entityName)) {
-                fieldName = mapExecutionVirtualField(fieldName);
+                mappedFields = mapExecutionVirtualField(fieldName);
+            } else {
+                mappedFields = new String[] { fieldName };
             }
             
-            // Handle nested field sorting
-            if (fieldName.contains(".")) {
-                String[] parts = fieldName.split("\\.");
-                sort = sort.and(Sort.by(direction, parts[0] + "." + parts[1]));
-            } else {
-                sort = sort.and(Sort.by(direction, fieldName));
+            // Nested paths (e.g. tradeOrder.securityReference.ticker) are resolved as joins by the repositories
+            for (String mappedField : mappedFields) {
+                sort = sort.and(Sort.by(direction, mappedField));
             }
         }
         
@@ -95,30 +95,32 @@ public class SortingUtils {
     }
     
     /**
-     * Map virtual fields to actual database fields for TradeOrder
+     * Map virtual fields to actual database fields for TradeOrder. Ticker and portfolio name
+     * sort on the replicated reference tables, with the ID as tie-breaker so that rows whose
+     * reference data has not been replicated yet still sort deterministically.
      */
-    private static String mapTradeOrderVirtualField(String fieldName) {
+    private static String[] mapTradeOrderVirtualField(String fieldName) {
         switch (fieldName) {
             case "security.ticker":
-                return "securityId"; // Sort by securityId instead of ticker
+                return new String[] { "securityReference.ticker", "securityId" };
             case "portfolio.name":
-                return "portfolioId"; // Sort by portfolioId instead of name
+                return new String[] { "portfolioReference.name", "portfolioId" };
             default:
-                return fieldName;
+                return new String[] { fieldName };
         }
     }
     
     /**
      * Map virtual fields to actual database fields for Execution
      */
-    private static String mapExecutionVirtualField(String fieldName) {
+    private static String[] mapExecutionVirtualField(String fieldName) {
         switch (fieldName) {
             case "security.ticker":
-                return "tradeOrder.securityId"; // Sort by tradeOrder.securityId instead of ticker
+                return new String[] { "tradeOrder.securityReference.ticker", "tradeOrder.securityId" };
             case "portfolio.name":
-                return "tradeOrder.portfolioId"; // Sort by tradeOrder.portfolioId instead of name
+                return new String[] { "tradeOrder.portfolioReference.name", "tradeOrder.portfolioId" };
             default:
-                return fieldName;
+                return new String[] { fieldName };
         }
     }
     
@@ -0,0 +1,17 @@
+-- V10: Durable retry queue for execution submissions
+-- Executions that could not be sent while the execution service was unavailable wait here
+-- until the retry drainer re-submits them in full batches
+
+CREATE TABLE IF NOT EXISTS execution_retry (
+    execution_id integer NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    next_attempt_at timestamptz NOT NULL,
+    enqueued_at timestamptz NOT NULL,
+    last_error varchar(1000),
+    version integer NOT NULL DEFAULT 0,
+    CONSTRAINT execution_retry_pk PRIMARY KEY (execution_id),
+    CONSTRAINT execution_retry_execution__fk FOREIGN KEY (execution_id)
+        REFERENCES execution (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_execution_retry_next_attempt_at ON execution_retry (next_attempt_at);
@@ -0,0 +1,10 @@
+-- V11: Leases for background jobs
+-- A replica runs a leader-elected job only while it holds the job's lease; a lease that is not
+-- renewed before it expires can be taken over by another replica
+
+CREATE TABLE IF NOT EXISTS job_lease (
+    name varchar(100) NOT NULL,
+    owner varchar(200) NOT NULL,
+    expires_at timestamptz NOT NULL,
+    CONSTRAINT job_lease_pk PRIMARY KEY (name)
+);
@@ -0,0 +1,5 @@
+-- V12: Record when an execution was first handed to the execution service
+-- Reconciliation only re-submits executions with a recorded attempt, so executions created
+-- without submission are never sent on their behalf
+
+ALTER TABLE execution ADD COLUMN IF NOT EXISTS submission_attempted_at timestamptz;
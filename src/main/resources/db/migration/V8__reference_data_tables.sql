@@ -0,0 +1,24 @@
+-- V8: Local replicas of security tickers and portfolio names
+-- Lets the v2 APIs filter, sort and paginate by ticker or portfolio name in a single SQL statement
+
+CREATE TABLE IF NOT EXISTS security_reference (
+    security_id char(24) NOT NULL,
+    ticker varchar(50) NOT NULL,
+    updated_at timestamptz NOT NULL,
+    version integer NOT NULL DEFAULT 0,
+    CONSTRAINT security_reference_pk PRIMARY KEY (security_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_security_reference_ticker ON security_reference (ticker);
+CREATE INDEX IF NOT EXISTS idx_security_reference_upper_ticker ON security_reference (upper(ticker));
+
+CREATE TABLE IF NOT EXISTS portfolio_reference (
+    portfolio_id char(24) NOT NULL,
+    name varchar(200) NOT NULL,
+    updated_at timestamptz NOT NULL,
+    version integer NOT NULL DEFAULT 0,
+    CONSTRAINT portfolio_reference_pk PRIMARY KEY (portfolio_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_reference_name ON portfolio_reference (name);
+CREATE INDEX IF NOT EXISTS idx_portfolio_reference_updated_at ON portfolio_reference (updated_at);
@@ -0,0 +1,24 @@
+-- V9: Per trade order fill rollup, maintained incrementally alongside every execution fill
+-- Lets clients read how much of a trade order is filled from one row instead of summing its executions
+
+ALTER TABLE trade_order ADD COLUMN IF NOT EXISTS quantity_filled decimal(18,8) NOT NULL DEFAULT 0;
+ALTER TABLE trade_order ADD COLUMN IF NOT EXISTS part_filled_count integer NOT NULL DEFAULT 0;
+ALTER TABLE trade_order ADD COLUMN IF NOT EXISTS fully_filled_count integer NOT NULL DEFAULT 0;
+
+-- Backfill from the executions that already exist
+UPDATE trade_order t SET
+    quantity_filled = r.quantity_filled,
+    part_filled_count = r.part_filled_count,
+    fully_filled_count = r.fully_filled_count
+FROM (
+    SELECT e.trade_order_id,
+           SUM(e.quantity_filled) AS quantity_filled,
+           COUNT(*) FILTER (WHERE s.abbreviation = 'PART') AS part_filled_count,
+           COUNT(*) FILTER (WHERE s.abbreviation = 'FULL') AS fully_filled_count
+    FROM execution e
+    JOIN execution_status s ON s.id = e.execution_status_id
+    GROUP BY e.trade_order_id
+) r
+WHERE r.trade_order_id = t.id;
+
+CREATE INDEX IF NOT EXISTS idx_trade_order_quantity_filled ON trade_order (quantity_filled);
@@ -0,0 +1,123 @@
+package org.kasbench.globeco_trade_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.dto.TradeOrderSubmitDTO;
+import org.kasbench.globeco_trade_service.entity.Blotter;
+import org.kasbench.globeco_trade_service.entity.Destination;
+import org.kasbench.globeco_trade_service.entity.Execution;
+import org.kasbench.globeco_trade_service.entity.TradeOrder;
+import org.kasbench.globeco_trade_service.repository.BlotterRepository;
+import org.kasbench.globeco_trade_service.repository.DestinationRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRetryRepository;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Submitting a trade order while the execution service circuit is open parks the execution in the
+ * retry queue: the request is accepted, and both the execution and its retry entry are kept.
+ */
+@AutoConfigureMockMvc
+class TradeOrderSubmitCircuitOpenTest extends AbstractH2Test {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BlotterRepository blotterRepository;
+    @Autowired
+    private DestinationRepository destinationRepository;
+    @Autowired
+    private TradeOrderRepository tradeOrderRepository;
+    @Autowired
+    private ExecutionRepository executionRepository;
+    @Autowired
+    private ExecutionRetryRepository executionRetryRepository;
+    @Autowired
+    @Qualifier("executionServiceCircuitBreaker")
+    private CircuitBreaker circuitBreaker;
+
+    private TradeOrder tradeOrder;
+    private Destination destination;
+
+    @BeforeEach
+    void setUp() {
+        // Submission looks up trade type 1 (BUY) and execution status 1 (NEW) by ID
+        jdbcTemplate.update("MERGE INTO trade_type (id, abbreviation, description, version) KEY (id) VALUES (1, 'BUY', 'Buy', 1)");
+        jdbcTemplate.update("MERGE INTO execution_status (id, abbreviation, description, version) KEY (id) VALUES (1, 'NEW', 'New', 1)");
+
+        Blotter blotter = new Blotter();
+        blotter.setAbbreviation("EQ");
+        blotter.setName("Equity");
+        blotter = blotterRepository.saveAndFlush(blotter);
+
+        destination = new Destination();
+        destination.setAbbreviation("ML");
+        destination.setDescription("Merrill Lynch");
+        destination = destinationRepository.saveAndFlush(destination);
+
+        tradeOrder = new TradeOrder();
+        tradeOrder.setOrderId(ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE));
+        tradeOrder.setPortfolioId("PORT1");
+        tradeOrder.setOrderType("BUY");
+        tradeOrder.setSecurityId("SEC1");
+        tradeOrder.setQuantity(new BigDecimal("100.00"));
+        tradeOrder.setQuantitySent(BigDecimal.ZERO);
+        tradeOrder.setSubmitted(false);
+        tradeOrder.setLimitPrice(new BigDecimal("10.00"));
+        tradeOrder.setTradeTimestamp(OffsetDateTime.now());
+        tradeOrder.setBlotter(blotter);
+        tradeOrder = tradeOrderRepository.saveAndFlush(tradeOrder);
+
+        circuitBreaker.transitionToForcedOpenState();
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void submitTradeOrder_CircuitOpen_KeepsExecutionAndRetryEntry() throws Exception {
+        // Given
+        TradeOrderSubmitDTO dto = new TradeOrderSubmitDTO();
+        dto.setQuantity(new BigDecimal("40.00"));
+        dto.setDestinationId(destination.getId());
+
+        // When
+        String response = mockMvc.perform(post("/api/v1/tradeOrders/{id}/submit", tradeOrder.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.executionServiceId").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        int executionId = objectMapper.readTree(response).get("id").asInt();
+        Execution execution = executionRepository.findById(executionId).orElseThrow();
+        assertThat(execution.getExecutionServiceId()).isNull();
+        assertThat(executionRetryRepository.existsById(executionId)).isTrue();
+        TradeOrder updated = tradeOrderRepository.findById(tradeOrder.getId()).orElseThrow();
+        assertThat(updated.getQuantitySent()).isEqualByComparingTo("40.00");
+    }
+}
@@ -0,0 +1,117 @@
+package org.kasbench.globeco_trade_service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapCacheTest {
+
+    private OffHeapCache<SecurityDTO> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapCache<>(4, 64, Duration.ofMinutes(10), ReferenceDtoCodecs.SECURITY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void putAndGet_RoundTripsValues() {
+        // When
+        cache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+        cache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL.O"));
+
+        // Then
+        assertThat(cache.getIfPresent("ID:SEC001")).isEqualTo(new SecurityDTO("SEC001", "AAPL.O"));
+        assertThat(cache.getIfPresent("ID:SEC002")).isNull();
+        assertThat(cache.estimatedSize()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_FullCacheEvictsUnreferencedEntry() {
+        // Given
+        for (int i = 1; i <= 4; i++) {
+            cache.put("ID:SEC00" + i, new SecurityDTO("SEC00" + i, "T" + i));
+        }
+        // First sweep clears all reference bits and evicts SEC001; touch SEC002 afterwards
+        cache.put("ID:SEC005", new SecurityDTO("SEC005", "T5"));
+        cache.getIfPresent("ID:SEC002");
+
+        // When
+        cache.put("ID:SEC006", new SecurityDTO("SEC006", "T6"));
+
+        // Then
+        assertThat(cache.getIfPresent("ID:SEC001")).isNull();
+        assertThat(cache.getIfPresent("ID:SEC002")).isNotNull();
+        assertThat(cache.getIfPresent("ID:SEC003")).isNull();
+        assertThat(cache.estimatedSize()).isEqualTo(4);
+        assertThat(cache.stats().evictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void put_OversizedValueIsNotCached() {
+        // Given
+        cache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+
+        // When
+        cache.put("ID:SEC001", new SecurityDTO("SEC001", "X".repeat(100)));
+
+        // Then
+        assertThat(cache.getIfPresent("ID:SEC001")).isNull();
+        assertThat(cache.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getIfPresent_ExpiredEntryIsRemoved() {
+        // Given
+        try (OffHeapCache<SecurityDTO> expiring = new OffHeapCache<>(4, 64, Duration.ZERO, ReferenceDtoCodecs.SECURITY)) {
+            expiring.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+
+            // Then
+            assertThat(expiring.getIfPresent("ID:SEC001")).isNull();
+            assertThat(expiring.estimatedSize()).isZero();
+        }
+    }
+
+    @Test
+    void invalidate_RepeatedChurnKeepsIndexConsistent() {
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.put("ID:" + i, new SecurityDTO(String.valueOf(i), "T" + i));
+            if (i % 2 == 0) {
+                cache.invalidate("ID:" + i);
+            }
+        }
+
+        // Then
+        assertThat(cache.estimatedSize()).isEqualTo(4);
+        assertThat(cache.getIfPresent("ID:999")).isEqualTo(new SecurityDTO("999", "T999"));
+        assertThat(cache.getIfPresent("ID:998")).isNull();
+    }
+
+    @Test
+    void asMap_SupportsPutIfAbsentAndIteration() {
+        // Given
+        cache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+
+        // When
+        SecurityDTO existing = cache.asMap().putIfAbsent("ID:SEC001", new SecurityDTO("SEC001", "OTHER"));
+        SecurityDTO absent = cache.asMap().putIfAbsent("ID:SEC002", new SecurityDTO("SEC002", "MSFT"));
+
+        // Then
+        assertThat(existing).isEqualTo(new SecurityDTO("SEC001", "AAPL"));
+        assertThat(absent).isNull();
+        assertThat(Map.copyOf(cache.asMap())).containsOnlyKeys("ID:SEC001", "ID:SEC002");
+    }
+}
@@ -1,5 +1,7 @@
 package org.kasbench.globeco_trade_service.client;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +10,7 @@ import org.kasbench.globeco_trade_service.dto.BatchExecutionResponseDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionPostDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionResultDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionResponseDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionServiceResponseDTO;
 import org.kasbench.globeco_trade_service.service.BulkExecutionErrorHandler;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -47,6 +50,8 @@ class ExecutionServiceClientTest {
     @Mock
     private BulkExecutionErrorHandler errorHandler;
     
+    private CircuitBreaker circuitBreaker;
+    
     private ExecutionServiceClient executionServiceClient;
     
     private static final String BASE_URL = "http://test-execution-service:8084";
@@ -54,7 +59,8 @@ class ExecutionServiceClientTest {
     
     @BeforeEach
     void setUp() {
-        executionServiceClient = new ExecutionServiceClient(restTemplate, retryTemplate, BASE_URL, errorHandler);
+        circuitBreaker = CircuitBreaker.ofDefaults("executionService");
+        executionServiceClient = new ExecutionServiceClient(restTemplate, retryTemplate, BASE_URL, errorHandler, circuitBreaker);
         
         // Setup default error handler behavior
         lenient().when(errorHandler.createExecutionContext(any(), anyInt(), anyInt()))
@@ -104,6 +110,20 @@ class ExecutionServiceClientTest {
         verify(retryTemplate).execute(any());
     }
     
+    @Test
+    void testSubmitBatchOnce_DoesNotUseRetryTemplate() throws Exception {
+        // Arrange
+        BatchExecutionRequestDTO request = createBatchRequest(1);
+        when(restTemplate.postForEntity(eq(BATCH_URL), eq(request), eq(BatchExecutionResponseDTO.class)))
+            .thenThrow(new ResourceAccessException("Connection refused"));
+        
+        // Act & Assert
+        assertThrows(ExecutionServiceClient.ExecutionServiceException.class,
+            () -> executionServiceClient.submitBatchOnce(request));
+        verify(restTemplate, times(1)).postForEntity(BATCH_URL, request, BatchExecutionResponseDTO.class);
+        verifyNoInteractions(retryTemplate);
+    }
+    
     @Test
     void testSubmitBatch_PartialSuccess_Http207() throws Exception {
         // Arrange
@@ -202,6 +222,22 @@ class ExecutionServiceClientTest {
         verify(retryTemplate).execute(any());
     }
     
+    @Test
+    void testSubmitBatch_CircuitOpen_FailsFastWithoutCallingService() throws Exception {
+        // Arrange
+        BatchExecutionRequestDTO request = createBatchRequest(1);
+        circuitBreaker.transitionToOpenState();
+        
+        when(retryTemplate.execute(any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, org.springframework.retry.RetryCallback.class).doWithRetry(retryContext);
+        });
+        
+        // Act & Assert
+        assertTrue(executionServiceClient.isCircuitOpen());
+        assertThrows(CallNotPermittedException.class, () -> executionServiceClient.submitBatch(request));
+        verifyNoInteractions(restTemplate);
+    }
+    
     @Test
     void testSubmitBatch_NullResponse_ThrowsException() throws Exception {
         // Arrange
@@ -628,6 +664,37 @@ class ExecutionServiceClientTest {
         verify(errorHandler).logError(eq(unexpectedErrorInfo), any(), eq(1));
     }
     
+    @Test
+    void testGetExecutions_ReturnsKnownExecutionsKeyedById() {
+        // Arrange
+        String url = BASE_URL + "/api/v1/execution/{id}";
+        ExecutionServiceResponseDTO known = new ExecutionServiceResponseDTO();
+        known.setId(11);
+        known.setExecutionStatus("PART");
+        when(restTemplate.getForObject(url, ExecutionServiceResponseDTO.class, 11)).thenReturn(known);
+        when(restTemplate.getForObject(url, ExecutionServiceResponseDTO.class, 22))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        
+        // Act
+        Map<Integer, ExecutionServiceResponseDTO> result = executionServiceClient.getExecutions(List.of(11, 22));
+        
+        // Assert
+        assertEquals(Map.of(11, known), result);
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        verifyNoInteractions(retryTemplate);
+    }
+    
+    @Test
+    void testGetExecutions_ServerErrorPropagates() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(ExecutionServiceResponseDTO.class), eq(11)))
+            .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        
+        // Act & Assert
+        assertThrows(HttpServerErrorException.class, () -> executionServiceClient.getExecutions(List.of(11)));
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+    
     // Helper methods
     
     private BatchExecutionRequestDTO createBatchRequest(int count) {
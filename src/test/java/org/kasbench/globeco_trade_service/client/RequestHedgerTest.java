@@ -0,0 +1,203 @@
+package org.kasbench.globeco_trade_service.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.ofDefaults("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_SlowPrimaryIsHedgedAndFirstAnswerWins() throws Exception {
+        // Given
+        RequestHedger hedger = createHedger(1.0);
+        warmUp(hedger);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                await(release);
+                return "primary";
+            }
+            return "hedge";
+        });
+        release.countDown();
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(meterRegistry.counter("external.hedge.fired", "downstream", "test").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("external.hedge.won", "downstream", "test").count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_PrimaryRunsOnCallingThreadAndWinningPrimaryCancelsHedge() throws Exception {
+        // Given
+        RequestHedger hedger = createHedger(1.0);
+        warmUp(hedger);
+        Thread caller = Thread.currentThread();
+        CountDownLatch hedgeInterrupted = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Thread[] primaryThread = new Thread[1];
+
+        // When
+        String result = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                primaryThread[0] = Thread.currentThread();
+                return sleepAndReturn(100, "primary");
+            }
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                hedgeInterrupted.countDown();
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("primary");
+        assertThat(primaryThread[0]).isSameAs(caller);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        assertThat(meterRegistry.counter("external.hedge.fired", "downstream", "test").count()).isEqualTo(1);
+        assertThat(hedgeInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void execute_WinningHedgeInterruptsPrimaryAndClearsTheInterrupt() {
+        // Given
+        RequestHedger hedger = createHedger(1.0);
+        warmUp(hedger);
+        AtomicInteger calls = new AtomicInteger();
+        boolean[] primaryInterrupted = new boolean[1];
+
+        // When
+        String result = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                    return "primary";
+                } catch (InterruptedException e) {
+                    primaryInterrupted[0] = true;
+                    throw new IllegalStateException("Request was interrupted");
+                }
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(primaryInterrupted[0]).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void execute_ExhaustedBudgetWaitsForPrimary() {
+        // Given
+        RequestHedger hedger = createHedger(0.0);
+        warmUp(hedger);
+
+        // When
+        String result = hedger.execute(() -> sleepAndReturn(50, "primary"));
+
+        // Then
+        assertThat(result).isEqualTo("primary");
+        assertThat(meterRegistry.counter("external.hedge.fired", "downstream", "test").count()).isZero();
+        assertThat(meterRegistry.counter("external.hedge.denied", "downstream", "test").count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_OpenCircuitBreakerSuppressesHedges() {
+        // Given
+        RequestHedger hedger = createHedger(1.0);
+        warmUp(hedger);
+        circuitBreaker.transitionToOpenState();
+
+        // When
+        String result = hedger.execute(() -> sleepAndReturn(50, "primary"));
+
+        // Then
+        assertThat(result).isEqualTo("primary");
+        assertThat(meterRegistry.counter("external.hedge.fired", "downstream", "test").count()).isZero();
+    }
+
+    @Test
+    void execute_FailureRethrownWhenAllAttemptsFail() {
+        // Given
+        RequestHedger hedger = createHedger(1.0);
+
+        // Then
+        assertThatThrownBy(() -> hedger.execute(() -> {
+            throw new IllegalStateException("Service unavailable");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Service unavailable");
+    }
+
+    @Test
+    void disabled_CallsThroughOnCallingThread() {
+        // Given
+        Thread caller = Thread.currentThread();
+
+        // When
+        Thread thread = RequestHedger.disabled().execute(Thread::currentThread);
+
+        // Then
+        assertThat(thread).isSameAs(caller);
+    }
+
+    private RequestHedger createHedger(double budgetRatio) {
+        return new RequestHedger("test", true, circuitBreaker, executor, meterRegistry,
+                budgetRatio, 10, Duration.ofMillis(5), 64, 64);
+    }
+
+    private void warmUp(RequestHedger hedger) {
+        // Fast samples put the hedge delay at its 5 ms floor
+        for (int i = 0; i < 64; i++) {
+            hedger.execute(() -> "warm");
+        }
+        assertThat(hedger.getHedgeDelayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    private static String sleepAndReturn(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
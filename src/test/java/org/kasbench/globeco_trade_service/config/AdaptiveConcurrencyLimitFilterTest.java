@@ -0,0 +1,150 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AdaptiveConcurrencyLimitFilter and AdaptiveConcurrencyLimiter.
+ * Verifies endpoint classification, load shedding, and limit adaptation.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimitFilter filter;
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdaptiveConcurrencyLimitFilter(
+                () -> new AdaptiveConcurrencyLimiter(10, 10, 100, 10, 1.0, 1.5, 10, 0.5),
+                connectionPoolMonitor, meterRegistry, 0, 2);
+    }
+
+    @Test
+    void testClassify_SplitsApiRequestsByEndpointClass() {
+        assertEquals(AdaptiveConcurrencyLimitFilter.V2_QUERY, filter.classify(new MockHttpServletRequest("GET", "/api/v2/tradeOrders")));
+        assertEquals(AdaptiveConcurrencyLimitFilter.QUERY, filter.classify(new MockHttpServletRequest("GET", "/api/v1/blotters")));
+        assertEquals(AdaptiveConcurrencyLimitFilter.COMMAND, filter.classify(new MockHttpServletRequest("POST", "/api/v1/tradeOrders")));
+        assertNull(filter.classify(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+
+    @Test
+    void testDoFilter_RejectsWithRetryAfterWhenLimitReached() throws IOException, ServletException {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiter(AdaptiveConcurrencyLimitFilter.QUERY);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/blotters"), response, filterChain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(filterChain.getRequest(), "Rejected request should not reach the chain");
+        assertEquals(1.0, meterRegistry.get("http.concurrency.rejected").tag("class", "query").counter().count());
+    }
+
+    @Test
+    void testDoFilter_PriorityLaneBypassesLimit() throws IOException, ServletException {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiter(AdaptiveConcurrencyLimitFilter.COMMAND);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        BulkheadProperties.Lane trading = new BulkheadProperties.Lane();
+        trading.setPatterns(java.util.List.of("/api/**"));
+        trading.setPriority(true);
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getLanes().put("trading", trading);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tradeOrders/1/submit");
+        request.setAttribute(BulkheadFilter.LANE_ATTRIBUTE,
+                new RequestLanes(properties, 10).match("POST", "/api/v1/tradeOrders/1/submit"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void testDoFilter_AdmitsAndReleasesRequestsUnderLimit() throws IOException, ServletException {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/tradeOrders"), response, filterChain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+        assertEquals(0, filter.getLimiter(AdaptiveConcurrencyLimitFilter.COMMAND).getInFlight());
+        verify(connectionPoolMonitor).getThreadsAwaitingConnection();
+    }
+
+    @Test
+    void testLimiter_GrowsWhileLatencyIsStableAndShrinksWhenItRises() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 100, 10, 1.0, 1.5, 10, 0.5);
+
+        // Act - a saturated window at baseline latency
+        runWindow(limiter, 20, TimeUnit.MILLISECONDS.toNanos(10), false);
+        int grown = limiter.getLimit();
+
+        // Act - a saturated window at four times the latency
+        runWindow(limiter, grown, TimeUnit.MILLISECONDS.toNanos(40), false);
+        int shrunk = limiter.getLimit();
+
+        // Assert
+        assertTrue(grown > 20, "Limit should grow at stable latency, was " + grown);
+        assertTrue(shrunk < grown, "Limit should shrink when latency rises, was " + shrunk);
+    }
+
+    @Test
+    void testLimiter_PoolWaitsBackOffTheLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 10, 100, 40, 1.0, 1.5, 10, 0.5);
+
+        // Act
+        runWindow(limiter, 40, TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        // Assert
+        assertEquals(20, limiter.getLimit());
+    }
+
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, long rttNanos, boolean poolWait) {
+        for (int i = 0; i < concurrency; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < concurrency; i++) {
+            limiter.release(rttNanos, poolWait);
+        }
+    }
+}
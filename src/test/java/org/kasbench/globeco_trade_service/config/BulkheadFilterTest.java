@@ -0,0 +1,172 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for BulkheadFilter, RequestLanes and LaneAwareDataSource.
+ * Verifies lane matching, lane admission, and reserved database connections.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkheadFilterTest {
+
+    private RequestLanes requestLanes;
+    private BulkheadFilter filter;
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getLanes().put("trading", lane(List.of("POST /api/v1/tradeOrders/{id}/submit"), 1, 1, true));
+        properties.getLanes().put("crud", lane(List.of("/api/**"), 5, 0, false));
+        requestLanes = new RequestLanes(properties, 3);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new BulkheadFilter(requestLanes, meterRegistry, 2);
+    }
+
+    @Test
+    void testMatch_FirstMatchingLaneWins() {
+        assertEquals("trading", requestLanes.match("POST", "/api/v1/tradeOrders/42/submit").getName());
+        assertEquals("crud", requestLanes.match("GET", "/api/v1/tradeOrders/42").getName());
+        assertNull(requestLanes.match("GET", "/actuator/health"));
+    }
+
+    @Test
+    void testDoFilter_BindsLaneWhileRequestRuns() throws IOException, ServletException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tradeOrders/42/submit");
+        RequestLanes.Lane[] seen = new RequestLanes.Lane[1];
+        MockFilterChain filterChain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen[0] = RequestLanes.currentLane();
+            }
+        };
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertEquals("trading", seen[0].getName());
+        assertSame(seen[0], request.getAttribute(BulkheadFilter.LANE_ATTRIBUTE));
+        assertNull(RequestLanes.currentLane());
+        assertEquals(1, seen[0].getAvailableSlots());
+    }
+
+    @Test
+    void testDoFilter_RejectsWhenLaneIsFull() throws IOException, ServletException {
+        // Arrange
+        RequestLanes.Lane trading = requestLanes.match("POST", "/api/v1/tradeOrders/42/submit");
+        assertTrue(trading.tryEnter());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/tradeOrders/42/submit"), response, filterChain);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(filterChain.getRequest());
+        assertEquals(1.0, meterRegistry.get("http.bulkhead.rejected").tag("lane", "trading").counter().count());
+    }
+
+    @Test
+    void testLaneAwareDataSource_ReservedConnectionsOnlyServeTheirLane() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        LaneAwareDataSource dataSource = new LaneAwareDataSource(targetDataSource, requestLanes, RequestLanes.Pool.WRITE, 10);
+        Connection shared1 = dataSource.getConnection();
+        Connection shared2 = dataSource.getConnection();
+
+        // Act & Assert - the shared budget (3 - 1 reserved) is exhausted for unlaned work
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        // Act & Assert - the trading lane still gets its reserved connection
+        RequestLanes.setCurrentLane(requestLanes.match("POST", "/api/v1/tradeOrders/42/submit"));
+        try {
+            Connection reserved = dataSource.getConnection();
+            assertEquals(0, requestLanes.getLanes().get(0).getAvailableReservedConnections(RequestLanes.Pool.WRITE));
+            reserved.close();
+            reserved.close();
+            assertEquals(1, requestLanes.getLanes().get(0).getAvailableReservedConnections(RequestLanes.Pool.WRITE));
+        } finally {
+            RequestLanes.setCurrentLane(null);
+        }
+
+        shared1.close();
+        shared2.close();
+        assertEquals(2, requestLanes.getAvailableSharedConnections(RequestLanes.Pool.WRITE));
+    }
+
+    @Test
+    void testRequestLanes_RejectsReservingTheWholePool() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getLanes().put("trading", lane(List.of("/api/**"), 1, 0, true));
+        properties.getLanes().get("trading").setReservedConnections(3);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestLanes(properties, 3));
+    }
+
+    @Test
+    void testRequestLanes_SeparateReadPoolHasItsOwnBudget() throws SQLException {
+        // Arrange - 4 write connections (1 reserved for trading), 2 read connections (1 reserved for trading)
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getLanes().put("trading", lane(List.of("POST /api/v1/tradeOrders/{id}/submit"), 1, 1, true));
+        properties.getLanes().get("trading").setReservedReadConnections(1);
+        RequestLanes splitLanes = new RequestLanes(properties, 4, 2);
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        LaneAwareDataSource readDataSource = new LaneAwareDataSource(targetDataSource, splitLanes, RequestLanes.Pool.READ, 10);
+
+        // Act
+        Connection read = readDataSource.getConnection();
+
+        // Assert - unlaned reads exhaust the read budget while the write budget is untouched
+        assertThrows(SQLTransientConnectionException.class, readDataSource::getConnection);
+        assertEquals(0, splitLanes.getAvailableSharedConnections(RequestLanes.Pool.READ));
+        assertEquals(3, splitLanes.getAvailableSharedConnections(RequestLanes.Pool.WRITE));
+        assertEquals(1, splitLanes.getLanes().get(0).getAvailableReservedConnections(RequestLanes.Pool.READ));
+        read.close();
+        assertEquals(1, splitLanes.getAvailableSharedConnections(RequestLanes.Pool.READ));
+    }
+
+    @Test
+    void testRequestLanes_RejectsReservingTheWholeReadPool() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getLanes().put("trading", lane(List.of("/api/**"), 1, 1, true));
+        properties.getLanes().get("trading").setReservedReadConnections(2);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestLanes(properties, 4, 2));
+    }
+
+    private BulkheadProperties.Lane lane(List<String> patterns, int maxConcurrent, int reservedConnections, boolean priority) {
+        BulkheadProperties.Lane lane = new BulkheadProperties.Lane();
+        lane.setPatterns(patterns);
+        lane.setMaxConcurrent(maxConcurrent);
+        lane.setReservedConnections(reservedConnections);
+        lane.setPriority(priority);
+        return lane;
+    }
+}
@@ -0,0 +1,89 @@
+package org.kasbench.globeco_trade_service.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConnectionHoldTimeMetricsTrackerFactory.
+ * Verifies that pool usage is recorded as hold time tagged by endpoint, alongside Hikari's own metrics.
+ */
+class ConnectionHoldTimeMetricsTrackerFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IMetricsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ConnectionHoldTimeMetricsTrackerFactory(meterRegistry).create("write-pool", new PoolStats(0) {
+            @Override
+            protected void update() {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        tracker.close();
+    }
+
+    @Test
+    void testHoldTime_TaggedWithMappedEndpoint() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/executions");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v2/executions");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Act
+        tracker.recordConnectionUsageMillis(40);
+
+        // Assert
+        Timer timer = meterRegistry.find("db.connection.hold")
+                .tag("pool", "write-pool")
+                .tag("endpoint", "GET /api/v2/executions")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(40, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void testHoldTime_OutsideRequestTaggedBackground() {
+        // Act
+        tracker.recordConnectionUsageMillis(5);
+
+        // Assert
+        Timer timer = meterRegistry.find("db.connection.hold")
+                .tag("endpoint", ConnectionHoldTimeMetricsTrackerFactory.BACKGROUND)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testHikariPoolMetrics_StillRecorded() {
+        // Act
+        tracker.recordConnectionUsageMillis(5);
+        tracker.recordConnectionTimeout();
+
+        // Assert
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", "write-pool").timer();
+        assertNotNull(usage);
+        assertEquals(1, usage.count());
+        assertEquals(1, meterRegistry.get("hikaricp.connections.timeout").counter().count());
+    }
+}
@@ -9,9 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
 
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
@@ -190,4 +193,37 @@ class ConnectionPoolMonitorTest {
         // Assert
         assertEquals("0.00%", health.getDetails().get("utilizationPercentage"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadAndWritePools_BothMonitored() {
+        // Arrange - the write pool is idle, the read pool has threads waiting
+        HikariDataSource readDataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean readPoolMXBean = mock(HikariPoolMXBean.class);
+        when(dataSource.getPoolName()).thenReturn("trade-write-pool");
+        when(dataSource.getHikariPoolMXBean()).thenReturn(poolMXBean);
+        when(poolMXBean.getActiveConnections()).thenReturn(2);
+        when(poolMXBean.getTotalConnections()).thenReturn(12);
+        when(poolMXBean.getThreadsAwaitingConnection()).thenReturn(0);
+        when(readDataSource.getPoolName()).thenReturn("trade-read-pool");
+        when(readDataSource.getHikariPoolMXBean()).thenReturn(readPoolMXBean);
+        when(readPoolMXBean.getActiveConnections()).thenReturn(8);
+        when(readPoolMXBean.getTotalConnections()).thenReturn(8);
+        when(readPoolMXBean.getThreadsAwaitingConnection()).thenReturn(12);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<javax.sql.DataSource> dataSources = mock(ObjectProvider.class);
+        when(dataSources.orderedStream()).thenReturn(Stream.of(dataSource, readDataSource, dataSource));
+
+        connectionPoolMonitor = new ConnectionPoolMonitor(dataSources, meterRegistry);
+
+        // Act
+        Health health = connectionPoolMonitor.health();
+
+        // Assert
+        assertEquals(12, connectionPoolMonitor.getThreadsAwaitingConnection());
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("Connection pool under severe stress", health.getDetails().get("reason"));
+        assertEquals(Status.UP, ((Health) health.getDetails().get("trade-write-pool")).getStatus());
+        assertEquals(Status.DOWN, ((Health) health.getDetails().get("trade-read-pool")).getStatus());
+        assertEquals(8.0, meterRegistry.get("hikari.connections.active").tag("pool", "trade-read-pool").gauge().value());
+    }
+}
@@ -0,0 +1,100 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NotifyingCacheManagerTest {
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private ConcurrentMapCacheManager localCacheManager;
+    private NotifyingCacheManager notifyingCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        localCacheManager = new ConcurrentMapCacheManager("blotters", "tradeOrders");
+        notifyingCacheManager = new NotifyingCacheManager(localCacheManager, invalidationBus);
+    }
+
+    @Test
+    void clear_EvictsLocallyAndPublishes() {
+        // Given
+        Cache cache = notifyingCacheManager.getCache("blotters");
+        cache.put(1, "Default");
+
+        // When
+        cache.clear();
+
+        // Then
+        assertThat(localCacheManager.getCache("blotters").get(1)).isNull();
+        verify(invalidationBus).publish(eq("blotters"), isNull());
+    }
+
+    @Test
+    void evict_PublishesKey() {
+        // When
+        notifyingCacheManager.getCache("tradeOrders").evict(42);
+
+        // Then
+        verify(invalidationBus).publish("tradeOrders", 42);
+    }
+
+    @Test
+    void put_DoesNotPublish() {
+        // When
+        notifyingCacheManager.getCache("tradeOrders").put(42, "order");
+
+        // Then
+        verify(invalidationBus, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void apply_RemoteMessageUpdatesLocalCacheOnly() {
+        // Given
+        CacheInvalidationBus bus = new CacheInvalidationBus(
+                mock(DataSource.class), new DataSourceProperties(),
+                new SimpleMeterRegistry(), "cache_invalidation", 1000, 5000);
+        bus.setLocalCacheManager(localCacheManager);
+        localCacheManager.getCache("tradeOrders").put(42, "order");
+        localCacheManager.getCache("tradeOrders").put(43, "other order");
+        localCacheManager.getCache("blotters").put(1, "Default");
+
+        // When
+        bus.apply("remote01|tradeOrders|I:42");
+        bus.apply("remote01|blotters|*");
+
+        // Then
+        assertThat(localCacheManager.getCache("tradeOrders").get(42)).isNull();
+        assertThat(localCacheManager.getCache("tradeOrders").get(43)).isNotNull();
+        assertThat(localCacheManager.getCache("blotters").get(1)).isNull();
+    }
+
+    @Test
+    void keyEncoding_RoundTripsSupportedTypes() {
+        assertThat(CacheInvalidationBus.decodeKey(CacheInvalidationBus.encodeKey(42))).isEqualTo(42);
+        assertThat(CacheInvalidationBus.decodeKey(CacheInvalidationBus.encodeKey(42L))).isEqualTo(42L);
+        assertThat(CacheInvalidationBus.decodeKey(CacheInvalidationBus.encodeKey("AAPL"))).isEqualTo("AAPL");
+        assertThat(CacheInvalidationBus.encodeKey(null)).isEqualTo(CacheInvalidationBus.ALL_ENTRIES);
+        assertThat(CacheInvalidationBus.decodeKey(CacheInvalidationBus.ALL_ENTRIES)).isNull();
+    }
+}
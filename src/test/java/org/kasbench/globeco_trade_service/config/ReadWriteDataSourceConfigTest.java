@@ -0,0 +1,101 @@
+package org.kasbench.globeco_trade_service.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ReadWriteDataSourceConfig.
+ * Verifies that read-only connections and transactions are taken from the read pool and all others from the write pool.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReadWriteDataSourceConfigTest {
+
+    @Mock
+    private DataSource writeDataSource;
+
+    @Mock
+    private DataSource readDataSource;
+
+    @Mock
+    private Connection writeConnection;
+
+    @Mock
+    private Connection readConnection;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReadWriteDataSourceConfig().dataSource(writeDataSource, readDataSource);
+    }
+
+    @Test
+    void testReadOnlyConnection_UsesReadPool() throws SQLException {
+        // Arrange
+        when(readDataSource.getConnection()).thenReturn(readConnection);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        // Assert
+        verify(readConnection).createStatement();
+        verify(writeDataSource, never()).getConnection();
+    }
+
+    @Test
+    void testReadWriteConnection_UsesWritePool() throws SQLException {
+        // Arrange
+        when(writeDataSource.getConnection()).thenReturn(writeConnection);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        // Assert
+        verify(writeConnection).createStatement();
+        verify(readDataSource, never()).getConnection();
+    }
+
+    @Test
+    void testReadOnlyTransaction_UsesReadPoolWithoutReadOnlyConnection() throws SQLException {
+        // Arrange - Hibernate does not mark the connection read-only unless it holds it for the whole session
+        when(readDataSource.getConnection()).thenReturn(readConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        // Assert
+        verify(readConnection).createStatement();
+        verify(writeDataSource, never()).getConnection();
+    }
+
+    @Test
+    void testUnusedConnection_NeverTouchesEitherPool() throws SQLException {
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+        }
+
+        // Assert
+        verifyNoInteractions(writeDataSource, readDataSource);
+    }
+}
@@ -0,0 +1,79 @@
+package org.kasbench.globeco_trade_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.AbstractH2Test;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only transactions run through the JPA transaction manager take their connection from the
+ * read pool, and all others from the write pool, with Hibernate releasing connections after each
+ * transaction.
+ */
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "datasource.routing.enabled=true",
+    "datasource.routing.write.maximum-pool-size=4",
+    "datasource.routing.write.statement-timeout-ms=0",
+    "datasource.routing.read.maximum-pool-size=2",
+    "datasource.routing.read.statement-timeout-ms=0",
+    "spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION"
+})
+class ReadWriteRoutingIntegrationTest extends AbstractH2Test {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("writeDataSource")
+    private HikariDataSource writePool;
+    @Autowired
+    @Qualifier("readDataSource")
+    private HikariDataSource readPool;
+    @Autowired
+    private TradeOrderRepository tradeOrderRepository;
+
+    @Test
+    void readOnlyTransaction_UsesReadPool() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        // When
+        int[] activeConnections = transactionTemplate.execute(status -> {
+            tradeOrderRepository.count();
+            return new int[] {activeConnections(writePool), activeConnections(readPool)};
+        });
+
+        // Then
+        assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+        assertThat(activeConnections).containsExactly(0, 1);
+    }
+
+    @Test
+    void readWriteTransaction_UsesWritePool() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        int[] activeConnections = transactionTemplate.execute(status -> {
+            tradeOrderRepository.count();
+            return new int[] {activeConnections(writePool), activeConnections(readPool)};
+        });
+
+        // Then
+        assertThat(activeConnections).containsExactly(1, 0);
+    }
+
+    private static int activeConnections(HikariDataSource pool) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        return poolBean != null ? poolBean.getActiveConnections() : 0;
+    }
+}
@@ -0,0 +1,183 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReplicaRoutingDataSource.
+ * Uses two in-memory databases standing in for the primary and the replica, each holding a row
+ * that identifies it, so tests can see which database served a connection.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_NAME = "primary";
+    private static final String REPLICA_NAME = "replica";
+
+    private DataSource primary;
+    private DataSource replica;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("routing_primary", PRIMARY_NAME);
+        replica = database("routing_replica", REPLICA_NAME);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.endRoute(null);
+    }
+
+    @Test
+    void testNoRoute_UsesPrimary() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(lagMonitor("SELECT 0", 1000));
+
+        // Act & Assert
+        assertEquals(PRIMARY_NAME, whichDatabase(routing));
+    }
+
+    @Test
+    void testReplicaRoute_UsesReplicaWithinLag() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(lagMonitor("SELECT 200", 1000));
+
+        // Act
+        ReplicaRoutingDataSource.beginRoute("getTradeOrdersV2");
+        String database = whichDatabase(routing);
+
+        // Assert
+        assertEquals(REPLICA_NAME, database);
+        assertEquals(ReplicaRoutingDataSource.REPLICA, ReplicaRoutingDataSource.currentTarget());
+        assertEquals(1.0, meterRegistry.get("datasource.route.connections")
+                .tag("route", "getTradeOrdersV2").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void testReplicaRoute_FallsBackToPrimaryWhenLagging() throws SQLException {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(lagMonitor("SELECT 5000", 1000));
+
+        // Act
+        ReplicaRoutingDataSource.beginRoute("getTradeOrdersV2");
+        String database = whichDatabase(routing);
+
+        // Assert
+        assertEquals(PRIMARY_NAME, database);
+        assertEquals(1.0, meterRegistry.get("datasource.route.connections")
+                .tag("route", "getTradeOrdersV2").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    void testReplicaRoute_FallsBackToPrimaryWhenLagCheckFails() throws SQLException {
+        // Arrange
+        ReplicaLagMonitor lagMonitor = lagMonitor("SELECT missing_column FROM replica_marker", 1000);
+
+        // Act
+        ReplicaRoutingDataSource.beginRoute("getExecutionsV2");
+        String database = whichDatabase(routing(lagMonitor));
+
+        // Assert
+        assertEquals(PRIMARY_NAME, database);
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(-1, lagMonitor.getLagMs());
+    }
+
+    @Test
+    void testReplicaRoute_NotUsableBeforeFirstCheck() {
+        // Arrange
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, meterRegistry, "SELECT 0", 1000, 1000);
+
+        // Act & Assert
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void testAspect_RoutesAnnotatedMethodAndRecordsTarget() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(lagMonitor("SELECT 0", 1000));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Endpoints(routing));
+        proxyFactory.addAspect(new ReplicaRoutingAspect(meterRegistry));
+        Endpoints endpoints = proxyFactory.getProxy();
+
+        // Act
+        String replicaRead = endpoints.search();
+        String primaryRead = endpoints.refetch();
+
+        // Assert
+        assertEquals(REPLICA_NAME, replicaRead);
+        assertEquals(PRIMARY_NAME, primaryRead);
+        assertNull(ReplicaRoutingDataSource.currentTarget());
+        assertEquals(1, meterRegistry.get("datasource.route.requests")
+                .tag("route", "orders.search").tag("target", "replica").timer().count());
+    }
+
+    static class Endpoints {
+        private final DataSource dataSource;
+
+        Endpoints(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @ReplicaRead("orders.search")
+        public String search() {
+            return query();
+        }
+
+        public String refetch() {
+            return query();
+        }
+
+        private String query() {
+            try {
+                return whichDatabase(dataSource);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replica, primary, lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private ReplicaLagMonitor lagMonitor(String lagQuery, long maxLagMs) {
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, meterRegistry, lagQuery, maxLagMs, 60000);
+        lagMonitor.check();
+        return lagMonitor;
+    }
+
+    private static DataSource database(String name, String marker) throws SQLException {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_marker (name VARCHAR(20))");
+            statement.execute("DELETE FROM replica_marker");
+            statement.execute("INSERT INTO replica_marker VALUES ('" + marker + "')");
+        }
+        return dataSource;
+    }
+
+    private static String whichDatabase(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM replica_marker")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
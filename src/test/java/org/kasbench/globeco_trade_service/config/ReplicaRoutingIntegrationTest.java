@@ -0,0 +1,85 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.AbstractH2Test;
+import org.kasbench.globeco_trade_service.TradeOrderController;
+import org.kasbench.globeco_trade_service.dto.TradeOrderResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only service transactions of {@link ReplicaRead} endpoints take their connection from the
+ * replica. The replica is the primary's own in-memory database here, so its lag is always zero.
+ */
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "datasource.routing.enabled=true",
+    "datasource.routing.write.statement-timeout-ms=0",
+    "datasource.routing.read.statement-timeout-ms=0",
+    "datasource.replica.enabled=true",
+    "datasource.replica.url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "datasource.replica.statement-timeout-ms=0",
+    "datasource.replica.lag-query=SELECT 0",
+    "spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION"
+})
+class ReplicaRoutingIntegrationTest extends AbstractH2Test {
+    @Autowired
+    private TradeOrderController tradeOrderController;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void checkLag() {
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void replicaReadEndpoint_ReadOnlyServiceTransactionUsesReplica() {
+        // Given
+        double before = routedConnections("replica");
+
+        // When
+        ResponseEntity<TradeOrderResponseDTO> response = tradeOrderController.getTradeOrderById(-1);
+
+        // Then
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(routedConnections("replica") - before).isEqualTo(1.0);
+        assertThat(routedConnections("primary")).isZero();
+    }
+
+    @Test
+    void replicaReadEndpoint_ReplicaResultIsNotCached() {
+        // Given
+        Cache cache = cacheManager.getCache("tradeOrders");
+        cache.evict(-2);
+
+        // When
+        tradeOrderController.getTradeOrderById(-2);
+
+        // Then
+        assertThat(routedConnections("replica")).isPositive();
+        assertThat(cache.get(-2)).isNull();
+    }
+
+    private double routedConnections(String target) {
+        Counter counter = meterRegistry.find("datasource.route.connections")
+                .tag("route", "getTradeOrderById")
+                .tag("target", target)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,70 @@
+package org.kasbench.globeco_trade_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryBudgetTest {
+
+    @Test
+    void tryAcquireRetry_AllowsRetriesInProportionToPrimaryCalls() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RetryBudget budget = new RetryBudget(0.25, 0, 100, meterRegistry);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            budget.recordCall();
+        }
+
+        // Then
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+        assertThat(meterRegistry.get("retry.budget.retries").tag("result", "granted").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("retry.budget.retries").tag("result", "exhausted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tryAcquireRetry_TokensAreCappedAtMaxTokens() {
+        // Given
+        RetryBudget budget = new RetryBudget(1.0, 0, 2, new SimpleMeterRegistry());
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            budget.recordCall();
+        }
+
+        // Then
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    void budgetedRetryPolicy_StopsRetryingOnceBudgetIsExhausted() {
+        // Given
+        RetryBudget budget = new RetryBudget(0.0, 0, 1, new SimpleMeterRegistry());
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new BudgetedRetryPolicy(
+                new SimpleRetryPolicy(5, Map.of(ResourceAccessException.class, true)), budget));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        assertThrows(ResourceAccessException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("connection refused");
+        }));
+
+        // Then - no retries, since the budget starts empty and has no reserve
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
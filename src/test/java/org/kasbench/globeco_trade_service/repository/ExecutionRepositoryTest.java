@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.junit.jupiter.api.Assertions;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -31,6 +33,8 @@ public class ExecutionRepositoryTest extends org.kasbench.globeco_trade_service.
     private TradeOrderRepository tradeOrderRepository;
     @Autowired
     private DestinationRepository destinationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     private Execution buildExecution(Integer executionServiceId) {
         ExecutionStatus status = new ExecutionStatus();
@@ -142,4 +146,46 @@ public class ExecutionRepositoryTest extends org.kasbench.globeco_trade_service.
         results = executionRepository.findAll(spec);
         assertThat(results.size()).isGreaterThanOrEqualTo(3);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testApplyFillsUpdatesOnlyMatchingVersions() {
+        Execution first = buildExecution(null);
+        Execution second = buildExecution(null);
+        Integer statusId = first.getExecutionStatus().getId();
+
+        List<ExecutionRepository.FillState> states = executionRepository.findFillStatesByIdIn(
+                List.of(first.getId(), second.getId()));
+        assertEquals(2, states.size());
+
+        boolean[] applied = new TransactionTemplate(transactionManager).execute(status ->
+                executionRepository.applyFills(List.of(
+                        new ExecutionRepositoryCustom.FillUpdate(first.getId(), first.getVersion(), new BigDecimal("40.00"), statusId),
+                        new ExecutionRepositoryCustom.FillUpdate(second.getId(), second.getVersion() + 1, new BigDecimal("60.00"), statusId))));
+
+        assertArrayEquals(new boolean[] {true, false}, applied);
+        Execution filled = executionRepository.findById(first.getId()).orElseThrow();
+        assertEquals(0, filled.getQuantityFilled().compareTo(new BigDecimal("40.00")));
+        assertEquals(first.getVersion() + 1, filled.getVersion());
+        Execution untouched = executionRepository.findById(second.getId()).orElseThrow();
+        assertEquals(0, untouched.getQuantityFilled().compareTo(BigDecimal.ZERO));
+        assertEquals(second.getVersion(), untouched.getVersion());
+    }
+
+    @Test
+    void testLockFillStatesReadsCurrentState() {
+        Execution first = buildExecution(null);
+        Execution second = buildExecution(null);
+
+        List<ExecutionRepository.FillState> states = new TransactionTemplate(transactionManager).execute(status ->
+                executionRepository.lockFillStates(List.of(second.getId(), first.getId(), second.getId(), -1)));
+
+        assertEquals(2, states.size());
+        assertEquals(first.getId(), states.get(0).getId());
+        assertEquals(second.getId(), states.get(1).getId());
+        assertEquals(first.getVersion(), states.get(0).getVersion());
+        assertEquals(0, states.get(0).getQuantityPlaced().compareTo(new BigDecimal("100.00")));
+        assertEquals(0, states.get(0).getQuantityFilled().compareTo(BigDecimal.ZERO));
+        assertEquals(first.getExecutionStatus().getId(), states.get(0).getExecutionStatusId());
+        assertEquals(first.getTradeOrder().getId(), states.get(0).getTradeOrderId());
+    }
+}
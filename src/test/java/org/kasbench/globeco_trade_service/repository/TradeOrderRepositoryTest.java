@@ -9,8 +9,11 @@ import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.Random;
 
@@ -20,6 +23,8 @@ public class TradeOrderRepositoryTest extends org.kasbench.globeco_trade_service
     private TradeOrderRepository tradeOrderRepository;
     @Autowired
     private BlotterRepository blotterRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     private TradeOrder tradeOrder;
     private Blotter blotter;
@@ -79,6 +84,53 @@ public class TradeOrderRepositoryTest extends org.kasbench.globeco_trade_service
         tradeOrder = null; // Prevent double delete in @AfterEach
     }
 
+    @Test
+    void testApplyFillRollupsAddsDeltasWithoutBumpingVersion() {
+        tradeOrder = createTradeOrder();
+        Integer id = tradeOrder.getId();
+        Integer version = tradeOrderRepository.findById(id).orElseThrow().getVersion();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> tradeOrderRepository.applyFillRollups(List.of(
+                new TradeOrderRepositoryCustom.FillRollupDelta(id, new BigDecimal("40.00"), 1, 0))));
+        transactionTemplate.executeWithoutResult(status -> tradeOrderRepository.applyFillRollups(List.of(
+                new TradeOrderRepositoryCustom.FillRollupDelta(id, new BigDecimal("60.25"), -1, 1))));
+
+        TradeOrder found = tradeOrderRepository.findById(id).orElseThrow();
+        Assertions.assertEquals(0, found.getQuantityFilled().compareTo(new BigDecimal("100.25")));
+        Assertions.assertEquals(0, found.getPartFilledCount());
+        Assertions.assertEquals(1, found.getFullyFilledCount());
+        Assertions.assertEquals(version, found.getVersion());
+
+        // Saving a stale entity leaves the rollup alone
+        tradeOrder.setOrderType("SELL");
+        tradeOrder.setVersion(found.getVersion());
+        tradeOrderRepository.saveAndFlush(tradeOrder);
+        Assertions.assertEquals(0, tradeOrderRepository.findById(id).orElseThrow()
+                .getQuantityFilled().compareTo(new BigDecimal("100.25")));
+    }
+
+    @Test
+    void testReverseSubmissionsTakesQuantityBackOffWhatWasSent() {
+        tradeOrder = createTradeOrder();
+        Integer id = tradeOrder.getId();
+        tradeOrder.setQuantitySent(new BigDecimal("100.25"));
+        tradeOrder.setSubmitted(true);
+        tradeOrderRepository.saveAndFlush(tradeOrder);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        boolean[] reversed = transactionTemplate.execute(status -> tradeOrderRepository.reverseSubmissions(List.of(
+                new TradeOrderRepositoryCustom.SubmissionReversal(id, new BigDecimal("40.00")),
+                new TradeOrderRepositoryCustom.SubmissionReversal(id, new BigDecimal("70.00")))));
+
+        // The second reversal would take more than is left, so it is refused
+        Assertions.assertArrayEquals(new boolean[] {true, false}, reversed);
+        TradeOrder found = tradeOrderRepository.findById(id).orElseThrow();
+        Assertions.assertEquals(0, found.getQuantitySent().compareTo(new BigDecimal("60.25")));
+        Assertions.assertEquals(false, found.getSubmitted());
+        tradeOrder = found;
+    }
+
     @Test
     @Disabled("Optimistic concurrency tests disabled for H2 - functionality verified in production")
     void testOptimisticConcurrency() {
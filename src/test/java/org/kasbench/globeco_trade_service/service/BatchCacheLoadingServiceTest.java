@@ -2,6 +2,8 @@ package org.kasbench.globeco_trade_service.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,8 +13,10 @@ import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
 import org.kasbench.globeco_trade_service.dto.SecurityDTO;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -33,6 +37,8 @@ class BatchCacheLoadingServiceTest {
 
     private Cache<String, SecurityDTO> securityCache;
     private Cache<String, PortfolioDTO> portfolioCache;
+    private ThreadPoolTaskExecutor enrichmentExecutor;
+    private SimpleMeterRegistry meterRegistry;
     private BatchCacheLoadingService batchCacheLoadingService;
 
     @BeforeEach
@@ -49,14 +55,31 @@ class BatchCacheLoadingServiceTest {
                 .recordStats()
                 .build();
 
+        enrichmentExecutor = new ThreadPoolTaskExecutor();
+        enrichmentExecutor.setCorePoolSize(4);
+        enrichmentExecutor.setMaxPoolSize(4);
+        enrichmentExecutor.setQueueCapacity(10);
+        enrichmentExecutor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+
         batchCacheLoadingService = new BatchCacheLoadingService(
                 securityServiceClient,
                 portfolioServiceClient,
                 securityCache,
-                portfolioCache
+                portfolioCache,
+                new ReferenceDataIndex(100, 1),
+                enrichmentExecutor,
+                meterRegistry,
+                4
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        enrichmentExecutor.shutdown();
+    }
+
     @Test
     void testBatchLoadSecurities_Success() throws Exception {
         // Given
@@ -233,4 +256,81 @@ class BatchCacheLoadingServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get("SEC001").getSecurityId()).isEqualTo("SEC001"); // Fallback
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadPageEnrichment_ResolvesSecuritiesAndPortfolios() {
+        // Given
+        securityCache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+        when(securityServiceClient.findSecurityById("SEC002"))
+                .thenReturn(Optional.of(new SecurityDTO("SEC002", "GOOGL")));
+        when(portfolioServiceClient.findPortfolioById("PORT001"))
+                .thenReturn(Optional.of(new PortfolioDTO("PORT001", "Main Portfolio")));
+
+        // When
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+                Set.of("SEC001", "SEC002"), Set.of("PORT001"), Duration.ofSeconds(5));
+
+        // Then
+        assertThat(enrichment.getSecurityCount()).isEqualTo(2);
+        assertThat(enrichment.getSecurity("SEC001").getTicker()).isEqualTo("AAPL");
+        assertThat(enrichment.getSecurity("SEC002").getTicker()).isEqualTo("GOOGL");
+        assertThat(enrichment.getPortfolio("PORT001").getName()).isEqualTo("Main Portfolio");
+        assertThat(enrichment.getSecurity(null)).isNull();
+    }
+
+    @Test
+    void testLoadPageEnrichment_TimeoutUsesFallbacks() {
+        // Given
+        when(securityServiceClient.findSecurityById("SEC001")).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return Optional.of(new SecurityDTO("SEC001", "AAPL"));
+        });
+
+        // When
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+                Set.of("SEC001"), Set.of(), Duration.ofMillis(50));
+
+        // Then
+        assertThat(enrichment.getSecurityCount()).isZero();
+        assertThat(enrichment.getSecurity("SEC001").getSecurityId()).isEqualTo("SEC001");
+        assertThat(enrichment.getSecurity("SEC001").getTicker()).isEqualTo("SEC001");
+        assertThat(meterRegistry.counter("enrichment.deadline.exceeded").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("enrichment.lookups.cancelled").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testLoadPageEnrichment_SaturatedExecutorUsesFallbacks() {
+        // Given
+        enrichmentExecutor.shutdown();
+
+        // When
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+                Set.of("SEC001"), Set.of("PORT001"), Duration.ofSeconds(5));
+
+        // Then
+        assertThat(enrichment.getSecurity("SEC001").getTicker()).isEqualTo("SEC001");
+        assertThat(enrichment.getPortfolio("PORT001").getName()).isEqualTo("PORT001");
+        assertThat(meterRegistry.counter("enrichment.lookups.rejected").count()).isEqualTo(2.0);
+        assertThat(securityCache.getIfPresent("ID:SEC001")).isNull();
+    }
+
+    @Test
+    void testLoadPageEnrichment_PageLargerThanExecutorQueueIsDispatchedInWindows() {
+        // Given
+        Set<String> securityIds = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            String id = "SEC" + i;
+            securityIds.add(id);
+            when(securityServiceClient.findSecurityById(id)).thenReturn(Optional.of(new SecurityDTO(id, "T" + i)));
+        }
+
+        // When
+        BatchCacheLoadingService.PageEnrichment enrichment = batchCacheLoadingService.loadPageEnrichment(
+                securityIds, Set.of(), Duration.ofSeconds(5));
+
+        // Then
+        assertThat(enrichment.getSecurityCount()).isEqualTo(40);
+        assertThat(enrichment.getSecurity("SEC39").getTicker()).isEqualTo("T39");
+        assertThat(meterRegistry.counter("enrichment.lookups.rejected").count()).isZero();
+    }
+}
@@ -1,5 +1,7 @@
 package org.kasbench.globeco_trade_service.service;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,7 +50,17 @@ class BulkExecutionSubmissionServiceTest {
     @BeforeEach
     void setUp() {
         service = new BulkExecutionSubmissionService(
-            executionRepository, batchProcessor, executionServiceClient, batchProperties, failureHandler, errorHandler);
+            executionRepository, batchProcessor, executionServiceClient, batchProperties, failureHandler, errorHandler,
+            new ExecutionServiceIdIndex(1000));
+        // Every requested execution is unsubmitted and unlocked unless a test says otherwise
+        lenient().when(executionRepository.claimUnsubmittedForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> {
+                Execution execution = new Execution();
+                execution.setId(id);
+                return execution;
+            }).toList();
+        });
     }
 
     @Test
@@ -85,6 +97,8 @@ class BulkExecutionSubmissionServiceTest {
         assertEquals(0, result.getFailed());
         assertEquals("SUCCESS", result.getOverallStatus());
         
+        verify(executionRepository).markSubmissionAttempted(eq(executionIds), any(OffsetDateTime.class));
+        assertTrue(executions.stream().allMatch(execution -> execution.getSubmissionAttemptedAt() != null));
         verify(executionRepository).saveAll(executions);
         verify(batchProcessor).buildBatchRequest(executions);
         verify(executionServiceClient).submitBatch(batchRequest);
@@ -125,6 +139,43 @@ class BulkExecutionSubmissionServiceTest {
         assertEquals("No valid executions found", result.getMessage());
     }
 
+    @Test
+    void submitExecutionsBulk_WithExecutionsClaimedElsewhere_ShouldSubmitOnlyTheRest() {
+        // Arrange
+        Execution claimed = createTestExecutions(List.of(2)).get(0);
+        when(executionRepository.claimUnsubmittedForUpdate(List.of(1, 2))).thenReturn(List.of(claimed));
+        when(executionRepository.findByIdWithAllRelations(2)).thenReturn(Optional.of(claimed));
+        when(batchProperties.isEnableBatching()).thenReturn(true);
+        when(batchProperties.getEffectiveBatchSize()).thenReturn(100);
+        BatchExecutionRequestDTO batchRequest = new BatchExecutionRequestDTO();
+        when(batchProcessor.buildBatchRequest(List.of(claimed))).thenReturn(batchRequest);
+        BatchExecutionResponseDTO response = createSuccessResponse();
+        when(executionServiceClient.submitBatch(batchRequest)).thenReturn(response);
+        when(batchProcessor.processResponse(response, List.of(claimed))).thenReturn(createSuccessResult(List.of(claimed)));
+        
+        // Act
+        BulkSubmitResult result = service.submitExecutionsBulk(List.of(1, 2));
+        
+        // Assert
+        assertEquals(List.of(2), result.getResults().stream().map(ExecutionSubmitResult::getExecutionId).toList());
+        verify(executionRepository, never()).findByIdWithAllRelations(1);
+    }
+
+    @Test
+    void submitExecutionsBulk_WithNoUnsubmittedExecutions_ShouldNotCallExecutionService() {
+        // Arrange
+        when(executionRepository.claimUnsubmittedForUpdate(List.of(1, 2))).thenReturn(List.of());
+        
+        // Act
+        BulkSubmitResult result = service.submitExecutionsBulk(List.of(1, 2));
+        
+        // Assert
+        assertTrue(result.getResults().isEmpty());
+        assertEquals("No unsubmitted executions found", result.getMessage());
+        verify(executionRepository, never()).findByIdWithAllRelations(anyInt());
+        verifyNoInteractions(executionServiceClient);
+    }
+
     @Test
     void submitExecutionsBulk_WithBatchingDisabled_ShouldProcessIndividually() {
         // Arrange
@@ -274,6 +325,33 @@ class BulkExecutionSubmissionServiceTest {
         verify(batchProcessor).processResponse(response, executions);
     }
 
+    @Test
+    void processBatch_WithCircuitOpen_ShouldQueueBatchForRetry() {
+        // Arrange
+        List<Execution> executions = createTestExecutions(Arrays.asList(1, 2));
+        
+        BatchExecutionRequestDTO batchRequest = new BatchExecutionRequestDTO();
+        when(batchProcessor.buildBatchRequest(executions)).thenReturn(batchRequest);
+        
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("executionService");
+        circuitBreaker.transitionToOpenState();
+        when(executionServiceClient.submitBatch(batchRequest))
+            .thenThrow(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        
+        BulkSubmitResult queued = new BulkSubmitResult(2, 0, 2, Arrays.asList(
+            new ExecutionSubmitResult(1, "QUEUED", "Queued for retry", null),
+            new ExecutionSubmitResult(2, "QUEUED", "Queued for retry", null)), "FAILED", "Queued for retry");
+        when(failureHandler.deferExecutions(eq(executions), anyString())).thenReturn(queued);
+        
+        // Act
+        BulkSubmitResult result = service.processBatch(executions);
+        
+        // Assert
+        assertSame(queued, result);
+        verify(batchProcessor, never()).processResponse(any(), any());
+        verify(executionRepository, never()).saveAll(any());
+    }
+
     @Test
     void processBatch_WithNullExecutions_ShouldThrowException() {
         // Act & Assert
@@ -0,0 +1,119 @@
+package org.kasbench.globeco_trade_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.kasbench.globeco_trade_service.client.PortfolioServiceClient;
+import org.kasbench.globeco_trade_service.client.SecurityServiceClient;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotServiceTest {
+
+    @Mock
+    private SecurityServiceClient securityServiceClient;
+
+    @Mock
+    private PortfolioServiceClient portfolioServiceClient;
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = tempDir.resolve("cache.snapshot");
+    }
+
+    @Test
+    void writeAndRestore_RoundTripsRealEntriesOnly() {
+        // Given
+        Cache<String, SecurityDTO> securityCache = Caffeine.newBuilder().build();
+        Cache<String, PortfolioDTO> portfolioCache = Caffeine.newBuilder().build();
+        securityCache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+        securityCache.put("ID:SEC999", new SecurityDTO("SEC999", "SEC999")); // fallback
+        portfolioCache.put("ID:PORT001", new PortfolioDTO("PORT001", "Growth Fund"));
+        createService(securityCache, portfolioCache, new ReferenceDataIndex(100, 1)).writeSnapshot();
+
+        Cache<String, SecurityDTO> restoredSecurities = Caffeine.newBuilder().build();
+        Cache<String, PortfolioDTO> restoredPortfolios = Caffeine.newBuilder().build();
+        ReferenceDataIndex restoredIndex = new ReferenceDataIndex(100, 1);
+        CacheSnapshotService restoringService = createService(restoredSecurities, restoredPortfolios, restoredIndex);
+
+        // When
+        int restored = restoringService.restore();
+
+        // Then
+        assertThat(restored).isEqualTo(2);
+        assertThat(restoredSecurities.getIfPresent("ID:SEC001")).isEqualTo(new SecurityDTO("SEC001", "AAPL"));
+        assertThat(restoredSecurities.getIfPresent("ID:SEC999")).isNull();
+        assertThat(restoredPortfolios.getIfPresent("ID:PORT001").getName()).isEqualTo("Growth Fund");
+        assertThat(restoredIndex.findSecurityIdByTicker("AAPL")).contains("SEC001");
+        assertThat(restoringService.getPendingRevalidations()).isEqualTo(2);
+    }
+
+    @Test
+    void restore_CorruptSnapshotIsIgnored() throws Exception {
+        // Given
+        Cache<String, SecurityDTO> securityCache = Caffeine.newBuilder().build();
+        securityCache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+        createService(securityCache, Caffeine.newBuilder().build(), new ReferenceDataIndex(100, 1)).writeSnapshot();
+
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length - 1] ^= 0x1;
+        Files.write(snapshotFile, bytes);
+
+        Cache<String, SecurityDTO> restoredSecurities = Caffeine.newBuilder().build();
+
+        // When
+        int restored = createService(restoredSecurities, Caffeine.newBuilder().build(), new ReferenceDataIndex(100, 1)).restore();
+
+        // Then
+        assertThat(restored).isZero();
+        assertThat(restoredSecurities.estimatedSize()).isZero();
+    }
+
+    @Test
+    void revalidateRestoredEntries_ReplacesWithCurrentData() {
+        // Given
+        Cache<String, SecurityDTO> securityCache = Caffeine.newBuilder().build();
+        securityCache.put("ID:SEC001", new SecurityDTO("SEC001", "AAPL"));
+        createService(securityCache, Caffeine.newBuilder().build(), new ReferenceDataIndex(100, 1)).writeSnapshot();
+
+        Cache<String, SecurityDTO> restoredSecurities = Caffeine.newBuilder().build();
+        CacheSnapshotService restoringService = createService(
+                restoredSecurities, Caffeine.newBuilder().build(), new ReferenceDataIndex(100, 1));
+        restoringService.restore();
+        when(securityServiceClient.findSecurityById("SEC001")).thenReturn(Optional.of(new SecurityDTO("SEC001", "AAPL.NEW")));
+
+        // When
+        restoringService.revalidateRestoredEntries();
+
+        // Then
+        assertThat(restoredSecurities.getIfPresent("ID:SEC001").getTicker()).isEqualTo("AAPL.NEW");
+        assertThat(restoringService.getPendingRevalidations()).isZero();
+    }
+
+    private CacheSnapshotService createService(Cache<String, SecurityDTO> securityCache,
+                                               Cache<String, PortfolioDTO> portfolioCache,
+                                               ReferenceDataIndex referenceDataIndex) {
+        return new CacheSnapshotService(securityCache, portfolioCache, referenceDataIndex,
+                securityServiceClient, portfolioServiceClient, new SimpleMeterRegistry(),
+                snapshotFile.toString(), 60, 20);
+    }
+}
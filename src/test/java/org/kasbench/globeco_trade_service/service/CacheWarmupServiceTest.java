@@ -0,0 +1,103 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private TradeOrderRepository tradeOrderRepository;
+
+    @Mock
+    private BatchCacheLoadingService batchCacheLoadingService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void warmup_LoadsActiveIdsInBatches() {
+        // Given
+        CacheWarmupService warmupService = new CacheWarmupService(
+                tradeOrderRepository, batchCacheLoadingService, meterRegistry, 24, 100, 2, 10000);
+        when(tradeOrderRepository.findActiveSecurityIds(any(OffsetDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("SEC001", "SEC002", "SEC003"));
+        when(tradeOrderRepository.findActivePortfolioIds(any(OffsetDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("PORT001"));
+        when(batchCacheLoadingService.loadPageEnrichment(eq(Set.of("SEC001", "SEC002")), eq(Set.of("PORT001")), any(Duration.class)))
+                .thenReturn(new BatchCacheLoadingService.PageEnrichment(
+                        Map.of("SEC001", new SecurityDTO("SEC001", "AAPL"), "SEC002", new SecurityDTO("SEC002", "MSFT")),
+                        Map.of("PORT001", new PortfolioDTO("PORT001", "Growth Fund"))));
+        when(batchCacheLoadingService.loadPageEnrichment(eq(Set.of("SEC003")), eq(Set.of()), any(Duration.class)))
+                .thenReturn(new BatchCacheLoadingService.PageEnrichment(
+                        Map.of("SEC003", new SecurityDTO("SEC003", "GOOGL")), Map.of()));
+
+        // When
+        warmupService.run(null);
+
+        // Then
+        verify(batchCacheLoadingService, times(2)).loadPageEnrichment(any(), any(), any(Duration.class));
+        assertThat(meterRegistry.get("cache.warmup.loaded").tag("type", "security").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("cache.warmup.loaded").tag("type", "portfolio").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.warmup.in_progress").gauge().value()).isZero();
+    }
+
+    @Test
+    void warmup_StopsAtTimeCap() {
+        // Given
+        CacheWarmupService warmupService = new CacheWarmupService(
+                tradeOrderRepository, batchCacheLoadingService, meterRegistry, 24, 100, 2, 0);
+        when(tradeOrderRepository.findActiveSecurityIds(any(OffsetDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of("SEC001"));
+        when(tradeOrderRepository.findActivePortfolioIds(any(OffsetDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        warmupService.run(null);
+
+        // Then
+        verify(batchCacheLoadingService, never()).loadPageEnrichment(any(), any(), any(Duration.class));
+        assertThat(meterRegistry.get("cache.warmup.timeouts").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void warmup_RepositoryFailureDoesNotBlockStartup() {
+        // Given
+        CacheWarmupService warmupService = new CacheWarmupService(
+                tradeOrderRepository, batchCacheLoadingService, meterRegistry, 24, 100, 2, 10000);
+        when(tradeOrderRepository.findActiveSecurityIds(any(OffsetDateTime.class), any(Pageable.class)))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // When
+        warmupService.run(null);
+
+        // Then
+        verify(batchCacheLoadingService, never()).loadPageEnrichment(any(), any(), any(Duration.class));
+    }
+}
@@ -92,6 +92,102 @@ class DeadLetterQueueServiceImplTest {
         assertTrue(lines.get(1).contains("\"executionId\":2"));
     }
     
+    @Test
+    void testSend_RotatesFullSegment() throws IOException {
+        // Given - segments small enough that every entry starts a new one
+        deadLetterQueueService = new DeadLetterQueueServiceImpl(dlqFile.toString(), 100, 10, 5000);
+        
+        // When
+        for (int i = 1; i <= 3; i++) {
+            deadLetterQueueService.send(event(i));
+        }
+        
+        // Then
+        assertTrue(Files.readAllLines(tempDir.resolve("logs/compensation-dlq.log.1")).get(0).contains("\"executionId\":1"));
+        assertTrue(Files.readAllLines(tempDir.resolve("logs/compensation-dlq.log.2")).get(0).contains("\"executionId\":2"));
+        List<String> active = Files.readAllLines(dlqFile);
+        assertEquals(1, active.size());
+        assertTrue(active.get(0).contains("\"executionId\":3"));
+    }
+    
+    @Test
+    void testReadPending_ResumesFromAcknowledgedEntryAcrossSegments() {
+        // Given
+        deadLetterQueueService = new DeadLetterQueueServiceImpl(dlqFile.toString(), 400, 10, 5000);
+        for (int i = 1; i <= 5; i++) {
+            deadLetterQueueService.send(event(i));
+        }
+        
+        // When
+        List<DeadLetterQueueService.DeadLetterEntry> first = deadLetterQueueService.readPending(2);
+        deadLetterQueueService.acknowledge(first.get(1));
+        
+        // Then - a new instance picks up the cursor from disk
+        DeadLetterQueueServiceImpl reopened = new DeadLetterQueueServiceImpl(dlqFile.toString(), 400, 10, 5000);
+        List<DeadLetterQueueService.DeadLetterEntry> rest = reopened.readPending(10);
+        assertEquals(List.of(1, 2), first.stream().map(entry -> entry.getEvent().getExecutionId()).toList());
+        assertEquals(List.of(3, 4, 5), rest.stream().map(entry -> entry.getEvent().getExecutionId()).toList());
+        assertEquals(new BigDecimal("50.00"), rest.get(0).getEvent().getOriginalQuantitySent());
+        assertEquals("Failure 3", rest.get(0).getEvent().getErrorMessage());
+        
+        reopened.acknowledge(rest.get(2));
+        assertTrue(reopened.readPending(10).isEmpty());
+    }
+    
+    @Test
+    void testAcknowledge_DeletesSegmentsTheCursorHasPassed() {
+        // Given - every entry starts a new segment
+        deadLetterQueueService = new DeadLetterQueueServiceImpl(dlqFile.toString(), 100, 10, 5000);
+        for (int i = 1; i <= 3; i++) {
+            deadLetterQueueService.send(event(i));
+        }
+        List<DeadLetterQueueService.DeadLetterEntry> pending = deadLetterQueueService.readPending(10);
+        
+        // When - the cursor moves into segment 2
+        deadLetterQueueService.acknowledge(pending.get(1));
+        
+        // Then
+        assertFalse(Files.exists(tempDir.resolve("logs/compensation-dlq.log.1")));
+        assertTrue(Files.exists(tempDir.resolve("logs/compensation-dlq.log.2")));
+        
+        // And a new instance keeps numbering after the deleted segments
+        deadLetterQueueService.acknowledge(pending.get(2));
+        assertFalse(Files.exists(tempDir.resolve("logs/compensation-dlq.log.2")));
+        deadLetterQueueService.shutdown();
+        DeadLetterQueueServiceImpl reopened = new DeadLetterQueueServiceImpl(dlqFile.toString(), 100, 10, 5000);
+        assertTrue(reopened.readPending(10).isEmpty());
+        reopened.send(event(4));
+        assertEquals(List.of(4), reopened.readPending(10).stream()
+                .map(entry -> entry.getEvent().getExecutionId()).toList());
+    }
+    
+    @Test
+    void testEndPosition_CoversOnlyEntriesAlreadySent() {
+        // Given
+        deadLetterQueueService = new DeadLetterQueueServiceImpl(dlqFile.toString(), 400, 10, 5000);
+        for (int i = 1; i <= 3; i++) {
+            deadLetterQueueService.send(event(i));
+        }
+        
+        // When
+        DeadLetterQueueService.Position end = deadLetterQueueService.endPosition();
+        for (int i = 4; i <= 5; i++) {
+            deadLetterQueueService.send(event(i));
+        }
+        
+        // Then
+        List<DeadLetterQueueService.DeadLetterEntry> pending = deadLetterQueueService.readPending(10);
+        assertEquals(List.of(1, 2, 3), pending.stream().filter(end::covers)
+                .map(entry -> entry.getEvent().getExecutionId()).toList());
+        assertEquals(5, pending.size());
+    }
+    
+    @Test
+    void testReadPending_EmptyWhenNothingWasSent() {
+        // Then
+        assertTrue(deadLetterQueueService.readPending(10).isEmpty());
+    }
+    
     @Test
     void testCompensationFailedEvent_ToString() {
         // When
@@ -134,4 +230,9 @@ class DeadLetterQueueServiceImplTest {
         assertEquals(message, exception2.getMessage());
         assertEquals(cause, exception2.getCause());
     }
-}
\ No newline at end of file
+    
+    private CompensationFailedEvent event(int executionId) {
+        return new CompensationFailedEvent(executionId, 100, new BigDecimal("50.00"), false,
+                "Failure " + executionId, OffsetDateTime.now());
+    }
+}
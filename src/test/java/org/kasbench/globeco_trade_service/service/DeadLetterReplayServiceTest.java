@@ -0,0 +1,207 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO;
+import org.kasbench.globeco_trade_service.dto.DeadLetterReplayResponseDTO.ReplayMode;
+import org.kasbench.globeco_trade_service.entity.Execution;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.service.DeadLetterQueueService.DeadLetterEntry;
+import org.kasbench.globeco_trade_service.service.DeadLetterQueueService.Position;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterReplayServiceTest {
+
+    @Mock
+    private DeadLetterQueueService deadLetterQueueService;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private TransactionCompensationHandler compensationHandler;
+
+    @Mock
+    private BulkExecutionSubmissionService bulkExecutionSubmissionService;
+
+    @Mock
+    private ExecutionRetryQueue retryQueue;
+
+    private DeadLetterReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        replayService = new DeadLetterReplayService(deadLetterQueueService, executionRepository, compensationHandler,
+                bulkExecutionSubmissionService, retryQueue, Runnable::run, new SimpleMeterRegistry(), 10, 2, 1_000_000);
+        lenient().when(deadLetterQueueService.endPosition()).thenReturn(new Position(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void replay_Compensate_DeduplicatesAndSkipsSubmittedExecutions() {
+        // Given
+        DeadLetterEntry last = entry(1, 100, "75.00", 3);
+        when(deadLetterQueueService.readPending(anyInt()))
+                .thenReturn(List.of(entry(1, 100, "50.00", 1), entry(2, 200, "10.00", 2), last), List.of());
+        when(executionRepository.findAllById(any())).thenReturn(List.of(execution(1, null), execution(2, 55)));
+        when(compensationHandler.reverseFailedSubmissions(anyList())).thenReturn(new int[] {1, 0, 0});
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.COMPENSATE, 100);
+
+        // Then - only execution 1 is reversed, with its latest entry
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CompensationFailedEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(compensationHandler).reverseFailedSubmissions(events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(1, events.getValue().get(0).getExecutionId());
+        assertEquals(new BigDecimal("75.00"), events.getValue().get(0).getOriginalQuantitySent());
+        verify(deadLetterQueueService).acknowledge(last);
+
+        assertEquals(3, report.getRead());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(1, report.getSkipped());
+        assertEquals(1, report.getApplied());
+        assertEquals(0, report.getFailed());
+        assertSame(report, replayService.getLastReport().orElseThrow());
+    }
+
+    @Test
+    void replay_Compensate_CountsDeadLetteredCompensationsAsFailed() {
+        // Given
+        when(deadLetterQueueService.readPending(anyInt())).thenReturn(List.of(entry(1, 100, "50.00", 1)), List.of());
+        when(executionRepository.findAllById(any())).thenReturn(List.of(execution(1, null)));
+        when(compensationHandler.reverseFailedSubmissions(anyList())).thenReturn(new int[] {0, 1, 0});
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.COMPENSATE, 100);
+
+        // Then
+        assertEquals(0, report.getApplied());
+        assertEquals(1, report.getFailed());
+    }
+
+    @Test
+    void replay_Compensate_SkipsExecutionsThatNoLongerExist() {
+        // Given
+        when(deadLetterQueueService.readPending(anyInt())).thenReturn(List.of(entry(1, 100, "50.00", 1)), List.of());
+        when(executionRepository.findAllById(any())).thenReturn(List.of());
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.COMPENSATE, 100);
+
+        // Then - without the execution there is no quantity to take back off the trade order
+        verifyNoInteractions(compensationHandler);
+        assertEquals(1, report.getSkipped());
+        assertEquals(0, report.getApplied());
+    }
+
+    @Test
+    void replay_StopsAtTheEndOfTheQueueAsItWasWhenStarted() {
+        // Given - the second entry was dead-lettered again after the replay started
+        DeadLetterEntry first = entry(1, 100, "50.00", 1);
+        when(deadLetterQueueService.endPosition()).thenReturn(new Position(1, 1));
+        when(deadLetterQueueService.readPending(anyInt())).thenReturn(List.of(first, entry(2, 200, "10.00", 2)));
+        when(executionRepository.findAllById(any())).thenReturn(List.of(execution(1, 11)));
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.RESUBMIT, 100);
+
+        // Then
+        verify(deadLetterQueueService, times(1)).readPending(anyInt());
+        verify(deadLetterQueueService).acknowledge(first);
+        assertEquals(1, report.getRead());
+    }
+
+    @Test
+    void replay_Resubmit_SendsRefusedExecutionsBackToDeadLetterQueue() {
+        // Given
+        when(deadLetterQueueService.readPending(anyInt()))
+                .thenReturn(List.of(entry(1, 100, "50.00", 1), entry(2, 200, "10.00", 2), entry(3, 300, "5.00", 3)), List.of());
+        // Execution 3 was deleted by a compensation, so there is nothing left to re-submit
+        when(executionRepository.findAllById(any())).thenReturn(List.of(execution(1, null), execution(2, null)));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(1, 2))).thenReturn(new BulkSubmitResult(
+                2, 1, 1, List.of(
+                        new ExecutionSubmitResult(1, "SUCCESS", "ok", 101),
+                        new ExecutionSubmitResult(2, "FAILED", "rejected", null)),
+                "PARTIAL_SUCCESS", "partial"));
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.RESUBMIT, 100);
+
+        // Then
+        ArgumentCaptor<CompensationFailedEvent> event = ArgumentCaptor.forClass(CompensationFailedEvent.class);
+        verify(deadLetterQueueService).send(event.capture());
+        assertEquals(2, event.getValue().getExecutionId());
+        assertTrue(event.getValue().getErrorMessage().contains("rejected"));
+        verifyNoInteractions(compensationHandler);
+
+        assertEquals(1, report.getSkipped());
+        assertEquals(1, report.getApplied());
+        assertEquals(1, report.getFailed());
+    }
+
+    @Test
+    void replay_Resubmit_SkipsQueuedExecutionsAndExecutionsClaimedElsewhere() {
+        // Given - execution 1 waits in the retry queue; execution 3 was submitted by another replica
+        when(deadLetterQueueService.readPending(anyInt()))
+                .thenReturn(List.of(entry(1, 100, "50.00", 1), entry(2, 200, "10.00", 2), entry(3, 300, "5.00", 3)), List.of());
+        when(executionRepository.findAllById(any()))
+                .thenReturn(List.of(execution(1, null), execution(2, null), execution(3, null)));
+        when(retryQueue.queuedAmong(any())).thenReturn(Set.of(1));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(2, 3))).thenReturn(new BulkSubmitResult(
+                2, 1, 1, List.of(new ExecutionSubmitResult(2, "SUCCESS", "ok", 102)), "PARTIAL_SUCCESS", "partial"));
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.RESUBMIT, 100);
+
+        // Then
+        verify(deadLetterQueueService, never()).send(any());
+        assertEquals(2, report.getSkipped());
+        assertEquals(1, report.getApplied());
+        assertEquals(0, report.getFailed());
+    }
+
+    @Test
+    void replay_StopsAtMaxEvents() {
+        // Given
+        when(deadLetterQueueService.readPending(2)).thenReturn(List.of(entry(1, 100, "50.00", 1), entry(2, 200, "10.00", 2)));
+        when(executionRepository.findAllById(any())).thenReturn(List.of(execution(1, 11), execution(2, 22)));
+
+        // When
+        DeadLetterReplayResponseDTO report = replayService.replay(ReplayMode.COMPENSATE, 2);
+
+        // Then
+        verify(deadLetterQueueService, times(1)).readPending(anyInt());
+        assertEquals(2, report.getRead());
+        assertEquals(2, report.getSkipped());
+        assertFalse(replayService.isRunning());
+    }
+
+    private static DeadLetterEntry entry(int executionId, int tradeOrderId, String quantitySent, long offset) {
+        return new DeadLetterEntry(new CompensationFailedEvent(executionId, tradeOrderId, new BigDecimal(quantitySent),
+                false, "Compensation failed", OffsetDateTime.now()), 1, offset);
+    }
+
+    private static Execution execution(int id, Integer executionServiceId) {
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setExecutionServiceId(executionServiceId);
+        return execution;
+    }
+}
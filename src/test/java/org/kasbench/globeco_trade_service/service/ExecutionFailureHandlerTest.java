@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kasbench.globeco_trade_service.client.ExecutionServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.kasbench.globeco_trade_service.config.ExecutionBatchProperties;
+import org.kasbench.globeco_trade_service.config.RetryBudget;
 import org.kasbench.globeco_trade_service.dto.BatchExecutionRequestDTO;
 import org.kasbench.globeco_trade_service.dto.BatchExecutionResponseDTO;
 import org.kasbench.globeco_trade_service.dto.ExecutionResultDTO;
@@ -44,12 +46,16 @@ class ExecutionFailureHandlerTest {
     @Mock
     private BulkExecutionErrorHandler errorHandler;
 
+    @Mock
+    private ExecutionRetryQueue retryQueue;
+
     private ExecutionFailureHandler failureHandler;
 
     @BeforeEach
     void setUp() {
         failureHandler = new ExecutionFailureHandler(
-            batchProcessor, executionServiceClient, batchProperties, retryTemplate, errorHandler);
+            batchProcessor, executionServiceClient, batchProperties, retryTemplate, errorHandler, retryQueue,
+            new RetryBudget(0.1, 1000, 1000, new SimpleMeterRegistry()));
         
         // Default configuration - use lenient to avoid unnecessary stubbing warnings
         lenient().when(batchProperties.getRetryFailedIndividually()).thenReturn(3);
@@ -151,6 +157,50 @@ class ExecutionFailureHandlerTest {
         verify(retryTemplate, times(2)).execute(any()); // Two failed executions retried
     }
 
+    @Test
+    void testHandlePartialFailures_CircuitOpen_QueuesFailuresInsteadOfRetrying() throws Exception {
+        // Arrange
+        List<Execution> executions = createTestExecutions(3);
+        BulkSubmitResult originalResult = new BulkSubmitResult(
+            3, 1, 2,
+            Arrays.asList(
+                new ExecutionSubmitResult(1, "SUCCESS", "Success", 101),
+                new ExecutionSubmitResult(2, "FAILED", "timeout error", null),
+                new ExecutionSubmitResult(3, "FAILED", "connection error", null)
+            ),
+            "PARTIAL_SUCCESS", "Partial success"
+        );
+        when(executionServiceClient.isCircuitOpen()).thenReturn(true);
+
+        // Act
+        BulkSubmitResult result = failureHandler.handlePartialFailures(originalResult, executions);
+
+        // Assert
+        assertEquals(1, result.getSuccessful());
+        assertEquals(2, result.getFailed());
+        assertEquals("QUEUED", result.getResults().get(1).getStatus());
+        assertEquals("QUEUED", result.getResults().get(2).getStatus());
+        verify(retryQueue).enqueue(eq(Arrays.asList(2, 3)), anyString());
+        verify(retryTemplate, never()).execute(any());
+    }
+
+    @Test
+    void testRetryExecutionIndividually_BudgetExhausted_QueuesInsteadOfRetrying() throws Exception {
+        // Arrange
+        ExecutionFailureHandler budgetedHandler = new ExecutionFailureHandler(
+            batchProcessor, executionServiceClient, batchProperties, retryTemplate, errorHandler, retryQueue,
+            new RetryBudget(0.1, 0, 0, new SimpleMeterRegistry()));
+        Execution execution = createTestExecution(1);
+
+        // Act
+        ExecutionSubmitResult result = budgetedHandler.retryExecutionIndividually(execution);
+
+        // Assert
+        assertEquals("QUEUED", result.getStatus());
+        verify(retryQueue).enqueue(eq(List.of(1)), eq("Retry budget exhausted"));
+        verify(retryTemplate, never()).execute(any());
+    }
+
     @Test
     void testRetryExecutionIndividually_Success_ReturnsSuccessResult() throws Exception {
         // Arrange
@@ -0,0 +1,235 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.client.ExecutionServiceClient;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionServiceResponseDTO;
+import org.kasbench.globeco_trade_service.entity.ExecutionRetry;
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository.ReconciliationState;
+import org.kasbench.globeco_trade_service.repository.ExecutionRetryRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionReconciliationService.ReconciliationReport;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionReconciliationServiceTest {
+
+    private static final int NEW_STATUS_ID = 1;
+    private static final int SENT_STATUS_ID = 2;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private ExecutionStatusRepository executionStatusRepository;
+
+    @Mock
+    private ExecutionRetryRepository executionRetryRepository;
+
+    @Mock
+    private ExecutionServiceClient executionServiceClient;
+
+    @Mock
+    private ExecutionService executionService;
+
+    @Mock
+    private BulkExecutionSubmissionService bulkExecutionSubmissionService;
+
+    private final PartitionCoordinator.Assignment assignment = new PartitionCoordinator.Assignment(4, Set.of(0, 1, 2, 3));
+
+    private ExecutionReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new ExecutionReconciliationService(executionRepository, executionStatusRepository,
+                executionRetryRepository, executionServiceClient, executionService, bulkExecutionSubmissionService,
+                new SimpleMeterRegistry(), List.of("NEW", "SENT"), 300000, 2, 100);
+        lenient().when(executionStatusRepository.findByAbbreviation("NEW")).thenReturn(Optional.of(status(NEW_STATUS_ID, "NEW")));
+        lenient().when(executionStatusRepository.findByAbbreviation("SENT")).thenReturn(Optional.of(status(SENT_STATUS_ID, "SENT")));
+    }
+
+    @Test
+    void reconcile_ResubmitsUnsentExecutionsNotAlreadyQueuedForRetry() {
+        // Given
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(List.of(state(1, null, "0"), state(2, null, "0")), List.of());
+        when(executionRepository.findReconciliationPage(eq(SENT_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(executionRetryRepository.findAllById(List.of(1, 2))).thenReturn(List.of(retry(2)));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(1))).thenReturn(new BulkSubmitResult(
+                1, 1, 0, List.of(new ExecutionSubmitResult(1, "SUCCESS", "ok", 101)), "SUCCESS", "ok"));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(assignment, () -> true);
+
+        // Then
+        assertEquals(2, report.getExamined());
+        assertEquals(1, report.getResubmitted());
+        assertEquals(1, report.getUnchanged());
+        assertEquals(0, report.getFailed());
+        verifyNoInteractions(executionServiceClient, executionService);
+    }
+
+    @Test
+    void reconcile_CorrectsExecutionsThatDifferFromExecutionService() {
+        // Given
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findReconciliationPage(eq(SENT_STATUS_ID), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(List.of(state(1, 11, "0"), state(2, 22, "0"), state(3, 33, "0")), List.of());
+        when(executionServiceClient.getExecutions(List.of(11, 22, 33))).thenReturn(Map.of(
+                11, remote(11, "SENT", "0"),
+                22, remote(22, "PART", "40")));
+        when(executionService.fillExecutions(anyList())).thenReturn(List.of(
+                new ExecutionFillResultDTO(0, 2, ExecutionFillResultDTO.ResultStatus.SUCCESS, null, 6)));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(assignment, () -> true);
+
+        // Then - only execution 2 differs, and is corrected at the version read with the page
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExecutionFillDTO>> fills = ArgumentCaptor.forClass(List.class);
+        verify(executionService).fillExecutions(fills.capture());
+        assertEquals(1, fills.getValue().size());
+        ExecutionFillDTO fill = fills.getValue().get(0);
+        assertEquals(2, fill.getId());
+        assertEquals("PART", fill.getExecutionStatus());
+        assertEquals(new BigDecimal("40"), fill.getQuantityFilled());
+        assertEquals(5, fill.getVersion());
+
+        assertEquals(3, report.getExamined());
+        assertEquals(1, report.getUnchanged());
+        assertEquals(1, report.getCorrected());
+        assertEquals(1, report.getMissing());
+        verifyNoInteractions(bulkExecutionSubmissionService);
+    }
+
+    @Test
+    void reconcile_PagesFromTheLastExecutionOfThePreviousPage() {
+        // Given
+        ReconciliationState last = state(7, 70, "0");
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findReconciliationPage(eq(SENT_STATUS_ID), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(List.of(state(8, 80, "0"), last), List.of());
+        when(executionServiceClient.getExecutions(anyList())).thenReturn(Map.of(
+                80, remote(80, "SENT", "0"), 70, remote(70, "SENT", "0")));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(assignment, () -> true);
+
+        // Then
+        verify(executionRepository).findReconciliationPage(eq(SENT_STATUS_ID), any(), eq(last.getExecutionTimestamp()), eq(7),
+                eq(4), eq(assignment.getPartitions()), any(Pageable.class));
+        assertEquals(2, report.getExamined());
+        assertEquals(2, report.getUnchanged());
+        verify(executionService, never()).fillExecutions(anyList());
+    }
+
+    @Test
+    void reconcile_PartitionsMoved_StopsBeforeNextPage() {
+        // Given
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(List.of(state(1, 11, "0"), state(2, 12, "0")));
+        when(executionServiceClient.getExecutions(List.of(11, 12))).thenReturn(Map.of(
+                11, remote(11, "NEW", "0"), 12, remote(12, "NEW", "0")));
+        AtomicInteger checks = new AtomicInteger();
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(assignment, () -> checks.getAndIncrement() == 0);
+
+        // Then
+        assertTrue(report.isOwnershipLost());
+        assertEquals(2, report.getExamined());
+        verify(executionRepository, times(1)).findReconciliationPage(anyInt(), any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void reconcile_ScansOldestFirstUpToTheStaleCutoff() {
+        // Given
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findReconciliationPage(eq(SENT_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        OffsetDateTime before = OffsetDateTime.now();
+
+        // When
+        reconciliationService.reconcile(assignment, () -> true);
+
+        // Then
+        ArgumentCaptor<OffsetDateTime> staleBefore = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(executionRepository).findReconciliationPage(eq(NEW_STATUS_ID), staleBefore.capture(),
+                eq(OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC)), eq(Integer.MIN_VALUE),
+                eq(4), eq(assignment.getPartitions()), any(Pageable.class));
+        assertTrue(staleBefore.getValue().isBefore(before));
+    }
+
+    @Test
+    void reconcile_CountsPageAsFailedWhenExecutionServiceIsUnavailable() {
+        // Given
+        when(executionRepository.findReconciliationPage(eq(NEW_STATUS_ID), any(), any(), any(), anyInt(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findReconciliationPage(eq(SENT_STATUS_ID), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(List.of(state(1, 11, "0")));
+        when(executionServiceClient.getExecutions(anyList())).thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile(assignment, () -> true);
+
+        // Then
+        assertEquals(1, report.getExamined());
+        assertEquals(1, report.getFailed());
+        verifyNoInteractions(executionService);
+    }
+
+    private static ExecutionStatus status(int id, String abbreviation) {
+        ExecutionStatus status = new ExecutionStatus();
+        status.setId(id);
+        status.setAbbreviation(abbreviation);
+        return status;
+    }
+
+    private static ExecutionRetry retry(int executionId) {
+        ExecutionRetry retry = new ExecutionRetry();
+        retry.setExecutionId(executionId);
+        return retry;
+    }
+
+    private static ExecutionServiceResponseDTO remote(int id, String status, String quantityFilled) {
+        ExecutionServiceResponseDTO response = new ExecutionServiceResponseDTO();
+        response.setId(id);
+        response.setExecutionStatus(status);
+        response.setQuantityFilled(new BigDecimal(quantityFilled));
+        return response;
+    }
+
+    private static ReconciliationState state(int id, Integer executionServiceId, String quantityFilled) {
+        OffsetDateTime timestamp = OffsetDateTime.now().minusHours(1).minusSeconds(id);
+        return new ReconciliationState() {
+            public Integer getId() { return id; }
+            public Integer getVersion() { return 5; }
+            public OffsetDateTime getExecutionTimestamp() { return timestamp; }
+            public Integer getExecutionServiceId() { return executionServiceId; }
+            public BigDecimal getQuantityFilled() { return new BigDecimal(quantityFilled); }
+        };
+    }
+}
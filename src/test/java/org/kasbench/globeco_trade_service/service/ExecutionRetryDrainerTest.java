@@ -0,0 +1,142 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.config.ExecutionBatchProperties;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult;
+import org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionRetryDrainerTest {
+
+    @Mock
+    private ExecutionRetryQueue retryQueue;
+
+    @Mock
+    private BulkExecutionSubmissionService bulkExecutionSubmissionService;
+
+    @Mock
+    private ExecutionBatchProperties batchProperties;
+
+    @Mock
+    private PartitionCoordinator partitionCoordinator;
+
+    private final PartitionCoordinator.Assignment assignment = new PartitionCoordinator.Assignment(4, Set.of(0, 2));
+
+    private CircuitBreaker circuitBreaker;
+    private ExecutionRetryDrainer drainer;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.ofDefaults("executionService");
+        drainer = new ExecutionRetryDrainer(retryQueue, bulkExecutionSubmissionService, circuitBreaker,
+                partitionCoordinator, batchProperties, new SimpleMeterRegistry(), 5);
+        lenient().when(batchProperties.getEffectiveBatchSize()).thenReturn(50);
+        lenient().when(partitionCoordinator.getAssignment()).thenReturn(assignment);
+        lenient().when(partitionCoordinator.stillOwns(assignment)).thenReturn(true);
+    }
+
+    @Test
+    void drain_CircuitOpen_DoesNothing() {
+        // Given
+        circuitBreaker.transitionToOpenState();
+
+        // When
+        drainer.drain();
+
+        // Then
+        verifyNoInteractions(retryQueue, bulkExecutionSubmissionService);
+    }
+
+    @Test
+    void drain_NoPartitionsOwned_DoesNothing() {
+        // Given
+        when(partitionCoordinator.getAssignment()).thenReturn(new PartitionCoordinator.Assignment(4, Set.of()));
+
+        // When
+        drainer.drain();
+
+        // Then
+        verifyNoInteractions(retryQueue, bulkExecutionSubmissionService);
+    }
+
+    @Test
+    void drain_CircuitClosed_ResubmitsFullBatchesUntilQueueIsEmpty() {
+        // Given
+        when(retryQueue.claimDue(50, assignment)).thenReturn(List.of(1, 2, 3), List.of(4), List.of());
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(1, 2, 3))).thenReturn(new BulkSubmitResult(
+                3, 2, 1, List.of(
+                        new ExecutionSubmitResult(1, "SUCCESS", "ok", 101),
+                        new ExecutionSubmitResult(2, "SUCCESS", "ok", 102),
+                        new ExecutionSubmitResult(3, "FAILED", "timeout", null)),
+                "PARTIAL_SUCCESS", "partial"));
+
+        // When
+        drainer.drain();
+
+        // Then
+        verify(retryQueue).complete(List.of(1, 2));
+        verify(retryQueue).enqueue(List.of(3), "timeout");
+        // A batch with failures ends the run
+        verify(bulkExecutionSubmissionService, never()).submitExecutionsBulk(List.of(4));
+    }
+
+    @Test
+    void drain_PartitionsMoved_StopsBeforeNextBatch() {
+        // Given
+        when(partitionCoordinator.stillOwns(assignment)).thenReturn(true, false);
+        when(retryQueue.claimDue(50, assignment)).thenReturn(List.of(1), List.of(2));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(1))).thenReturn(new BulkSubmitResult(
+                1, 1, 0, List.of(new ExecutionSubmitResult(1, "SUCCESS", "ok", 101)), "SUCCESS", "ok"));
+
+        // When
+        drainer.drain();
+
+        // Then
+        verify(retryQueue, times(1)).claimDue(50, assignment);
+        verify(retryQueue).complete(List.of(1));
+    }
+
+    @Test
+    void drain_CircuitHalfOpen_SendsSingleProbeBatch() {
+        // Given
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+        when(retryQueue.claimDue(50, assignment)).thenReturn(List.of(1), List.of(2));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(1))).thenReturn(new BulkSubmitResult(
+                1, 1, 0, List.of(new ExecutionSubmitResult(1, "SUCCESS", "ok", 101)), "SUCCESS", "ok"));
+
+        // When
+        drainer.drain();
+
+        // Then
+        verify(retryQueue, times(1)).claimDue(50, assignment);
+        verify(retryQueue).complete(List.of(1));
+    }
+
+    @Test
+    void drain_SubmissionThrows_RequeuesClaimedBatch() {
+        // Given
+        when(retryQueue.claimDue(50, assignment)).thenReturn(List.of(7, 8));
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(List.of(7, 8)))
+                .thenThrow(new RuntimeException("boom"));
+
+        // When
+        drainer.drain();
+
+        // Then
+        verify(retryQueue).enqueue(List.of(7, 8), "boom");
+        verify(retryQueue, never()).complete(any());
+    }
+}
@@ -0,0 +1,87 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.AbstractH2Test;
+import org.kasbench.globeco_trade_service.entity.ExecutionRetry;
+import org.kasbench.globeco_trade_service.repository.ExecutionRetryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionRetryQueueTest extends AbstractH2Test {
+    @Autowired
+    private ExecutionRetryRepository executionRetryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutionRetryQueue retryQueue;
+
+    @BeforeEach
+    void setUp() {
+        executionRetryRepository.deleteAll();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // No backoff so re-queued entries are due immediately; at most two attempts
+        retryQueue = new ExecutionRetryQueue(executionRetryRepository, new SimpleMeterRegistry(), 0, 60000, 60000, 2);
+    }
+
+    @Test
+    void enqueue_ThenClaimAndComplete() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> retryQueue.enqueue(List.of(1001, 1002), "circuit open"));
+
+        // When
+        List<Integer> claimed = transactionTemplate.execute(status -> retryQueue.claimDue(10));
+
+        // Then
+        assertThat(claimed).containsExactlyInAnyOrder(1001, 1002);
+        ExecutionRetry retry = executionRetryRepository.findById(1001).orElseThrow();
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getLastError()).isEqualTo("circuit open");
+        assertThat(retry.getNextAttemptAt()).isAfter(OffsetDateTime.now());
+        // Claimed entries are leased, not due again
+        assertThat(transactionTemplate.execute(status -> retryQueue.claimDue(10))).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> retryQueue.complete(claimed));
+        assertThat(executionRetryRepository.count()).isZero();
+    }
+
+    @Test
+    void enqueue_DropsExecutionsThatUsedUpTheirAttempts() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> retryQueue.enqueue(List.of(1003), "circuit open"));
+        assertThat(transactionTemplate.execute(status -> retryQueue.claimDue(10))).containsExactly(1003);
+        transactionTemplate.executeWithoutResult(status -> retryQueue.enqueue(List.of(1003), "still down"));
+        assertThat(transactionTemplate.execute(status -> retryQueue.claimDue(10))).containsExactly(1003);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> retryQueue.enqueue(List.of(1003), "still down"));
+
+        // Then
+        assertThat(executionRetryRepository.findById(1003)).isEmpty();
+    }
+
+    @Test
+    void claimDue_OnlyClaimsExecutionsInOwnedPartitions() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> retryQueue.enqueue(List.of(1004, 1005, 1006, 1007), "circuit open"));
+
+        // When
+        List<Integer> claimed = transactionTemplate.execute(status ->
+                retryQueue.claimDue(10, new PartitionCoordinator.Assignment(4, Set.of(0, 2))));
+
+        // Then
+        assertThat(claimed).containsExactlyInAnyOrder(1004, 1006);
+        assertThat(transactionTemplate.execute(status ->
+                retryQueue.claimDue(10, new PartitionCoordinator.Assignment(4, Set.of(1, 3)))))
+                .containsExactlyInAnyOrder(1005, 1007);
+    }
+}
@@ -0,0 +1,64 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionServiceIdIndexTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void record_OutsideTransaction_IsVisibleImmediately() {
+        // Given
+        ExecutionServiceIdIndex index = new ExecutionServiceIdIndex(100);
+
+        // When
+        index.record(9001, 42);
+
+        // Then
+        assertThat(index.lookup(9001)).isEqualTo(Optional.of(42));
+        assertThat(index.lookup(9002)).isEmpty();
+        assertThat(index.lookup(null)).isEmpty();
+    }
+
+    @Test
+    void record_InsideTransaction_IsVisibleOnlyAfterCommit() {
+        // Given
+        ExecutionServiceIdIndex index = new ExecutionServiceIdIndex(100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        index.record(9001, 42);
+
+        // Then
+        assertThat(index.lookup(9001)).isEmpty();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertThat(index.lookup(9001)).isEqualTo(Optional.of(42));
+    }
+
+    @Test
+    void evict_RemovesMapping() {
+        // Given
+        ExecutionServiceIdIndex index = new ExecutionServiceIdIndex(100);
+        index.record(9001, 42);
+
+        // When
+        index.evict(9001);
+
+        // Then
+        assertThat(index.lookup(9001)).isEmpty();
+    }
+}
@@ -0,0 +1,197 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillResultDTO.ResultStatus;
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.*;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ExecutionServiceImpl.fillExecutions.
+ * Verifies per-entry validation and that only valid fills reach the batched versioned update.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ExecutionServiceImplBulkFillTest {
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private ExecutionStatusRepository executionStatusRepository;
+
+    @Mock
+    private BlotterRepository blotterRepository;
+
+    @Mock
+    private TradeTypeRepository tradeTypeRepository;
+
+    @Mock
+    private TradeOrderRepository tradeOrderRepository;
+
+    @Mock
+    private DestinationRepository destinationRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private RetryTemplate retryTemplate;
+
+    @Mock
+    private BulkExecutionSubmissionService bulkExecutionSubmissionService;
+
+    private ExecutionServiceImpl executionService;
+
+    @BeforeEach
+    void setUp() {
+        executionService = new ExecutionServiceImpl(
+            executionRepository,
+            executionStatusRepository,
+            blotterRepository,
+            tradeTypeRepository,
+            tradeOrderRepository,
+            destinationRepository,
+            restTemplate,
+            retryTemplate,
+            bulkExecutionSubmissionService,
+            new ExecutionServiceIdIndex(1000),
+            new TradeOrderFillRollup(tradeOrderRepository, executionStatusRepository, mock(CacheManager.class))
+        );
+
+        ExecutionStatus part = new ExecutionStatus();
+        part.setId(3);
+        part.setAbbreviation("PART");
+        when(executionStatusRepository.findAll()).thenReturn(List.of(part));
+        executionService.initializeExecutionStatusCache();
+    }
+
+    @Test
+    void testFillExecutions_ReportsEachEntry() {
+        // Arrange
+        when(executionRepository.findFillStatesByIdIn(any())).thenReturn(List.of(
+            fillState(1, 2, "100.00"),
+            fillState(2, 5, "100.00"),
+            fillState(3, 1, "100.00"),
+            fillState(4, 1, "100.00")
+        ));
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[] {true});
+        List<ExecutionFillDTO> fills = List.of(
+            new ExecutionFillDTO(1, "PART", new BigDecimal("50.00"), 2),
+            new ExecutionFillDTO(2, "PART", new BigDecimal("50.00"), 4),
+            new ExecutionFillDTO(3, "BOGUS", new BigDecimal("50.00"), 1),
+            new ExecutionFillDTO(4, "PART", new BigDecimal("150.00"), 1),
+            new ExecutionFillDTO(99, "PART", new BigDecimal("10.00"), 1)
+        );
+
+        // Act
+        List<ExecutionFillResultDTO> results = executionService.fillExecutions(fills);
+
+        // Assert
+        assertEquals(5, results.size());
+        assertEquals(ResultStatus.SUCCESS, results.get(0).getStatus());
+        assertEquals(3, results.get(0).getVersion());
+        assertEquals(ResultStatus.CONFLICT, results.get(1).getStatus());
+        assertEquals(ResultStatus.INVALID, results.get(2).getStatus());
+        assertTrue(results.get(2).getMessage().contains("Invalid execution status: BOGUS"));
+        assertEquals(ResultStatus.INVALID, results.get(3).getStatus());
+        assertTrue(results.get(3).getMessage().contains("cannot exceed quantity placed"));
+        assertEquals(ResultStatus.NOT_FOUND, results.get(4).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getRequestIndex());
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExecutionRepositoryCustom.FillUpdate>> updates = ArgumentCaptor.forClass(List.class);
+        verify(executionRepository).applyFills(updates.capture());
+        assertEquals(1, updates.getValue().size());
+        ExecutionRepositoryCustom.FillUpdate update = updates.getValue().get(0);
+        assertEquals(1, update.getId());
+        assertEquals(2, update.getExpectedVersion());
+        assertEquals(3, update.getExecutionStatusId());
+
+        // Only the applied fill is rolled up into its trade order
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TradeOrderRepositoryCustom.FillRollupDelta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(tradeOrderRepository).applyFillRollups(deltas.capture());
+        assertEquals(1, deltas.getValue().size());
+        TradeOrderRepositoryCustom.FillRollupDelta delta = deltas.getValue().get(0);
+        assertEquals(101, delta.getTradeOrderId());
+        assertEquals(0, delta.getQuantityFilled().compareTo(new BigDecimal("50.00")));
+        assertEquals(1, delta.getPartFilledCount());
+        assertEquals(0, delta.getFullyFilledCount());
+    }
+
+    @Test
+    void testFillExecutions_RowChangedSinceReadIsConflict() {
+        // Arrange
+        when(executionRepository.findFillStatesByIdIn(any())).thenReturn(List.of(fillState(7, 1, "100.00")));
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[] {false});
+        List<ExecutionFillDTO> fills = List.of(new ExecutionFillDTO(7, "PART", new BigDecimal("20.00"), 1));
+
+        // Act
+        List<ExecutionFillResultDTO> results = executionService.fillExecutions(fills);
+
+        // Assert
+        assertEquals(ResultStatus.CONFLICT, results.get(0).getStatus());
+        assertNull(results.get(0).getVersion());
+        verify(tradeOrderRepository, never()).applyFillRollups(anyList());
+    }
+
+    @Test
+    void testFillExecutions_DuplicateIdsAfterTheFirstAreConflicts() {
+        // Arrange
+        when(executionRepository.findFillStatesByIdIn(any())).thenReturn(List.of(fillState(7, 1, "100.00")));
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[] {true});
+        List<ExecutionFillDTO> fills = List.of(
+            new ExecutionFillDTO(7, "PART", new BigDecimal("20.00"), 1),
+            new ExecutionFillDTO(7, "PART", new BigDecimal("20.00"), 1),
+            new ExecutionFillDTO(7, "PART", new BigDecimal("30.00"), 1)
+        );
+
+        // Act
+        List<ExecutionFillResultDTO> results = executionService.fillExecutions(fills);
+
+        // Assert
+        assertEquals(ResultStatus.SUCCESS, results.get(0).getStatus());
+        assertEquals(ResultStatus.CONFLICT, results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().contains("Duplicate fill"));
+        assertEquals(ResultStatus.CONFLICT, results.get(2).getStatus());
+
+        // Only the first fill reaches the batch, so the trade order is rolled up once
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ExecutionRepositoryCustom.FillUpdate>> updates = ArgumentCaptor.forClass(List.class);
+        verify(executionRepository).applyFills(updates.capture());
+        assertEquals(1, updates.getValue().size());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TradeOrderRepositoryCustom.FillRollupDelta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(tradeOrderRepository).applyFillRollups(deltas.capture());
+        assertEquals(0, deltas.getValue().get(0).getQuantityFilled().compareTo(new BigDecimal("20.00")));
+    }
+
+    private static ExecutionRepository.FillState fillState(Integer id, Integer version, String quantityPlaced) {
+        return new ExecutionRepository.FillState() {
+            public Integer getId() { return id; }
+            public Integer getVersion() { return version; }
+            public BigDecimal getQuantityPlaced() { return new BigDecimal(quantityPlaced); }
+            public BigDecimal getQuantityFilled() { return BigDecimal.ZERO; }
+            public Integer getExecutionStatusId() { return 2; }
+            public Integer getTradeOrderId() { return 100 + id; }
+        };
+    }
+}
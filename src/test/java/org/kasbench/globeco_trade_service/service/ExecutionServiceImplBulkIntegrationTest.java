@@ -10,6 +10,7 @@ import org.kasbench.globeco_trade_service.service.ExecutionService.ExecutionSubm
 import org.kasbench.globeco_trade_service.service.ExecutionService.SubmitResult;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.RestTemplate;
 
@@ -68,7 +69,9 @@ public class ExecutionServiceImplBulkIntegrationTest {
             destinationRepository,
             restTemplate,
             retryTemplate,
-            bulkExecutionSubmissionService
+            bulkExecutionSubmissionService,
+            new ExecutionServiceIdIndex(1000),
+            new TradeOrderFillRollup(tradeOrderRepository, executionStatusRepository, mock(CacheManager.class))
         );
     }
 
@@ -102,6 +105,31 @@ public class ExecutionServiceImplBulkIntegrationTest {
         verify(bulkExecutionSubmissionService).submitExecutionsBulk(Arrays.asList(executionId));
     }
 
+    @Test
+    void testSubmitExecution_QueuedForRetry_ReportsQueuedNotError() {
+        // Arrange
+        Integer executionId = 123;
+        
+        org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult batchResult = 
+            new org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.ExecutionSubmitResult(
+                executionId, "QUEUED", "Queued for retry: Execution service circuit is open", null
+            );
+        
+        org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult bulkResult = 
+            new org.kasbench.globeco_trade_service.service.ExecutionBatchProcessor.BulkSubmitResult(
+                1, 0, 1, Arrays.asList(batchResult), "FAILED", "Queued for retry: Execution service circuit is open"
+            );
+        
+        when(bulkExecutionSubmissionService.submitExecutionsBulk(anyList())).thenReturn(bulkResult);
+
+        // Act
+        SubmitResult result = executionService.submitExecution(executionId);
+
+        // Assert
+        assertEquals("queued", result.getStatus());
+        assertNull(result.getError());
+    }
+
     @Test
     void testSubmitExecution_HandlesFailureFromBulkProcessor() {
         // Arrange
@@ -44,6 +44,8 @@ public class ExecutionServiceImplTest extends org.kasbench.globeco_trade_service
     @Autowired
     private CacheManager cacheManager;
     @Autowired
+    private ExecutionServiceIdIndex executionServiceIdIndex;
+    @Autowired
     @Qualifier("executionServiceRestTemplate")
     private RestTemplate restTemplate;
     @Autowired
@@ -210,6 +212,60 @@ public class ExecutionServiceImplTest extends org.kasbench.globeco_trade_service
         assertNull(cacheManager.getCache("executions").get(SimpleKey.EMPTY));
     }
 
+    @Test
+    void testResolveExecutionIdByServiceId() {
+        int serviceId = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE - 1);
+        Execution execution = buildExecution();
+        execution.setExecutionServiceId(serviceId);
+        Execution created = executionService.createExecution(execution);
+        assertEquals(Optional.of(created.getId()), executionService.resolveExecutionId(serviceId));
+
+        created.setExecutionServiceId(serviceId + 1);
+        executionService.updateExecution(created.getId(), created);
+        assertTrue(executionService.resolveExecutionId(serviceId).isEmpty());
+        assertEquals(Optional.of(created.getId()), executionService.resolveExecutionId(serviceId + 1));
+    }
+
+    @Test
+    void testGetExecutionByServiceIdDropsStaleIndexEntry() {
+        int serviceId = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE - 1);
+        Execution execution = buildExecution();
+        execution.setExecutionServiceId(serviceId);
+        Execution target = executionService.createExecution(execution);
+        Execution other = executionService.createExecution(buildExecution());
+        // As if another replica had moved the execution service ID without this replica hearing of it
+        executionServiceIdIndex.record(serviceId, other.getId());
+
+        Optional<Execution> found = executionService.getExecutionByServiceId(serviceId);
+
+        assertEquals(target.getId(), found.orElseThrow().getId());
+        assertEquals(Optional.of(target.getId()), executionServiceIdIndex.lookup(serviceId));
+    }
+
+    @Test
+    void testFillExecutionByServiceIdIgnoresStaleIndexEntry() {
+        ExecutionStatus partStatus = new ExecutionStatus();
+        partStatus.setAbbreviation("PART" + System.nanoTime());
+        partStatus.setDescription("Partially Filled");
+        partStatus = executionStatusRepository.save(partStatus);
+        int serviceId = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE - 1);
+        Execution execution = buildExecution();
+        execution.setExecutionServiceId(serviceId);
+        Execution target = executionService.createExecution(execution);
+        Execution other = executionService.createExecution(buildExecution());
+        executionServiceIdIndex.record(serviceId, other.getId());
+
+        ExecutionPutFillDTO fillDTO = new ExecutionPutFillDTO();
+        fillDTO.setExecutionStatus(partStatus.getAbbreviation());
+        fillDTO.setQuantityFilled(new BigDecimal("50.00"));
+        fillDTO.setVersion(target.getVersion());
+        Execution updated = executionService.fillExecutionByServiceId(serviceId, fillDTO);
+
+        assertEquals(target.getId(), updated.getId());
+        assertEquals(new BigDecimal("50.00"), updated.getQuantityFilled());
+        assertEquals(other.getVersion(), executionService.getExecutionById(other.getId()).orElseThrow().getVersion());
+    }
+
     @Test
     void testSubmitExecutionSuccess() {
         Execution execution = buildExecution();
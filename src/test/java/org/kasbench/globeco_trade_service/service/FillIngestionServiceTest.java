@@ -0,0 +1,279 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.ExecutionFillDTO;
+import org.kasbench.globeco_trade_service.entity.ExecutionStatus;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
+import org.kasbench.globeco_trade_service.repository.ExecutionRepositoryCustom.FillUpdate;
+import org.kasbench.globeco_trade_service.repository.ExecutionStatusRepository;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FillIngestionServiceTest {
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private ExecutionStatusRepository executionStatusRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache executionsCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TradeOrderFillRollup tradeOrderFillRollup;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FillIngestionService ingestionService;
+    private FillIngestionService.Receipt receipt;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ExecutionStatus partial = new ExecutionStatus();
+        partial.setId(2);
+        partial.setAbbreviation("PART");
+        ExecutionStatus full = new ExecutionStatus();
+        full.setId(3);
+        full.setAbbreviation("FULL");
+        when(executionStatusRepository.findAll()).thenReturn(List.of(partial, full));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(cacheManager.getCache("executions")).thenReturn(executionsCache);
+        when(tradeOrderFillRollup.changes()).thenAnswer(invocation -> mock(TradeOrderFillRollup.Changes.class,
+                Answers.RETURNS_SELF));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+    }
+
+    private FillIngestionService newService(boolean enabled, long flushWindowMs) {
+        return newService(enabled, flushWindowMs, 5000);
+    }
+
+    private FillIngestionService newService(boolean enabled, long flushWindowMs, long shutdownTimeoutMs) {
+        FillIngestionService service = new FillIngestionService(executionRepository, executionStatusRepository,
+                cacheManager, tradeOrderFillRollup, transactionManager, meterRegistry, enabled, 1, 100, 100,
+                flushWindowMs, 2000, 2, 10, 5000, shutdownTimeoutMs);
+        receipt = service.newReceipt();
+        sequence = 0;
+        return service;
+    }
+
+    private FillIngestionService.SubmitOutcome submit(ExecutionFillDTO fill) {
+        return ingestionService.submit(fill, receipt, sequence++);
+    }
+
+    private static ExecutionRepository.FillState fillState(int id, String quantityFilled, int statusId) {
+        ExecutionRepository.FillState state = mock(ExecutionRepository.FillState.class);
+        when(state.getId()).thenReturn(id);
+        when(state.getVersion()).thenReturn(5);
+        when(state.getQuantityPlaced()).thenReturn(new BigDecimal("100"));
+        when(state.getQuantityFilled()).thenReturn(new BigDecimal(quantityFilled));
+        when(state.getExecutionStatusId()).thenReturn(statusId);
+        when(state.getTradeOrderId()).thenReturn(1000 + id);
+        return state;
+    }
+
+    @Test
+    void submit_CoalescesSupersededFillsWithinWindow() {
+        // Given
+        ExecutionRepository.FillState first = fillState(1, "0", 2);
+        ExecutionRepository.FillState second = fillState(2, "0", 2);
+        when(executionRepository.lockFillStates(anyList())).thenReturn(List.of(first, second));
+        when(executionRepository.applyFills(anyList()))
+                .thenAnswer(invocation -> new boolean[((List<?>) invocation.getArgument(0)).size()]);
+        ingestionService = newService(true, 500);
+
+        // When
+        assertThat(submit(new ExecutionFillDTO(1, "PART", new BigDecimal("10"), null)))
+                .isEqualTo(FillIngestionService.SubmitOutcome.QUEUED);
+        submit(new ExecutionFillDTO(2, "PART", new BigDecimal("5"), null));
+        submit(new ExecutionFillDTO(1, "FULL", new BigDecimal("100"), null));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FillUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(executionRepository, timeout(5000)).applyFills(captor.capture());
+        List<FillUpdate> flushed = captor.getValue();
+        assertThat(flushed).extracting(FillUpdate::getId).containsExactly(1, 2);
+        assertThat(flushed.get(0).getQuantityFilled()).isEqualByComparingTo("100");
+        assertThat(flushed.get(0).getExecutionStatusId()).isEqualTo(3);
+        assertThat(flushed.get(0).getExpectedVersion()).isEqualTo(5);
+        verify(tradeOrderFillRollup, timeout(5000)).apply(any());
+        assertThat(meterRegistry.counter("fills.ingest.coalesced").count()).isEqualTo(1.0);
+        ingestionService.awaitSettled(receipt);
+        assertThat(receipt.getCommitted()).isEqualTo(3);
+        assertThat(receipt.firstUncommitted()).isEqualTo(-1);
+    }
+
+    @Test
+    void submit_RetriesThenIsolatesTheFillThatFailsItsBatch() {
+        // Given
+        ExecutionRepository.FillState failing = fillState(1, "0", 2);
+        ExecutionRepository.FillState healthy = fillState(2, "0", 2);
+        when(executionRepository.lockFillStates(anyList())).thenReturn(List.of(failing, healthy));
+        when(executionRepository.applyFills(anyList())).thenAnswer(invocation -> {
+            List<FillUpdate> updates = invocation.getArgument(0);
+            if (updates.stream().anyMatch(update -> update.getId() == 1)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return new boolean[updates.size()];
+        });
+        ingestionService = newService(true, 200);
+
+        // When
+        submit(new ExecutionFillDTO(1, "PART", new BigDecimal("10"), null));
+        submit(new ExecutionFillDTO(2, "PART", new BigDecimal("5"), null));
+        ingestionService.awaitSettled(receipt);
+
+        // Then
+        // Two attempts at the batch, then one per execution
+        verify(executionRepository, times(4)).applyFills(anyList());
+        assertThat(receipt.getCommitted()).isEqualTo(1);
+        assertThat(receipt.firstUncommitted()).isEqualTo(0);
+        assertThat(meterRegistry.counter("fills.ingest.flushed", "outcome", "failed").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("fills.ingest.flush.retried").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shutdown_SettlesFillsLeftQueuedAsNotAccepted() throws InterruptedException {
+        // Given
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutionRepository.FillState state = fillState(1, "0", 2);
+        when(executionRepository.lockFillStates(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(state);
+        });
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[] {true});
+        ingestionService = newService(true, 10, 100);
+
+        try {
+            submit(new ExecutionFillDTO(1, "PART", new BigDecimal("10"), null));
+            assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+            submit(new ExecutionFillDTO(1, "PART", new BigDecimal("20"), null));
+
+            // When
+            ingestionService.shutdown();
+        } finally {
+            release.countDown();
+        }
+        ingestionService.awaitSettled(receipt);
+
+        // Then
+        assertThat(ingestionService.getQueuedCount()).isZero();
+        assertThat(receipt.getCommitted()).isEqualTo(1);
+        assertThat(receipt.firstUncommitted()).isEqualTo(1);
+        assertThat(meterRegistry.counter("fills.ingest.flushed", "outcome", "failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_InvalidatesCacheOnlyWhenRowsApplied() {
+        // Given
+        ExecutionRepository.FillState state = fillState(7, "0", 2);
+        when(executionRepository.lockFillStates(anyList())).thenReturn(List.of(state));
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[] {true});
+        ingestionService = newService(true, 10);
+
+        // When
+        submit(new ExecutionFillDTO(7, "PART", new BigDecimal("10"), null));
+
+        // Then
+        verify(executionsCache, timeout(5000)).clear();
+    }
+
+    @Test
+    void submit_AcceptsStaleFillsAndFailsUnknownOrPastPlaced() {
+        // Given
+        ExecutionRepository.FillState behind = fillState(1, "50", 2);
+        ExecutionRepository.FillState placed = fillState(2, "0", 2);
+        when(executionRepository.lockFillStates(anyList())).thenReturn(List.of(behind, placed));
+        when(executionRepository.applyFills(anyList())).thenReturn(new boolean[0]);
+        ingestionService = newService(true, 200);
+
+        // When
+        submit(new ExecutionFillDTO(1, "PART", new BigDecimal("30"), null));
+        submit(new ExecutionFillDTO(2, "FULL", new BigDecimal("150"), null));
+        submit(new ExecutionFillDTO(3, "PART", new BigDecimal("10"), null));
+        ingestionService.awaitSettled(receipt);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FillUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(executionRepository).applyFills(captor.capture());
+        assertThat(captor.getValue()).isEmpty();
+        verify(executionsCache, never()).clear();
+        // Only the fill a later fill has superseded counts as accepted
+        assertThat(receipt.getCommitted()).isEqualTo(1);
+        assertThat(receipt.firstUncommitted()).isEqualTo(1);
+        assertThat(meterRegistry.counter("fills.ingest.flushed", "outcome", "rejected").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("fills.ingest.flushed", "outcome", "stale").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_RejectsInvalidFills() {
+        // Given
+        ingestionService = newService(true, 10);
+
+        // When / Then
+        assertThat(submit(new ExecutionFillDTO(null, "PART", BigDecimal.ONE, null)))
+                .isEqualTo(FillIngestionService.SubmitOutcome.INVALID);
+        assertThat(submit(new ExecutionFillDTO(1, "UNKNOWN", BigDecimal.ONE, null)))
+                .isEqualTo(FillIngestionService.SubmitOutcome.INVALID);
+        assertThat(submit(new ExecutionFillDTO(1, "PART", new BigDecimal("-1"), null)))
+                .isEqualTo(FillIngestionService.SubmitOutcome.INVALID);
+        verify(executionRepository, never()).applyFills(anyList());
+    }
+
+    @Test
+    void submit_RefusesWhenDisabled() {
+        // Given
+        ingestionService = newService(false, 10);
+
+        // When / Then
+        assertThat(ingestionService.isEnabled()).isFalse();
+        assertThat(submit(new ExecutionFillDTO(1, "PART", BigDecimal.ONE, null)))
+                .isEqualTo(FillIngestionService.SubmitOutcome.REJECTED);
+    }
+}
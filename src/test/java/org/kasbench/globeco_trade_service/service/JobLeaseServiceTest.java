@@ -0,0 +1,65 @@
+package org.kasbench.globeco_trade_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.kasbench.globeco_trade_service.AbstractH2Test;
+import org.kasbench.globeco_trade_service.entity.JobLease;
+import org.kasbench.globeco_trade_service.repository.JobLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobLeaseServiceTest extends AbstractH2Test {
+    private static final String PREFIX = "lease-test:";
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jobLeaseRepository.deleteAll(jobLeaseRepository.findAll().stream()
+                .filter(lease -> lease.getName().startsWith(PREFIX))
+                .toList());
+    }
+
+    @Test
+    void tryAcquire_HeldLeaseIsRenewedByOwnerOnly() {
+        // Given
+        JobLeaseService first = new JobLeaseService(jobLeaseRepository, transactionManager, "first");
+        JobLeaseService second = new JobLeaseService(jobLeaseRepository, transactionManager, "second");
+        assertThat(first.tryAcquire(PREFIX + "a", Duration.ofSeconds(30))).isTrue();
+
+        // When
+        boolean renewed = first.tryAcquire(PREFIX + "a", Duration.ofSeconds(30));
+        boolean takenOver = second.tryAcquire(PREFIX + "a", Duration.ofSeconds(30));
+
+        // Then
+        assertThat(renewed).isTrue();
+        assertThat(takenOver).isFalse();
+        assertThat(first.getLiveLeases(PREFIX)).extracting(JobLease::getOwner).containsExactly(first.getOwnerId());
+    }
+
+    @Test
+    void tryAcquire_ExpiredLeaseIsTakenOverAndPurged() throws InterruptedException {
+        // Given
+        JobLeaseService first = new JobLeaseService(jobLeaseRepository, transactionManager, "first");
+        JobLeaseService second = new JobLeaseService(jobLeaseRepository, transactionManager, "second");
+        first.tryAcquire(PREFIX + "a", Duration.ofMillis(10));
+        first.tryAcquire(PREFIX + "b", Duration.ofMillis(10));
+        Thread.sleep(50);
+
+        // When
+        boolean takenOver = second.tryAcquire(PREFIX + "a", Duration.ofSeconds(30));
+        second.purgeExpired(PREFIX, Duration.ZERO);
+
+        // Then
+        assertThat(takenOver).isTrue();
+        assertThat(jobLeaseRepository.findById(PREFIX + "b")).isEmpty();
+        assertThat(second.getLiveLeases(PREFIX)).extracting(JobLease::getOwner).containsExactly(second.getOwnerId());
+    }
+}
@@ -0,0 +1,173 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.PartitionOwnershipDTO;
+import org.kasbench.globeco_trade_service.entity.JobLease;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionCoordinatorTest {
+
+    private static final int PARTITIONS = 16;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    private PartitionCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new PartitionCoordinator(jobLeaseService, new SimpleMeterRegistry(), PARTITIONS, 30000, 5000);
+        lenient().when(jobLeaseService.getOwnerId()).thenReturn("replica-a");
+        lenient().when(jobLeaseService.tryAcquire(anyString(), any())).thenReturn(true);
+    }
+
+    @Test
+    void getAssignment_BeforeFirstHeartbeat_IsEmpty() {
+        assertTrue(coordinator.getAssignment().isEmpty());
+    }
+
+    @Test
+    void rebalance_OnlyReplica_OwnsAllPartitions() {
+        // Given
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX)).thenReturn(List.of(member("replica-a", 30)));
+
+        // When
+        coordinator.rebalance();
+
+        // Then
+        assertEquals(PARTITIONS, coordinator.getAssignment().getPartitions().size());
+        verify(jobLeaseService).tryAcquire(eq(PartitionCoordinator.MEMBER_PREFIX + "replica-a"), any());
+    }
+
+    @Test
+    void rebalance_ReplicaJoins_ReleasesPartitionsAssignedToIt() {
+        // Given
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX))
+                .thenReturn(List.of(member("replica-a", 30)), List.of(member("replica-a", 30), member("replica-b", 30)));
+        coordinator.rebalance();
+
+        // When
+        coordinator.rebalance();
+
+        // Then
+        Set<Integer> owned = coordinator.getAssignment().getPartitions();
+        assertTrue(owned.size() > 0 && owned.size() < PARTITIONS);
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            if (owned.contains(partition)) {
+                assertEquals("replica-a", PartitionCoordinator.assign(partition, List.of("replica-a", "replica-b")));
+            } else {
+                verify(jobLeaseService).release(PartitionCoordinator.PARTITION_PREFIX + partition);
+            }
+        }
+    }
+
+    @Test
+    void getAssignment_EmptyOnceWithinExpiryMarginOfLeases() {
+        // Given
+        PartitionCoordinator shortLived = new PartitionCoordinator(jobLeaseService, new SimpleMeterRegistry(), PARTITIONS, 1000, 999);
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX)).thenReturn(List.of(member("replica-a", 30)));
+
+        // When
+        shortLived.rebalance();
+
+        // Then
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            while (!shortLived.getAssignment().isEmpty()) {
+                Thread.onSpinWait();
+            }
+        });
+    }
+
+    @Test
+    void rebalance_PartitionStillHeldElsewhere_IsNotOwnedYet() {
+        // Given
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX)).thenReturn(List.of(member("replica-a", 30)));
+        when(jobLeaseService.tryAcquire(eq(PartitionCoordinator.PARTITION_PREFIX + 3), any())).thenReturn(false);
+
+        // When
+        coordinator.rebalance();
+
+        // Then
+        assertEquals(PARTITIONS - 1, coordinator.getAssignment().getPartitions().size());
+        assertFalse(coordinator.getAssignment().getPartitions().contains(3));
+    }
+
+    @Test
+    void assign_ReplicaLeaving_MovesOnlyItsPartitions() {
+        // Given
+        List<String> before = List.of("replica-a", "replica-b", "replica-c", "replica-d");
+        List<String> after = List.of("replica-a", "replica-b", "replica-c");
+
+        // When / Then
+        Set<String> owners = new HashSet<>();
+        for (int partition = 0; partition < 256; partition++) {
+            String owner = PartitionCoordinator.assign(partition, before);
+            owners.add(owner);
+            if (!owner.equals("replica-d")) {
+                assertEquals(owner, PartitionCoordinator.assign(partition, after));
+            }
+        }
+        assertEquals(Set.copyOf(before), owners);
+    }
+
+    @Test
+    void getOwnership_ReportsLivePartitionLeases() {
+        // Given
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX)).thenReturn(List.of(member("replica-a", 30)));
+        coordinator.rebalance();
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.PARTITION_PREFIX)).thenReturn(List.of(
+                lease(PartitionCoordinator.PARTITION_PREFIX + 0, "replica-a", 30)));
+
+        // When
+        PartitionOwnershipDTO ownership = coordinator.getOwnership();
+
+        // Then
+        assertEquals("replica-a", ownership.getReplicaId());
+        assertEquals(List.of("replica-a"), ownership.getLiveReplicas());
+        assertEquals(PARTITIONS, ownership.getOwnedPartitions().size());
+        assertEquals("replica-a", ownership.getPartitionOwners().get(0));
+        assertFalse(ownership.getPartitionOwners().containsKey(1));
+    }
+
+    @Test
+    void shutdown_ReleasesPartitionsAndMembership() {
+        // Given
+        when(jobLeaseService.getLiveLeases(PartitionCoordinator.MEMBER_PREFIX)).thenReturn(List.of(member("replica-a", 30)));
+        coordinator.rebalance();
+
+        // When
+        coordinator.shutdown();
+
+        // Then
+        assertTrue(coordinator.getAssignment().isEmpty());
+        verify(jobLeaseService).release(PartitionCoordinator.PARTITION_PREFIX + 0);
+        verify(jobLeaseService).release(PartitionCoordinator.MEMBER_PREFIX + "replica-a");
+    }
+
+    private static JobLease member(String owner, int expiresInSeconds) {
+        return lease(PartitionCoordinator.MEMBER_PREFIX + owner, owner, expiresInSeconds);
+    }
+
+    private static JobLease lease(String name, String owner, int expiresInSeconds) {
+        JobLease lease = new JobLease();
+        lease.setName(name);
+        lease.setOwner(owner);
+        lease.setExpiresAt(OffsetDateTime.now().plusSeconds(expiresInSeconds));
+        return lease;
+    }
+}
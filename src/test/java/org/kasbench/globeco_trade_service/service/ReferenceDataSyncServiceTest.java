@@ -0,0 +1,169 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.security.Security;
+import org.kasbench.globeco_trade_service.security.SecurityService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataSyncServiceTest {
+
+    @Mock
+    private ReferenceDataStore referenceDataStore;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private BatchCacheLoadingService batchCacheLoadingService;
+
+    @Mock
+    private PortfolioReferenceRepository portfolioReferenceRepository;
+
+    private ReferenceDataIndex referenceDataIndex;
+    private ReferenceDataSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataIndex = new ReferenceDataIndex(100, 1);
+        syncService = new ReferenceDataSyncService(
+                referenceDataIndex, referenceDataStore, securityService, batchCacheLoadingService,
+                portfolioReferenceRepository, new SimpleMeterRegistry(), 100, 500, 3600000, 1000);
+    }
+
+    @Test
+    void replicatePendingChanges_WritesNewMappingsOnce() {
+        // Given
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC001", "AAPL"));
+        referenceDataIndex.recordPortfolio(new PortfolioDTO("PORT001", "Growth Fund"));
+
+        // When
+        syncService.replicatePendingChanges();
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC001", "AAPL"));
+
+        // Then
+        verify(referenceDataStore).upsertSecurities(Map.of("SEC001", "AAPL"));
+        verify(referenceDataStore).upsertPortfolios(Map.of("PORT001", "Growth Fund"));
+        assertThat(referenceDataIndex.drainPendingSecurities()).isEmpty();
+    }
+
+    @Test
+    void replicatePendingChanges_DropsChangesBeyondBound() {
+        // Given
+        referenceDataIndex.enableChangeTracking(1);
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC001", "AAPL"));
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC002", "MSFT"));
+
+        // Then
+        assertThat(referenceDataIndex.drainPendingSecurities()).containsOnlyKeys("SEC001");
+    }
+
+    @Test
+    void fullRefresh_ReplicatesSecurityMasterAndStalePortfolios() {
+        // Given
+        Security security = new Security();
+        security.setSecurityId("SEC001");
+        security.setTicker("AAPL");
+        when(securityService.getSecurities()).thenReturn(List.of(security));
+        when(portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), any(String.class), any(Pageable.class)))
+                .thenReturn(List.of("PORT001", "PORT002"));
+        when(batchCacheLoadingService.batchLoadPortfolios(any())).thenReturn(CompletableFuture.completedFuture(Map.of(
+                "PORT001", new PortfolioDTO("PORT001", "Growth Fund"),
+                "PORT002", new PortfolioDTO("PORT002", "PORT002"))));
+
+        // When
+        syncService.fullRefresh();
+
+        // Then
+        verify(referenceDataStore).upsertSecurities(Map.of("SEC001", "AAPL"));
+        verify(referenceDataStore).upsertPortfolios(Map.of("PORT001", "Growth Fund"));
+    }
+
+    @Test
+    void fullRefresh_WritesOnlyChangedTickers() {
+        // Given
+        when(securityService.getSecurities()).thenReturn(List.of(
+                security("SEC001", "AAPL"), security("SEC002", "MSFT"), security("SEC003", "IBM")));
+        when(referenceDataStore.findSecurityTickers()).thenReturn(Map.of("SEC001", "AAPL", "SEC002", "MSFT.OLD"));
+        when(portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), any(String.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        syncService.fullRefresh();
+
+        // Then
+        verify(referenceDataStore).upsertSecurities(Map.of("SEC002", "MSFT", "SEC003", "IBM"));
+    }
+
+    @Test
+    void fullRefresh_PagesThroughEveryStalePortfolio() {
+        // Given - pages of two, with PORT002 only resolving to a fallback
+        syncService = new ReferenceDataSyncService(
+                referenceDataIndex, referenceDataStore, securityService, batchCacheLoadingService,
+                portfolioReferenceRepository, new SimpleMeterRegistry(), 100, 2, 3600000, 1000);
+        when(securityService.getSecurities()).thenReturn(List.of());
+        when(portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), eq(""), any(Pageable.class)))
+                .thenReturn(List.of("PORT001", "PORT002"));
+        when(portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), eq("PORT002"), any(Pageable.class)))
+                .thenReturn(List.of("PORT003"));
+        when(batchCacheLoadingService.batchLoadPortfolios(Set.of("PORT001", "PORT002"))).thenReturn(CompletableFuture.completedFuture(Map.of(
+                "PORT001", new PortfolioDTO("PORT001", "Growth Fund"),
+                "PORT002", new PortfolioDTO("PORT002", "PORT002"))));
+        when(batchCacheLoadingService.batchLoadPortfolios(Set.of("PORT003"))).thenReturn(CompletableFuture.completedFuture(Map.of(
+                "PORT003", new PortfolioDTO("PORT003", "Income Fund"))));
+
+        // When
+        syncService.fullRefresh();
+
+        // Then
+        verify(referenceDataStore).upsertPortfolios(Map.of("PORT001", "Growth Fund"));
+        verify(referenceDataStore).upsertPortfolios(Map.of("PORT003", "Income Fund"));
+        verify(portfolioReferenceRepository, times(2))
+                .findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    void fullRefresh_NoStalePortfoliosSkipsLookups() {
+        // Given
+        when(securityService.getSecurities()).thenReturn(List.of());
+        when(portfolioReferenceRepository.findPortfolioIdsNeedingRefresh(any(OffsetDateTime.class), any(String.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        syncService.fullRefresh();
+
+        // Then
+        verify(batchCacheLoadingService, never()).batchLoadPortfolios(any());
+        verify(referenceDataStore, never()).upsertPortfolios(anyMap());
+    }
+
+    private static Security security(String securityId, String ticker) {
+        Security security = new Security();
+        security.setSecurityId(securityId);
+        security.setTicker(ticker);
+        return security;
+    }
+}
@@ -0,0 +1,167 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.repository.SecurityReferenceRepository;
+import org.kasbench.globeco_trade_service.security.Security;
+import org.kasbench.globeco_trade_service.security.SecurityService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceFilterResolverTest {
+
+    @Mock
+    private SecurityCacheService securityCacheService;
+
+    @Mock
+    private PortfolioCacheService portfolioCacheService;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private PortfolioReferenceRepository portfolioReferenceRepository;
+
+    @Mock
+    private SecurityReferenceRepository securityReferenceRepository;
+
+    private ReferenceDataIndex referenceDataIndex;
+    private ReferenceMasterIndex referenceMasterIndex;
+    private ThreadPoolTaskExecutor enrichmentExecutor;
+    private ReferenceFilterResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataIndex = new ReferenceDataIndex(100, 1);
+        referenceMasterIndex = new ReferenceMasterIndex(
+                securityService, portfolioReferenceRepository, new SimpleMeterRegistry(), true);
+
+        enrichmentExecutor = new ThreadPoolTaskExecutor();
+        enrichmentExecutor.setCorePoolSize(4);
+        enrichmentExecutor.setMaxPoolSize(4);
+        enrichmentExecutor.setQueueCapacity(10);
+        enrichmentExecutor.initialize();
+
+        resolver = new ReferenceFilterResolver(
+                securityCacheService, portfolioCacheService, referenceDataIndex, referenceMasterIndex,
+                securityReferenceRepository, portfolioReferenceRepository, enrichmentExecutor, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrichmentExecutor.shutdown();
+    }
+
+    @Test
+    void resolveSecurityTickersToIds_IndexedTickersResolveWithoutRemoteCalls() {
+        // Given
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC001", "AAPL"));
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC002", "MSFT"));
+
+        // When
+        String ids = resolver.resolveSecurityTickersToIds("aapl, MSFT");
+
+        // Then
+        assertThat(ids).isEqualTo("SEC001,SEC002");
+        verify(securityCacheService, never()).getSecurityByTicker(anyString());
+    }
+
+    @Test
+    void resolveSecurityTickersToIds_MissesResolvedConcurrentlyInOrder() {
+        // Given
+        referenceDataIndex.recordSecurity(new SecurityDTO("SEC002", "MSFT"));
+        when(securityCacheService.getSecurityByTicker("AAPL")).thenReturn(new SecurityDTO("SEC001", "AAPL"));
+        when(securityCacheService.getSecurityByTicker("GOOGL")).thenReturn(new SecurityDTO("SEC003", "GOOGL"));
+
+        // When
+        String ids = resolver.resolveSecurityTickersToIds("AAPL,MSFT,GOOGL,AAPL");
+
+        // Then
+        assertThat(ids).isEqualTo("SEC001,SEC002,SEC003");
+    }
+
+    @Test
+    void resolveSecurityTickersToIds_SecurityMasterAnswersIndexMisses() {
+        // Given
+        Security security = new Security();
+        security.setSecurityId("SEC003");
+        security.setTicker("GOOGL");
+        when(securityService.getSecurities()).thenReturn(List.of(security));
+        referenceMasterIndex.refreshSecurities();
+
+        // When
+        String ids = resolver.resolveSecurityTickersToIds("googl");
+
+        // Then
+        assertThat(ids).isEqualTo("SEC003");
+        verify(securityCacheService, never()).getSecurityByTicker(anyString());
+    }
+
+    @Test
+    void resolvePortfolioNamesToIds_FailedLookupPassesNameThrough() {
+        // Given
+        referenceDataIndex.recordPortfolio(new PortfolioDTO("PORT001", "Growth Fund"));
+        when(portfolioCacheService.getPortfolioByName("Tech Portfolio"))
+                .thenThrow(new RuntimeException("Service unavailable"));
+
+        // When
+        String ids = resolver.resolvePortfolioNamesToIds("Growth Fund,Tech Portfolio");
+
+        // Then
+        assertThat(ids).isEqualTo("PORT001,Tech Portfolio");
+    }
+
+    @Test
+    void resolveUnreplicatedSecurityTickers_ResolvesOnlyTickersMissingFromReferenceTable() {
+        // Given
+        when(securityReferenceRepository.findReplicatedTickers(List.of("AAPL", "GOOGL"))).thenReturn(List.of("AAPL"));
+        when(securityCacheService.getSecurityByTicker("GOOGL")).thenReturn(new SecurityDTO("SEC003", "GOOGL"));
+
+        // When
+        List<String> ids = resolver.resolveUnreplicatedSecurityTickers("aapl,GOOGL");
+
+        // Then
+        assertThat(ids).containsExactly("SEC003");
+        verify(securityCacheService, never()).getSecurityByTicker("aapl");
+    }
+
+    @Test
+    void resolveUnreplicatedPortfolioNames_EmptyWhenEveryNameIsReplicated() {
+        // Given
+        when(portfolioReferenceRepository.findReplicatedNames(List.of("Growth Fund"))).thenReturn(List.of("Growth Fund"));
+
+        // When
+        List<String> ids = resolver.resolveUnreplicatedPortfolioNames("Growth Fund");
+
+        // Then
+        assertThat(ids).isEmpty();
+        verify(portfolioCacheService, never()).getPortfolioByName(anyString());
+    }
+
+    @Test
+    void referenceDataIndex_IgnoresFallbackDtos() {
+        // When
+        referenceDataIndex.recordSecurity(new SecurityDTO("UNKNOWN", "UNKNOWN"));
+        referenceDataIndex.recordPortfolio(new PortfolioDTO("Growth Fund", "Growth Fund"));
+
+        // Then
+        assertThat(referenceDataIndex.findSecurityIdByTicker("UNKNOWN")).isEmpty();
+        assertThat(referenceDataIndex.findPortfolioIdByName("Growth Fund")).isEmpty();
+    }
+}
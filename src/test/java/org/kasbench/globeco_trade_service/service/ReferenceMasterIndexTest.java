@@ -0,0 +1,115 @@
+package org.kasbench.globeco_trade_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kasbench.globeco_trade_service.dto.PortfolioDTO;
+import org.kasbench.globeco_trade_service.dto.SecurityDTO;
+import org.kasbench.globeco_trade_service.entity.PortfolioReference;
+import org.kasbench.globeco_trade_service.repository.PortfolioReferenceRepository;
+import org.kasbench.globeco_trade_service.security.Security;
+import org.kasbench.globeco_trade_service.security.SecurityService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceMasterIndexTest {
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private PortfolioReferenceRepository portfolioReferenceRepository;
+
+    private ReferenceMasterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReferenceMasterIndex(securityService, portfolioReferenceRepository, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void findSecurities_LookupsAnsweredFromSnapshot() {
+        // Given
+        when(securityService.getSecurities()).thenReturn(List.of(
+                security("SEC003", "MSFT"), security("SEC001", "AAPL"), security("SEC002", "AAL"), security("SEC004", "MSFT.L")));
+
+        // When
+        index.refresh();
+
+        // Then
+        assertThat(index.isSecurityMasterLoaded()).isTrue();
+        assertThat(index.getSecurityCount()).isEqualTo(4);
+        assertThat(index.findSecurityById("SEC001")).contains(new SecurityDTO("SEC001", "AAPL"));
+        assertThat(index.findSecurityByTicker(" aapl ")).contains(new SecurityDTO("SEC001", "AAPL"));
+        assertThat(index.findSecurityByTicker("msft.l")).contains(new SecurityDTO("SEC004", "MSFT.L"));
+        assertThat(index.findSecurityByTicker("MSF")).isEmpty();
+    }
+
+    @Test
+    void findPortfolios_LookupsByIdAndExactName() {
+        // Given
+        when(portfolioReferenceRepository.findAll()).thenReturn(List.of(
+                portfolio("PORT001", "Growth Fund"), portfolio("PORT002", "Global Growth")));
+
+        // When
+        index.refreshPortfolios();
+
+        // Then
+        assertThat(index.findPortfolioByName("Growth Fund")).contains(new PortfolioDTO("PORT001", "Growth Fund"));
+        assertThat(index.findPortfolioById("PORT002")).contains(new PortfolioDTO("PORT002", "Global Growth"));
+        assertThat(index.findPortfolioByName("Growth")).isEmpty();
+    }
+
+    @Test
+    void refresh_FailureKeepsPreviousSnapshot() {
+        // Given
+        when(securityService.getSecurities())
+                .thenReturn(List.of(security("SEC001", "AAPL")))
+                .thenThrow(new RuntimeException("Service unavailable"));
+        index.refresh();
+
+        // When
+        index.refresh();
+
+        // Then
+        assertThat(index.findSecurityByTicker("AAPL")).contains(new SecurityDTO("SEC001", "AAPL"));
+    }
+
+    @Test
+    void refresh_DisabledIndexStaysEmpty() {
+        // Given
+        ReferenceMasterIndex disabled = new ReferenceMasterIndex(
+                securityService, portfolioReferenceRepository, new SimpleMeterRegistry(), false);
+
+        // When
+        disabled.refresh();
+
+        // Then
+        assertThat(disabled.isSecurityMasterLoaded()).isFalse();
+        assertThat(disabled.findSecurityByTicker("AAPL")).isEmpty();
+        verify(securityService, never()).getSecurities();
+    }
+
+    private Security security(String securityId, String ticker) {
+        Security security = new Security();
+        security.setSecurityId(securityId);
+        security.setTicker(ticker);
+        return security;
+    }
+
+    private PortfolioReference portfolio(String portfolioId, String name) {
+        PortfolioReference portfolio = new PortfolioReference();
+        portfolio.setPortfolioId(portfolioId);
+        portfolio.setName(name);
+        return portfolio;
+    }
+}
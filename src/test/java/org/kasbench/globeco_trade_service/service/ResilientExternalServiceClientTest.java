@@ -48,7 +48,8 @@ class ResilientExternalServiceClientTest {
             securityServiceCircuitBreaker,
             portfolioServiceCircuitBreaker,
             securityCacheService,
-            portfolioCacheService
+            portfolioCacheService,
+            new ReferenceDataIndex(100, 1)
         );
     }
     
@@ -21,12 +21,14 @@ class SecurityCacheServiceTest {
     @Mock
     private SecurityServiceClient securityServiceClient;
 
+    private ReferenceDataIndex referenceDataIndex;
     private SecurityCacheService securityCacheService;
 
     @BeforeEach
     void setUp() {
         // Create service with short TTL for testing
-        securityCacheService = new SecurityCacheService(securityServiceClient, 1, 100);
+        referenceDataIndex = new ReferenceDataIndex(100, 1);
+        securityCacheService = new SecurityCacheService(securityServiceClient, referenceDataIndex, 1, 100);
     }
 
     @Test
@@ -271,4 +273,29 @@ class SecurityCacheServiceTest {
         assertTrue(hitRate >= 0.0 && hitRate <= 100.0, 
                 "Hit rate should be between 0.0 and 100.0, but was: " + hitRate);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testGetSecurityById_FeedsReferenceIndex() {
+        // Arrange
+        when(securityServiceClient.findSecurityById("SEC123"))
+                .thenReturn(Optional.of(new SecurityDTO("SEC123", "AAPL")));
+
+        // Act
+        securityCacheService.getSecurityById("SEC123");
+
+        // Assert
+        assertEquals(Optional.of("SEC123"), referenceDataIndex.findSecurityIdByTicker("aapl"));
+    }
+
+    @Test
+    void testGetSecurityByTicker_FallbackNotIndexed() {
+        // Arrange
+        when(securityServiceClient.findSecurityByTicker("NOPE")).thenReturn(Optional.empty());
+
+        // Act
+        securityCacheService.getSecurityByTicker("NOPE");
+
+        // Assert
+        assertTrue(referenceDataIndex.findSecurityIdByTicker("NOPE").isEmpty());
+    }
+}
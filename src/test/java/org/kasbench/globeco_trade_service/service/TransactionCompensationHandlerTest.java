@@ -1,5 +1,6 @@
 package org.kasbench.globeco_trade_service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,16 +8,24 @@ import org.kasbench.globeco_trade_service.entity.Execution;
 import org.kasbench.globeco_trade_service.entity.TradeOrder;
 import org.kasbench.globeco_trade_service.repository.ExecutionRepository;
 import org.kasbench.globeco_trade_service.repository.TradeOrderRepository;
-import org.mockito.InjectMocks;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepositoryCustom.SubmissionReversal;
+import org.kasbench.globeco_trade_service.repository.TradeOrderRepositoryCustom.SubmissionState;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -32,7 +41,9 @@ class TransactionCompensationHandlerTest {
     @Mock
     private DeadLetterQueueService deadLetterQueueService;
     
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     private TransactionCompensationHandler compensationHandler;
     
     private Execution testExecution;
@@ -41,6 +52,8 @@ class TransactionCompensationHandlerTest {
     
     @BeforeEach
     void setUp() {
+        compensationHandler = newHandler(Runnable::run);
+        
         testExecution = new Execution();
         testExecution.setId(1);
         
@@ -135,24 +148,108 @@ class TransactionCompensationHandlerTest {
     
     @Test
     void testCompensateFailedSubmission_Success() {
+        // Given
+        when(tradeOrderRepository.restoreSubmissionStates(anyList())).thenReturn(new boolean[] {true});
+        
         // When
         CompletableFuture<Void> result = compensationHandler.compensateFailedSubmission(testExecution, testTradeOrderState);
         
         // Then
-        assertNotNull(result);
-        // Note: Since this is async, we can't easily test the completion without additional setup
-        // In a real test environment, you might use @Async test configuration or CompletableFuture.join()
+        assertTrue(result.isDone());
+        verify(executionRepository).deleteAllByIdInBatch(List.of(1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SubmissionState>> states = ArgumentCaptor.forClass(List.class);
+        verify(tradeOrderRepository).restoreSubmissionStates(states.capture());
+        assertEquals(100, states.getValue().get(0).getTradeOrderId());
+        assertEquals(new BigDecimal("50.00"), states.getValue().get(0).getQuantitySent());
+        assertEquals(false, states.getValue().get(0).getSubmitted());
+        verify(deadLetterQueueService, never()).send(any());
+    }
+    
+    @Test
+    void testCompensateFailedSubmission_QueuedCompensationsAppliedInOneBatch() {
+        // Given
+        List<Runnable> drains = new ArrayList<>();
+        compensationHandler = newHandler(drains::add);
+        Execution secondExecution = new Execution();
+        secondExecution.setId(2);
+        when(tradeOrderRepository.restoreSubmissionStates(anyList())).thenReturn(new boolean[] {true, true});
+        
+        // When
+        CompletableFuture<Void> first = compensationHandler.compensateFailedSubmission(testExecution, testTradeOrderState);
+        CompletableFuture<Void> second = compensationHandler.compensateFailedSubmission(secondExecution,
+                new TransactionCompensationHandler.TradeOrderState(101, BigDecimal.ZERO, false));
+        assertEquals(1, drains.size());
+        assertEquals(2, compensationHandler.getQueuedCount());
+        drains.get(0).run();
+        
+        // Then
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(0, compensationHandler.getQueuedCount());
+        verify(executionRepository).deleteAllByIdInBatch(List.of(1, 2));
+        verify(tradeOrderRepository, times(1)).restoreSubmissionStates(anyList());
     }
     
     @Test
     void testCompensateFailedSubmission_WithDeadLetterQueue() {
+        // Given - the batch finds no trade order, so the compensation is retried alone and dead-lettered
+        when(tradeOrderRepository.restoreSubmissionStates(anyList())).thenReturn(new boolean[] {false});
+        when(executionRepository.existsById(1)).thenReturn(false);
+        when(tradeOrderRepository.findById(100)).thenReturn(Optional.empty());
+        
         // When
         CompletableFuture<Void> result = compensationHandler.compensateFailedSubmission(testExecution, testTradeOrderState);
         
         // Then
-        assertNotNull(result);
-        // The dead letter queue service should be called when compensation fails
-        // Note: This would need additional async test setup to verify the DLQ call
+        assertTrue(result.isCompletedExceptionally());
+        ArgumentCaptor<CompensationFailedEvent> event = ArgumentCaptor.forClass(CompensationFailedEvent.class);
+        verify(deadLetterQueueService).send(event.capture());
+        assertEquals(1, event.getValue().getExecutionId());
+        assertEquals(100, event.getValue().getTradeOrderId());
+        assertEquals(new BigDecimal("50.00"), event.getValue().getOriginalQuantitySent());
+    }
+    
+    @Test
+    void testReverseFailedSubmissions_TakesExecutionQuantityOffTradeOrder() {
+        // Given
+        testExecution.setTradeOrder(testTradeOrder);
+        testExecution.setQuantityOrdered(new BigDecimal("25.00"));
+        when(executionRepository.findUnsubmittedForUpdate(List.of(1, 2))).thenReturn(List.of(testExecution));
+        when(tradeOrderRepository.reverseSubmissions(anyList())).thenReturn(new boolean[] {true});
+        
+        // When - execution 2 has been submitted since, so it is left alone
+        int[] outcome = compensationHandler.reverseFailedSubmissions(List.of(failedEvent(1), failedEvent(2)));
+        
+        // Then
+        assertArrayEquals(new int[] {1, 0, 1}, outcome);
+        verify(executionRepository).deleteAllByIdInBatch(List.of(1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SubmissionReversal>> reversals = ArgumentCaptor.forClass(List.class);
+        verify(tradeOrderRepository).reverseSubmissions(reversals.capture());
+        assertEquals(100, reversals.getValue().get(0).getTradeOrderId());
+        assertEquals(new BigDecimal("25.00"), reversals.getValue().get(0).getQuantity());
+        verify(tradeOrderRepository, never()).restoreSubmissionStates(anyList());
+        verify(deadLetterQueueService, never()).send(any());
+    }
+    
+    @Test
+    void testReverseFailedSubmissions_DeadLettersReversalsThatDoNotMatch() {
+        // Given - the trade order has sent less than the execution's quantity
+        testExecution.setTradeOrder(testTradeOrder);
+        testExecution.setQuantityOrdered(new BigDecimal("500.00"));
+        when(executionRepository.findUnsubmittedForUpdate(anyList())).thenReturn(List.of(testExecution));
+        when(tradeOrderRepository.reverseSubmissions(anyList())).thenReturn(new boolean[] {false});
+        
+        // When
+        int[] outcome = compensationHandler.reverseFailedSubmissions(List.of(failedEvent(1)));
+        
+        // Then
+        assertArrayEquals(new int[] {0, 1, 0}, outcome);
+        ArgumentCaptor<CompensationFailedEvent> event = ArgumentCaptor.forClass(CompensationFailedEvent.class);
+        verify(deadLetterQueueService).send(event.capture());
+        assertEquals(1, event.getValue().getExecutionId());
+        assertEquals(new BigDecimal("50.00"), event.getValue().getOriginalQuantitySent());
     }
     
     @Test
@@ -189,4 +286,14 @@ class TransactionCompensationHandlerTest {
         assertEquals(message, exception2.getMessage());
         assertEquals(cause, exception2.getCause());
     }
-}
\ No newline at end of file
+    
+    private static CompensationFailedEvent failedEvent(int executionId) {
+        return new CompensationFailedEvent(executionId, 100, new BigDecimal("50.00"), false,
+                "Compensation failed", OffsetDateTime.now());
+    }
+    
+    private TransactionCompensationHandler newHandler(Executor executor) {
+        return new TransactionCompensationHandler(executionRepository, tradeOrderRepository, deadLetterQueueService,
+                transactionManager, executor, new SimpleMeterRegistry(), 100, 50);
+    }
+}